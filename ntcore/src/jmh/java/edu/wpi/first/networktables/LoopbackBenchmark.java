@@ -0,0 +1,237 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.networktables;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long an update takes to travel from a NetworkTables server to its clients over
+ * loopback, with the server and all clients in one JVM.
+ *
+ * <p>Each operation sets every benchmark entry on the server and returns once every client's entry
+ * listener has received the update. The sample time mode reports the latency distribution,
+ * including percentiles, and the throughput mode reports the update rate at saturation. The GC
+ * profiler enabled by the jmh task reports allocation, and the cpu counter reports the CPU time
+ * used by the whole process, which includes the server's, the clients' and the listener threads.
+ *
+ * <p>The parameters can be set from the command line to compare configurations, for example
+ * {@code -PjmhInclude=LoopbackBenchmark -PjmhArgs="-p m_updateRate=0.01,0.1 -p m_flush=false"}.
+ * Results are written as JSON by the jmh task.
+ */
+@BenchmarkMode({Mode.SampleTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoopbackBenchmark {
+  private static final int kPort = 10020;
+  private static final long kTimeout = TimeUnit.SECONDS.toNanos(5);
+
+  /** Number of clients. */
+  @Param({"1", "4"})
+  public int m_clients;
+
+  /** Number of entries set in each update. */
+  @Param({"1", "100"})
+  public int m_entries;
+
+  /** Number of doubles in each value; 1 sets a double, more sets a double array. */
+  @Param({"1", "64"})
+  public int m_valueSize;
+
+  /** Periodic flush interval of the server and clients, in seconds. */
+  @Param({"0.1"})
+  public double m_updateRate;
+
+  /** Whether the server flushes immediately after each update. */
+  @Param({"true"})
+  public boolean m_flush;
+
+  private Path m_persistDir;
+  private NetworkTableInstance m_server;
+  private NetworkTableInstance[] m_clientInsts;
+  private NetworkTableEntry[] m_serverEntries;
+  private double[] m_array;
+
+  // Guarded by this; the listeners notify when the last client receives the current update
+  private long m_sequence;
+  private long[] m_received;
+  private int m_waiting;
+
+  /** CPU time used by the process during an iteration. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class CpuCounters {
+    /** Process CPU time used during the iteration, in milliseconds. */
+    public double m_cpuMillis;
+
+    private long m_start;
+
+    /** Records the CPU time at the start of the iteration. */
+    @Setup(Level.Iteration)
+    public void start() {
+      m_cpuMillis = 0;
+      m_start = processCpuTime();
+    }
+
+    /** Computes the CPU time used during the iteration. */
+    @TearDown(Level.Iteration)
+    public void stop() {
+      m_cpuMillis = (processCpuTime() - m_start) / 1e6;
+    }
+
+    private static long processCpuTime() {
+      var os = ManagementFactory.getOperatingSystemMXBean();
+      if (os instanceof com.sun.management.OperatingSystemMXBean) {
+        return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+      }
+      return 0;
+    }
+  }
+
+  /**
+   * Starts the server and clients and waits for every client to receive the entries.
+   *
+   * @throws IOException if the persistence directory can't be created
+   * @throws InterruptedException if interrupted while waiting for connections
+   */
+  @Setup(Level.Trial)
+  public void setup() throws IOException, InterruptedException {
+    m_persistDir = Files.createTempDirectory("loopbackbenchmark");
+    m_server = NetworkTableInstance.create();
+    m_server.setNetworkIdentity("server");
+    m_server.setUpdateRate(m_updateRate);
+    m_server.startServer(m_persistDir.resolve("networktables.ini").toString(), "127.0.0.1", kPort);
+
+    m_serverEntries = new NetworkTableEntry[m_entries];
+    for (int i = 0; i < m_entries; i++) {
+      m_serverEntries[i] = m_server.getEntry("/benchmark/" + i);
+    }
+    m_array = new double[m_valueSize];
+
+    m_received = new long[m_clients];
+    m_clientInsts = new NetworkTableInstance[m_clients];
+    for (int i = 0; i < m_clients; i++) {
+      final int client = i;
+      m_clientInsts[i] = NetworkTableInstance.create();
+      m_clientInsts[i].setNetworkIdentity("client" + i);
+      m_clientInsts[i].setUpdateRate(m_updateRate);
+      // The last entry is set last, so all entries of an update have arrived with it
+      m_clientInsts[i]
+          .getEntry("/benchmark/" + (m_entries - 1))
+          .addListener(
+              event -> received(client, sequenceOf(event.value)),
+              EntryListenerFlags.kNew | EntryListenerFlags.kUpdate);
+      m_clientInsts[i].startClient("127.0.0.1", kPort);
+    }
+
+    long deadline = System.nanoTime() + kTimeout;
+    while (m_server.getConnections().length < m_clients) {
+      if (System.nanoTime() > deadline) {
+        throw new IllegalStateException("clients didn't connect to server");
+      }
+      Thread.sleep(10);
+    }
+
+    // Create the entries on the clients
+    update();
+  }
+
+  /**
+   * Stops the clients and the server and deletes the persistence directory.
+   *
+   * @throws IOException if the persistence directory can't be deleted
+   */
+  @TearDown(Level.Trial)
+  public void teardown() throws IOException {
+    for (NetworkTableInstance client : m_clientInsts) {
+      client.close();
+    }
+    m_server.close();
+    // The server may also leave backup and temporary files next to the persistence file
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(m_persistDir)) {
+      for (Path file : files) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(m_persistDir);
+  }
+
+  /**
+   * Sets every entry on the server and waits until every client has received the update.
+   *
+   * @param cpu CPU time counter
+   * @throws InterruptedException if interrupted while waiting for the clients
+   */
+  @Benchmark
+  public void update(CpuCounters cpu) throws InterruptedException {
+    update();
+  }
+
+  private void update() throws InterruptedException {
+    long sequence;
+    synchronized (this) {
+      sequence = ++m_sequence;
+      m_waiting = m_clients;
+    }
+    for (NetworkTableEntry entry : m_serverEntries) {
+      if (m_valueSize == 1) {
+        entry.setDouble(sequence);
+      } else {
+        m_array[0] = sequence;
+        entry.setDoubleArray(m_array);
+      }
+    }
+    if (m_flush) {
+      m_server.flush();
+    }
+
+    long deadline = System.nanoTime() + kTimeout;
+    synchronized (this) {
+      while (m_waiting > 0) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          throw new IllegalStateException(m_waiting + " clients didn't receive update " + sequence);
+        }
+        wait(remaining / 1000000, (int) (remaining % 1000000));
+      }
+    }
+  }
+
+  // Called by the entry listener of each client
+  private synchronized void received(int client, long sequence) {
+    if (m_received[client] < m_sequence && sequence >= m_sequence && --m_waiting == 0) {
+      notifyAll();
+    }
+    m_received[client] = sequence;
+  }
+
+  private static long sequenceOf(NetworkTableValue value) {
+    if (value.isDouble()) {
+      return (long) value.getDouble();
+    }
+    return (long) value.getDoubleArray()[0];
+  }
+}
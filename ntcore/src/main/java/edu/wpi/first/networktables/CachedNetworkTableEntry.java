@@ -0,0 +1,219 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.networktables;
+
+/**
+ * A NetworkTables entry whose value is cached in Java and kept up to date by an entry listener.
+ *
+ * <p>Each get call on a {@link NetworkTableEntry} crosses into native code, and the array getters
+ * allocate a new array. Reading a cached entry instead only loads a field, which makes it suitable
+ * for values that are read many times per robot loop, such as tuning constants. The change count
+ * increases every time the value changes, so code can skip work when nothing changed:
+ *
+ * <pre><code>
+ * long changes = m_kP.getChangeCount();
+ * if (changes != m_lastChanges) {
+ *   m_lastChanges = changes;
+ *   m_controller.setP(m_kP.getDouble(0.0));
+ * }
+ * </code></pre>
+ *
+ * <p>Updates are delivered by the instance's entry listener thread, so a value set by another
+ * thread or received from the network is seen by the cached entry shortly afterwards rather than
+ * immediately.
+ *
+ * <p>The arrays returned by the array getters are shared by all readers of the entry and must not
+ * be modified.
+ *
+ * <p>Cached entries are created with {@link NetworkTableEntry#cached()}. Close the cached entry to
+ * remove its listener when it's no longer needed.
+ */
+public final class CachedNetworkTableEntry implements AutoCloseable {
+  private static final NetworkTableValue kUnassigned =
+      new NetworkTableValue(NetworkTableType.kUnassigned, null);
+
+  private final NetworkTableEntry m_entry;
+  private final int m_listener;
+
+  // Written by the listener thread, and by the constructor if the listener hasn't written yet
+  private volatile NetworkTableValue m_value;
+  private volatile long m_changeCount;
+
+  /**
+   * Constructs a cached entry. Use {@link NetworkTableEntry#cached()} instead.
+   *
+   * @param entry The entry to cache
+   */
+  CachedNetworkTableEntry(NetworkTableEntry entry) {
+    m_entry = entry;
+    m_listener =
+        entry.addListener(
+            this::update,
+            EntryListenerFlags.kLocal
+                | EntryListenerFlags.kNew
+                | EntryListenerFlags.kUpdate
+                | EntryListenerFlags.kDelete);
+    // Read the current value after adding the listener, so no updates are missed. If the
+    // listener has already been called, its value is at least as new as this one, so keep it.
+    NetworkTableValue value = entry.getValue();
+    synchronized (this) {
+      if (m_changeCount == 0) {
+        m_value = value.isValid() ? value : null;
+      }
+    }
+  }
+
+  /** Removes the listener that keeps the cached value up to date. */
+  @Override
+  public void close() {
+    m_entry.removeListener(m_listener);
+  }
+
+  /**
+   * Gets the entry that is cached.
+   *
+   * @return The entry
+   */
+  public NetworkTableEntry getEntry() {
+    return m_entry;
+  }
+
+  /**
+   * Gets the number of times the cached value has changed since the cached entry was created.
+   *
+   * @return The change count
+   */
+  public long getChangeCount() {
+    return m_changeCount;
+  }
+
+  /**
+   * Determines if the entry currently exists.
+   *
+   * @return True if the entry exists, false otherwise.
+   */
+  public boolean exists() {
+    return m_value != null;
+  }
+
+  /**
+   * Gets the cached value of the entry.
+   *
+   * @return The value, or an unassigned value if the entry doesn't exist
+   */
+  public NetworkTableValue getValue() {
+    NetworkTableValue value = m_value;
+    return value != null ? value : kUnassigned;
+  }
+
+  /**
+   * Gets the cached value of the entry as a boolean.
+   *
+   * @param defaultValue the value to be returned if no value is found
+   * @return the entry's value or the given default value
+   */
+  public boolean getBoolean(boolean defaultValue) {
+    NetworkTableValue value = m_value;
+    if (value == null || !value.isBoolean()) {
+      return defaultValue;
+    }
+    return value.getBoolean();
+  }
+
+  /**
+   * Gets the cached value of the entry as a double.
+   *
+   * @param defaultValue the value to be returned if no value is found
+   * @return the entry's value or the given default value
+   */
+  public double getDouble(double defaultValue) {
+    NetworkTableValue value = m_value;
+    if (value == null || !value.isDouble()) {
+      return defaultValue;
+    }
+    return value.getDouble();
+  }
+
+  /**
+   * Gets the cached value of the entry as a string.
+   *
+   * @param defaultValue the value to be returned if no value is found
+   * @return the entry's value or the given default value
+   */
+  public String getString(String defaultValue) {
+    NetworkTableValue value = m_value;
+    if (value == null || !value.isString()) {
+      return defaultValue;
+    }
+    return value.getString();
+  }
+
+  /**
+   * Gets the cached value of the entry as a raw value (byte array). The returned array must not be
+   * modified.
+   *
+   * @param defaultValue the value to be returned if no value is found
+   * @return the entry's value or the given default value
+   */
+  public byte[] getRaw(byte[] defaultValue) {
+    NetworkTableValue value = m_value;
+    if (value == null || !value.isRaw()) {
+      return defaultValue;
+    }
+    return value.getRaw();
+  }
+
+  /**
+   * Gets the cached value of the entry as a boolean array. The returned array must not be
+   * modified.
+   *
+   * @param defaultValue the value to be returned if no value is found
+   * @return the entry's value or the given default value
+   */
+  public boolean[] getBooleanArray(boolean[] defaultValue) {
+    NetworkTableValue value = m_value;
+    if (value == null || !value.isBooleanArray()) {
+      return defaultValue;
+    }
+    return value.getBooleanArray();
+  }
+
+  /**
+   * Gets the cached value of the entry as a double array. The returned array must not be modified.
+   *
+   * @param defaultValue the value to be returned if no value is found
+   * @return the entry's value or the given default value
+   */
+  public double[] getDoubleArray(double[] defaultValue) {
+    NetworkTableValue value = m_value;
+    if (value == null || !value.isDoubleArray()) {
+      return defaultValue;
+    }
+    return value.getDoubleArray();
+  }
+
+  /**
+   * Gets the cached value of the entry as a string array. The returned array must not be modified.
+   *
+   * @param defaultValue the value to be returned if no value is found
+   * @return the entry's value or the given default value
+   */
+  public String[] getStringArray(String[] defaultValue) {
+    NetworkTableValue value = m_value;
+    if (value == null || !value.isStringArray()) {
+      return defaultValue;
+    }
+    return value.getStringArray();
+  }
+
+  private synchronized void update(EntryNotification notification) {
+    if ((notification.flags & EntryListenerFlags.kDelete) != 0) {
+      m_value = null;
+    } else {
+      m_value = notification.value;
+    }
+    m_changeCount++;
+  }
+}
@@ -0,0 +1,94 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.networktables;
+
+/**
+ * A subscription to every change of a double entry's value.
+ *
+ * <p>Entry listeners receive one {@link EntryNotification} object per change. For high-rate
+ * values, such as sensor data streamed from a coprocessor, that allocates several objects per
+ * sample. A time series instead queues the changes natively, and {@link #read(long[], double[])}
+ * copies all queued samples into caller-provided arrays in a single native call, without
+ * allocating.
+ *
+ * <p>The queue holds a fixed number of samples. When it's full, the oldest sample is dropped and
+ * counted by {@link #getDroppedCount()}, so a reader can tell when it has fallen behind.
+ *
+ * <p>The current value of the entry, if it's a double, is queued as the first sample. Values of
+ * other types are ignored.
+ *
+ * <p>Time series are created with {@link NetworkTableEntry#subscribeDoubleTimeSeries(int)}. Close
+ * the time series to remove its listener and free its queue when it's no longer needed.
+ * DoubleTimeSeries is not thread safe.
+ */
+public final class DoubleTimeSeries implements AutoCloseable {
+  private final NetworkTableEntry m_entry;
+  private final int m_capacity;
+  private long m_series;
+
+  /**
+   * Constructs a time series. Use {@link NetworkTableEntry#subscribeDoubleTimeSeries(int)}
+   * instead.
+   *
+   * @param entry The entry to subscribe to
+   * @param capacity Maximum number of samples that are queued
+   * @throws IllegalArgumentException if capacity is not positive
+   */
+  DoubleTimeSeries(NetworkTableEntry entry, int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    m_entry = entry;
+    m_capacity = capacity;
+    m_series = NetworkTablesJNI.createDoubleTimeSeries(entry.getHandle(), capacity);
+  }
+
+  /** Removes the listener and frees the queue. Further reads return no samples. */
+  @Override
+  public void close() {
+    NetworkTablesJNI.destroyDoubleTimeSeries(m_series);
+    m_series = 0;
+  }
+
+  /**
+   * Gets the entry the time series is subscribed to.
+   *
+   * @return The entry
+   */
+  public NetworkTableEntry getEntry() {
+    return m_entry;
+  }
+
+  /**
+   * Gets the maximum number of samples that are queued.
+   *
+   * @return Capacity
+   */
+  public int getCapacity() {
+    return m_capacity;
+  }
+
+  /**
+   * Removes queued samples, oldest first, and copies them into the given arrays. At most as many
+   * samples as fit in the shorter of the two arrays are read.
+   *
+   * @param timestamps Array to copy the sample times into, in the same units as {@link
+   *     NetworkTableValue#getTime()}
+   * @param values Array to copy the sample values into
+   * @return Number of samples read
+   */
+  public int read(long[] timestamps, double[] values) {
+    return NetworkTablesJNI.readDoubleTimeSeries(m_series, timestamps, values);
+  }
+
+  /**
+   * Gets the number of samples that were dropped because the queue was full.
+   *
+   * @return Total number of dropped samples since the time series was created
+   */
+  public long getDroppedCount() {
+    return NetworkTablesJNI.getDoubleTimeSeriesDropped(m_series);
+  }
+}
@@ -0,0 +1,182 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.networktables;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Passes the notifications of one entry listener to its consumer.
+ *
+ * <p>Without an executor, the consumer is called directly on the entry listener thread. With an
+ * executor, each entry gets its own queue, which is drained by a single task on the executor at a
+ * time. This keeps the notifications of an entry in order while notifications of different
+ * entries may be handled in parallel.
+ */
+final class EntryListenerDispatcher {
+  private static final class Pending {
+    final EntryNotification m_event;
+    final long m_received;
+
+    Pending(EntryNotification event, long received) {
+      m_event = event;
+      m_received = received;
+    }
+  }
+
+  private final class EntryQueue implements Runnable {
+    final int m_entry;
+    final ArrayDeque<Pending> m_pending = new ArrayDeque<>();
+
+    EntryQueue(int entry) {
+      m_entry = entry;
+    }
+
+    @Override
+    public void run() {
+      while (true) {
+        Pending pending;
+        synchronized (EntryListenerDispatcher.this) {
+          pending = m_pending.poll();
+          if (pending == null) {
+            // Drained; the next notification for this entry starts a new task
+            m_queues.remove(m_entry);
+            EntryListenerDispatcher.this.notifyAll();
+            return;
+          }
+          m_queueDepth--;
+        }
+        call(pending.m_event, pending.m_received);
+      }
+    }
+  }
+
+  private final NetworkTableEntry m_entry;
+  private final Consumer<EntryNotification> m_consumer;
+  private final Executor m_executor;
+
+  // Guarded by this
+  private final Map<Integer, EntryQueue> m_queues = new HashMap<>();
+  private int m_queueDepth;
+  private int m_maxQueueDepth;
+  private long m_count;
+  private long m_totalLatency;
+  private long m_maxLatency;
+
+  /**
+   * Constructs a dispatcher.
+   *
+   * @param entry Entry the listener was added to, or null for a prefix listener
+   * @param consumer Listener consumer
+   * @param executor Executor to call the consumer on, or null to call it on the listener thread
+   */
+  EntryListenerDispatcher(
+      NetworkTableEntry entry, Consumer<EntryNotification> consumer, Executor executor) {
+    m_entry = entry;
+    m_consumer = consumer;
+    m_executor = executor;
+  }
+
+  /**
+   * Passes a notification to the consumer, or queues it on the executor.
+   *
+   * @param event Notification
+   * @param received Time the notification was received, from System.nanoTime()
+   */
+  void dispatch(EntryNotification event, long received) {
+    event.m_entryObject = m_entry;
+    if (m_executor == null) {
+      call(event, received);
+      return;
+    }
+    EntryQueue queue;
+    synchronized (this) {
+      queue = m_queues.get(event.entry);
+      boolean start = queue == null;
+      if (start) {
+        queue = new EntryQueue(event.entry);
+        m_queues.put(event.entry, queue);
+      }
+      queue.m_pending.add(new Pending(event, received));
+      m_queueDepth++;
+      if (m_queueDepth > m_maxQueueDepth) {
+        m_maxQueueDepth = m_queueDepth;
+      }
+      if (!start) {
+        return;
+      }
+    }
+    try {
+      m_executor.execute(queue);
+    } catch (RejectedExecutionException ex) {
+      System.err.println("Entry listener executor rejected notification: " + ex.toString());
+      synchronized (this) {
+        m_queueDepth -= queue.m_pending.size();
+        m_queues.remove(queue.m_entry);
+        notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Waits until all queued notifications have been passed to the consumer.
+   *
+   * @param deadline Time to stop waiting, from System.nanoTime(), or Long.MAX_VALUE to wait
+   *     indefinitely
+   * @return False if timed out, otherwise true.
+   * @throws InterruptedException if interrupted while waiting
+   */
+  synchronized boolean waitForQueue(long deadline) throws InterruptedException {
+    while (!m_queues.isEmpty()) {
+      if (deadline == Long.MAX_VALUE) {
+        wait();
+      } else {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return false;
+        }
+        wait(remaining / 1000000, (int) (remaining % 1000000));
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Gets the dispatch statistics.
+   *
+   * @return Statistics
+   */
+  synchronized EntryListenerStats getStats() {
+    return new EntryListenerStats(
+        m_queueDepth,
+        m_maxQueueDepth,
+        m_count,
+        m_count == 0 ? 0.0 : m_totalLatency / (m_count * 1e9),
+        m_maxLatency / 1e9);
+  }
+
+  @SuppressWarnings("PMD.AvoidCatchingThrowable")
+  private void call(EntryNotification event, long received) {
+    long latency = System.nanoTime() - received;
+    synchronized (this) {
+      m_count++;
+      m_totalLatency += latency;
+      if (latency > m_maxLatency) {
+        m_maxLatency = latency;
+      }
+    }
+    try {
+      m_consumer.accept(event);
+    } catch (Throwable throwable) {
+      System.err.println(
+          "Unhandled exception during entry listener callback: " + throwable.toString());
+      throwable.printStackTrace();
+    }
+  }
+}
@@ -0,0 +1,81 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.networktables;
+
+/**
+ * Dispatch statistics of an entry listener. Latency is measured from when the listener thread
+ * receives a notification to when the listener is called with it, so it includes the time the
+ * notification waited behind earlier notifications.
+ */
+public final class EntryListenerStats {
+  private final int m_queueDepth;
+  private final int m_maxQueueDepth;
+  private final long m_count;
+  private final double m_averageLatency;
+  private final double m_maxLatency;
+
+  /**
+   * Constructs the statistics. This should generally only be used internally to NetworkTables.
+   *
+   * @param queueDepth Number of notifications waiting to be passed to the listener
+   * @param maxQueueDepth Largest queue depth seen
+   * @param count Number of notifications passed to the listener
+   * @param averageLatency Average latency, in seconds
+   * @param maxLatency Largest latency seen, in seconds
+   */
+  public EntryListenerStats(
+      int queueDepth, int maxQueueDepth, long count, double averageLatency, double maxLatency) {
+    m_queueDepth = queueDepth;
+    m_maxQueueDepth = maxQueueDepth;
+    m_count = count;
+    m_averageLatency = averageLatency;
+    m_maxLatency = maxLatency;
+  }
+
+  /**
+   * Gets the number of notifications waiting to be passed to the listener.
+   *
+   * @return Queue depth
+   */
+  public int getQueueDepth() {
+    return m_queueDepth;
+  }
+
+  /**
+   * Gets the largest queue depth seen.
+   *
+   * @return Maximum queue depth
+   */
+  public int getMaxQueueDepth() {
+    return m_maxQueueDepth;
+  }
+
+  /**
+   * Gets the number of notifications passed to the listener.
+   *
+   * @return Notification count
+   */
+  public long getCount() {
+    return m_count;
+  }
+
+  /**
+   * Gets the average latency.
+   *
+   * @return Average latency, in seconds
+   */
+  public double getAverageLatency() {
+    return m_averageLatency;
+  }
+
+  /**
+   * Gets the largest latency seen.
+   *
+   * @return Maximum latency, in seconds
+   */
+  public double getMaxLatency() {
+    return m_maxLatency;
+  }
+}
@@ -0,0 +1,250 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.networktables;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A batch of entry values that is set with a single native call.
+ *
+ * <p>Each set call on a {@link NetworkTableEntry} crosses into native code. When hundreds of
+ * dashboard values are set every robot loop, that overhead adds up. A NetworkTableBatch instead
+ * encodes the values into a direct buffer, and commit() sets them all at once. All the values in a
+ * batch are set before any of them are visible to other threads or sent to the network. The batch
+ * can be reused after it's committed, so a caller typically keeps one batch and commits it once
+ * per loop.
+ *
+ * <p>As with the set functions on NetworkTableEntry, a value is not set if the entry already has a
+ * value of a different type.
+ *
+ * <p>NetworkTableBatch is not thread safe.
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class NetworkTableBatch {
+  // Each value is a 4-byte entry handle, a 1-byte type, and then the value; strings and arrays are
+  // prefixed with a 4-byte length
+  private static final int kValueHeaderSize = 5;
+  private static final int kDefaultCapacity = 4096;
+
+  private final NetworkTableInstance m_inst;
+  private ByteBuffer m_buf;
+  private int m_count;
+
+  /**
+   * Constructs an empty batch. Use {@link NetworkTableInstance#newBatch()} instead.
+   *
+   * @param inst The instance the batch is committed to
+   */
+  NetworkTableBatch(NetworkTableInstance inst) {
+    m_inst = inst;
+    m_buf = ByteBuffer.allocateDirect(kDefaultCapacity).order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /**
+   * Gets the instance the batch is committed to.
+   *
+   * @return The instance
+   */
+  public NetworkTableInstance getInstance() {
+    return m_inst;
+  }
+
+  /**
+   * Gets the number of values in the batch.
+   *
+   * @return Number of values
+   */
+  public int size() {
+    return m_count;
+  }
+
+  /**
+   * Returns whether the batch has no values.
+   *
+   * @return True if the batch is empty
+   */
+  public boolean isEmpty() {
+    return m_count == 0;
+  }
+
+  /** Discards all values in the batch. */
+  public void clear() {
+    m_buf.clear();
+    m_count = 0;
+  }
+
+  /**
+   * Sets all values in the batch, in the order they were added, then clears the batch.
+   *
+   * @return False if any value was not set because of a type mismatch
+   */
+  public boolean commit() {
+    if (m_count == 0) {
+      return true;
+    }
+    try {
+      return NetworkTablesJNI.setEntryValues(m_inst.getHandle(), 0, m_buf, m_buf.position());
+    } finally {
+      clear();
+    }
+  }
+
+  /**
+   * Adds a boolean value to the batch.
+   *
+   * @param entry The entry to set
+   * @param value The value to set
+   */
+  public void setBoolean(NetworkTableEntry entry, boolean value) {
+    startValue(entry, NetworkTableType.kBoolean, 1);
+    m_buf.put((byte) (value ? 1 : 0));
+  }
+
+  /**
+   * Adds a double value to the batch.
+   *
+   * @param entry The entry to set
+   * @param value The value to set
+   */
+  public void setDouble(NetworkTableEntry entry, double value) {
+    startValue(entry, NetworkTableType.kDouble, 8);
+    m_buf.putDouble(value);
+  }
+
+  /**
+   * Adds a string value to the batch.
+   *
+   * @param entry The entry to set
+   * @param value The value to set
+   */
+  public void setString(NetworkTableEntry entry, String value) {
+    putBytes(entry, NetworkTableType.kString, value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Adds a raw value to the batch.
+   *
+   * @param entry The entry to set
+   * @param value The value to set
+   */
+  public void setRaw(NetworkTableEntry entry, byte[] value) {
+    putBytes(entry, NetworkTableType.kRaw, value);
+  }
+
+  /**
+   * Adds a boolean array value to the batch.
+   *
+   * @param entry The entry to set
+   * @param value The value to set
+   */
+  public void setBooleanArray(NetworkTableEntry entry, boolean[] value) {
+    startValue(entry, NetworkTableType.kBooleanArray, 4 + value.length);
+    m_buf.putInt(value.length);
+    for (boolean v : value) {
+      m_buf.put((byte) (v ? 1 : 0));
+    }
+  }
+
+  /**
+   * Adds a double array value to the batch.
+   *
+   * @param entry The entry to set
+   * @param value The value to set
+   */
+  public void setDoubleArray(NetworkTableEntry entry, double[] value) {
+    startValue(entry, NetworkTableType.kDoubleArray, 4 + value.length * 8);
+    m_buf.putInt(value.length);
+    m_buf.asDoubleBuffer().put(value);
+    m_buf.position(m_buf.position() + value.length * 8);
+  }
+
+  /**
+   * Adds a string array value to the batch.
+   *
+   * @param entry The entry to set
+   * @param value The value to set
+   */
+  public void setStringArray(NetworkTableEntry entry, String[] value) {
+    byte[][] strings = new byte[value.length][];
+    int size = 4;
+    for (int i = 0; i < value.length; i++) {
+      strings[i] = value[i].getBytes(StandardCharsets.UTF_8);
+      size += 4 + strings[i].length;
+    }
+    startValue(entry, NetworkTableType.kStringArray, size);
+    m_buf.putInt(value.length);
+    for (byte[] str : strings) {
+      m_buf.putInt(str.length);
+      m_buf.put(str);
+    }
+  }
+
+  /**
+   * Adds a value to the batch.
+   *
+   * @param entry The entry to set
+   * @param value The value to set
+   * @throws IllegalArgumentException if the value is not a known type
+   */
+  public void setValue(NetworkTableEntry entry, NetworkTableValue value) {
+    switch (value.getType()) {
+      case kBoolean:
+        setBoolean(entry, value.getBoolean());
+        break;
+      case kDouble:
+        setDouble(entry, value.getDouble());
+        break;
+      case kString:
+        setString(entry, value.getString());
+        break;
+      case kRaw:
+        setRaw(entry, value.getRaw());
+        break;
+      case kBooleanArray:
+        setBooleanArray(entry, value.getBooleanArray());
+        break;
+      case kDoubleArray:
+        setDoubleArray(entry, value.getDoubleArray());
+        break;
+      case kStringArray:
+        setStringArray(entry, value.getStringArray());
+        break;
+      default:
+        throw new IllegalArgumentException("Cannot set value of type " + value.getType());
+    }
+  }
+
+  private void putBytes(NetworkTableEntry entry, NetworkTableType type, byte[] value) {
+    startValue(entry, type, 4 + value.length);
+    m_buf.putInt(value.length);
+    m_buf.put(value);
+  }
+
+  private void startValue(NetworkTableEntry entry, NetworkTableType type, int valueSize) {
+    if (entry.getInstance().getHandle() != m_inst.getHandle()) {
+      throw new IllegalArgumentException("entry is not from this batch's instance");
+    }
+    ensureRemaining(kValueHeaderSize + valueSize);
+    m_buf.putInt(entry.getHandle());
+    m_buf.put((byte) type.getValue());
+    m_count++;
+  }
+
+  private void ensureRemaining(int size) {
+    if (m_buf.remaining() >= size) {
+      return;
+    }
+    int capacity = m_buf.capacity();
+    while (capacity - m_buf.position() < size) {
+      capacity *= 2;
+    }
+    var buf = ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    m_buf.flip();
+    buf.put(m_buf);
+    m_buf = buf;
+  }
+}
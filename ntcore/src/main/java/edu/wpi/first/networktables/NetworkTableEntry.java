@@ -5,6 +5,7 @@
 package edu.wpi.first.networktables;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 /** NetworkTables Entry. */
@@ -827,6 +828,20 @@ public final class NetworkTableEntry {
     return m_inst.addEntryListener(this, listener, flags);
   }
 
+  /**
+   * Add a listener for changes to the entry, called on an executor. Notifications are passed to
+   * the listener in order.
+   *
+   * @param listener the listener to add
+   * @param flags bitmask specifying desired notifications
+   * @param executor executor to call the listener on, or null to call it on the entry listener
+   *     thread
+   * @return listener handle
+   */
+  public int addListener(Consumer<EntryNotification> listener, int flags, Executor executor) {
+    return m_inst.addEntryListener(this, listener, flags, executor);
+  }
+
   /**
    * Remove a listener from receiving entry events.
    *
@@ -836,6 +851,29 @@ public final class NetworkTableEntry {
     m_inst.removeEntryListener(listener);
   }
 
+  /**
+   * Creates a cached reader for the entry. The cached reader is kept up to date by an entry
+   * listener, so reading it doesn't call into native code. Close it when it's no longer needed.
+   *
+   * @return cached entry
+   */
+  public CachedNetworkTableEntry cached() {
+    return new CachedNetworkTableEntry(this);
+  }
+
+  /**
+   * Subscribes to every change of the entry's double value. Unlike a listener, the changes are
+   * queued natively and read in bulk, without allocating an object per change. Close the time
+   * series when it's no longer needed.
+   *
+   * @param capacity maximum number of changes that are queued; when the queue is full, the oldest
+   *     change is dropped
+   * @return time series
+   */
+  public DoubleTimeSeries subscribeDoubleTimeSeries(int capacity) {
+    return new DoubleTimeSeries(this, capacity);
+  }
+
   @Override
   public boolean equals(Object other) {
     if (other == this) {
@@ -9,6 +9,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
@@ -119,6 +120,16 @@ public final class NetworkTableInstance implements AutoCloseable {
     return new NetworkTableEntry(this, NetworkTablesJNI.getEntry(m_handle, name));
   }
 
+  /**
+   * Creates an empty batch for setting the values of many entries of this instance with a single
+   * native call.
+   *
+   * @return New batch
+   */
+  public NetworkTableBatch newBatch() {
+    return new NetworkTableBatch(this);
+  }
+
   /**
    * Get entries starting with the given prefix. The results are optionally filtered by string
    * prefix and entry type to only return a subset of all entries.
@@ -202,12 +213,12 @@ public final class NetworkTableInstance implements AutoCloseable {
   }
 
   private final ReentrantLock m_entryListenerLock = new ReentrantLock();
-  private final Map<Integer, EntryConsumer<EntryNotification>> m_entryListeners = new HashMap<>();
+  private final Map<Integer, EntryListenerDispatcher> m_entryListeners = new HashMap<>();
+  private Executor m_entryListenerExecutor;
   private int m_entryListenerPoller;
   private boolean m_entryListenerWaitQueue;
   private final Condition m_entryListenerWaitQueueCond = m_entryListenerLock.newCondition();
 
-  @SuppressWarnings("PMD.AvoidCatchingThrowable")
   private void startEntryListenerThread() {
     var entryListenerThread =
         new Thread(
@@ -233,8 +244,9 @@ public final class NetworkTableInstance implements AutoCloseable {
                   wasInterrupted = true;
                   break;
                 }
+                long received = System.nanoTime();
                 for (EntryNotification event : events) {
-                  EntryConsumer<EntryNotification> listener;
+                  EntryListenerDispatcher listener;
                   m_entryListenerLock.lock();
                   try {
                     listener = m_entryListeners.get(event.listener);
@@ -242,15 +254,7 @@ public final class NetworkTableInstance implements AutoCloseable {
                     m_entryListenerLock.unlock();
                   }
                   if (listener != null) {
-                    event.m_entryObject = listener.m_entry;
-                    try {
-                      listener.m_consumer.accept(event);
-                    } catch (Throwable throwable) {
-                      System.err.println(
-                          "Unhandled exception during entry listener callback: "
-                              + throwable.toString());
-                      throwable.printStackTrace();
-                    }
+                    listener.dispatch(event, received);
                   }
                 }
               }
@@ -269,6 +273,24 @@ public final class NetworkTableInstance implements AutoCloseable {
     entryListenerThread.start();
   }
 
+  /**
+   * Sets the executor that entry listeners added after this call are called on, unless they're
+   * added with their own executor. By default, listeners are called one at a time on a single entry
+   * listener thread, so a slow listener delays notifications to all other listeners. With an
+   * executor such as a thread pool, notifications for the same entry are still passed to a listener
+   * in order, but notifications for different entries may be handled in parallel.
+   *
+   * @param executor executor, or null to call listeners on the entry listener thread
+   */
+  public void setEntryListenerExecutor(Executor executor) {
+    m_entryListenerLock.lock();
+    try {
+      m_entryListenerExecutor = executor;
+    } finally {
+      m_entryListenerLock.unlock();
+    }
+  }
+
   /**
    * Add a listener for all entries starting with a certain prefix.
    *
@@ -280,12 +302,30 @@ public final class NetworkTableInstance implements AutoCloseable {
   public int addEntryListener(String prefix, Consumer<EntryNotification> listener, int flags) {
     m_entryListenerLock.lock();
     try {
-      if (m_entryListenerPoller == 0) {
-        m_entryListenerPoller = NetworkTablesJNI.createEntryListenerPoller(m_handle);
-        startEntryListenerThread();
-      }
+      return addEntryListener(prefix, listener, flags, m_entryListenerExecutor);
+    } finally {
+      m_entryListenerLock.unlock();
+    }
+  }
+
+  /**
+   * Add a listener for all entries starting with a certain prefix, called on an executor.
+   * Notifications for the same entry are passed to the listener in order.
+   *
+   * @param prefix UTF-8 string prefix
+   * @param listener listener to add
+   * @param flags {@link EntryListenerFlags} bitmask
+   * @param executor executor to call the listener on, or null to call it on the entry listener
+   *     thread
+   * @return Listener handle
+   */
+  public int addEntryListener(
+      String prefix, Consumer<EntryNotification> listener, int flags, Executor executor) {
+    m_entryListenerLock.lock();
+    try {
+      startEntryListenerPoller();
       int handle = NetworkTablesJNI.addPolledEntryListener(m_entryListenerPoller, prefix, flags);
-      m_entryListeners.put(handle, new EntryConsumer<>(null, listener));
+      m_entryListeners.put(handle, new EntryListenerDispatcher(null, listener, executor));
       return handle;
     } finally {
       m_entryListenerLock.unlock();
@@ -302,24 +342,67 @@ public final class NetworkTableInstance implements AutoCloseable {
    */
   public int addEntryListener(
       NetworkTableEntry entry, Consumer<EntryNotification> listener, int flags) {
+    m_entryListenerLock.lock();
+    try {
+      return addEntryListener(entry, listener, flags, m_entryListenerExecutor);
+    } finally {
+      m_entryListenerLock.unlock();
+    }
+  }
+
+  /**
+   * Add a listener for a particular entry, called on an executor. Notifications are passed to the
+   * listener in order.
+   *
+   * @param entry the entry
+   * @param listener listener to add
+   * @param flags {@link EntryListenerFlags} bitmask
+   * @param executor executor to call the listener on, or null to call it on the entry listener
+   *     thread
+   * @return Listener handle
+   */
+  public int addEntryListener(
+      NetworkTableEntry entry, Consumer<EntryNotification> listener, int flags, Executor executor) {
     if (!equals(entry.getInstance())) {
       throw new IllegalArgumentException("entry does not belong to this instance");
     }
     m_entryListenerLock.lock();
     try {
-      if (m_entryListenerPoller == 0) {
-        m_entryListenerPoller = NetworkTablesJNI.createEntryListenerPoller(m_handle);
-        startEntryListenerThread();
-      }
+      startEntryListenerPoller();
       int handle =
           NetworkTablesJNI.addPolledEntryListener(m_entryListenerPoller, entry.getHandle(), flags);
-      m_entryListeners.put(handle, new EntryConsumer<>(entry, listener));
+      m_entryListeners.put(handle, new EntryListenerDispatcher(entry, listener, executor));
       return handle;
     } finally {
       m_entryListenerLock.unlock();
     }
   }
 
+  private void startEntryListenerPoller() {
+    if (m_entryListenerPoller == 0) {
+      m_entryListenerPoller = NetworkTablesJNI.createEntryListenerPoller(m_handle);
+      startEntryListenerThread();
+    }
+  }
+
+  /**
+   * Gets the dispatch statistics of an entry listener, such as how many notifications are waiting
+   * for it and how long they waited.
+   *
+   * @param listener Listener handle
+   * @return Statistics, or null if the listener handle is unknown
+   */
+  public EntryListenerStats getEntryListenerStats(int listener) {
+    EntryListenerDispatcher dispatcher;
+    m_entryListenerLock.lock();
+    try {
+      dispatcher = m_entryListeners.get(listener);
+    } finally {
+      m_entryListenerLock.unlock();
+    }
+    return dispatcher != null ? dispatcher.getStats() : null;
+  }
+
   /**
    * Remove an entry listener.
    *
@@ -332,16 +415,19 @@ public final class NetworkTableInstance implements AutoCloseable {
   /**
    * Wait for the entry listener queue to be empty. This is primarily useful for deterministic
    * testing. This blocks until either the entry listener queue is empty (e.g. there are no more
-   * events that need to be passed along to callbacks or poll queues) or the timeout expires.
+   * events that need to be passed along to callbacks or poll queues, including those queued on
+   * listener executors) or the timeout expires.
    *
    * @param timeout timeout, in seconds. Set to 0 for non-blocking behavior, or a negative value to
    *     block indefinitely
    * @return False if timed out, otherwise true.
    */
   public boolean waitForEntryListenerQueue(double timeout) {
+    long deadline = timeout < 0 ? Long.MAX_VALUE : System.nanoTime() + (long) (timeout * 1e9);
     if (!NetworkTablesJNI.waitForEntryListenerQueue(m_handle, timeout)) {
       return false;
     }
+    EntryListenerDispatcher[] dispatchers;
     m_entryListenerLock.lock();
     try {
       if (m_entryListenerPoller != 0) {
@@ -351,9 +437,11 @@ public final class NetworkTableInstance implements AutoCloseable {
           try {
             if (timeout < 0) {
               m_entryListenerWaitQueueCond.await();
+            } else if (!m_entryListenerWaitQueueCond.await(
+                (long) (timeout * 1e9), TimeUnit.NANOSECONDS)) {
+              return false;
             } else {
-              return m_entryListenerWaitQueueCond.await(
-                  (long) (timeout * 1e9), TimeUnit.NANOSECONDS);
+              break;
             }
           } catch (InterruptedException ex) {
             Thread.currentThread().interrupt();
@@ -361,9 +449,19 @@ public final class NetworkTableInstance implements AutoCloseable {
           }
         }
       }
+      dispatchers = m_entryListeners.values().toArray(new EntryListenerDispatcher[0]);
     } finally {
       m_entryListenerLock.unlock();
     }
+    try {
+      for (EntryListenerDispatcher dispatcher : dispatchers) {
+        if (!dispatcher.waitForQueue(deadline)) {
+          return false;
+        }
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
     return true;
   }
 
@@ -1007,6 +1105,7 @@ public final class NetworkTableInstance implements AutoCloseable {
    *     included in the data log entry name
    * @param logPrefix prefix to add to data log entry names
    * @return Data logger handle
+   * @throws IllegalArgumentException if the log isn't an open native DataLog, e.g. a JavaDataLog
    */
   public int startEntryDataLog(DataLog log, String prefix, String logPrefix) {
     return NetworkTablesJNI.startEntryDataLog(m_handle, log, prefix, logPrefix);
@@ -1028,6 +1127,7 @@ public final class NetworkTableInstance implements AutoCloseable {
    *     instance is destroyed
    * @param name data log entry name
    * @return Data logger handle
+   * @throws IllegalArgumentException if the log isn't an open native DataLog, e.g. a JavaDataLog
    */
   public int startConnectionDataLog(DataLog log, String name) {
     return NetworkTablesJNI.startConnectionDataLog(m_handle, log, name);
@@ -93,6 +93,8 @@ public final class NetworkTablesJNI {
 
   public static native boolean setStringArray(int entry, long time, String[] value, boolean force);
 
+  public static native boolean setEntryValues(int inst, long time, ByteBuffer batch, int length);
+
   public static native NetworkTableValue getValue(int entry);
 
   public static native boolean getBoolean(int entry, boolean defaultValue);
@@ -156,6 +158,14 @@ public final class NetworkTablesJNI {
 
   public static native boolean waitForEntryListenerQueue(int inst, double timeout);
 
+  public static native long createDoubleTimeSeries(int entry, int capacity);
+
+  public static native void destroyDoubleTimeSeries(long series);
+
+  public static native int readDoubleTimeSeries(long series, long[] timestamps, double[] values);
+
+  public static native long getDoubleTimeSeriesDropped(long series);
+
   public static native int createConnectionListenerPoller(int inst);
 
   public static native void destroyConnectionListenerPoller(int poller);
@@ -259,7 +269,7 @@ public final class NetworkTablesJNI {
   private static native int startEntryDataLog(int inst, long log, String prefix, String logPrefix);
 
   public static int startEntryDataLog(int inst, DataLog log, String prefix, String logPrefix) {
-    return startEntryDataLog(inst, log.getImpl(), prefix, logPrefix);
+    return startEntryDataLog(inst, getDataLogImpl(log), prefix, logPrefix);
   }
 
   public static native void stopEntryDataLog(int logger);
@@ -267,7 +277,17 @@ public final class NetworkTablesJNI {
   private static native int startConnectionDataLog(int inst, long log, String name);
 
   public static int startConnectionDataLog(int inst, DataLog log, String name) {
-    return startConnectionDataLog(inst, log.getImpl(), name);
+    return startConnectionDataLog(inst, getDataLogImpl(log), name);
+  }
+
+  // The native loggers write through the DataLog's native handle, which is 0 for a closed log or
+  // a JavaDataLog; passing that on would dereference a null pointer and crash the JVM
+  private static long getDataLogImpl(DataLog log) {
+    long impl = log.getImpl();
+    if (impl == 0) {
+      throw new IllegalArgumentException("data log must be an open native DataLog");
+    }
+    return impl;
   }
 
   public static native void stopConnectionDataLog(int logger);
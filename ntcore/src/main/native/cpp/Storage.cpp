@@ -603,9 +603,42 @@ bool Storage::SetEntryValue(unsigned int local_id,
   return true;
 }
 
-void Storage::SetEntryValueImpl(Entry* entry, std::shared_ptr<Value> value,
-                                std::unique_lock<wpi::mutex>& lock,
-                                bool local) {
+bool Storage::SetEntryValues(
+    wpi::span<const std::pair<unsigned int, std::shared_ptr<Value>>> values) {
+  bool ok = true;
+  std::vector<std::shared_ptr<Message>> outgoing;
+  std::unique_lock lock(m_mutex);
+  for (auto&& [local_id, value] : values) {
+    if (!value || local_id >= m_localmap.size()) {
+      continue;
+    }
+    Entry* entry = m_localmap[local_id].get();
+
+    if (entry->value && entry->value->type() != value->type()) {
+      ok = false;  // error on type mismatch
+      continue;
+    }
+
+    SetEntryValueImpl(entry, value, lock, true, &outgoing);
+  }
+  if (outgoing.empty()) {
+    return ok;
+  }
+
+  // queue the messages after all the values are set, so other threads never
+  // see only part of the batch
+  auto dispatcher = m_dispatcher;
+  lock.unlock();
+  for (auto&& msg : outgoing) {
+    dispatcher->QueueOutgoing(msg, nullptr, nullptr);
+  }
+  return ok;
+}
+
+void Storage::SetEntryValueImpl(
+    Entry* entry, std::shared_ptr<Value> value,
+    std::unique_lock<wpi::mutex>& lock, bool local,
+    std::vector<std::shared_ptr<Message>>* outgoing) {
   if (!value) {
     return;
   }
@@ -647,6 +680,10 @@ void Storage::SetEntryValueImpl(Entry* entry, std::shared_ptr<Value> value,
     }
     auto msg = Message::EntryAssign(
         entry->name, entry->id, entry->seq_num.value(), value, entry->flags);
+    if (outgoing) {
+      outgoing->emplace_back(std::move(msg));
+      return;
+    }
     lock.unlock();
     dispatcher->QueueOutgoing(msg, nullptr, nullptr);
   } else if (*old_value != *value) {
@@ -656,6 +693,10 @@ void Storage::SetEntryValueImpl(Entry* entry, std::shared_ptr<Value> value,
     // don't send an update if we don't have an assigned id yet
     if (entry->id != 0xffff) {
       auto msg = Message::EntryUpdate(entry->id, entry->seq_num.value(), value);
+      if (outgoing) {
+        outgoing->emplace_back(std::move(msg));
+        return;
+      }
       lock.unlock();
       dispatcher->QueueOutgoing(msg, nullptr, nullptr);
     }
@@ -86,6 +86,8 @@ class Storage : public IStorage {
 
   bool SetEntryValue(std::string_view name, std::shared_ptr<Value> value);
   bool SetEntryValue(unsigned int local_id, std::shared_ptr<Value> value);
+  bool SetEntryValues(
+      wpi::span<const std::pair<unsigned int, std::shared_ptr<Value>>> values);
 
   void SetEntryTypeValue(std::string_view name, std::shared_ptr<Value> value);
   void SetEntryTypeValue(unsigned int local_id, std::shared_ptr<Value> value);
@@ -282,8 +284,10 @@ class Storage : public IStorage {
   bool GetEntries(std::string_view prefix,
                   std::vector<std::pair<std::string, std::shared_ptr<Value>>>*
                       entries) const;
-  void SetEntryValueImpl(Entry* entry, std::shared_ptr<Value> value,
-                         std::unique_lock<wpi::mutex>& lock, bool local);
+  void SetEntryValueImpl(
+      Entry* entry, std::shared_ptr<Value> value,
+      std::unique_lock<wpi::mutex>& lock, bool local,
+      std::vector<std::shared_ptr<Message>>* outgoing = nullptr);
   void SetEntryFlagsImpl(Entry* entry, unsigned int flags,
                          std::unique_lock<wpi::mutex>& lock, bool local);
   void DeleteEntryImpl(Entry* entry, std::unique_lock<wpi::mutex>& lock,
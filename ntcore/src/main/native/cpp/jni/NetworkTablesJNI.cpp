@@ -4,11 +4,17 @@
 
 #include <jni.h>
 
+#include <algorithm>
 #include <cassert>
+#include <cstring>
+#include <memory>
+#include <vector>
 
 #include <fmt/format.h>
 #include <wpi/ConvertUTF.h>
+#include <wpi/Endian.h>
 #include <wpi/jni_util.h>
+#include <wpi/mutex.h>
 
 #include "edu_wpi_first_networktables_NetworkTablesJNI.h"
 #include "ntcore.h"
@@ -175,6 +181,166 @@ std::shared_ptr<nt::Value> FromJavaStringArray(JNIEnv* env, jobjectArray jarr,
   return nt::Value::MakeStringArray(std::move(arr), time);
 }
 
+namespace {
+
+// Reads the values encoded by NetworkTableBatch
+class BatchReader {
+ public:
+  explicit BatchReader(wpi::span<const uint8_t> data) : m_data{data} {}
+
+  bool empty() const { return m_data.empty(); }
+  bool ok() const { return m_ok; }
+
+  uint8_t ReadByte() {
+    if (!Check(1)) {
+      return 0;
+    }
+    uint8_t value = m_data[0];
+    m_data = m_data.subspan(1);
+    return value;
+  }
+
+  uint32_t ReadLength() {
+    if (!Check(4)) {
+      return 0;
+    }
+    uint32_t value = wpi::support::endian::read32le(m_data.data());
+    m_data = m_data.subspan(4);
+    return value;
+  }
+
+  double ReadDouble() {
+    if (!Check(8)) {
+      return 0;
+    }
+    uint64_t bits = wpi::support::endian::read64le(m_data.data());
+    m_data = m_data.subspan(8);
+    double value;
+    std::memcpy(&value, &bits, sizeof(value));
+    return value;
+  }
+
+  std::string_view ReadString() {
+    uint32_t len = ReadLength();
+    if (!Check(len)) {
+      return {};
+    }
+    std::string_view value{reinterpret_cast<const char*>(m_data.data()), len};
+    m_data = m_data.subspan(len);
+    return value;
+  }
+
+ private:
+  bool Check(size_t size) {
+    if (m_data.size() < size) {
+      m_ok = false;
+      m_data = {};
+    }
+    return m_ok;
+  }
+
+  wpi::span<const uint8_t> m_data;
+  bool m_ok = true;
+};
+
+std::shared_ptr<nt::Value> ReadBatchValue(BatchReader& reader, jlong time) {
+  switch (reader.ReadByte()) {
+    case NT_BOOLEAN:
+      return nt::Value::MakeBoolean(reader.ReadByte() != 0, time);
+    case NT_DOUBLE:
+      return nt::Value::MakeDouble(reader.ReadDouble(), time);
+    case NT_STRING:
+      return nt::Value::MakeString(reader.ReadString(), time);
+    case NT_RAW:
+      return nt::Value::MakeRaw(reader.ReadString(), time);
+    case NT_BOOLEAN_ARRAY: {
+      std::vector<int> arr(reader.ReadLength());
+      for (auto&& value : arr) {
+        value = reader.ReadByte();
+      }
+      return nt::Value::MakeBooleanArray(arr, time);
+    }
+    case NT_DOUBLE_ARRAY: {
+      std::vector<double> arr(reader.ReadLength());
+      for (auto&& value : arr) {
+        value = reader.ReadDouble();
+      }
+      return nt::Value::MakeDoubleArray(arr, time);
+    }
+    case NT_STRING_ARRAY: {
+      std::vector<std::string> arr(reader.ReadLength());
+      for (auto&& value : arr) {
+        value = reader.ReadString();
+      }
+      return nt::Value::MakeStringArray(std::move(arr), time);
+    }
+    default:
+      return nullptr;
+  }
+}
+
+// Fixed-capacity queue of double value changes read by DoubleTimeSeries. When
+// the queue is full, the oldest sample is dropped.
+class DoubleTimeSeries {
+ public:
+  explicit DoubleTimeSeries(size_t capacity)
+      : m_timestamps(capacity), m_values(capacity) {}
+
+  NT_EntryListener listener = 0;
+
+  void Add(int64_t time, double value) {
+    std::scoped_lock lock{m_mutex};
+    size_t capacity = m_values.size();
+    size_t pos = m_front + m_size;
+    if (pos >= capacity) {
+      pos -= capacity;
+    }
+    m_timestamps[pos] = time;
+    m_values[pos] = value;
+    if (m_size == capacity) {
+      m_front = m_front + 1 == capacity ? 0 : m_front + 1;
+      ++m_dropped;
+    } else {
+      ++m_size;
+    }
+  }
+
+  jint Read(JNIEnv* env, jlongArray timestamps, jdoubleArray values) {
+    size_t len = (std::min)(env->GetArrayLength(timestamps),
+                            env->GetArrayLength(values));
+    std::scoped_lock lock{m_mutex};
+    size_t count = (std::min)(len, m_size);
+    // copy in at most two parts, as the queue may wrap around
+    size_t first = (std::min)(count, m_values.size() - m_front);
+    env->SetLongArrayRegion(timestamps, 0, first, &m_timestamps[m_front]);
+    env->SetDoubleArrayRegion(values, 0, first, &m_values[m_front]);
+    env->SetLongArrayRegion(timestamps, first, count - first,
+                            m_timestamps.data());
+    env->SetDoubleArrayRegion(values, first, count - first, m_values.data());
+    m_front += count;
+    if (m_front >= m_values.size()) {
+      m_front -= m_values.size();
+    }
+    m_size -= count;
+    return count;
+  }
+
+  int64_t GetDropped() {
+    std::scoped_lock lock{m_mutex};
+    return m_dropped;
+  }
+
+ private:
+  wpi::mutex m_mutex;
+  std::vector<jlong> m_timestamps;
+  std::vector<double> m_values;
+  size_t m_front = 0;
+  size_t m_size = 0;
+  int64_t m_dropped = 0;
+};
+
+}  // namespace
+
 //
 // Conversions from C++ to Java objects
 //
@@ -662,6 +828,36 @@ Java_edu_wpi_first_networktables_NetworkTablesJNI_setStringArray
   return nt::SetEntryValue(entry, v);
 }
 
+/*
+ * Class:     edu_wpi_first_networktables_NetworkTablesJNI
+ * Method:    setEntryValues
+ * Signature: (IJLjava/nio/ByteBuffer;I)Z
+ */
+JNIEXPORT jboolean JNICALL
+Java_edu_wpi_first_networktables_NetworkTablesJNI_setEntryValues
+  (JNIEnv* env, jclass, jint inst, jlong time, jobject batch, jint length)
+{
+  auto data =
+      reinterpret_cast<const uint8_t*>(env->GetDirectBufferAddress(batch));
+  if (!data || length < 0 || length > env->GetDirectBufferCapacity(batch)) {
+    illegalArgEx.Throw(env, "batch must be a direct buffer");
+    return false;
+  }
+  BatchReader reader{{data, static_cast<size_t>(length)}};
+  std::vector<NT_Entry> entries;
+  std::vector<std::shared_ptr<nt::Value>> values;
+  while (!reader.empty()) {
+    // 4-byte entry handle, then the 1-byte type and the value
+    entries.emplace_back(reader.ReadLength());
+    values.emplace_back(ReadBatchValue(reader, time));
+    if (!reader.ok() || !values.back()) {
+      illegalArgEx.Throw(env, "malformed batch");
+      return false;
+    }
+  }
+  return nt::SetEntryValues(inst, entries, values);
+}
+
 /*
  * Class:     edu_wpi_first_networktables_NetworkTablesJNI
  * Method:    getValue
@@ -1108,6 +1304,89 @@ Java_edu_wpi_first_networktables_NetworkTablesJNI_waitForEntryListenerQueue
   return nt::WaitForEntryListenerQueue(inst, timeout);
 }
 
+/*
+ * Class:     edu_wpi_first_networktables_NetworkTablesJNI
+ * Method:    createDoubleTimeSeries
+ * Signature: (II)J
+ */
+JNIEXPORT jlong JNICALL
+Java_edu_wpi_first_networktables_NetworkTablesJNI_createDoubleTimeSeries
+  (JNIEnv* env, jclass, jint entry, jint capacity)
+{
+  if (capacity <= 0) {
+    illegalArgEx.Throw(env, "capacity must be positive");
+    return 0;
+  }
+  auto series = std::make_shared<DoubleTimeSeries>(capacity);
+  // the listener holds a reference, as it may still be running when the
+  // time series is destroyed
+  series->listener = nt::AddEntryListener(
+      entry,
+      [series](const nt::EntryNotification& event) {
+        if (event.value && event.value->IsDouble()) {
+          series->Add(event.value->time(), event.value->GetDouble());
+        }
+      },
+      NT_NOTIFY_IMMEDIATE | NT_NOTIFY_LOCAL | NT_NOTIFY_NEW |
+          NT_NOTIFY_UPDATE);
+  return reinterpret_cast<jlong>(
+      new std::shared_ptr<DoubleTimeSeries>(std::move(series)));
+}
+
+/*
+ * Class:     edu_wpi_first_networktables_NetworkTablesJNI
+ * Method:    destroyDoubleTimeSeries
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL
+Java_edu_wpi_first_networktables_NetworkTablesJNI_destroyDoubleTimeSeries
+  (JNIEnv*, jclass, jlong series)
+{
+  if (series == 0) {
+    return;
+  }
+  auto ptr = reinterpret_cast<std::shared_ptr<DoubleTimeSeries>*>(series);
+  nt::RemoveEntryListener((*ptr)->listener);
+  delete ptr;
+}
+
+/*
+ * Class:     edu_wpi_first_networktables_NetworkTablesJNI
+ * Method:    readDoubleTimeSeries
+ * Signature: (J[J[D)I
+ */
+JNIEXPORT jint JNICALL
+Java_edu_wpi_first_networktables_NetworkTablesJNI_readDoubleTimeSeries
+  (JNIEnv* env, jclass, jlong series, jlongArray timestamps,
+   jdoubleArray values)
+{
+  if (series == 0) {
+    return 0;
+  }
+  if (!timestamps || !values) {
+    nullPointerEx.Throw(env, "arrays cannot be null");
+    return 0;
+  }
+  return (*reinterpret_cast<std::shared_ptr<DoubleTimeSeries>*>(series))
+      ->Read(env, timestamps, values);
+}
+
+/*
+ * Class:     edu_wpi_first_networktables_NetworkTablesJNI
+ * Method:    getDoubleTimeSeriesDropped
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL
+Java_edu_wpi_first_networktables_NetworkTablesJNI_getDoubleTimeSeriesDropped
+  (JNIEnv*, jclass, jlong series)
+{
+  if (series == 0) {
+    return 0;
+  }
+  return (*reinterpret_cast<std::shared_ptr<DoubleTimeSeries>*>(series))
+      ->GetDropped();
+}
+
 /*
  * Class:     edu_wpi_first_networktables_NetworkTablesJNI
  * Method:    createConnectionListenerPoller
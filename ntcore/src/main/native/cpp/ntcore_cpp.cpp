@@ -149,6 +149,30 @@ bool SetEntryValue(NT_Entry entry, std::shared_ptr<Value> value) {
   return ii->storage.SetEntryValue(id, value);
 }
 
+bool SetEntryValues(NT_Inst inst, wpi::span<const NT_Entry> entries,
+                    wpi::span<const std::shared_ptr<Value>> values) {
+  int i = Handle{inst}.GetTypedInst(Handle::kInstance);
+  auto ii = InstanceImpl::Get(i);
+  if (!ii || entries.size() != values.size()) {
+    return false;
+  }
+
+  bool ok = true;
+  std::vector<std::pair<unsigned int, std::shared_ptr<Value>>> ids;
+  ids.reserve(entries.size());
+  for (size_t j = 0; j < entries.size(); ++j) {
+    Handle handle{entries[j]};
+    int id = handle.GetTypedIndex(Handle::kEntry);
+    if (id < 0 || handle.GetInst() != i) {
+      ok = false;
+      continue;
+    }
+    ids.emplace_back(id, values[j]);
+  }
+
+  return ii->storage.SetEntryValues(ids) && ok;
+}
+
 void SetEntryTypeValue(NT_Entry entry, std::shared_ptr<Value> value) {
   Handle handle{entry};
   int id = handle.GetTypedIndex(Handle::kEntry);
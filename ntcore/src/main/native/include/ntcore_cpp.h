@@ -411,6 +411,22 @@ bool SetDefaultEntryValue(NT_Entry entry, std::shared_ptr<Value> value);
  */
 bool SetEntryValue(NT_Entry entry, std::shared_ptr<Value> value);
 
+/**
+ * Set Entry Values.
+ *
+ * Sets new values of several entries at once.  All the values are set before
+ * any of them are visible to other threads or sent to the network.  As with
+ * SetEntryValue(), an entry whose current type differs from the type of its
+ * new value is not updated.
+ *
+ * @param inst      instance handle
+ * @param entries   entry handles; entries of other instances are skipped
+ * @param values    new entry values, one for each entry
+ * @return False on error (type mismatch or invalid entry), True on success
+ */
+bool SetEntryValues(NT_Inst inst, wpi::span<const NT_Entry> entries,
+                    wpi::span<const std::shared_ptr<Value>> values);
+
 /**
  * Set Entry Type and Value.
  *
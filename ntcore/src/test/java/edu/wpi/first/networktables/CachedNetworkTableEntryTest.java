@@ -0,0 +1,126 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.networktables;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CachedNetworkTableEntryTest {
+  private NetworkTableInstance m_inst;
+  private NetworkTableEntry m_entry;
+
+  @BeforeEach
+  void setUp() {
+    m_inst = NetworkTableInstance.create();
+    m_entry = m_inst.getEntry("/cached");
+  }
+
+  @AfterEach
+  void tearDown() {
+    m_inst.close();
+  }
+
+  @Test
+  void initialValueTest() {
+    m_entry.setDouble(1.5);
+    try (CachedNetworkTableEntry cached = m_entry.cached()) {
+      assertTrue(cached.exists());
+      assertEquals(1.5, cached.getDouble(0.0));
+      assertEquals(0, cached.getChangeCount());
+    }
+  }
+
+  @Test
+  void updateTest() {
+    try (CachedNetworkTableEntry cached = m_entry.cached()) {
+      assertFalse(cached.exists());
+      assertEquals(-1.0, cached.getDouble(-1.0));
+
+      m_entry.setDouble(2.0);
+      assertTrue(m_inst.waitForEntryListenerQueue(1.0));
+      assertEquals(2.0, cached.getDouble(0.0));
+      assertEquals(1, cached.getChangeCount());
+
+      m_entry.setDouble(3.0);
+      assertTrue(m_inst.waitForEntryListenerQueue(1.0));
+      assertEquals(3.0, cached.getDouble(0.0));
+      assertEquals(2, cached.getChangeCount());
+    }
+  }
+
+  @Test
+  void typesTest() {
+    try (CachedNetworkTableEntry cached = m_entry.cached()) {
+      m_entry.setDoubleArray(new double[] {1.0, 2.0});
+      assertTrue(m_inst.waitForEntryListenerQueue(1.0));
+      assertArrayEquals(new double[] {1.0, 2.0}, cached.getDoubleArray(new double[0]));
+
+      // Getters for other types return the default
+      assertEquals("default", cached.getString("default"));
+      assertTrue(cached.getBoolean(true));
+      assertEquals(NetworkTableType.kDoubleArray, cached.getValue().getType());
+    }
+  }
+
+  @Test
+  void deleteTest() {
+    m_entry.setString("value");
+    try (CachedNetworkTableEntry cached = m_entry.cached()) {
+      assertEquals("value", cached.getString(""));
+
+      m_entry.delete();
+      assertTrue(m_inst.waitForEntryListenerQueue(1.0));
+      assertFalse(cached.exists());
+      assertEquals("", cached.getString(""));
+      assertEquals(NetworkTableType.kUnassigned, cached.getValue().getType());
+    }
+  }
+
+  @Test
+  void concurrentUpdateTest() throws InterruptedException {
+    m_entry.setDouble(0.0);
+    Thread writer =
+        new Thread(
+            () -> {
+              for (int i = 1; i <= 10000; i++) {
+                m_entry.setDouble(i);
+              }
+            });
+    List<CachedNetworkTableEntry> cachedEntries = new ArrayList<>();
+    writer.start();
+    while (writer.isAlive()) {
+      cachedEntries.add(m_entry.cached());
+    }
+    writer.join();
+
+    // Every cached entry ends up with the last value, wherever its creation fell among the updates
+    assertTrue(m_inst.waitForEntryListenerQueue(5.0));
+    for (CachedNetworkTableEntry cached : cachedEntries) {
+      assertEquals(10000.0, cached.getDouble(-1.0));
+      cached.close();
+    }
+  }
+
+  @Test
+  void closeTest() {
+    CachedNetworkTableEntry cached = m_entry.cached();
+    m_entry.setDouble(1.0);
+    assertTrue(m_inst.waitForEntryListenerQueue(1.0));
+    cached.close();
+
+    m_entry.setDouble(2.0);
+    assertTrue(m_inst.waitForEntryListenerQueue(1.0));
+    assertEquals(1.0, cached.getDouble(0.0));
+    assertEquals(1, cached.getChangeCount());
+  }
+}
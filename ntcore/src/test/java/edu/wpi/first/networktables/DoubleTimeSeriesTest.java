@@ -0,0 +1,104 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.networktables;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DoubleTimeSeriesTest {
+  private NetworkTableInstance m_inst;
+  private NetworkTableEntry m_entry;
+
+  @BeforeEach
+  void setUp() {
+    m_inst = NetworkTableInstance.create();
+    m_entry = m_inst.getEntry("/series");
+  }
+
+  @AfterEach
+  void tearDown() {
+    m_inst.close();
+  }
+
+  @Test
+  void readTest() {
+    try (DoubleTimeSeries series = m_entry.subscribeDoubleTimeSeries(16)) {
+      for (int i = 0; i < 5; i++) {
+        m_entry.setDouble(i);
+      }
+      assertTrue(m_inst.waitForEntryListenerQueue(1.0));
+
+      long[] timestamps = new long[16];
+      double[] values = new double[16];
+      assertEquals(5, series.read(timestamps, values));
+      for (int i = 0; i < 5; i++) {
+        assertEquals(i, values[i]);
+      }
+      assertTrue(timestamps[4] >= timestamps[0]);
+
+      // Read samples are removed
+      assertEquals(0, series.read(timestamps, values));
+      assertEquals(0, series.getDroppedCount());
+    }
+  }
+
+  @Test
+  void initialValueTest() {
+    m_entry.setDouble(1.5);
+    try (DoubleTimeSeries series = m_entry.subscribeDoubleTimeSeries(4)) {
+      assertTrue(m_inst.waitForEntryListenerQueue(1.0));
+      long[] timestamps = new long[4];
+      double[] values = new double[4];
+      assertEquals(1, series.read(timestamps, values));
+      assertEquals(1.5, values[0]);
+    }
+  }
+
+  @Test
+  void partialReadTest() {
+    try (DoubleTimeSeries series = m_entry.subscribeDoubleTimeSeries(8)) {
+      for (int i = 0; i < 6; i++) {
+        m_entry.setDouble(i);
+      }
+      assertTrue(m_inst.waitForEntryListenerQueue(1.0));
+
+      long[] timestamps = new long[4];
+      double[] values = new double[4];
+      assertEquals(4, series.read(timestamps, values));
+      assertEquals(3.0, values[3]);
+      assertEquals(2, series.read(timestamps, values));
+      assertEquals(4.0, values[0]);
+      assertEquals(5.0, values[1]);
+    }
+  }
+
+  @Test
+  void overflowTest() {
+    try (DoubleTimeSeries series = m_entry.subscribeDoubleTimeSeries(4)) {
+      for (int i = 0; i < 10; i++) {
+        m_entry.setDouble(i);
+      }
+      assertTrue(m_inst.waitForEntryListenerQueue(1.0));
+
+      // The oldest samples are dropped
+      long[] timestamps = new long[10];
+      double[] values = new double[10];
+      assertEquals(4, series.read(timestamps, values));
+      assertEquals(6.0, values[0]);
+      assertEquals(9.0, values[3]);
+      assertEquals(6, series.getDroppedCount());
+    }
+  }
+
+  @Test
+  void invalidCapacityTest() {
+    assertThrows(IllegalArgumentException.class, () -> m_entry.subscribeDoubleTimeSeries(0));
+  }
+}
@@ -0,0 +1,108 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.networktables;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EntryListenerDispatcherTest {
+  private ExecutorService m_executor;
+
+  @BeforeEach
+  void setUp() {
+    m_executor = Executors.newFixedThreadPool(2);
+  }
+
+  @AfterEach
+  void tearDown() {
+    m_executor.shutdownNow();
+  }
+
+  private static EntryNotification notification(int entry, double value) {
+    return new EntryNotification(
+        null, 1, entry, "/entry" + entry, NetworkTableValue.makeDouble(value), 0);
+  }
+
+  @Test
+  void directTest() throws InterruptedException {
+    List<EntryNotification> events = new ArrayList<>();
+    var dispatcher = new EntryListenerDispatcher(null, events::add, null);
+    dispatcher.dispatch(notification(1, 1.0), System.nanoTime());
+    assertEquals(1, events.size());
+    assertTrue(dispatcher.waitForQueue(Long.MAX_VALUE));
+    assertEquals(1, dispatcher.getStats().getCount());
+  }
+
+  @Test
+  void orderPerEntryTest() throws InterruptedException {
+    List<Double> first = Collections.synchronizedList(new ArrayList<>());
+    List<Double> second = Collections.synchronizedList(new ArrayList<>());
+    var dispatcher =
+        new EntryListenerDispatcher(
+            null,
+            event -> (event.entry == 1 ? first : second).add(event.value.getDouble()),
+            m_executor);
+    for (int i = 0; i < 1000; i++) {
+      dispatcher.dispatch(notification(1, i), System.nanoTime());
+      dispatcher.dispatch(notification(2, i), System.nanoTime());
+    }
+    assertTrue(dispatcher.waitForQueue(Long.MAX_VALUE));
+
+    assertEquals(1000, first.size());
+    assertEquals(1000, second.size());
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i, first.get(i).doubleValue());
+      assertEquals(i, second.get(i).doubleValue());
+    }
+    EntryListenerStats stats = dispatcher.getStats();
+    assertEquals(2000, stats.getCount());
+    assertEquals(0, stats.getQueueDepth());
+    assertTrue(stats.getMaxQueueDepth() >= 1);
+  }
+
+  @Test
+  void parallelEntriesTest() throws InterruptedException {
+    // A listener blocked on one entry doesn't hold up another entry
+    var blocked = new CountDownLatch(1);
+    var other = new CountDownLatch(1);
+    var dispatcher =
+        new EntryListenerDispatcher(
+            null,
+            event -> {
+              if (event.entry == 1) {
+                try {
+                  blocked.await();
+                } catch (InterruptedException ex) {
+                  Thread.currentThread().interrupt();
+                }
+              } else {
+                other.countDown();
+              }
+            },
+            m_executor);
+    dispatcher.dispatch(notification(1, 1.0), System.nanoTime());
+    dispatcher.dispatch(notification(1, 2.0), System.nanoTime());
+    dispatcher.dispatch(notification(2, 1.0), System.nanoTime());
+    other.await();
+
+    assertFalse(dispatcher.waitForQueue(System.nanoTime() + 10000000));
+    assertEquals(1, dispatcher.getStats().getQueueDepth());
+
+    blocked.countDown();
+    assertTrue(dispatcher.waitForQueue(Long.MAX_VALUE));
+    assertEquals(3, dispatcher.getStats().getCount());
+  }
+}
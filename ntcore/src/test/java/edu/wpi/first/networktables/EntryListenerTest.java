@@ -10,7 +10,10 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -80,4 +83,36 @@ class EntryListenerTest {
         () -> assertEquals(NetworkTableValue.makeDouble(1.0), events.get(0).value),
         () -> assertEquals(EntryListenerFlags.kNew, events.get(0).flags));
   }
+
+  /** Test a listener called on an executor. */
+  @Test
+  void testExecutor() {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      List<Double> values = Collections.synchronizedList(new ArrayList<>());
+      NetworkTableEntry entry = m_serverInst.getEntry("/foo");
+      final int handle =
+          entry.addListener(
+              event -> values.add(event.value.getDouble()),
+              EntryListenerFlags.kLocal | EntryListenerFlags.kNew | EntryListenerFlags.kUpdate,
+              executor);
+
+      for (int i = 0; i < 10; i++) {
+        entry.setDouble(i);
+      }
+      assertTrue(m_serverInst.waitForEntryListenerQueue(1.0));
+
+      // Notifications for an entry stay in order
+      assertEquals(10, values.size());
+      for (int i = 0; i < 10; i++) {
+        assertEquals(i, values.get(i).doubleValue());
+      }
+
+      EntryListenerStats stats = m_serverInst.getEntryListenerStats(handle);
+      assertEquals(10, stats.getCount());
+      assertEquals(0, stats.getQueueDepth());
+    } finally {
+      executor.shutdown();
+    }
+  }
 }
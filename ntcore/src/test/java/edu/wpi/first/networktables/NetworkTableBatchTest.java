@@ -0,0 +1,103 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.networktables;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NetworkTableBatchTest {
+  private NetworkTableInstance m_inst;
+  private NetworkTable m_table;
+
+  @BeforeEach
+  void setUp() {
+    m_inst = NetworkTableInstance.create();
+    m_table = m_inst.getTable("batch");
+  }
+
+  @AfterEach
+  void tearDown() {
+    m_inst.close();
+  }
+
+  @Test
+  void commitSetsAllTypesTest() {
+    NetworkTableBatch batch = m_inst.newBatch();
+    batch.setBoolean(m_table.getEntry("boolean"), true);
+    batch.setDouble(m_table.getEntry("double"), 1.5);
+    batch.setString(m_table.getEntry("string"), "hello");
+    batch.setRaw(m_table.getEntry("raw"), new byte[] {1, 2, 3});
+    batch.setBooleanArray(m_table.getEntry("booleanArray"), new boolean[] {true, false});
+    batch.setDoubleArray(m_table.getEntry("doubleArray"), new double[] {0.5, -0.25});
+    batch.setStringArray(m_table.getEntry("stringArray"), new String[] {"a", "bc"});
+    batch.setValue(m_table.getEntry("value"), NetworkTableValue.makeDouble(2.0));
+    assertEquals(8, batch.size());
+
+    assertTrue(batch.commit());
+    assertTrue(batch.isEmpty());
+
+    assertTrue(m_table.getEntry("boolean").getBoolean(false));
+    assertEquals(1.5, m_table.getEntry("double").getDouble(0.0));
+    assertEquals("hello", m_table.getEntry("string").getString(""));
+    assertArrayEquals(new byte[] {1, 2, 3}, m_table.getEntry("raw").getRaw(new byte[0]));
+    assertArrayEquals(
+        new boolean[] {true, false},
+        m_table.getEntry("booleanArray").getBooleanArray(new boolean[0]));
+    assertArrayEquals(
+        new double[] {0.5, -0.25}, m_table.getEntry("doubleArray").getDoubleArray(new double[0]));
+    assertArrayEquals(
+        new String[] {"a", "bc"}, m_table.getEntry("stringArray").getStringArray(new String[0]));
+    assertEquals(2.0, m_table.getEntry("value").getDouble(0.0));
+  }
+
+  @Test
+  void commitTypeMismatchTest() {
+    NetworkTableEntry entry = m_table.getEntry("mismatch");
+    NetworkTableEntry other = m_table.getEntry("other");
+    entry.setDouble(1.0);
+
+    NetworkTableBatch batch = m_inst.newBatch();
+    batch.setString(entry, "string");
+    batch.setDouble(other, 2.0);
+    assertFalse(batch.commit());
+
+    // The mismatched value isn't set, but the rest of the batch is
+    assertEquals(1.0, entry.getDouble(0.0));
+    assertEquals(2.0, other.getDouble(0.0));
+  }
+
+  @Test
+  void reuseAndGrowTest() {
+    NetworkTableBatch batch = m_inst.newBatch();
+    double[] values = new double[1000];
+    for (int i = 0; i < 2; i++) {
+      values[0] = i;
+      batch.setDoubleArray(m_table.getEntry("large"), values);
+      batch.setDouble(m_table.getEntry("small"), i);
+      assertTrue(batch.commit());
+      assertEquals(i, m_table.getEntry("large").getDoubleArray(new double[0])[0]);
+      assertEquals(i, m_table.getEntry("small").getDouble(-1.0));
+    }
+  }
+
+  @Test
+  void otherInstanceTest() {
+    NetworkTableInstance other = NetworkTableInstance.create();
+    try {
+      NetworkTableBatch batch = m_inst.newBatch();
+      NetworkTableEntry entry = other.getEntry("entry");
+      assertThrows(IllegalArgumentException.class, () -> batch.setDouble(entry, 1.0));
+    } finally {
+      other.close();
+    }
+  }
+}
@@ -299,6 +299,37 @@ TEST_P(StoragePopulatedTest, SetEntryValueDifferentValue) {
   }
 }
 
+TEST_P(StoragePopulatedTest, SetEntryValues) {
+  // values of the same type are set; a type mismatch is skipped and reported
+  auto foo = Value::MakeBoolean(false);
+  auto foo2 = Value::MakeDouble(1.0);
+  auto bar = Value::MakeString("mismatch");
+  std::pair<unsigned int, std::shared_ptr<Value>> values[] = {
+      {storage.GetEntry("foo"), foo},
+      {storage.GetEntry("foo2"), foo2},
+      {storage.GetEntry("bar"), bar}};
+
+  if (GetParam()) {
+    EXPECT_CALL(dispatcher,
+                QueueOutgoing(MessageEq(Message::EntryUpdate(0, 2, foo)),
+                              IsNull(), IsNull()));
+    EXPECT_CALL(dispatcher,
+                QueueOutgoing(MessageEq(Message::EntryUpdate(1, 2, foo2)),
+                              IsNull(), IsNull()));
+  }
+  EXPECT_CALL(notifier, NotifyEntry(0, std::string_view("foo"), foo,
+                                    NT_NOTIFY_UPDATE | NT_NOTIFY_LOCAL,
+                                    UINT_MAX));
+  EXPECT_CALL(notifier, NotifyEntry(1, std::string_view("foo2"), foo2,
+                                    NT_NOTIFY_UPDATE | NT_NOTIFY_LOCAL,
+                                    UINT_MAX));
+
+  EXPECT_FALSE(storage.SetEntryValues(values));
+  EXPECT_EQ(foo, GetEntry("foo")->value);
+  EXPECT_EQ(foo2, GetEntry("foo2")->value);
+  EXPECT_NE(bar, GetEntry("bar")->value);
+}
+
 TEST_P(StorageEmptyTest, SetEntryValueEmptyName) {
   auto value = Value::MakeBoolean(true);
   EXPECT_TRUE(storage.SetEntryValue("", value));
@@ -43,6 +43,7 @@ public class MecanumControllerCommand extends CommandBase {
   private final Timer m_timer = new Timer();
   private final boolean m_usePID;
   private final Trajectory m_trajectory;
+  private Trajectory.Sampler m_sampler;
   private final Supplier<Pose2d> m_pose;
   private final SimpleMotorFeedforward m_feedforward;
   private final MecanumDriveKinematics m_kinematics;
@@ -335,6 +336,7 @@ public class MecanumControllerCommand extends CommandBase {
 
   @Override
   public void initialize() {
+    m_sampler = new Trajectory.Sampler(m_trajectory);
     var initialState = m_trajectory.sample(0);
 
     var initialXVelocity =
@@ -355,7 +357,7 @@ public class MecanumControllerCommand extends CommandBase {
     double curTime = m_timer.get();
     double dt = curTime - m_prevTime;
 
-    var desiredState = m_trajectory.sample(curTime);
+    var desiredState = m_sampler.sample(curTime);
 
     var targetChassisSpeeds =
         m_controller.calculate(m_pose.get(), desiredState, m_desiredRotation.get());
@@ -36,6 +36,7 @@ public class RamseteCommand extends CommandBase {
   private final Timer m_timer = new Timer();
   private final boolean m_usePID;
   private final Trajectory m_trajectory;
+  private Trajectory.Sampler m_sampler;
   private final Supplier<Pose2d> m_pose;
   private final RamseteController m_follower;
   private final SimpleMotorFeedforward m_feedforward;
@@ -135,6 +136,7 @@ public class RamseteCommand extends CommandBase {
   @Override
   public void initialize() {
     m_prevTime = -1;
+    m_sampler = new Trajectory.Sampler(m_trajectory);
     var initialState = m_trajectory.sample(0);
     m_prevSpeeds =
         m_kinematics.toWheelSpeeds(
@@ -163,7 +165,7 @@ public class RamseteCommand extends CommandBase {
 
     var targetWheelSpeeds =
         m_kinematics.toWheelSpeeds(
-            m_follower.calculate(m_pose.get(), m_trajectory.sample(curTime)));
+            m_follower.calculate(m_pose.get(), m_sampler.sample(curTime)));
 
     var leftSpeedSetpoint = targetWheelSpeeds.leftMetersPerSecond;
     var rightSpeedSetpoint = targetWheelSpeeds.rightMetersPerSecond;
@@ -35,6 +35,7 @@ import java.util.function.Supplier;
 public class SwerveControllerCommand extends CommandBase {
   private final Timer m_timer = new Timer();
   private final Trajectory m_trajectory;
+  private Trajectory.Sampler m_sampler;
   private final Supplier<Pose2d> m_pose;
   private final SwerveDriveKinematics m_kinematics;
   private final HolonomicDriveController m_controller;
@@ -139,6 +140,7 @@ public class SwerveControllerCommand extends CommandBase {
 
   @Override
   public void initialize() {
+    m_sampler = new Trajectory.Sampler(m_trajectory);
     m_timer.reset();
     m_timer.start();
   }
@@ -147,7 +149,7 @@ public class SwerveControllerCommand extends CommandBase {
   @SuppressWarnings("LocalVariableName")
   public void execute() {
     double curTime = m_timer.get();
-    var desiredState = m_trajectory.sample(curTime);
+    var desiredState = m_sampler.sample(curTime);
 
     var targetChassisSpeeds =
         m_controller.calculate(m_pose.get(), desiredState, m_desiredRotation.get());
@@ -32,9 +32,16 @@ import java.util.Random;
  * If the FMS is connected and provides a match number, the log file is renamed to
  * "FRC_yyyyMMdd_HHmmss_{event}_{match}.wpilog".
  *
- * <p>On startup, all existing FRC_TBD log files are deleted. If there is less than 50 MB of free
- * space on the target storage, FRC_ log files are deleted (oldest to newest) until there is 50 MB
- * free OR there are 10 files remaining.
+ * <p>The log can be split into segment files by size and/or time using setSegmentLimits(). Each
+ * segment after the first adds a "_001", "_002", etc. suffix to the filename, and starts with the
+ * entries that are still active so it can be read on its own.
+ *
+ * <p>On startup, all existing FRC_TBD log files are deleted. While the log is running, a
+ * background thread periodically enforces the retention limits set by setRetention(). If there is
+ * less than the minimum free space (50 MB by default) on the target storage, FRC_ log files are
+ * deleted (oldest to newest) until there is enough free space OR there are 10 files remaining. If
+ * a total size budget is set, FRC_ log files are also deleted (oldest to newest) until all of them
+ * fit in the budget. The newest log file, which is the one being written, is never deleted.
  *
  * <p>By default, all NetworkTables value changes are stored to the data log.
  */
@@ -43,6 +50,7 @@ public final class DataLogManager {
   private static String m_logDir;
   private static boolean m_filenameOverride;
   private static final Thread m_thread;
+  private static final Thread m_retentionThread;
   private static final ZoneId m_utc = ZoneId.of("UTC");
   private static final DateTimeFormatter m_timeFormatter =
       DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss").withZone(m_utc);
@@ -51,16 +59,26 @@ public final class DataLogManager {
   private static int m_ntConnLogger;
   private static StringLogEntry m_messageLog;
 
+  // segment limits; 0 for no limit
+  private static long m_segmentMaxBytes;
+  private static double m_segmentMaxSeconds;
+
   // if less than this much free space, delete log files until there is this much free space
   // OR there are this many files remaining.
-  private static final long kFreeSpaceThreshold = 50000000L;
+  private static volatile long m_minFreeBytes = 50000000L;
   private static final int kFileCountThreshold = 10;
+  // if the log files total more than this, delete log files until they fit; 0 for no limit
+  private static volatile long m_maxTotalBytes;
+  // time between retention checks, in milliseconds
+  private static final long kRetentionPeriod = 5000;
 
   private DataLogManager() {}
 
   static {
     m_thread = new Thread(DataLogManager::logMain, "DataLogDS");
     m_thread.setDaemon(true);
+    m_retentionThread = new Thread(DataLogManager::retentionMain, "DataLogRetention");
+    m_retentionThread.setDaemon(true);
   }
 
   /** Start data log manager with default directory location. */
@@ -120,8 +138,10 @@ public final class DataLogManager {
     }
 
     m_log = new DataLog(m_logDir, makeLogFilename(filename), period);
+    m_log.setSegmentLimits(m_segmentMaxBytes, m_segmentMaxSeconds);
     m_messageLog = new StringLogEntry(m_log, "messages");
     m_thread.start();
+    m_retentionThread.start();
 
     // Log all NT entries and connections
     if (m_ntLoggerEnabled) {
@@ -168,6 +188,36 @@ public final class DataLogManager {
     return m_logDir;
   }
 
+  /**
+   * Sets limits at which the log is split into a new segment file. Segments are checked when the
+   * log is flushed, so they may exceed the size limit by up to one flush period of data. May be
+   * called before or after the data log manager is started. Defaults to no limits (a single file).
+   *
+   * @param maxBytes maximum size of a segment in bytes; 0 for no limit
+   * @param maxSeconds maximum duration of a segment in seconds; 0 for no limit
+   */
+  public static synchronized void setSegmentLimits(long maxBytes, double maxSeconds) {
+    m_segmentMaxBytes = maxBytes;
+    m_segmentMaxSeconds = maxSeconds;
+    if (m_log != null) {
+      m_log.setSegmentLimits(maxBytes, maxSeconds);
+    }
+  }
+
+  /**
+   * Sets the limits enforced by the background retention thread. Old FRC_ log files are deleted
+   * (oldest to newest) while they total more than maxTotalBytes, and while there is less than
+   * minFreeBytes of free space and more than 10 log files remain. The log file being written is
+   * never deleted. Defaults to no total size limit and 50 MB of free space.
+   *
+   * @param maxTotalBytes maximum total size of all FRC_ log files in bytes; 0 for no limit
+   * @param minFreeBytes minimum free space on the log storage in bytes; 0 for no limit
+   */
+  public static void setRetention(long maxTotalBytes, long minFreeBytes) {
+    m_maxTotalBytes = maxTotalBytes;
+    m_minFreeBytes = minFreeBytes;
+  }
+
   /**
    * Enable or disable logging of NetworkTables data. Note that unlike the network interface for
    * NetworkTables, this will capture every value change. Defaults to enabled.
@@ -234,41 +284,69 @@ public final class DataLogManager {
     NetworkTableInstance.stopConnectionDataLog(m_ntConnLogger);
   }
 
-  private static void logMain() {
-    // based on free disk space, scan for "old" FRC_*.wpilog files and remove
-    {
-      File logDir = new File(m_logDir);
-      long freeSpace = logDir.getFreeSpace();
-      if (freeSpace < kFreeSpaceThreshold) {
-        // Delete oldest FRC_*.wpilog files (ignore FRC_TBD_*.wpilog as we just created one)
-        File[] files =
-            logDir.listFiles(
-                (dir, name) ->
-                    name.startsWith("FRC_")
-                        && name.endsWith(".wpilog")
-                        && !name.startsWith("FRC_TBD_"));
-        if (files != null) {
-          Arrays.sort(files, Comparator.comparingLong(File::lastModified));
-          int count = files.length;
-          for (File file : files) {
-            --count;
-            if (count < kFileCountThreshold) {
-              break;
-            }
-            long length = file.length();
-            if (file.delete()) {
-              freeSpace += length;
-              if (freeSpace >= kFreeSpaceThreshold) {
-                break;
-              }
-            } else {
-              System.err.println("DataLogManager: could not delete " + file);
-            }
-          }
-        }
+  private static void retentionMain() {
+    while (!Thread.interrupted()) {
+      enforceRetention(new File(m_logDir), m_maxTotalBytes, m_minFreeBytes);
+      try {
+        Thread.sleep(kRetentionPeriod);
+      } catch (InterruptedException ex) {
+        break;
+      }
+    }
+  }
+
+  /**
+   * Deletes old FRC_ log files in a directory to enforce the retention limits.
+   *
+   * @param logDir log directory
+   * @param maxTotalBytes maximum total size of all FRC_ log files in bytes; 0 for no limit
+   * @param minFreeBytes minimum free space on the log storage in bytes; 0 for no limit
+   */
+  static void enforceRetention(File logDir, long maxTotalBytes, long minFreeBytes) {
+    long freeSpace = logDir.getFreeSpace();
+    if (maxTotalBytes <= 0 && freeSpace >= minFreeBytes) {
+      return;
+    }
+
+    File[] files =
+        logDir.listFiles((dir, name) -> name.startsWith("FRC_") && name.endsWith(".wpilog"));
+    if (files == null || files.length == 0) {
+      return;
+    }
+    long totalBytes = 0;
+    int count = 0;
+    for (File file : files) {
+      totalBytes += file.length();
+      if (!file.getName().startsWith("FRC_TBD_")) {
+        count++;
       }
     }
 
+    // Delete oldest FRC_*.wpilog files. The newest file is the one being written; FRC_TBD_*.wpilog
+    // files are ignored as they're only deleted on startup.
+    Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+    for (int i = 0; i < files.length - 1; i++) {
+      File file = files[i];
+      if (file.getName().startsWith("FRC_TBD_")) {
+        continue;
+      }
+      boolean overBudget = maxTotalBytes > 0 && totalBytes > maxTotalBytes;
+      boolean lowSpace = freeSpace < minFreeBytes && count > kFileCountThreshold;
+      if (!overBudget && !lowSpace) {
+        break;
+      }
+      long length = file.length();
+      if (file.delete()) {
+        freeSpace += length;
+        totalBytes -= length;
+        --count;
+      } else {
+        System.err.println("DataLogManager: could not delete " + file);
+      }
+    }
+  }
+
+  private static void logMain() {
     int timeoutCount = 0;
     boolean paused = false;
     int dsAttachCount = 0;
@@ -0,0 +1,325 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.wpilibj;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.DifferentialDriveOdometry;
+import edu.wpi.first.math.kinematics.MecanumDriveOdometry;
+import edu.wpi.first.math.kinematics.MecanumDriveWheelSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveOdometry;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleFunction;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Runs odometry on its own {@link Notifier} so it can be updated faster than the main robot loop.
+ *
+ * <p>Each period, the thread calls an update function that reads the drivetrain's sensors and
+ * updates an odometry object or pose estimator, and timestamps the resulting pose with {@link
+ * RobotController#getFPGATime()}. The latest pose is published through a volatile reference to an
+ * immutable {@link Sample}, so reading it from the main loop never blocks. A history of recent
+ * samples is also kept for latency compensation, for example to look up where the robot was when a
+ * camera frame was captured.
+ *
+ * <p>Once the thread is started, the odometry object it updates must only be accessed from the
+ * update function or {@link #runExclusively(Runnable)}.
+ *
+ * <pre><code>
+ * m_odometryThread =
+ *     OdometryThread.forSwerve(m_odometry, m_gyro::getRotation2d, this::getModuleStates, 0.005);
+ * m_odometryThread.start();
+ * ...
+ * Pose2d pose = m_odometryThread.getPose();
+ * </code></pre>
+ */
+public class OdometryThread implements AutoCloseable {
+  /** The default length of the pose history in seconds. */
+  public static final double kDefaultHistorySeconds = 1.5;
+
+  /** A pose and the time at which it was measured. */
+  @SuppressWarnings("MemberName")
+  public static final class Sample {
+    /** The FPGA time at which the pose was measured in seconds. */
+    public final double timestampSeconds;
+
+    /** The measured pose. */
+    public final Pose2d pose;
+
+    /**
+     * Constructs a Sample.
+     *
+     * @param timestampSeconds The FPGA time at which the pose was measured in seconds.
+     * @param pose The measured pose.
+     */
+    public Sample(double timestampSeconds, Pose2d pose) {
+      this.timestampSeconds = timestampSeconds;
+      this.pose = pose;
+    }
+  }
+
+  private final DoubleFunction<Pose2d> m_update;
+  private final double m_periodSeconds;
+  private final Notifier m_notifier;
+
+  // Serializes updates with runExclusively()
+  private final Object m_updateLock = new Object();
+
+  // Only written while holding m_updateLock, so publishing through a volatile is enough
+  private volatile Sample m_latest;
+
+  // Ring buffer of samples, oldest first; guarded by itself
+  private final Sample[] m_history;
+  private int m_historyStart;
+  private int m_historySize;
+
+  /**
+   * Constructs an OdometryThread. The thread doesn't run until {@link #start()} is called.
+   *
+   * @param update The function that reads the sensors, updates the odometry, and returns the new
+   *     pose. It's passed the FPGA time of the update in seconds.
+   * @param periodSeconds The period between updates in seconds. Periods of 4 to 10 ms (100 to 250
+   *     Hz) are typical.
+   * @param historySeconds How long to keep samples for {@link #getPose(double)} and {@link
+   *     #getHistory()} in seconds. Must not be negative.
+   */
+  public OdometryThread(
+      DoubleFunction<Pose2d> update, double periodSeconds, double historySeconds) {
+    if (periodSeconds <= 0.0) {
+      throw new IllegalArgumentException("Period must be positive, got " + periodSeconds);
+    }
+    if (historySeconds < 0.0) {
+      throw new IllegalArgumentException(
+          "History length must not be negative, got " + historySeconds);
+    }
+    m_update = update;
+    m_periodSeconds = periodSeconds;
+    m_history = new Sample[(int) Math.ceil(historySeconds / periodSeconds) + 1];
+
+    m_notifier = new Notifier(this::update);
+    m_notifier.setName("OdometryThread");
+  }
+
+  /**
+   * Constructs an OdometryThread that keeps {@link #kDefaultHistorySeconds} of history.
+   *
+   * @param update The function that reads the sensors, updates the odometry, and returns the new
+   *     pose. It's passed the FPGA time of the update in seconds.
+   * @param periodSeconds The period between updates in seconds.
+   */
+  public OdometryThread(DoubleFunction<Pose2d> update, double periodSeconds) {
+    this(update, periodSeconds, kDefaultHistorySeconds);
+  }
+
+  /**
+   * Constructs an OdometryThread that updates swerve drive odometry.
+   *
+   * @param odometry The odometry to update.
+   * @param gyroAngle Supplies the angle reported by the gyroscope.
+   * @param moduleStates Supplies the current state of all swerve modules.
+   * @param periodSeconds The period between updates in seconds.
+   * @return The odometry thread.
+   */
+  public static OdometryThread forSwerve(
+      SwerveDriveOdometry odometry,
+      Supplier<Rotation2d> gyroAngle,
+      Supplier<SwerveModuleState[]> moduleStates,
+      double periodSeconds) {
+    return new OdometryThread(
+        timestampSeconds ->
+            odometry.updateWithTime(timestampSeconds, gyroAngle.get(), moduleStates.get()),
+        periodSeconds);
+  }
+
+  /**
+   * Constructs an OdometryThread that updates mecanum drive odometry.
+   *
+   * @param odometry The odometry to update.
+   * @param gyroAngle Supplies the angle reported by the gyroscope.
+   * @param wheelSpeeds Supplies the current wheel speeds.
+   * @param periodSeconds The period between updates in seconds.
+   * @return The odometry thread.
+   */
+  public static OdometryThread forMecanum(
+      MecanumDriveOdometry odometry,
+      Supplier<Rotation2d> gyroAngle,
+      Supplier<MecanumDriveWheelSpeeds> wheelSpeeds,
+      double periodSeconds) {
+    return new OdometryThread(
+        timestampSeconds ->
+            odometry.updateWithTime(timestampSeconds, gyroAngle.get(), wheelSpeeds.get()),
+        periodSeconds);
+  }
+
+  /**
+   * Constructs an OdometryThread that updates differential drive odometry.
+   *
+   * <p>Unlike the swerve and mecanum factories, this ignores the update timestamp, since {@link
+   * DifferentialDriveOdometry} integrates encoder distances rather than velocities and has no
+   * updateWithTime(). The samples are still timestamped with the time of each update.
+   *
+   * @param odometry The odometry to update.
+   * @param gyroAngle Supplies the angle reported by the gyroscope.
+   * @param leftDistanceMeters Supplies the distance traveled by the left encoder.
+   * @param rightDistanceMeters Supplies the distance traveled by the right encoder.
+   * @param periodSeconds The period between updates in seconds.
+   * @return The odometry thread.
+   */
+  public static OdometryThread forDifferential(
+      DifferentialDriveOdometry odometry,
+      Supplier<Rotation2d> gyroAngle,
+      DoubleSupplier leftDistanceMeters,
+      DoubleSupplier rightDistanceMeters,
+      double periodSeconds) {
+    return new OdometryThread(
+        timestampSeconds ->
+            odometry.update(
+                gyroAngle.get(),
+                leftDistanceMeters.getAsDouble(),
+                rightDistanceMeters.getAsDouble()),
+        periodSeconds);
+  }
+
+  /** Starts updating the odometry periodically. */
+  public void start() {
+    m_notifier.startPeriodic(m_periodSeconds);
+  }
+
+  /** Stops updating the odometry. The latest pose and history are kept. */
+  public void stop() {
+    m_notifier.stop();
+  }
+
+  @Override
+  public void close() {
+    m_notifier.close();
+  }
+
+  /**
+   * Runs an action while no update is in progress, then clears the history and runs an update so
+   * that the latest pose reflects the action. Use this to reset the odometry's position while the
+   * thread is running. The update function is called from the calling thread.
+   *
+   * @param action The action to run, e.g. a call to the odometry's resetPosition().
+   */
+  public void runExclusively(Runnable action) {
+    synchronized (m_updateLock) {
+      action.run();
+      synchronized (m_history) {
+        m_historyStart = 0;
+        m_historySize = 0;
+      }
+      updateLocked();
+    }
+  }
+
+  /**
+   * Returns the latest sample. This doesn't block.
+   *
+   * @return The latest sample, or null if the odometry hasn't been updated yet.
+   */
+  public Sample getLatestSample() {
+    return m_latest;
+  }
+
+  /**
+   * Returns the latest pose. This doesn't block.
+   *
+   * @return The latest pose, or null if the odometry hasn't been updated yet.
+   */
+  public Pose2d getPose() {
+    Sample latest = m_latest;
+    return latest != null ? latest.pose : null;
+  }
+
+  /**
+   * Returns the pose at the given time, interpolated between the two nearest samples in the
+   * history. Times before the oldest sample or after the newest sample return that sample's pose.
+   *
+   * @param timestampSeconds The FPGA time in seconds.
+   * @return The pose at that time, or null if the history is empty.
+   */
+  public Pose2d getPose(double timestampSeconds) {
+    synchronized (m_history) {
+      if (m_historySize == 0) {
+        return null;
+      }
+
+      // Find the first sample at or after the requested time
+      int low = 0;
+      int high = m_historySize;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (historyAt(mid).timestampSeconds < timestampSeconds) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+
+      if (low == 0) {
+        return historyAt(0).pose;
+      } else if (low == m_historySize) {
+        return historyAt(m_historySize - 1).pose;
+      }
+
+      Sample bottom = historyAt(low - 1);
+      Sample top = historyAt(low);
+      if (top.timestampSeconds == bottom.timestampSeconds) {
+        return top.pose;
+      }
+      return bottom.pose.interpolate(
+          top.pose,
+          (timestampSeconds - bottom.timestampSeconds)
+              / (top.timestampSeconds - bottom.timestampSeconds));
+    }
+  }
+
+  /**
+   * Returns a copy of the sample history, oldest first.
+   *
+   * @return The sample history.
+   */
+  public List<Sample> getHistory() {
+    synchronized (m_history) {
+      var history = new ArrayList<Sample>(m_historySize);
+      for (int i = 0; i < m_historySize; i++) {
+        history.add(historyAt(i));
+      }
+      return history;
+    }
+  }
+
+  /** Updates the odometry and publishes the new pose. Called by the notifier. */
+  void update() {
+    synchronized (m_updateLock) {
+      updateLocked();
+    }
+  }
+
+  // Must be called while holding m_updateLock
+  private void updateLocked() {
+    double timestampSeconds = RobotController.getFPGATime() * 1e-6;
+    var sample = new Sample(timestampSeconds, m_update.apply(timestampSeconds));
+
+    synchronized (m_history) {
+      if (m_historySize == m_history.length) {
+        m_history[m_historyStart] = sample;
+        m_historyStart = (m_historyStart + 1) % m_history.length;
+      } else {
+        m_history[(m_historyStart + m_historySize) % m_history.length] = sample;
+        m_historySize++;
+      }
+    }
+    m_latest = sample;
+  }
+
+  private Sample historyAt(int index) {
+    return m_history[(m_historyStart + index) % m_history.length];
+  }
+}
@@ -5,6 +5,7 @@
 package edu.wpi.first.wpilibj.livewindow;
 
 import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableBatch;
 import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.util.sendable.Sendable;
@@ -25,6 +26,7 @@ public class LiveWindow {
       NetworkTableInstance.getDefault().getTable("LiveWindow");
   private static final NetworkTable statusTable = liveWindowTable.getSubTable(".status");
   private static final NetworkTableEntry enabledEntry = statusTable.getEntry("LW Enabled");
+  private static final NetworkTableBatch batch = liveWindowTable.getInstance().newBatch();
   private static boolean startLiveWindow;
   private static boolean liveWindowEnabled;
   private static boolean telemetryEnabled = true;
@@ -33,7 +35,12 @@ public class LiveWindow {
   private static Runnable disabledListener;
 
   static {
-    SendableRegistry.setLiveWindowBuilderFactory(() -> new SendableBuilderImpl());
+    SendableRegistry.setLiveWindowBuilderFactory(
+        () -> {
+          var builder = new SendableBuilderImpl();
+          builder.setBatch(batch);
+          return builder;
+        });
   }
 
   private static Component getOrAdd(Sendable sendable) {
@@ -190,6 +197,9 @@ public class LiveWindow {
           }
           cbdata.builder.update();
         });
+    synchronized (batch) {
+      batch.commit();
+    }
 
     startLiveWindow = false;
   }
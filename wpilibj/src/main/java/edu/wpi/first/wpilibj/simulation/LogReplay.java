@@ -0,0 +1,392 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.wpilibj.simulation;
+
+import edu.wpi.first.hal.HALValue;
+import edu.wpi.first.hal.SimValue;
+import edu.wpi.first.util.datalog.DataLogCursor;
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+import edu.wpi.first.wpilibj.DriverStation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Replays a recorded data log into simulation, faster than real time.
+ *
+ * <p>The log is read one record at a time. Logged entries are mapped onto simulation inputs through
+ * a binding table: each bound entry's records are applied (in timestamp order) as simulation time
+ * reaches them. Simulation time is paused and advanced with {@link SimHooks#stepTiming(double)} in
+ * lockstep with the log, one period at a time, so the robot program runs exactly as many loops as
+ * it did when the log was recorded, but as fast as the CPU allows.
+ *
+ * <p>Recorded outputs can be compared against the replayed program: after each step, the last
+ * value recorded during that step for each compared entry is checked against the current replayed
+ * value, and any differences are collected as {@link Mismatch}es.
+ *
+ * <pre><code>
+ * LogReplay replay =
+ *     new LogReplay(new DataLogReader("FRC_20220312_123456.wpilog"), 0.02)
+ *         .bindDriverStation()
+ *         .bindSimValue("NT:/sensors/gyro", "Gyro:ADXRS450[0]", "angle_x")
+ *         .compare("NT:/drive/leftOutput", m_leftMotor::get, 1e-9);
+ * replay.run();
+ * assertEquals(List.of(), replay.getMismatches());
+ * </code></pre>
+ */
+public class LogReplay {
+  /** Applies a logged record to a simulation input. */
+  @FunctionalInterface
+  public interface Binding {
+    /**
+     * Applies a record.
+     *
+     * @param record Cursor positioned on the record; only valid during the call
+     * @param type Entry type string, e.g. "double"
+     */
+    void apply(DataLogCursor record, String type);
+  }
+
+  /** A difference between a recorded output and the replayed output. */
+  public static final class Mismatch {
+    /** Entry name. */
+    @SuppressWarnings("MemberName")
+    public final String name;
+
+    /** Log timestamp of the recorded value, in integer microseconds. */
+    @SuppressWarnings("MemberName")
+    public final long timestamp;
+
+    /** Recorded value. */
+    @SuppressWarnings("MemberName")
+    public final double expected;
+
+    /** Replayed value. */
+    @SuppressWarnings("MemberName")
+    public final double actual;
+
+    Mismatch(String name, long timestamp, double expected, double actual) {
+      this.name = name;
+      this.timestamp = timestamp;
+      this.expected = expected;
+      this.actual = actual;
+    }
+
+    @Override
+    public String toString() {
+      return name + " @ " + timestamp + ": expected " + expected + ", actual " + actual;
+    }
+  }
+
+  private static final class Output {
+    Output(String name, DoubleSupplier replayed, double tolerance) {
+      m_name = name;
+      m_replayed = replayed;
+      m_tolerance = tolerance;
+    }
+
+    final String m_name;
+    final DoubleSupplier m_replayed;
+    final double m_tolerance;
+    boolean m_hasExpected;
+    double m_expected;
+    long m_expectedTimestamp;
+  }
+
+  private static final class ActiveEntry {
+    ActiveEntry(String type, Binding binding, Output output) {
+      m_type = type;
+      m_binding = binding;
+      m_output = output;
+    }
+
+    final String m_type;
+    final Binding m_binding;
+    final Output m_output;
+  }
+
+  private final DataLogCursor m_cursor;
+  private final long m_period;
+  private final Map<String, Binding> m_bindings = new HashMap<>();
+  private final Map<String, Output> m_outputs = new HashMap<>();
+  private final Map<Integer, ActiveEntry> m_active = new HashMap<>();
+  private final List<Output> m_pendingOutputs = new ArrayList<>();
+  private final List<Mismatch> m_mismatches = new ArrayList<>();
+  private boolean m_hasRecord;
+  private boolean m_started;
+  private long m_stepEnd;
+  private boolean m_dsChanged;
+
+  /**
+   * Constructs a replay of a data log.
+   *
+   * @param reader Data log reader
+   * @param periodSeconds Time to advance simulation by in each step, in seconds; typically the
+   *     robot loop period
+   */
+  public LogReplay(DataLogReader reader, double periodSeconds) {
+    m_cursor = new DataLogCursor(reader);
+    m_period = (long) (periodSeconds * 1e6);
+    if (m_period <= 0) {
+      throw new IllegalArgumentException("period must be positive");
+    }
+    m_hasRecord = m_cursor.next();
+  }
+
+  /**
+   * Binds a logged entry to a simulation input. Replaces any existing binding for the entry.
+   *
+   * @param name Entry name
+   * @param binding Binding called for each data record of the entry
+   * @return this
+   */
+  public LogReplay bind(String name, Binding binding) {
+    m_bindings.put(name, binding);
+    return this;
+  }
+
+  /**
+   * Binds the control word and joystick entries written by {@link DriverStation#startDataLog} to
+   * {@link DriverStationSim}. New driver station data is made visible to the robot program before
+   * each step in which it changed.
+   *
+   * @return this
+   */
+  public LogReplay bindDriverStation() {
+    bind(
+        "DS:enabled",
+        (record, type) -> setDs(() -> DriverStationSim.setEnabled(record.getBoolean())));
+    bind(
+        "DS:autonomous",
+        (record, type) -> setDs(() -> DriverStationSim.setAutonomous(record.getBoolean())));
+    bind("DS:test", (record, type) -> setDs(() -> DriverStationSim.setTest(record.getBoolean())));
+    bind("DS:estop", (record, type) -> setDs(() -> DriverStationSim.setEStop(record.getBoolean())));
+    for (int i = 0; i < DriverStation.kJoystickPorts; i++) {
+      int stick = i;
+      String prefix = "DS:joystick" + stick + "/";
+      bind(prefix + "buttons", (record, type) -> setDs(() -> applyButtons(stick, record)));
+      bind(prefix + "axes", (record, type) -> setDs(() -> applyAxes(stick, record)));
+      bind(prefix + "povs", (record, type) -> setDs(() -> applyPOVs(stick, record)));
+    }
+    return this;
+  }
+
+  /**
+   * Binds a logged boolean, int64, float, or double entry to a simulated device value. The device
+   * is looked up when the first record is applied, so it may be created by the robot program after
+   * the replay is constructed; records are skipped while the device or value doesn't exist.
+   *
+   * @param name Entry name
+   * @param device Simulated device name
+   * @param value Simulated device value name
+   * @return this
+   */
+  public LogReplay bindSimValue(String name, String device, String value) {
+    SimValue[] simValue = new SimValue[1];
+    return bind(
+        name,
+        (record, type) -> {
+          if (simValue[0] == null) {
+            SimDeviceSim sim = new SimDeviceSim(device);
+            if (sim.getNativeHandle() == 0) {
+              return;
+            }
+            simValue[0] = sim.getValue(value);
+            if (simValue[0] == null) {
+              return;
+            }
+          }
+          double recorded = getNumber(record, type);
+          switch (simValue[0].getValue().getType()) {
+            case HALValue.kBoolean:
+              simValue[0].setValue(HALValue.makeBoolean(recorded != 0));
+              break;
+            case HALValue.kEnum:
+              simValue[0].setValue(HALValue.makeEnum((int) recorded));
+              break;
+            case HALValue.kInt:
+              simValue[0].setValue(HALValue.makeInt((int) recorded));
+              break;
+            case HALValue.kLong:
+              simValue[0].setValue(HALValue.makeLong((long) recorded));
+              break;
+            default:
+              simValue[0].setValue(HALValue.makeDouble(recorded));
+              break;
+          }
+        });
+  }
+
+  /**
+   * Compares a logged boolean, int64, float, or double entry against the replayed program. After
+   * each step in which the entry was recorded, the last recorded value is compared to the replayed
+   * value; booleans compare as 0 and 1.
+   *
+   * @param name Entry name
+   * @param replayed Supplies the replayed value
+   * @param tolerance Largest allowed absolute difference
+   * @return this
+   */
+  public LogReplay compare(String name, DoubleSupplier replayed, double tolerance) {
+    m_outputs.put(name, new Output(name, replayed, tolerance));
+    return this;
+  }
+
+  /**
+   * Gets the log timestamp that simulation has been advanced to.
+   *
+   * @return Log timestamp in integer microseconds, or 0 if no steps have been taken
+   */
+  public long getTimestamp() {
+    return m_started ? m_stepEnd : 0;
+  }
+
+  /**
+   * Returns whether there are records left to replay.
+   *
+   * @return True if there are records left
+   */
+  public boolean hasNext() {
+    return m_hasRecord;
+  }
+
+  /**
+   * Gets the differences found between recorded and replayed outputs so far.
+   *
+   * @return Mismatches, in the order they were found
+   */
+  public List<Mismatch> getMismatches() {
+    return Collections.unmodifiableList(m_mismatches);
+  }
+
+  /**
+   * Replays one period: applies the records timestamped before the end of the period, advances
+   * simulation time by the period, then compares outputs. On the first step, simulation timing is
+   * paused and the period starts at the timestamp of the first record.
+   *
+   * @return True if there are records left to replay
+   */
+  public boolean step() {
+    if (!m_started) {
+      m_started = true;
+      SimHooks.pauseTiming();
+      m_stepEnd = (m_hasRecord ? m_cursor.getTimestamp() : 0) + m_period;
+    }
+
+    while (m_hasRecord && m_cursor.getTimestamp() < m_stepEnd) {
+      apply();
+      m_hasRecord = m_cursor.next();
+    }
+    if (m_dsChanged) {
+      m_dsChanged = false;
+      DriverStationSim.notifyNewData();
+    }
+
+    SimHooks.stepTiming(m_period / 1e6);
+
+    for (Output output : m_pendingOutputs) {
+      double actual = output.m_replayed.getAsDouble();
+      if (!(Math.abs(actual - output.m_expected) <= output.m_tolerance)) {
+        m_mismatches.add(
+            new Mismatch(output.m_name, output.m_expectedTimestamp, output.m_expected, actual));
+      }
+      output.m_hasExpected = false;
+    }
+    m_pendingOutputs.clear();
+
+    m_stepEnd += m_period;
+    return m_hasRecord;
+  }
+
+  /** Replays the rest of the log. */
+  public void run() {
+    while (step()) {}
+  }
+
+  private void apply() {
+    if (m_cursor.isControl()) {
+      if (m_cursor.isStart()) {
+        DataLogRecord.StartRecordData start = m_cursor.getRecord().getStartData();
+        Binding binding = m_bindings.get(start.name);
+        Output output = m_outputs.get(start.name);
+        if (binding != null || output != null) {
+          m_active.put(start.entry, new ActiveEntry(start.type, binding, output));
+        }
+      } else if (m_cursor.isFinish()) {
+        m_active.remove(m_cursor.getRecord().getFinishEntry());
+      }
+      return;
+    }
+
+    ActiveEntry entry = m_active.get(m_cursor.getEntry());
+    if (entry == null) {
+      return;
+    }
+    if (entry.m_binding != null) {
+      entry.m_binding.apply(m_cursor, entry.m_type);
+    }
+    Output output = entry.m_output;
+    if (output != null) {
+      if (!output.m_hasExpected) {
+        output.m_hasExpected = true;
+        m_pendingOutputs.add(output);
+      }
+      output.m_expected = getNumber(m_cursor, entry.m_type);
+      output.m_expectedTimestamp = m_cursor.getTimestamp();
+    }
+  }
+
+  private void setDs(Runnable set) {
+    set.run();
+    m_dsChanged = true;
+  }
+
+  private static void applyButtons(int stick, DataLogCursor record) {
+    int count = record.getBooleanArrayLength();
+    int buttons = 0;
+    for (int i = 0; i < count && i < 32; i++) {
+      if (record.getBoolean(i)) {
+        buttons |= 1 << i;
+      }
+    }
+    DriverStationSim.setJoystickButtonCount(stick, count);
+    DriverStationSim.setJoystickButtons(stick, buttons);
+  }
+
+  private static void applyAxes(int stick, DataLogCursor record) {
+    int count = record.getFloatArrayLength();
+    DriverStationSim.setJoystickAxisCount(stick, count);
+    for (int i = 0; i < count; i++) {
+      DriverStationSim.setJoystickAxis(stick, i, record.getFloat(i));
+    }
+  }
+
+  private static void applyPOVs(int stick, DataLogCursor record) {
+    int count = record.getIntegerArrayLength();
+    DriverStationSim.setJoystickPOVCount(stick, count);
+    for (int i = 0; i < count; i++) {
+      DriverStationSim.setJoystickPOV(stick, i, (int) record.getInteger(i));
+    }
+  }
+
+  private static double getNumber(DataLogCursor record, String type) {
+    switch (type) {
+      case "boolean":
+        return record.getBoolean() ? 1 : 0;
+      case "int64":
+        return record.getInteger();
+      case "float":
+        return record.getFloat();
+      case "double":
+        return record.getDouble();
+      default:
+        throw new IllegalArgumentException("entry type '" + type + "' is not a number");
+    }
+  }
+}
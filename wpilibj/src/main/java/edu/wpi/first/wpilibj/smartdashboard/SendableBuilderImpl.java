@@ -7,11 +7,14 @@ package edu.wpi.first.wpilibj.smartdashboard;
 import edu.wpi.first.networktables.EntryListenerFlags;
 import edu.wpi.first.networktables.NTSendableBuilder;
 import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableBatch;
 import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.networktables.NetworkTableValue;
 import edu.wpi.first.util.function.BooleanConsumer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.function.DoubleConsumer;
@@ -44,18 +47,92 @@ public class SendableBuilderImpl implements NTSendableBuilder {
       }
     }
 
+    boolean changed(double value) {
+      if (m_hasValue && Double.doubleToLongBits(value) == Double.doubleToLongBits(m_lastDouble)) {
+        return false;
+      }
+      m_lastDouble = value;
+      m_hasValue = true;
+      return true;
+    }
+
+    boolean changed(boolean value) {
+      return changed(value ? 1.0 : 0.0);
+    }
+
+    boolean changed(Object value) {
+      if (m_hasValue && Objects.equals(value, m_lastValue)) {
+        return false;
+      }
+      m_lastValue = value;
+      m_hasValue = true;
+      return true;
+    }
+
+    // Getters may modify and return the same array each time, so arrays are compared with a copy
+
+    boolean changed(boolean[] value) {
+      if (m_hasValue && Arrays.equals(value, (boolean[]) m_lastValue)) {
+        return false;
+      }
+      m_lastValue = value != null ? value.clone() : null;
+      m_hasValue = true;
+      return true;
+    }
+
+    boolean changed(double[] value) {
+      if (m_hasValue && Arrays.equals(value, (double[]) m_lastValue)) {
+        return false;
+      }
+      m_lastValue = value != null ? value.clone() : null;
+      m_hasValue = true;
+      return true;
+    }
+
+    boolean changed(String[] value) {
+      if (m_hasValue && Arrays.equals(value, (String[]) m_lastValue)) {
+        return false;
+      }
+      m_lastValue = value != null ? value.clone() : null;
+      m_hasValue = true;
+      return true;
+    }
+
+    boolean changed(byte[] value) {
+      if (m_hasValue && Arrays.equals(value, (byte[]) m_lastValue)) {
+        return false;
+      }
+      m_lastValue = value != null ? value.clone() : null;
+      m_hasValue = true;
+      return true;
+    }
+
     final NetworkTableEntry m_entry;
     int m_listener;
     Consumer<NetworkTableEntry> m_update;
     Function<NetworkTableEntry, Integer> m_createListener;
+
+    // Last value set on the entry by m_update
+    boolean m_hasValue;
+    double m_lastDouble;
+    Object m_lastValue;
   }
 
+  // Number of calls to update() between setting every property, even if unchanged, so the
+  // entries are restored if they're deleted or overwritten remotely
+  private static final int kRefreshUpdates = 50;
+
   private final List<Property> m_properties = new ArrayList<>();
   private Runnable m_safeState;
   private final List<Runnable> m_updateTables = new ArrayList<>();
   private NetworkTable m_table;
   private NetworkTableEntry m_controllableEntry;
   private boolean m_actuator;
+  private int m_updatesUntilRefresh;
+
+  // Batch that update() adds property values to; committed by update() only if it's not shared
+  private NetworkTableBatch m_batch;
+  private boolean m_sharedBatch;
 
   /**
    * Set the network table. Must be called prior to any Add* functions being called.
@@ -65,6 +142,22 @@ public class SendableBuilderImpl implements NTSendableBuilder {
   public void setTable(NetworkTable table) {
     m_table = table;
     m_controllableEntry = table.getEntry(".controllable");
+    if (m_batch == null) {
+      m_batch = table.getInstance().newBatch();
+    }
+  }
+
+  /**
+   * Set a batch shared with other builders. Property values set by update() are added to the
+   * batch, which the caller commits after updating all the builders, so that they're all set with
+   * a single native call. The batch is locked while values are added to it, so it must also be
+   * locked while it's committed.
+   *
+   * @param batch Batch for the table's instance
+   */
+  public void setBatch(NetworkTableBatch batch) {
+    m_batch = batch;
+    m_sharedBatch = true;
   }
 
   /**
@@ -96,12 +189,31 @@ public class SendableBuilderImpl implements NTSendableBuilder {
     return m_actuator;
   }
 
-  /** Update the network table values by calling the getters for all properties. */
+  /**
+   * Update the network table values by calling the getters for all properties. Only values that
+   * changed since the last update are set, except that every value is set periodically. The values
+   * are set with a single native call, or added to the shared batch if there is one.
+   */
   @Override
   public void update() {
-    for (Property property : m_properties) {
-      if (property.m_update != null) {
-        property.m_update.accept(property.m_entry);
+    boolean refresh = --m_updatesUntilRefresh <= 0;
+    if (refresh) {
+      m_updatesUntilRefresh = kRefreshUpdates;
+    }
+    // There are only properties once there's a table, and so a batch
+    if (!m_properties.isEmpty()) {
+      synchronized (m_batch) {
+        for (Property property : m_properties) {
+          if (property.m_update != null) {
+            if (refresh) {
+              property.m_hasValue = false;
+            }
+            property.m_update.accept(property.m_entry);
+          }
+        }
+        if (!m_sharedBatch) {
+          m_batch.commit();
+        }
       }
     }
     for (Runnable updateTable : m_updateTables) {
@@ -227,7 +339,13 @@ public class SendableBuilderImpl implements NTSendableBuilder {
   public void addBooleanProperty(String key, BooleanSupplier getter, BooleanConsumer setter) {
     Property property = new Property(m_table, key);
     if (getter != null) {
-      property.m_update = entry -> entry.setBoolean(getter.getAsBoolean());
+      property.m_update =
+          entry -> {
+            boolean value = getter.getAsBoolean();
+            if (property.changed(value)) {
+              m_batch.setBoolean(entry, value);
+            }
+          };
     }
     if (setter != null) {
       property.m_createListener =
@@ -257,7 +375,13 @@ public class SendableBuilderImpl implements NTSendableBuilder {
   public void addDoubleProperty(String key, DoubleSupplier getter, DoubleConsumer setter) {
     Property property = new Property(m_table, key);
     if (getter != null) {
-      property.m_update = entry -> entry.setDouble(getter.getAsDouble());
+      property.m_update =
+          entry -> {
+            double value = getter.getAsDouble();
+            if (property.changed(value)) {
+              m_batch.setDouble(entry, value);
+            }
+          };
     }
     if (setter != null) {
       property.m_createListener =
@@ -286,7 +410,13 @@ public class SendableBuilderImpl implements NTSendableBuilder {
   public void addStringProperty(String key, Supplier<String> getter, Consumer<String> setter) {
     Property property = new Property(m_table, key);
     if (getter != null) {
-      property.m_update = entry -> entry.setString(getter.get());
+      property.m_update =
+          entry -> {
+            String value = getter.get();
+            if (property.changed(value)) {
+              m_batch.setString(entry, value);
+            }
+          };
     }
     if (setter != null) {
       property.m_createListener =
@@ -316,7 +446,13 @@ public class SendableBuilderImpl implements NTSendableBuilder {
       String key, Supplier<boolean[]> getter, Consumer<boolean[]> setter) {
     Property property = new Property(m_table, key);
     if (getter != null) {
-      property.m_update = entry -> entry.setBooleanArray(getter.get());
+      property.m_update =
+          entry -> {
+            boolean[] value = getter.get();
+            if (property.changed(value)) {
+              m_batch.setBooleanArray(entry, value);
+            }
+          };
     }
     if (setter != null) {
       property.m_createListener =
@@ -347,7 +483,13 @@ public class SendableBuilderImpl implements NTSendableBuilder {
       String key, Supplier<double[]> getter, Consumer<double[]> setter) {
     Property property = new Property(m_table, key);
     if (getter != null) {
-      property.m_update = entry -> entry.setDoubleArray(getter.get());
+      property.m_update =
+          entry -> {
+            double[] value = getter.get();
+            if (property.changed(value)) {
+              m_batch.setDoubleArray(entry, value);
+            }
+          };
     }
     if (setter != null) {
       property.m_createListener =
@@ -378,7 +520,13 @@ public class SendableBuilderImpl implements NTSendableBuilder {
       String key, Supplier<String[]> getter, Consumer<String[]> setter) {
     Property property = new Property(m_table, key);
     if (getter != null) {
-      property.m_update = entry -> entry.setStringArray(getter.get());
+      property.m_update =
+          entry -> {
+            String[] value = getter.get();
+            if (property.changed(value)) {
+              m_batch.setStringArray(entry, value);
+            }
+          };
     }
     if (setter != null) {
       property.m_createListener =
@@ -408,7 +556,13 @@ public class SendableBuilderImpl implements NTSendableBuilder {
   public void addRawProperty(String key, Supplier<byte[]> getter, Consumer<byte[]> setter) {
     Property property = new Property(m_table, key);
     if (getter != null) {
-      property.m_update = entry -> entry.setRaw(getter.get());
+      property.m_update =
+          entry -> {
+            byte[] value = getter.get();
+            if (property.changed(value)) {
+              m_batch.setRaw(entry, value);
+            }
+          };
     }
     if (setter != null) {
       property.m_createListener =
@@ -438,7 +592,13 @@ public class SendableBuilderImpl implements NTSendableBuilder {
       String key, Supplier<NetworkTableValue> getter, Consumer<NetworkTableValue> setter) {
     Property property = new Property(m_table, key);
     if (getter != null) {
-      property.m_update = entry -> entry.setValue(getter.get());
+      property.m_update =
+          entry -> {
+            NetworkTableValue value = getter.get();
+            if (property.changed(value)) {
+              m_batch.setValue(entry, value);
+            }
+          };
     }
     if (setter != null) {
       property.m_createListener =
@@ -7,6 +7,7 @@ package edu.wpi.first.wpilibj.smartdashboard;
 import edu.wpi.first.hal.FRCNetComm.tResourceType;
 import edu.wpi.first.hal.HAL;
 import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableBatch;
 import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.util.sendable.Sendable;
@@ -34,6 +35,9 @@ public final class SmartDashboard {
   @SuppressWarnings("PMD.UseConcurrentHashMap")
   private static final Map<String, Sendable> tablesToData = new HashMap<>();
 
+  /** The batch the values of all the sendables are set with each update. */
+  private static final NetworkTableBatch batch = table.getInstance().newBatch();
+
   /** The executor for listener tasks; calls listener tasks synchronously from main thread. */
   private static final ListenerExecutor listenerExecutor = new ListenerExecutor();
 
@@ -60,8 +64,12 @@ public final class SmartDashboard {
       tablesToData.put(key, data);
       NetworkTable dataTable = table.getSubTable(key);
       SendableBuilderImpl builder = new SendableBuilderImpl();
+      builder.setBatch(batch);
       builder.setTable(dataTable);
       SendableRegistry.publish(data, builder);
+      synchronized (batch) {
+        batch.commit();
+      }
       builder.startListeners();
       dataTable.getEntry(".name").setString(key);
     }
@@ -548,5 +556,8 @@ public final class SmartDashboard {
     for (Sendable data : tablesToData.values()) {
       SendableRegistry.update(data);
     }
+    synchronized (batch) {
+      batch.commit();
+    }
   }
 }
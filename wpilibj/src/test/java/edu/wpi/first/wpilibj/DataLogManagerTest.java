@@ -0,0 +1,95 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.wpilibj;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DataLogManagerTest {
+  private static File createLog(Path dir, String name, int size, long lastModified)
+      throws IOException {
+    File file = dir.resolve(name).toFile();
+    Files.write(file.toPath(), new byte[size]);
+    assertTrue(file.setLastModified(lastModified));
+    return file;
+  }
+
+  private static File[] createLogs(Path dir, int count) throws IOException {
+    File[] files = new File[count];
+    for (int i = 0; i < count; i++) {
+      String name = String.format("FRC_20230101_0000%02d.wpilog", i);
+      files[i] = createLog(dir, name, 1000, (i + 10) * 10000L);
+    }
+    return files;
+  }
+
+  @Test
+  void testTotalBytesDeletesOldest(@TempDir Path dir) throws IOException {
+    File[] files = createLogs(dir, 5);
+    // older than all of the others, but not yet renamed, so it must be kept
+    File tbd = createLog(dir, "FRC_TBD_1234.wpilog", 1000, 10000L);
+    File other = createLog(dir, "other.wpilog", 1000, 10000L);
+
+    // 6000 bytes of FRC_ logs; the three oldest dated ones go to get under 3500
+    DataLogManager.enforceRetention(dir.toFile(), 3500, 0);
+
+    for (int i = 0; i < 3; i++) {
+      assertFalse(files[i].exists(), files[i].getName());
+    }
+    assertTrue(files[3].exists());
+    assertTrue(files[4].exists());
+    assertTrue(tbd.exists());
+    assertTrue(other.exists());
+  }
+
+  @Test
+  void testNewestIsKept(@TempDir Path dir) throws IOException {
+    File[] files = createLogs(dir, 3);
+
+    DataLogManager.enforceRetention(dir.toFile(), 1, 0);
+
+    assertFalse(files[0].exists());
+    assertFalse(files[1].exists());
+    assertTrue(files[2].exists());
+  }
+
+  @Test
+  void testWithinLimits(@TempDir Path dir) throws IOException {
+    File[] files = createLogs(dir, 3);
+
+    DataLogManager.enforceRetention(dir.toFile(), 3000, 0);
+    DataLogManager.enforceRetention(dir.toFile(), 0, 0);
+
+    for (File file : files) {
+      assertTrue(file.exists(), file.getName());
+    }
+  }
+
+  @Test
+  void testLowSpaceKeepsTen(@TempDir Path dir) throws IOException {
+    File[] files = createLogs(dir, 12);
+
+    // the free space can never be met, so it deletes down to the file count threshold
+    DataLogManager.enforceRetention(dir.toFile(), 0, Long.MAX_VALUE);
+
+    assertFalse(files[0].exists());
+    assertFalse(files[1].exists());
+    int remaining = 0;
+    for (File file : files) {
+      if (file.exists()) {
+        remaining++;
+      }
+    }
+    assertEquals(10, remaining);
+  }
+}
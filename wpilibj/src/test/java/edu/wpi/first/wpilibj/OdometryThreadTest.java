@@ -0,0 +1,115 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.wpilibj;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+class OdometryThreadTest {
+  private static final double kPeriod = 0.005;
+
+  // The robot drives along x at 1 m/s, so each pose's x is its timestamp
+  private static Pose2d poseAt(double timestampSeconds) {
+    return new Pose2d(timestampSeconds, 0.0, new Rotation2d());
+  }
+
+  @BeforeEach
+  void setup() {
+    HAL.initialize(500, 0);
+    SimHooks.pauseTiming();
+  }
+
+  @AfterEach
+  void cleanup() {
+    SimHooks.resumeTiming();
+  }
+
+  @Test
+  @ResourceLock("timing")
+  void updateTest() {
+    final AtomicInteger updates = new AtomicInteger(0);
+
+    try (var thread =
+        new OdometryThread(
+            timestampSeconds -> {
+              updates.incrementAndGet();
+              return poseAt(timestampSeconds);
+            },
+            kPeriod,
+            0.05)) {
+      assertNull(thread.getPose());
+      assertNull(thread.getPose(0.0));
+
+      thread.start();
+      SimHooks.stepTiming(0.1);
+      thread.stop();
+
+      assertTrue(updates.get() >= 15, "Only " + updates.get() + " updates");
+
+      var latest = thread.getLatestSample();
+      assertEquals(latest.timestampSeconds, latest.pose.getX(), 1e-9);
+      assertEquals(latest.pose, thread.getPose());
+
+      // The history is bounded and ordered
+      var history = thread.getHistory();
+      assertEquals((int) Math.ceil(0.05 / kPeriod) + 1, history.size());
+      for (int i = 1; i < history.size(); i++) {
+        assertTrue(history.get(i - 1).timestampSeconds < history.get(i).timestampSeconds);
+      }
+      assertEquals(latest, history.get(history.size() - 1));
+
+      // Poses between samples are interpolated, and poses outside the history are clamped
+      double oldest = history.get(0).timestampSeconds;
+      double midpoint = (oldest + history.get(1).timestampSeconds) / 2.0;
+      assertEquals(midpoint, thread.getPose(midpoint).getX(), 1e-9);
+      assertEquals(oldest, thread.getPose(oldest - 1.0).getX(), 1e-9);
+      assertEquals(latest.timestampSeconds, thread.getPose(latest.timestampSeconds + 1.0).getX());
+
+      // Resetting republishes the pose and starts a new history
+      thread.runExclusively(() -> {});
+      history = thread.getHistory();
+      assertEquals(1, history.size());
+      assertEquals(history.get(0), thread.getLatestSample());
+    }
+  }
+
+  @Test
+  @ResourceLock("timing")
+  void runExclusivelyTest() {
+    final AtomicReference<Pose2d> pose = new AtomicReference<>(new Pose2d());
+
+    try (var thread = new OdometryThread(timestampSeconds -> pose.get(), kPeriod)) {
+      thread.start();
+      SimHooks.stepTiming(0.05);
+
+      // The reset is visible immediately, without waiting for the next update
+      var reset = new Pose2d(1.0, 2.0, Rotation2d.fromDegrees(90.0));
+      thread.runExclusively(() -> pose.set(reset));
+      assertEquals(reset, thread.getPose());
+      assertEquals(reset, thread.getLatestSample().pose);
+      assertEquals(1, thread.getHistory().size());
+    }
+  }
+
+  @Test
+  void invalidArgumentsTest() {
+    assertThrows(IllegalArgumentException.class, () -> new OdometryThread(t -> null, 0.0));
+    assertThrows(
+        IllegalArgumentException.class, () -> new OdometryThread(t -> null, kPeriod, -1.0));
+  }
+}
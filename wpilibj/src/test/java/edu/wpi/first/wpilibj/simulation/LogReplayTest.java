@@ -0,0 +1,92 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.wpilibj.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.hal.HALUtil;
+import edu.wpi.first.hal.SimDevice;
+import edu.wpi.first.hal.SimDevice.Direction;
+import edu.wpi.first.hal.SimDouble;
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.JavaDataLog;
+import edu.wpi.first.wpilibj.DriverStation;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+class LogReplayTest {
+  @BeforeEach
+  void setup() {
+    HAL.initialize(500, 0);
+    DriverStationSim.resetData();
+    SimHooks.pauseTiming();
+    SimHooks.restartTiming();
+  }
+
+  @AfterEach
+  void cleanup() {
+    SimHooks.resumeTiming();
+  }
+
+  @Test
+  @ResourceLock("timing")
+  void testReplay(@TempDir Path dir) throws IOException {
+    // 10 loops of 20 ms, starting at 1 s; the output is twice the input
+    try (var log = new JavaDataLog(dir.toString(), "test.wpilog")) {
+      int enabled = log.start("DS:enabled", "boolean", "", 1000000);
+      int buttons = log.start("DS:joystick1/buttons", "boolean[]", "", 1000000);
+      int input = log.start("input", "double", "", 1000000);
+      int output = log.start("output", "double", "", 1000000);
+      int bad = log.start("bad", "int64", "", 1000000);
+      log.appendBoolean(enabled, true, 1000000);
+      log.appendBooleanArray(buttons, new boolean[] {false, true, true}, 1000000);
+      for (int i = 0; i < 10; i++) {
+        long timestamp = 1000000 + i * 20000;
+        log.appendDouble(input, i, timestamp);
+        log.appendDouble(output, i * 2, timestamp + 100);
+        log.appendInteger(bad, i == 5 ? 1 : 0, timestamp + 100);
+      }
+    }
+
+    try (SimDevice dev = SimDevice.create("replay")) {
+      SimDouble devInput = dev.createDouble("input", Direction.kInput, 0);
+
+      var replay =
+          new LogReplay(new DataLogReader(dir.resolve("test.wpilog").toString()), 0.02)
+              .bindDriverStation()
+              .bindSimValue("input", "replay", "input")
+              .compare("output", () -> devInput.get() * 2, 1e-9)
+              .compare("bad", () -> 0, 0);
+
+      long startTime = HALUtil.getFPGATime();
+      assertTrue(replay.step());
+      assertTrue(DriverStation.isEnabled());
+      assertEquals(6, DriverStation.getStickButtons(1));
+      assertEquals(0.0, devInput.get());
+      assertEquals(1020000, replay.getTimestamp());
+      assertEquals(20000, HALUtil.getFPGATime() - startTime);
+
+      replay.run();
+      assertFalse(replay.hasNext());
+      assertEquals(9.0, devInput.get());
+      assertEquals(200000, HALUtil.getFPGATime() - startTime);
+
+      assertEquals(1, replay.getMismatches().size());
+      LogReplay.Mismatch mismatch = replay.getMismatches().get(0);
+      assertEquals("bad", mismatch.name);
+      assertEquals(1100100, mismatch.timestamp);
+      assertEquals(1.0, mismatch.expected);
+      assertEquals(0.0, mismatch.actual);
+    }
+  }
+}
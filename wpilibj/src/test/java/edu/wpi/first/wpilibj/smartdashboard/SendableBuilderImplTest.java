@@ -0,0 +1,76 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.wpilibj.smartdashboard;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SendableBuilderImplTest {
+  private NetworkTableInstance m_inst;
+  private NetworkTable m_table;
+  private SendableBuilderImpl m_builder;
+
+  @BeforeEach
+  void beforeEach() {
+    m_inst = NetworkTableInstance.create();
+    m_table = m_inst.getTable("Test");
+    m_builder = new SendableBuilderImpl();
+    m_builder.setTable(m_table);
+  }
+
+  @AfterEach
+  void afterEach() {
+    m_builder.clearProperties();
+    m_inst.close();
+  }
+
+  @Test
+  void updateSetsChangedValuesTest() {
+    double[] value = {1.0};
+    m_builder.addDoubleProperty("Value", () -> value[0], null);
+
+    m_builder.update();
+    assertEquals(1.0, m_table.getEntry("Value").getDouble(0.0));
+
+    value[0] = 2.0;
+    m_builder.update();
+    assertEquals(2.0, m_table.getEntry("Value").getDouble(0.0));
+  }
+
+  @Test
+  void updateSetsArrayModifiedInPlaceTest() {
+    double[] value = {1.0, 2.0};
+    m_builder.addDoubleArrayProperty("Array", () -> value, null);
+
+    var entry = m_table.getEntry("Array");
+    m_builder.update();
+    assertArrayEquals(new double[] {1.0, 2.0}, entry.getDoubleArray(new double[0]));
+
+    value[1] = 3.0;
+    m_builder.update();
+    assertArrayEquals(new double[] {1.0, 3.0}, entry.getDoubleArray(new double[0]));
+  }
+
+  @Test
+  void updateRefreshesUnchangedValuesTest() {
+    m_builder.addStringProperty("String", () -> "value", null);
+    m_builder.update();
+
+    // An unchanged value isn't set again right away, but is restored by a later update
+    m_table.getEntry("String").setString("overwritten");
+    m_builder.update();
+    assertEquals("overwritten", m_table.getEntry("String").getString(""));
+    for (int i = 0; i < 50; i++) {
+      m_builder.update();
+    }
+    assertEquals("value", m_table.getEntry("String").getString(""));
+  }
+}
@@ -0,0 +1,69 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.estimator;
+
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks one 20 ms update of a {@link SwerveDrivePoseEstimator}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SwerveDrivePoseEstimatorBenchmark {
+  private final SwerveModuleState[] m_moduleStates = {
+    new SwerveModuleState(1.0, Rotation2d.fromDegrees(5.0)),
+    new SwerveModuleState(1.0, Rotation2d.fromDegrees(5.0)),
+    new SwerveModuleState(1.0, Rotation2d.fromDegrees(5.0)),
+    new SwerveModuleState(1.0, Rotation2d.fromDegrees(5.0))
+  };
+
+  private SwerveDrivePoseEstimator m_estimator;
+  private double m_timeSeconds;
+
+  @Setup
+  public void setup() {
+    var kinematics =
+        new SwerveDriveKinematics(
+            new Translation2d(1, 1),
+            new Translation2d(1, -1),
+            new Translation2d(-1, -1),
+            new Translation2d(-1, 1));
+
+    m_estimator =
+        new SwerveDrivePoseEstimator(
+            new Rotation2d(),
+            new Pose2d(),
+            kinematics,
+            VecBuilder.fill(0.1, 0.1, 0.1),
+            VecBuilder.fill(0.005),
+            VecBuilder.fill(0.1, 0.1, 0.1));
+    m_timeSeconds = 0.0;
+  }
+
+  @Benchmark
+  public Pose2d update() {
+    m_timeSeconds += 0.02;
+    return m_estimator.updateWithTime(
+        m_timeSeconds, Rotation2d.fromDegrees(m_timeSeconds), m_moduleStates);
+  }
+}
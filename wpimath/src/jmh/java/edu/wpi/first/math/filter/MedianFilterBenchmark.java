@@ -0,0 +1,67 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.filter;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks one sample of a full {@link MedianFilter} and {@link QuantileFilter} window. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MedianFilterBenchmark {
+  @Param({"5", "21", "101", "501"})
+  public int m_size;
+
+  // Noisy input, cycled through so the benchmark doesn't measure the random number generator
+  private final double[] m_input = new double[4096];
+  private int m_index;
+
+  private MedianFilter m_median;
+  private QuantileFilter m_quantile;
+
+  @Setup
+  public void setup() {
+    var random = new Random(1234);
+    for (int i = 0; i < m_input.length; i++) {
+      m_input[i] = Math.sin(i * 0.01) + random.nextGaussian() * 0.1;
+    }
+    m_median = new MedianFilter(m_size);
+    m_quantile = new QuantileFilter(m_size, 0.9);
+    for (int i = 0; i < m_size; i++) {
+      m_median.calculate(next());
+      m_quantile.calculate(next());
+    }
+  }
+
+  @Benchmark
+  public double median() {
+    return m_median.calculate(next());
+  }
+
+  @Benchmark
+  public double quantile() {
+    return m_quantile.calculate(next());
+  }
+
+  private double next() {
+    m_index = (m_index + 1) & (m_input.length - 1);
+    return m_input[m_index];
+  }
+}
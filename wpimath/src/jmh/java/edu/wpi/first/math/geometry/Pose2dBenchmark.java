@@ -0,0 +1,39 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.geometry;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for the {@link Pose2d} exponential and logarithm maps. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Pose2dBenchmark {
+  private final Pose2d m_start = new Pose2d(1.0, 2.0, Rotation2d.fromDegrees(30.0));
+  private final Pose2d m_end = new Pose2d(1.5, 2.3, Rotation2d.fromDegrees(34.0));
+  private final Twist2d m_twist = new Twist2d(0.1, 0.02, 0.05);
+
+  @Benchmark
+  public Pose2d exp() {
+    return m_start.exp(m_twist);
+  }
+
+  @Benchmark
+  public Twist2d log() {
+    return m_start.log(m_end);
+  }
+}
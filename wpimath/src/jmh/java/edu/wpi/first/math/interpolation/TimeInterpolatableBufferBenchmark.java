@@ -0,0 +1,139 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.interpolation;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the array-backed {@link TimeInterpolatableBuffer} and {@link
+ * TimeInterpolatablePose2dBuffer} against the TreeMap-backed implementation they replaced, for a
+ * pose history recorded at 50 Hz and sampled at a past timestamp like a vision measurement would.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TimeInterpolatableBufferBenchmark {
+  private static final double kHistorySeconds = 1.5;
+  private static final double kDtSeconds = 0.02;
+  private static final double kLatencySeconds = 0.123;
+
+  private final Pose2d m_pose = new Pose2d(1.0, 2.0, Rotation2d.fromDegrees(30.0));
+
+  private TimeInterpolatableBuffer<Pose2d> m_buffer;
+  private TimeInterpolatablePose2dBuffer m_pose2dBuffer;
+  private TreeMapBuffer<Pose2d> m_treeMapBuffer;
+  private double m_timeSeconds;
+
+  /** The previous TreeMap-backed implementation of TimeInterpolatableBuffer. */
+  private static final class TreeMapBuffer<T extends Interpolatable<T>> {
+    private final double m_historySize;
+    private final NavigableMap<Double, T> m_buffer = new TreeMap<>();
+
+    TreeMapBuffer(double historySizeSeconds) {
+      m_historySize = historySizeSeconds;
+    }
+
+    void addSample(double timeSeconds, T sample) {
+      while (!m_buffer.isEmpty()) {
+        var entry = m_buffer.firstEntry();
+        if (timeSeconds - entry.getKey() >= m_historySize) {
+          m_buffer.remove(entry.getKey());
+        } else {
+          break;
+        }
+      }
+      m_buffer.put(timeSeconds, sample);
+    }
+
+    T getSample(double timeSeconds) {
+      var nowEntry = m_buffer.get(timeSeconds);
+      if (nowEntry != null) {
+        return nowEntry;
+      }
+
+      var topBound = m_buffer.ceilingEntry(timeSeconds);
+      var bottomBound = m_buffer.floorEntry(timeSeconds);
+      if (topBound == null && bottomBound == null) {
+        return null;
+      } else if (topBound == null) {
+        return bottomBound.getValue();
+      } else if (bottomBound == null) {
+        return topBound.getValue();
+      } else {
+        return bottomBound
+            .getValue()
+            .interpolate(
+                topBound.getValue(),
+                (timeSeconds - bottomBound.getKey())
+                    / (topBound.getKey() - bottomBound.getKey()));
+      }
+    }
+  }
+
+  @Setup
+  public void setup() {
+    m_buffer = TimeInterpolatableBuffer.createBuffer(kHistorySeconds);
+    m_pose2dBuffer = new TimeInterpolatablePose2dBuffer(kHistorySeconds);
+    m_treeMapBuffer = new TreeMapBuffer<>(kHistorySeconds);
+
+    // Fill the buffers so the benchmarks measure steady-state behavior
+    for (int i = 0; i < 2 * kHistorySeconds / kDtSeconds; i++) {
+      m_timeSeconds = i * kDtSeconds;
+      m_buffer.addSample(m_timeSeconds, m_pose);
+      m_pose2dBuffer.addSample(m_timeSeconds, m_pose);
+      m_treeMapBuffer.addSample(m_timeSeconds, m_pose);
+    }
+  }
+
+  @Benchmark
+  public void addSample() {
+    m_timeSeconds += kDtSeconds;
+    m_buffer.addSample(m_timeSeconds, m_pose);
+  }
+
+  @Benchmark
+  public void addSamplePose2d() {
+    m_timeSeconds += kDtSeconds;
+    m_pose2dBuffer.addSample(m_timeSeconds, m_pose);
+  }
+
+  @Benchmark
+  public void addSampleTreeMap() {
+    m_timeSeconds += kDtSeconds;
+    m_treeMapBuffer.addSample(m_timeSeconds, m_pose);
+  }
+
+  @Benchmark
+  public Pose2d getSample() {
+    return m_buffer.getSample(m_timeSeconds - kLatencySeconds);
+  }
+
+  @Benchmark
+  public Pose2d getSamplePose2d() {
+    return m_pose2dBuffer.getSample(m_timeSeconds - kLatencySeconds);
+  }
+
+  @Benchmark
+  public Pose2d getSampleTreeMap() {
+    return m_treeMapBuffer.getSample(m_timeSeconds - kLatencySeconds);
+  }
+}
@@ -0,0 +1,53 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.kinematics;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for {@link SwerveDriveKinematics} with four modules. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SwerveDriveKinematicsBenchmark {
+  private final SwerveDriveKinematics m_kinematics =
+      new SwerveDriveKinematics(
+          new Translation2d(0.3, 0.3),
+          new Translation2d(0.3, -0.3),
+          new Translation2d(-0.3, 0.3),
+          new Translation2d(-0.3, -0.3));
+
+  private final ChassisSpeeds m_speeds = new ChassisSpeeds(2.0, 1.0, 1.5);
+
+  private final SwerveModuleState[] m_moduleStates = {
+    new SwerveModuleState(2.0, Rotation2d.fromDegrees(10.0)),
+    new SwerveModuleState(2.1, Rotation2d.fromDegrees(-5.0)),
+    new SwerveModuleState(1.9, Rotation2d.fromDegrees(20.0)),
+    new SwerveModuleState(2.0, Rotation2d.fromDegrees(0.0))
+  };
+
+  @Benchmark
+  public SwerveModuleState[] toSwerveModuleStates() {
+    return m_kinematics.toSwerveModuleStates(m_speeds);
+  }
+
+  @Benchmark
+  public ChassisSpeeds toChassisSpeeds() {
+    return m_kinematics.toChassisSpeeds(m_moduleStates);
+  }
+}
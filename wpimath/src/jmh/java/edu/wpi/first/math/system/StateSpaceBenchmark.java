@@ -0,0 +1,144 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.system;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.Nat;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.estimator.KalmanFilter;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N2;
+import edu.wpi.first.math.numbers.N3;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.system.plant.LinearSystemId;
+import java.util.concurrent.TimeUnit;
+import org.ejml.simple.SimpleMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the small-matrix paths of a 2-state flywheel (position and velocity) and a 3-state
+ * drivetrain (left velocity, right velocity, and heading), along with raw 3x3 multiplication
+ * through {@link Matrix} and through EJML's {@link SimpleMatrix} for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StateSpaceBenchmark {
+  private static final double kDtSeconds = 0.02;
+
+  private LinearSystem<N2, N1, N2> m_flywheel;
+  private KalmanFilter<N2, N1, N2> m_flywheelObserver;
+  private final Matrix<N2, N1> m_flywheelX = VecBuilder.fill(1.0, 100.0);
+  private final Matrix<N1, N1> m_flywheelU = VecBuilder.fill(6.0);
+  private final Matrix<N2, N1> m_flywheelY = VecBuilder.fill(1.1, 101.0);
+
+  private LinearSystem<N3, N2, N3> m_drivetrain;
+  private KalmanFilter<N3, N2, N3> m_drivetrainObserver;
+  private final Matrix<N3, N1> m_drivetrainX = VecBuilder.fill(1.0, 1.2, 0.5);
+  private final Matrix<N2, N1> m_drivetrainU = VecBuilder.fill(6.0, 7.0);
+  private final Matrix<N3, N1> m_drivetrainY = VecBuilder.fill(1.1, 1.3, 0.51);
+
+  private final Matrix<N3, N3> m_a =
+      Matrix.mat(Nat.N3(), Nat.N3()).fill(1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0, 8.0, 10.0);
+  private final Matrix<N3, N3> m_b =
+      Matrix.mat(Nat.N3(), Nat.N3()).fill(0.5, 0.1, 0.2, 0.3, 0.4, 0.6, 0.7, 0.8, 0.9);
+
+  @Setup
+  @SuppressWarnings("LocalVariableName")
+  public void setup() {
+    m_flywheel = LinearSystemId.createDCMotorSystem(DCMotor.getNEO(1), 0.00032, 1.0);
+    m_flywheelObserver =
+        new KalmanFilter<>(
+            Nat.N2(),
+            Nat.N2(),
+            m_flywheel,
+            VecBuilder.fill(0.1, 3.0),
+            VecBuilder.fill(0.01, 0.5),
+            kDtSeconds);
+
+    // Extend the 2-state drivetrain velocity model with heading, where
+    // dθ/dt = (v_r − v_l) / trackwidth
+    var velocitySystem = LinearSystemId.identifyDrivetrainSystem(1.98, 0.2, 1.5, 0.3);
+    double trackwidthMeters = 0.7;
+    var A = new Matrix<>(Nat.N3(), Nat.N3());
+    A.assignBlock(0, 0, velocitySystem.getA());
+    A.set(2, 0, -1.0 / trackwidthMeters);
+    A.set(2, 1, 1.0 / trackwidthMeters);
+    var B = new Matrix<>(Nat.N3(), Nat.N2());
+    B.assignBlock(0, 0, velocitySystem.getB());
+    m_drivetrain =
+        new LinearSystem<>(A, B, Matrix.eye(Nat.N3()), new Matrix<>(Nat.N3(), Nat.N2()));
+    m_drivetrainObserver =
+        new KalmanFilter<>(
+            Nat.N3(),
+            Nat.N3(),
+            m_drivetrain,
+            VecBuilder.fill(0.5, 0.5, 0.1),
+            VecBuilder.fill(0.1, 0.1, 0.01),
+            kDtSeconds);
+  }
+
+  @Benchmark
+  public Matrix<N2, N1> flywheelRk4() {
+    return NumericalIntegration.rk4(
+        (x, u) -> m_flywheel.getA().times(x).plus(m_flywheel.getB().times(u)),
+        m_flywheelX,
+        m_flywheelU,
+        kDtSeconds);
+  }
+
+  @Benchmark
+  public Matrix<N2, N1> flywheelKalmanCorrect() {
+    m_flywheelObserver.correct(m_flywheelU, m_flywheelY);
+    return m_flywheelObserver.getXhat();
+  }
+
+  @Benchmark
+  public Matrix<N3, N1> drivetrainRk4() {
+    return NumericalIntegration.rk4(
+        (x, u) -> m_drivetrain.getA().times(x).plus(m_drivetrain.getB().times(u)),
+        m_drivetrainX,
+        m_drivetrainU,
+        kDtSeconds);
+  }
+
+  @Benchmark
+  public Matrix<N3, N1> drivetrainKalmanCorrect() {
+    m_drivetrainObserver.correct(m_drivetrainU, m_drivetrainY);
+    return m_drivetrainObserver.getXhat();
+  }
+
+  @Benchmark
+  public Matrix<N3, N3> matrixTimes3x3() {
+    return m_a.times(m_b);
+  }
+
+  @Benchmark
+  public SimpleMatrix simpleMatrixMult3x3() {
+    return m_a.getStorage().mult(m_b.getStorage());
+  }
+
+  @Benchmark
+  public Matrix<N3, N3> matrixSolve3x3() {
+    return m_a.solve(m_b);
+  }
+
+  @Benchmark
+  public SimpleMatrix simpleMatrixSolve3x3() {
+    return m_a.getStorage().solve(m_b.getStorage());
+  }
+}
@@ -0,0 +1,88 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.trajectory;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for generating and sampling a {@link Trajectory}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TrajectoryBenchmark {
+  private final Pose2d m_start = new Pose2d(0.0, 0.0, Rotation2d.fromDegrees(0.0));
+  private final List<Translation2d> m_interiorWaypoints =
+      List.of(new Translation2d(2.0, 1.0), new Translation2d(4.0, -1.0));
+  private final Pose2d m_end = new Pose2d(6.0, 0.0, Rotation2d.fromDegrees(0.0));
+  private final List<Pose2d> m_waypoints =
+      List.of(
+          new Pose2d(0.0, 0.0, Rotation2d.fromDegrees(0.0)),
+          new Pose2d(3.0, 2.0, Rotation2d.fromDegrees(90.0)),
+          new Pose2d(6.0, 4.0, Rotation2d.fromDegrees(0.0)));
+  private final TrajectoryConfig m_config = new TrajectoryConfig(3.0, 2.0);
+
+  private final Trajectory.MutableState m_mutableState = new Trajectory.MutableState();
+
+  private Trajectory m_trajectory;
+  private Trajectory.Sampler m_sampler;
+  private double m_sampleTimeSeconds;
+
+  @Setup
+  public void setup() {
+    m_trajectory = TrajectoryGenerator.generateTrajectory(m_waypoints, m_config);
+    m_sampler = new Trajectory.Sampler(m_trajectory);
+    m_sampleTimeSeconds = 0.0;
+  }
+
+  @Benchmark
+  public Trajectory generateCubic() {
+    return TrajectoryGenerator.generateTrajectory(m_start, m_interiorWaypoints, m_end, m_config);
+  }
+
+  @Benchmark
+  public Trajectory generateQuintic() {
+    return TrajectoryGenerator.generateTrajectory(m_waypoints, m_config);
+  }
+
+  /** Samples at increasing 20 ms steps, wrapping around at the end, like a following command. */
+  @Benchmark
+  public Trajectory.State sample() {
+    return m_trajectory.sample(nextSampleTime());
+  }
+
+  @Benchmark
+  public Trajectory.State samplerSample() {
+    return m_sampler.sample(nextSampleTime());
+  }
+
+  @Benchmark
+  public Trajectory.MutableState samplerSampleMutable() {
+    return m_sampler.sample(nextSampleTime(), m_mutableState);
+  }
+
+  private double nextSampleTime() {
+    m_sampleTimeSeconds += 0.02;
+    if (m_sampleTimeSeconds > m_trajectory.getTotalTimeSeconds()) {
+      m_sampleTimeSeconds = 0.0;
+    }
+    return m_sampleTimeSeconds;
+  }
+}
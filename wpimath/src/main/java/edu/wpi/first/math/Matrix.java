@@ -8,11 +8,14 @@ import edu.wpi.first.math.numbers.N1;
 import java.util.Objects;
 import org.ejml.MatrixDimensionException;
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.SingularMatrixException;
 import org.ejml.dense.row.CommonOps_DDRM;
 import org.ejml.dense.row.MatrixFeatures_DDRM;
 import org.ejml.dense.row.NormOps_DDRM;
 import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
+import org.ejml.dense.row.factory.LinearSolverFactory_DDRM;
 import org.ejml.interfaces.decomposition.CholeskyDecomposition_F64;
+import org.ejml.interfaces.linsol.LinearSolverDense;
 import org.ejml.simple.SimpleMatrix;
 
 /**
@@ -20,12 +23,26 @@ import org.ejml.simple.SimpleMatrix;
  *
  * <p>This class is intended to be used alongside the state space library.
  *
+ * <p>Arithmetic operations like {@link #times(Matrix)} return a newly allocated matrix. Code that
+ * runs every loop iteration can instead use the "Into" and "InPlace" variants, like {@link
+ * #timesInto(Matrix, Matrix)} and {@link #plusInPlace(Matrix)}, which write their result into a
+ * preallocated matrix.
+ *
+ * <p>Multiplication and solving use fixed-size kernels when the dimensions involved are small,
+ * which covers most state-space models, and fall back to EJML's general routines otherwise.
+ *
  * @param <R> The number of rows in this matrix.
  * @param <C> The number of columns in this matrix.
  */
 public class Matrix<R extends Num, C extends Num> {
   protected final SimpleMatrix m_storage;
 
+  // Lazily created by solveInto() so repeated solves against this matrix reuse their workspace;
+  // guarded by this, so matrices that never solve don't pay for a lock object
+  private LinearSolverDense<DMatrixRMaj> m_solver;
+  private DMatrixRMaj m_solverA;
+  private DMatrixRMaj m_solverB;
+
   /**
    * Constructs an empty zero matrix of the given dimensions.
    *
@@ -203,7 +220,13 @@ public class Matrix<R extends Num, C extends Num> {
    * @return The result of the matrix multiplication between "this" and the given matrix.
    */
   public final <C2 extends Num> Matrix<R, C2> times(Matrix<C, C2> other) {
-    return new Matrix<>(this.m_storage.mult(Objects.requireNonNull(other).m_storage));
+    var a = this.m_storage.getDDRM();
+    var b = Objects.requireNonNull(other).m_storage.getDDRM();
+    var result = new SimpleMatrix(a.numRows, b.numCols);
+    if (!SmallMatrixOps.mult(a, b, result.getDDRM(), false)) {
+      CommonOps_DDRM.mult(a, b, result.getDDRM());
+    }
+    return new Matrix<>(result);
   }
 
   /**
@@ -329,7 +352,202 @@ public class Matrix<R extends Num, C extends Num> {
    */
   @SuppressWarnings("ParameterName")
   public final <C2 extends Num> Matrix<C, C2> solve(Matrix<R, C2> b) {
-    return new Matrix<>(this.m_storage.solve(Objects.requireNonNull(b).m_storage));
+    var x = new SimpleMatrix(getNumCols(), Objects.requireNonNull(b).getNumCols());
+    if (SmallMatrixOps.solve(this.m_storage.getDDRM(), b.m_storage.getDDRM(), x.getDDRM())) {
+      checkSolution(x.getDDRM());
+      return new Matrix<>(x);
+    }
+    return new Matrix<>(this.m_storage.solve(b.m_storage));
+  }
+
+  /**
+   * Multiplies this matrix with another that has C rows and stores the result in dest.
+   *
+   * <p>This is the allocation-free equivalent of {@link #times(Matrix)}.
+   *
+   * @param other The other matrix to multiply by.
+   * @param dest The matrix in which to store the result. This can't be "this" or other.
+   * @param <C2> The number of columns in the second matrix.
+   * @return dest.
+   * @throws IllegalArgumentException If dest is "this" or other.
+   */
+  public final <C2 extends Num> Matrix<R, C2> timesInto(Matrix<C, C2> other, Matrix<R, C2> dest) {
+    var a = this.m_storage.getDDRM();
+    var b = Objects.requireNonNull(other).m_storage.getDDRM();
+    var c = Objects.requireNonNull(dest).m_storage.getDDRM();
+    if (!SmallMatrixOps.mult(a, b, c, false)) {
+      CommonOps_DDRM.mult(a, b, c);
+    }
+    return dest;
+  }
+
+  /**
+   * Multiplies this matrix with another that has C rows and adds the result to dest, i.e. dest +=
+   * this * other.
+   *
+   * @param other The other matrix to multiply by.
+   * @param dest The matrix to add the result to. This can't be "this" or other.
+   * @param <C2> The number of columns in the second matrix.
+   * @return dest.
+   * @throws IllegalArgumentException If dest is "this" or other.
+   */
+  public final <C2 extends Num> Matrix<R, C2> timesAddTo(Matrix<C, C2> other, Matrix<R, C2> dest) {
+    var a = this.m_storage.getDDRM();
+    var b = Objects.requireNonNull(other).m_storage.getDDRM();
+    var c = Objects.requireNonNull(dest).m_storage.getDDRM();
+    if (!SmallMatrixOps.mult(a, b, c, true)) {
+      CommonOps_DDRM.multAdd(a, b, c);
+    }
+    return dest;
+  }
+
+  /**
+   * Multiplies all the elements of this matrix by the given scalar, modifying this matrix.
+   *
+   * @param value The scalar value to multiply by.
+   * @return "this" matrix.
+   */
+  public final Matrix<R, C> timesInPlace(double value) {
+    CommonOps_DDRM.scale(value, this.m_storage.getDDRM());
+    return this;
+  }
+
+  /**
+   * Adds the given matrix to this matrix and stores the result in dest.
+   *
+   * @param value The matrix to add.
+   * @param dest The matrix in which to store the result. This may be "this" or value.
+   * @return dest.
+   */
+  public final Matrix<R, C> plusInto(Matrix<R, C> value, Matrix<R, C> dest) {
+    CommonOps_DDRM.add(
+        this.m_storage.getDDRM(),
+        Objects.requireNonNull(value).m_storage.getDDRM(),
+        Objects.requireNonNull(dest).m_storage.getDDRM());
+    return dest;
+  }
+
+  /**
+   * Adds the given matrix to this matrix, modifying this matrix.
+   *
+   * @param value The matrix to add.
+   * @return "this" matrix.
+   */
+  public final Matrix<R, C> plusInPlace(Matrix<R, C> value) {
+    CommonOps_DDRM.addEquals(
+        this.m_storage.getDDRM(), Objects.requireNonNull(value).m_storage.getDDRM());
+    return this;
+  }
+
+  /**
+   * Subtracts the given matrix from this matrix and stores the result in dest.
+   *
+   * @param value The matrix to subtract.
+   * @param dest The matrix in which to store the result. This may be "this" or value.
+   * @return dest.
+   */
+  public final Matrix<R, C> minusInto(Matrix<R, C> value, Matrix<R, C> dest) {
+    CommonOps_DDRM.subtract(
+        this.m_storage.getDDRM(),
+        Objects.requireNonNull(value).m_storage.getDDRM(),
+        Objects.requireNonNull(dest).m_storage.getDDRM());
+    return dest;
+  }
+
+  /**
+   * Subtracts the given matrix from this matrix, modifying this matrix.
+   *
+   * @param value The matrix to subtract.
+   * @return "this" matrix.
+   */
+  public final Matrix<R, C> minusInPlace(Matrix<R, C> value) {
+    CommonOps_DDRM.subtractEquals(
+        this.m_storage.getDDRM(), Objects.requireNonNull(value).m_storage.getDDRM());
+    return this;
+  }
+
+  /**
+   * Calculates the transpose, Mᵀ of this matrix and stores it in dest.
+   *
+   * @param dest The matrix in which to store the transpose. This can't be "this".
+   * @return dest.
+   */
+  public final Matrix<C, R> transposeInto(Matrix<C, R> dest) {
+    CommonOps_DDRM.transpose(
+        this.m_storage.getDDRM(), Objects.requireNonNull(dest).m_storage.getDDRM());
+    return dest;
+  }
+
+  /**
+   * Copies the elements of the given matrix into this matrix.
+   *
+   * @param other The matrix to copy.
+   * @return "this" matrix.
+   */
+  public final Matrix<R, C> assign(Matrix<R, C> other) {
+    this.m_storage.getDDRM().setTo(Objects.requireNonNull(other).m_storage.getDDRM());
+    return this;
+  }
+
+  /**
+   * Solves the equation Ax = b, where A is "this" matrix, and stores the solution x in dest.
+   *
+   * <p>This is the allocation-free equivalent of {@link #solve(Matrix)}. The solver and its
+   * workspace are created on the first call and reused by later calls on this matrix. It's safe
+   * to call this on a matrix shared between threads, but since the workspace is shared too,
+   * concurrent solves against the same matrix run one at a time.
+   *
+   * @param <C2> Columns in b.
+   * @param b The right-hand side of the equation to solve.
+   * @param dest The matrix in which to store the solution. This can't be "this" or b.
+   * @return dest.
+   * @throws SingularMatrixException If "this" matrix is singular.
+   */
+  @SuppressWarnings({"ParameterName", "LocalVariableName"})
+  public final <C2 extends Num> Matrix<C, C2> solveInto(Matrix<R, C2> b, Matrix<C, C2> dest) {
+    var A = this.m_storage.getDDRM();
+    var x = Objects.requireNonNull(dest).m_storage.getDDRM();
+
+    if (SmallMatrixOps.solve(A, Objects.requireNonNull(b).m_storage.getDDRM(), x)) {
+      checkSolution(x);
+      return dest;
+    }
+
+    synchronized (this) {
+      if (m_solver == null) {
+        // Use the same solvers as SimpleMatrix.solve()
+        if (A.numRows == A.numCols) {
+          m_solver = LinearSolverFactory_DDRM.lu(A.numRows);
+        } else {
+          m_solver = LinearSolverFactory_DDRM.qr(A.numRows, A.numCols);
+        }
+        m_solverA = new DMatrixRMaj(A.numRows, A.numCols);
+      }
+
+      // The solver may overwrite its inputs, so give it copies
+      var bStorage = b.m_storage.getDDRM();
+      if (m_solver.modifiesB()) {
+        if (m_solverB == null) {
+          m_solverB = new DMatrixRMaj(bStorage.numRows, bStorage.numCols);
+        }
+        m_solverB.setTo(bStorage);
+        bStorage = m_solverB;
+      }
+      m_solverA.setTo(A);
+
+      if (!m_solver.setA(m_solverA)) {
+        throw new SingularMatrixException();
+      }
+      m_solver.solve(bStorage, x);
+    }
+    checkSolution(x);
+    return dest;
+  }
+
+  private static void checkSolution(DMatrixRMaj x) {
+    if (MatrixFeatures_DDRM.hasUncountable(x)) {
+      throw new SingularMatrixException("Solution contains uncountable numbers");
+    }
   }
 
   /**
@@ -0,0 +1,295 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.SingularMatrixException;
+
+/**
+ * Fixed-size kernels for the small matrices that make up most state-space models.
+ *
+ * <p>Multiplication is unrolled over the inner dimension for inner dimensions of one through six,
+ * and linear systems with a square coefficient matrix of size one through three are solved in
+ * closed form. Larger matrices are left to EJML's general dense routines, as are ill-conditioned
+ * systems, since the closed form doesn't pivot.
+ */
+final class SmallMatrixOps {
+  /** The largest inner dimension with a fixed-size multiplication kernel. */
+  static final int kMaxMultSize = 6;
+
+  /** The largest square coefficient matrix with a closed-form solver. */
+  static final int kMaxSolveSize = 3;
+
+  /**
+   * The smallest ratio of |det(a)| to the product of the row norms of a that is solved in closed
+   * form. The ratio is at most 1 by Hadamard's inequality, and near 0 when a is close to singular.
+   */
+  static final double kMinDetRatio = 1e-6;
+
+  private SmallMatrixOps() {
+    throw new AssertionError("utility class");
+  }
+
+  /**
+   * Computes c = a * b, or c += a * b if add is true, if a fixed-size kernel exists for the inner
+   * dimension.
+   *
+   * @param a The left-hand matrix.
+   * @param b The right-hand matrix.
+   * @param c The matrix in which to store the result. This can't be a or b.
+   * @param add Whether to add the product to c instead of overwriting it.
+   * @return False if the dimensions don't match or there's no kernel for them, in which case c is
+   *     untouched.
+   */
+  static boolean mult(DMatrixRMaj a, DMatrixRMaj b, DMatrixRMaj c, boolean add) {
+    int inner = a.numCols;
+    if (inner > kMaxMultSize
+        || b.numRows != inner
+        || c.numRows != a.numRows
+        || c.numCols != b.numCols) {
+      return false;
+    }
+    if (a == c || b == c) {
+      throw new IllegalArgumentException("Neither 'a' or 'b' can be the same matrix as 'c'");
+    }
+
+    switch (inner) {
+      case 1:
+        mult1(a.data, b.data, c.data, a.numRows, b.numCols, add);
+        return true;
+      case 2:
+        mult2(a.data, b.data, c.data, a.numRows, b.numCols, add);
+        return true;
+      case 3:
+        mult3(a.data, b.data, c.data, a.numRows, b.numCols, add);
+        return true;
+      case 4:
+        mult4(a.data, b.data, c.data, a.numRows, b.numCols, add);
+        return true;
+      case 5:
+        mult5(a.data, b.data, c.data, a.numRows, b.numCols, add);
+        return true;
+      case 6:
+        mult6(a.data, b.data, c.data, a.numRows, b.numCols, add);
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Solves ax = b in closed form if a is square, small enough, and not ill-conditioned.
+   *
+   * @param a The coefficient matrix.
+   * @param b The right-hand side.
+   * @param x The matrix in which to store the solution. This may be b.
+   * @return False if the dimensions don't match, a is too large, or a is too ill-conditioned for
+   *     the closed form to be accurate, in which case x is untouched.
+   * @throws SingularMatrixException If a is singular.
+   */
+  static boolean solve(DMatrixRMaj a, DMatrixRMaj b, DMatrixRMaj x) {
+    int n = a.numRows;
+    if (n != a.numCols
+        || n > kMaxSolveSize
+        || b.numRows != n
+        || x.numRows != n
+        || x.numCols != b.numCols) {
+      return false;
+    }
+
+    switch (n) {
+      case 1:
+        solve1(a.data, b.data, x.data, b.numCols);
+        return true;
+      case 2:
+        return solve2(a.data, b.data, x.data, b.numCols);
+      case 3:
+        return solve3(a.data, b.data, x.data, b.numCols);
+      default:
+        return false;
+    }
+  }
+
+  private static void mult1(double[] a, double[] b, double[] c, int rows, int cols, boolean add) {
+    for (int i = 0; i < rows; i++) {
+      double a0 = a[i];
+      int cRow = i * cols;
+      for (int j = 0; j < cols; j++) {
+        double sum = a0 * b[j];
+        c[cRow + j] = add ? c[cRow + j] + sum : sum;
+      }
+    }
+  }
+
+  private static void mult2(double[] a, double[] b, double[] c, int rows, int cols, boolean add) {
+    for (int i = 0; i < rows; i++) {
+      int aRow = i * 2;
+      double a0 = a[aRow];
+      double a1 = a[aRow + 1];
+      int cRow = i * cols;
+      for (int j = 0; j < cols; j++) {
+        double sum = a0 * b[j] + a1 * b[cols + j];
+        c[cRow + j] = add ? c[cRow + j] + sum : sum;
+      }
+    }
+  }
+
+  private static void mult3(double[] a, double[] b, double[] c, int rows, int cols, boolean add) {
+    for (int i = 0; i < rows; i++) {
+      int aRow = i * 3;
+      double a0 = a[aRow];
+      double a1 = a[aRow + 1];
+      double a2 = a[aRow + 2];
+      int cRow = i * cols;
+      for (int j = 0; j < cols; j++) {
+        double sum = a0 * b[j] + a1 * b[cols + j] + a2 * b[2 * cols + j];
+        c[cRow + j] = add ? c[cRow + j] + sum : sum;
+      }
+    }
+  }
+
+  private static void mult4(double[] a, double[] b, double[] c, int rows, int cols, boolean add) {
+    for (int i = 0; i < rows; i++) {
+      int aRow = i * 4;
+      double a0 = a[aRow];
+      double a1 = a[aRow + 1];
+      double a2 = a[aRow + 2];
+      double a3 = a[aRow + 3];
+      int cRow = i * cols;
+      for (int j = 0; j < cols; j++) {
+        double sum = a0 * b[j] + a1 * b[cols + j] + a2 * b[2 * cols + j] + a3 * b[3 * cols + j];
+        c[cRow + j] = add ? c[cRow + j] + sum : sum;
+      }
+    }
+  }
+
+  private static void mult5(double[] a, double[] b, double[] c, int rows, int cols, boolean add) {
+    for (int i = 0; i < rows; i++) {
+      int aRow = i * 5;
+      double a0 = a[aRow];
+      double a1 = a[aRow + 1];
+      double a2 = a[aRow + 2];
+      double a3 = a[aRow + 3];
+      double a4 = a[aRow + 4];
+      int cRow = i * cols;
+      for (int j = 0; j < cols; j++) {
+        double sum =
+            a0 * b[j]
+                + a1 * b[cols + j]
+                + a2 * b[2 * cols + j]
+                + a3 * b[3 * cols + j]
+                + a4 * b[4 * cols + j];
+        c[cRow + j] = add ? c[cRow + j] + sum : sum;
+      }
+    }
+  }
+
+  private static void mult6(double[] a, double[] b, double[] c, int rows, int cols, boolean add) {
+    for (int i = 0; i < rows; i++) {
+      int aRow = i * 6;
+      double a0 = a[aRow];
+      double a1 = a[aRow + 1];
+      double a2 = a[aRow + 2];
+      double a3 = a[aRow + 3];
+      double a4 = a[aRow + 4];
+      double a5 = a[aRow + 5];
+      int cRow = i * cols;
+      for (int j = 0; j < cols; j++) {
+        double sum =
+            a0 * b[j]
+                + a1 * b[cols + j]
+                + a2 * b[2 * cols + j]
+                + a3 * b[3 * cols + j]
+                + a4 * b[4 * cols + j]
+                + a5 * b[5 * cols + j];
+        c[cRow + j] = add ? c[cRow + j] + sum : sum;
+      }
+    }
+  }
+
+  private static void solve1(double[] a, double[] b, double[] x, int cols) {
+    if (a[0] == 0.0) {
+      throw new SingularMatrixException();
+    }
+    double invA = 1.0 / a[0];
+    for (int j = 0; j < cols; j++) {
+      x[j] = b[j] * invA;
+    }
+  }
+
+  private static boolean solve2(double[] a, double[] b, double[] x, int cols) {
+    double a00 = a[0];
+    double a01 = a[1];
+    double a10 = a[2];
+    double a11 = a[3];
+
+    double det = a00 * a11 - a01 * a10;
+    if (det == 0.0) {
+      throw new SingularMatrixException();
+    }
+    double rowNorms = Math.sqrt((a00 * a00 + a01 * a01) * (a10 * a10 + a11 * a11));
+    if (!(Math.abs(det) >= kMinDetRatio * rowNorms)) {
+      return false;
+    }
+    double invDet = 1.0 / det;
+
+    // x = adj(a) b / det(a)
+    for (int j = 0; j < cols; j++) {
+      double b0 = b[j];
+      double b1 = b[cols + j];
+      x[j] = (a11 * b0 - a01 * b1) * invDet;
+      x[cols + j] = (a00 * b1 - a10 * b0) * invDet;
+    }
+    return true;
+  }
+
+  private static boolean solve3(double[] a, double[] b, double[] x, int cols) {
+    double a00 = a[0];
+    double a01 = a[1];
+    double a02 = a[2];
+    double a10 = a[3];
+    double a11 = a[4];
+    double a12 = a[5];
+    double a20 = a[6];
+    double a21 = a[7];
+    double a22 = a[8];
+
+    // Cofactors of a
+    double c00 = a11 * a22 - a12 * a21;
+    double c01 = a12 * a20 - a10 * a22;
+    double c02 = a10 * a21 - a11 * a20;
+    double c10 = a02 * a21 - a01 * a22;
+    double c11 = a00 * a22 - a02 * a20;
+    double c12 = a01 * a20 - a00 * a21;
+    double c20 = a01 * a12 - a02 * a11;
+    double c21 = a02 * a10 - a00 * a12;
+    double c22 = a00 * a11 - a01 * a10;
+
+    double det = a00 * c00 + a01 * c01 + a02 * c02;
+    if (det == 0.0) {
+      throw new SingularMatrixException();
+    }
+    double rowNorms =
+        Math.sqrt(
+            (a00 * a00 + a01 * a01 + a02 * a02)
+                * (a10 * a10 + a11 * a11 + a12 * a12)
+                * (a20 * a20 + a21 * a21 + a22 * a22));
+    if (!(Math.abs(det) >= kMinDetRatio * rowNorms)) {
+      return false;
+    }
+    double invDet = 1.0 / det;
+
+    // x = adj(a) b / det(a), where adj(a) is the transpose of the cofactor matrix
+    for (int j = 0; j < cols; j++) {
+      double b0 = b[j];
+      double b1 = b[cols + j];
+      double b2 = b[2 * cols + j];
+      x[j] = (c00 * b0 + c10 * b1 + c20 * b2) * invDet;
+      x[cols + j] = (c01 * b0 + c11 * b1 + c21 * b2) * invDet;
+      x[2 * cols + j] = (c02 * b0 + c12 * b1 + c22 * b2) * invDet;
+    }
+    return true;
+  }
+}
@@ -36,6 +36,9 @@ public class LinearPlantInversionFeedforward<
   @SuppressWarnings("MemberName")
   private final Matrix<States, States> m_A;
 
+  // Preallocated storage for r_k+1 − Ar_k used by calculate()
+  private final Matrix<States, N1> m_rDiff;
+
   /**
    * Constructs a feedforward with the given plant.
    *
@@ -62,6 +65,7 @@ public class LinearPlantInversionFeedforward<
     this.m_B = discABPair.getSecond();
 
     m_r = new Matrix<>(new SimpleMatrix(B.getNumRows(), 1));
+    m_rDiff = new Matrix<>(new SimpleMatrix(B.getNumRows(), 1));
     m_uff = new Matrix<>(new SimpleMatrix(B.getNumCols(), 1));
 
     reset();
@@ -70,6 +74,9 @@ public class LinearPlantInversionFeedforward<
   /**
    * Returns the previously calculated feedforward as an input vector.
    *
+   * <p>The returned matrix is updated in place by calculate() and reset(); copy it if an earlier
+   * feedforward needs to be kept.
+   *
    * @return The calculated feedforward.
    */
   public Matrix<Inputs, N1> getUff() {
@@ -89,6 +96,9 @@ public class LinearPlantInversionFeedforward<
   /**
    * Returns the current reference vector r.
    *
+   * <p>The returned matrix is updated in place by calculate() and reset(); copy it if an earlier
+   * reference needs to be kept.
+   *
    * @return The current reference vector.
    */
   public Matrix<States, N1> getR() {
@@ -111,7 +121,7 @@ public class LinearPlantInversionFeedforward<
    * @param initialState The initial state vector.
    */
   public void reset(Matrix<States, N1> initialState) {
-    m_r = initialState;
+    m_r.assign(initialState);
     m_uff.fill(0.0);
   }
 
@@ -139,15 +149,21 @@ public class LinearPlantInversionFeedforward<
   /**
    * Calculate the feedforward with current and future reference vectors.
    *
+   * <p>The returned matrix is the same one returned by {@link #getUff()}, and is overwritten by the
+   * next call to calculate().
+   *
    * @param r The reference state of the current timestep (k).
    * @param nextR The reference state of the future timestep (k + dt).
    * @return The calculated feedforward.
    */
   @SuppressWarnings({"ParameterName", "LocalVariableName"})
   public Matrix<Inputs, N1> calculate(Matrix<States, N1> r, Matrix<States, N1> nextR) {
-    m_uff = new Matrix<>(m_B.solve(nextR.minus(m_A.times(r))));
+    // uff = B⁺(r_k+1 − Ar_k)
+    m_A.timesInto(r, m_rDiff);
+    nextR.minusInto(m_rDiff, m_rDiff);
+    m_B.solveInto(m_rDiff, m_uff);
 
-    m_r = nextR;
+    m_r.assign(nextR);
     return m_uff;
   }
 }
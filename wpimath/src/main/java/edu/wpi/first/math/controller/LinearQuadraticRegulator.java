@@ -37,6 +37,9 @@ public class LinearQuadraticRegulator<States extends Num, Inputs extends Num, Ou
   @SuppressWarnings("MemberName")
   private Matrix<Inputs, States> m_K;
 
+  // Preallocated storage for the error r − x used by calculate()
+  private final Matrix<States, N1> m_error;
+
   /**
    * Constructs a controller with the given coefficients and plant. Rho is defaulted to 1.
    *
@@ -127,6 +130,7 @@ public class LinearQuadraticRegulator<States extends Num, Inputs extends Num, Ou
             .solve(discB.transpose().times(S).times(discA));
 
     m_r = new Matrix<>(new SimpleMatrix(B.getNumRows(), 1));
+    m_error = new Matrix<>(new SimpleMatrix(B.getNumRows(), 1));
     m_u = new Matrix<>(new SimpleMatrix(B.getNumCols(), 1));
 
     reset();
@@ -166,6 +170,7 @@ public class LinearQuadraticRegulator<States extends Num, Inputs extends Num, Ou
             .solve(discB.transpose().times(S).times(discA).plus(N.transpose()));
 
     m_r = new Matrix<>(new SimpleMatrix(B.getNumRows(), 1));
+    m_error = new Matrix<>(new SimpleMatrix(B.getNumRows(), 1));
     m_u = new Matrix<>(new SimpleMatrix(B.getNumCols(), 1));
 
     reset();
@@ -184,6 +189,7 @@ public class LinearQuadraticRegulator<States extends Num, Inputs extends Num, Ou
     m_K = k;
 
     m_r = new Matrix<>(states, Nat.N1());
+    m_error = new Matrix<>(states, Nat.N1());
     m_u = new Matrix<>(inputs, Nat.N1());
 
     reset();
@@ -192,6 +198,9 @@ public class LinearQuadraticRegulator<States extends Num, Inputs extends Num, Ou
   /**
    * Returns the control input vector u.
    *
+   * <p>The returned matrix is updated in place by calculate(); copy it if an earlier input needs
+   * to be kept.
+   *
    * @return The control input.
    */
   public Matrix<Inputs, N1> getU() {
@@ -211,6 +220,9 @@ public class LinearQuadraticRegulator<States extends Num, Inputs extends Num, Ou
   /**
    * Returns the reference vector r.
    *
+   * <p>The returned matrix is updated in place by calculate(x, nextR) and reset(); copy it if an
+   * earlier reference needs to be kept.
+   *
    * @return The reference vector.
    */
   public Matrix<States, N1> getR() {
@@ -245,25 +257,30 @@ public class LinearQuadraticRegulator<States extends Num, Inputs extends Num, Ou
   /**
    * Returns the next output of the controller.
    *
+   * <p>The returned matrix is the same one returned by {@link #getU()}, and is overwritten by the
+   * next call to calculate().
+   *
    * @param x The current state x.
    * @return The next controller output.
    */
   @SuppressWarnings("ParameterName")
   public Matrix<Inputs, N1> calculate(Matrix<States, N1> x) {
-    m_u = m_K.times(m_r.minus(x));
-    return m_u;
+    m_r.minusInto(x, m_error);
+    return m_K.timesInto(m_error, m_u);
   }
 
   /**
    * Returns the next output of the controller.
    *
+   * <p>The values of nextR are copied into the controller's reference vector.
+   *
    * @param x The current state x.
    * @param nextR the next reference vector r.
    * @return The next controller output.
    */
   @SuppressWarnings("ParameterName")
   public Matrix<Inputs, N1> calculate(Matrix<States, N1> x, Matrix<States, N1> nextR) {
-    m_r = nextR;
+    m_r.assign(nextR);
     return calculate(x);
   }
 
@@ -43,6 +43,16 @@ public class KalmanFilter<States extends Num, Inputs extends Num, Outputs extend
   @SuppressWarnings("MemberName")
   private Matrix<States, N1> m_xHat;
 
+  // Discrete A and B matrices for the timestep of the last prediction, so predict() only has to
+  // rediscretize the plant when the timestep changes
+  private Matrix<States, States> m_discA;
+  private Matrix<States, Inputs> m_discB;
+  private double m_discDtSeconds = Double.NaN;
+
+  // Preallocated storage for intermediate results of predict() and correct()
+  private final Matrix<States, N1> m_xHatNext;
+  private final Matrix<Outputs, N1> m_residual;
+
   /**
    * Constructs a state-space observer with the given plant.
    *
@@ -65,6 +75,9 @@ public class KalmanFilter<States extends Num, Inputs extends Num, Outputs extend
 
     this.m_plant = plant;
 
+    m_xHatNext = new Matrix<>(states, Nat.N1());
+    m_residual = new Matrix<>(outputs, Nat.N1());
+
     var contQ = StateSpaceUtil.makeCovarianceMatrix(states, stateStdDevs);
     var contR = StateSpaceUtil.makeCovarianceMatrix(outputs, measurementStdDevs);
 
@@ -143,10 +156,12 @@ public class KalmanFilter<States extends Num, Inputs extends Num, Outputs extend
   /**
    * Set initial state estimate x-hat.
    *
+   * <p>The values of xhat are copied, so later changes to xhat don't affect the filter.
+   *
    * @param xhat The state estimate x-hat.
    */
   public void setXhat(Matrix<States, N1> xhat) {
-    this.m_xHat = xhat;
+    m_xHat.assign(xhat);
   }
 
   /**
@@ -162,6 +177,9 @@ public class KalmanFilter<States extends Num, Inputs extends Num, Outputs extend
   /**
    * Returns the state estimate x-hat.
    *
+   * <p>The returned matrix is updated in place by {@link #predict(Matrix, double)} and {@link
+   * #correct(Matrix, Matrix)}; copy it if an earlier estimate needs to be kept.
+   *
    * @return The state estimate x-hat.
    */
   public Matrix<States, N1> getXhat() {
@@ -186,7 +204,17 @@ public class KalmanFilter<States extends Num, Inputs extends Num, Outputs extend
    */
   @SuppressWarnings("ParameterName")
   public void predict(Matrix<Inputs, N1> u, double dtSeconds) {
-    this.m_xHat = m_plant.calculateX(m_xHat, u, dtSeconds);
+    if (dtSeconds != m_discDtSeconds) {
+      var discABPair = Discretization.discretizeAB(m_plant.getA(), m_plant.getB(), dtSeconds);
+      m_discA = discABPair.getFirst();
+      m_discB = discABPair.getSecond();
+      m_discDtSeconds = dtSeconds;
+    }
+
+    // x̂ₖ₊₁⁻ = Ax̂ₖ + Buₖ
+    m_discA.timesInto(m_xHat, m_xHatNext);
+    m_discB.timesAddTo(u, m_xHatNext);
+    m_xHat.assign(m_xHatNext);
   }
 
   /**
@@ -200,6 +228,9 @@ public class KalmanFilter<States extends Num, Inputs extends Num, Outputs extend
     final var C = m_plant.getC();
     final var D = m_plant.getD();
     // x̂ₖ₊₁⁺ = x̂ₖ₊₁⁻ + K(y − (Cx̂ₖ₊₁⁻ + Duₖ₊₁))
-    m_xHat = m_xHat.plus(m_K.times(y.minus(C.times(m_xHat).plus(D.times(u)))));
+    C.timesInto(m_xHat, m_residual);
+    D.timesAddTo(u, m_residual);
+    y.minusInto(m_residual, m_residual);
+    m_K.timesAddTo(m_residual, m_xHat);
   }
 }
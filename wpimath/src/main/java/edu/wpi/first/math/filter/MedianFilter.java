@@ -4,20 +4,17 @@
 
 package edu.wpi.first.math.filter;
 
-import edu.wpi.first.util.CircularBuffer;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 /**
  * A class that implements a moving-window median filter. Useful for reducing measurement noise,
  * especially with processes that generate occasional, extreme outliers (such as values from vision
  * processing, LIDAR, or ultrasonic sensors).
+ *
+ * <p>Each sample takes O(log n) time in the window size, and no memory is allocated after
+ * construction.
  */
 public class MedianFilter {
-  private final CircularBuffer m_valueBuffer;
-  private final List<Double> m_orderedValues;
-  private final int m_size;
+  // Values currently in the window, split around the median
+  private final QuantileWindow m_window;
 
   /**
    * Creates a new MedianFilter.
@@ -25,12 +22,7 @@ public class MedianFilter {
    * @param size The number of samples in the moving window.
    */
   public MedianFilter(int size) {
-    // Circular buffer of values currently in the window, ordered by time
-    m_valueBuffer = new CircularBuffer(size);
-    // List of values currently in the window, ordered by value
-    m_orderedValues = new ArrayList<>(size);
-    // Size of rolling window
-    m_size = size;
+    m_window = new QuantileWindow(size, 0.5);
   }
 
   /**
@@ -40,41 +32,19 @@ public class MedianFilter {
    * @return The median of the moving window, updated to include the next value.
    */
   public double calculate(double next) {
-    // Find insertion point for next value
-    int index = Collections.binarySearch(m_orderedValues, next);
-
-    // Deal with binarySearch behavior for element not found
-    if (index < 0) {
-      index = Math.abs(index + 1);
-    }
-
-    // Place value at proper insertion point
-    m_orderedValues.add(index, next);
-
-    int curSize = m_orderedValues.size();
-
-    // If buffer is at max size, pop element off of end of circular buffer
-    // and remove from ordered list
-    if (curSize > m_size) {
-      m_orderedValues.remove(m_valueBuffer.removeLast());
-      --curSize;
-    }
-
-    // Add next value to circular buffer
-    m_valueBuffer.addFirst(next);
+    m_window.add(next);
 
-    if (curSize % 2 != 0) {
-      // If size is odd, return middle element of sorted list
-      return m_orderedValues.get(curSize / 2);
+    if (m_window.size() % 2 != 0) {
+      // If size is odd, return middle element
+      return m_window.getLower();
     } else {
       // If size is even, return average of middle elements
-      return (m_orderedValues.get(curSize / 2 - 1) + m_orderedValues.get(curSize / 2)) / 2.0;
+      return (m_window.getLower() + m_window.getUpper()) / 2.0;
     }
   }
 
   /** Resets the filter, clearing the window of all elements. */
   public void reset() {
-    m_orderedValues.clear();
-    m_valueBuffer.clear();
+    m_window.clear();
   }
 }
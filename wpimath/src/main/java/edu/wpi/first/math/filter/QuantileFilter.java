@@ -0,0 +1,59 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.filter;
+
+/**
+ * A class that implements a moving-window quantile (percentile) filter. A quantile of 0.5 is a
+ * median filter; lower or higher quantiles can be used to track e.g. the noise floor or the peaks
+ * of a signal while ignoring outliers on the other side.
+ *
+ * <p>When the quantile falls between two values in the window, the result is linearly interpolated
+ * between them. Each sample takes O(log n) time in the window size, and no memory is allocated
+ * after construction.
+ */
+public class QuantileFilter {
+  // Values currently in the window, split around the quantile
+  private final QuantileWindow m_window;
+  private final double m_quantile;
+
+  /**
+   * Creates a new QuantileFilter.
+   *
+   * @param size The number of samples in the moving window.
+   * @param quantile The quantile to compute, from 0 (the minimum) to 1 (the maximum).
+   */
+  public QuantileFilter(int size, double quantile) {
+    if (!(quantile >= 0.0 && quantile <= 1.0)) {
+      throw new IllegalArgumentException("Quantile must be between 0 and 1, got " + quantile);
+    }
+    m_window = new QuantileWindow(size, quantile);
+    m_quantile = quantile;
+  }
+
+  /**
+   * Calculates the moving-window quantile for the next value of the input stream.
+   *
+   * @param next The next input value.
+   * @return The quantile of the moving window, updated to include the next value.
+   */
+  public double calculate(double next) {
+    m_window.add(next);
+    return m_window.getQuantile();
+  }
+
+  /**
+   * Returns the quantile this filter computes.
+   *
+   * @return The quantile, from 0 to 1.
+   */
+  public double getQuantile() {
+    return m_quantile;
+  }
+
+  /** Resets the filter, clearing the window of all elements. */
+  public void reset() {
+    m_window.clear();
+  }
+}
@@ -0,0 +1,284 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.filter;
+
+/**
+ * A moving window of values that tracks the two values around a quantile of the window.
+ *
+ * <p>The window is split between a max-heap of the lower values and a min-heap of the upper
+ * values, sized so that the top of the lower heap is the value at rank floor(quantile * (size -
+ * 1)), and the top of the upper heap is the next value. Adding a value takes O(log n) time. The
+ * heaps hold the slots of a ring buffer of the window, and each slot records where it is in its
+ * heap, so when the window is full the oldest value is overwritten in place and moved to its new
+ * position, and nothing is allocated after construction.
+ *
+ * <p>Values are ordered as by {@link Double#compare(double, double)}, so NaN is larger than every
+ * other value.
+ */
+final class QuantileWindow {
+  private final double m_quantile;
+
+  // Values by ring buffer slot
+  private final double[] m_values;
+
+  // Position of each slot in its heap; slots in the upper heap are stored as -(position + 1)
+  private final int[] m_positions;
+
+  // Max-heap of slots of the lower values
+  private final int[] m_lower;
+  private int m_lowerSize;
+
+  // Min-heap of slots of the upper values
+  private final int[] m_upper;
+  private int m_upperSize;
+
+  // Ring buffer slot of the oldest value
+  private int m_oldest;
+
+  // Number of values in the window
+  private int m_size;
+
+  /**
+   * Creates an empty window.
+   *
+   * @param capacity The number of values in a full window.
+   * @param quantile The quantile to track, from 0 to 1.
+   */
+  QuantileWindow(int capacity, double quantile) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Window size must be positive, got " + capacity);
+    }
+    m_quantile = quantile;
+    m_values = new double[capacity];
+    m_positions = new int[capacity];
+    m_lower = new int[capacity];
+    m_upper = new int[capacity];
+  }
+
+  /**
+   * Returns the number of values in the window.
+   *
+   * @return The number of values in the window.
+   */
+  int size() {
+    return m_size;
+  }
+
+  /**
+   * Adds a value to the window. If the window is full, the oldest value is removed.
+   *
+   * @param value The value to add.
+   */
+  void add(double value) {
+    if (m_size == m_values.length) {
+      // Overwrite the oldest value, then restore the heap it's in
+      int slot = m_oldest;
+      m_oldest = (m_oldest + 1) % m_values.length;
+      m_values[slot] = value;
+      int position = m_positions[slot];
+      if (position >= 0) {
+        siftLower(position);
+      } else {
+        siftUpper(-position - 1);
+      }
+    } else {
+      int slot = (m_oldest + m_size) % m_values.length;
+      m_size++;
+      m_values[slot] = value;
+      m_lower[m_lowerSize] = slot;
+      m_positions[slot] = m_lowerSize;
+      siftLowerUp(m_lowerSize++);
+    }
+
+    // Only one value can be out of order, so swapping the tops of the heaps restores the order
+    if (m_upperSize > 0 && greater(m_lower[0], m_upper[0])) {
+      int lowerTop = m_lower[0];
+      int upperTop = m_upper[0];
+      m_lower[0] = upperTop;
+      m_positions[upperTop] = 0;
+      m_upper[0] = lowerTop;
+      m_positions[lowerTop] = -1;
+      siftLowerDown(0);
+      siftUpperDown(0);
+    }
+
+    // Resize the heaps so the top of the lower heap is at the quantile rank
+    int lowerSize = (int) (m_quantile * (m_size - 1)) + 1;
+    while (m_lowerSize > lowerSize) {
+      pushUpper(popLower());
+    }
+    while (m_lowerSize < lowerSize) {
+      pushLower(popUpper());
+    }
+  }
+
+  /**
+   * Returns the value at rank floor(quantile * (size() - 1)) in the window.
+   *
+   * @return The value at the rank, or 0 if the window is empty.
+   */
+  double getLower() {
+    return m_size == 0 ? 0.0 : m_values[m_lower[0]];
+  }
+
+  /**
+   * Returns the value at the rank after {@link #getLower()} in the window.
+   *
+   * @return The value at the rank, or the value returned by {@link #getLower()} if there is no
+   *     larger rank.
+   */
+  double getUpper() {
+    return m_upperSize == 0 ? getLower() : m_values[m_upper[0]];
+  }
+
+  /**
+   * Returns the value at the quantile of the window, linearly interpolating between the two nearest
+   * ranks.
+   *
+   * @return The value at the quantile, or 0 if the window is empty.
+   */
+  double getQuantile() {
+    if (m_size == 0) {
+      return 0.0;
+    }
+    double position = m_quantile * (m_size - 1);
+    double fraction = position - (int) position;
+    double lower = getLower();
+    if (fraction == 0.0) {
+      return lower;
+    }
+    return lower + (getUpper() - lower) * fraction;
+  }
+
+  /** Removes all values from the window. */
+  void clear() {
+    m_lowerSize = 0;
+    m_upperSize = 0;
+    m_oldest = 0;
+    m_size = 0;
+  }
+
+  private boolean greater(int a, int b) {
+    return Double.compare(m_values[a], m_values[b]) > 0;
+  }
+
+  private void setLower(int position, int slot) {
+    m_lower[position] = slot;
+    m_positions[slot] = position;
+  }
+
+  private void setUpper(int position, int slot) {
+    m_upper[position] = slot;
+    m_positions[slot] = -position - 1;
+  }
+
+  private void pushLower(int slot) {
+    setLower(m_lowerSize, slot);
+    siftLowerUp(m_lowerSize++);
+  }
+
+  private int popLower() {
+    int top = m_lower[0];
+    if (--m_lowerSize > 0) {
+      setLower(0, m_lower[m_lowerSize]);
+      siftLowerDown(0);
+    }
+    return top;
+  }
+
+  private void pushUpper(int slot) {
+    setUpper(m_upperSize, slot);
+    siftUpperUp(m_upperSize++);
+  }
+
+  private int popUpper() {
+    int top = m_upper[0];
+    if (--m_upperSize > 0) {
+      setUpper(0, m_upper[m_upperSize]);
+      siftUpperDown(0);
+    }
+    return top;
+  }
+
+  private void siftLower(int position) {
+    if (position > 0 && greater(m_lower[position], m_lower[(position - 1) / 2])) {
+      siftLowerUp(position);
+    } else {
+      siftLowerDown(position);
+    }
+  }
+
+  private void siftLowerUp(int position) {
+    int slot = m_lower[position];
+    while (position > 0) {
+      int parent = (position - 1) / 2;
+      if (!greater(slot, m_lower[parent])) {
+        break;
+      }
+      setLower(position, m_lower[parent]);
+      position = parent;
+    }
+    setLower(position, slot);
+  }
+
+  private void siftLowerDown(int position) {
+    int slot = m_lower[position];
+    while (true) {
+      int child = 2 * position + 1;
+      if (child >= m_lowerSize) {
+        break;
+      }
+      if (child + 1 < m_lowerSize && greater(m_lower[child + 1], m_lower[child])) {
+        child++;
+      }
+      if (!greater(m_lower[child], slot)) {
+        break;
+      }
+      setLower(position, m_lower[child]);
+      position = child;
+    }
+    setLower(position, slot);
+  }
+
+  private void siftUpper(int position) {
+    if (position > 0 && greater(m_upper[(position - 1) / 2], m_upper[position])) {
+      siftUpperUp(position);
+    } else {
+      siftUpperDown(position);
+    }
+  }
+
+  private void siftUpperUp(int position) {
+    int slot = m_upper[position];
+    while (position > 0) {
+      int parent = (position - 1) / 2;
+      if (!greater(m_upper[parent], slot)) {
+        break;
+      }
+      setUpper(position, m_upper[parent]);
+      position = parent;
+    }
+    setUpper(position, slot);
+  }
+
+  private void siftUpperDown(int position) {
+    int slot = m_upper[position];
+    while (true) {
+      int child = 2 * position + 1;
+      if (child >= m_upperSize) {
+        break;
+      }
+      if (child + 1 < m_upperSize && greater(m_upper[child], m_upper[child + 1])) {
+        child++;
+      }
+      if (!greater(slot, m_upper[child])) {
+        break;
+      }
+      setUpper(position, m_upper[child]);
+      position = child;
+    }
+    setUpper(position, slot);
+  }
+}
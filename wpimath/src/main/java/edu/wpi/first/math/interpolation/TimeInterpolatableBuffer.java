@@ -5,8 +5,7 @@
 package edu.wpi.first.math.interpolation;
 
 import edu.wpi.first.math.MathUtil;
-import java.util.NavigableMap;
-import java.util.TreeMap;
+import java.util.Arrays;
 
 /**
  * The TimeInterpolatableBuffer provides an easy way to estimate past measurements. One application
@@ -14,12 +13,24 @@ import java.util.TreeMap;
  * pose at the time when vision or other global measurement were recorded is necessary, or for
  * recording the past angles of mechanisms as measured by encoders.
  *
+ * <p>Samples are kept in timestamp order in a primitive array of timestamps with a parallel array
+ * of values, so adding a sample does not box the timestamp and looking one up is a binary search.
+ *
  * @param <T> The type stored in this buffer.
  */
 public class TimeInterpolatableBuffer<T> {
+  private static final int kInitialCapacity = 16;
+
   private final double m_historySize;
   private final InterpolateFunction<T> m_interpolatingFunc;
-  private final NavigableMap<Double, T> m_buffer = new TreeMap<>();
+
+  // Samples live in [m_start, m_end) of these arrays, sorted by timestamp. Old samples are dropped
+  // by advancing m_start; the live range is shifted back to the front only once at least half of
+  // the arrays is unused, so the amortized cost of adding a sample is constant.
+  private double[] m_times = new double[kInitialCapacity];
+  private Object[] m_values = new Object[kInitialCapacity];
+  private int m_start;
+  private int m_end;
 
   private TimeInterpolatableBuffer(
       InterpolateFunction<T> interpolateFunction, double historySizeSeconds) {
@@ -70,7 +81,32 @@ public class TimeInterpolatableBuffer<T> {
    */
   public void addSample(double timeSeconds, T sample) {
     cleanUp(timeSeconds);
-    m_buffer.put(timeSeconds, sample);
+
+    // Samples almost always arrive in order, so check for an append before searching
+    if (m_start == m_end || timeSeconds > m_times[m_end - 1]) {
+      ensureCapacity();
+      m_times[m_end] = timeSeconds;
+      m_values[m_end] = sample;
+      m_end++;
+      return;
+    }
+
+    int index = Arrays.binarySearch(m_times, m_start, m_end, timeSeconds);
+    if (index >= 0) {
+      m_values[index] = sample;
+      return;
+    }
+
+    // Making room may move the samples to the front of the arrays, so keep the insertion point
+    // relative to the first sample
+    int offset = -(index + 1) - m_start;
+    ensureCapacity();
+    index = m_start + offset;
+    System.arraycopy(m_times, index, m_times, index + 1, m_end - index);
+    System.arraycopy(m_values, index, m_values, index + 1, m_end - index);
+    m_times[index] = timeSeconds;
+    m_values[index] = sample;
+    m_end++;
   }
 
   /**
@@ -79,19 +115,40 @@ public class TimeInterpolatableBuffer<T> {
    * @param time The current timestamp.
    */
   private void cleanUp(double time) {
-    while (!m_buffer.isEmpty()) {
-      var entry = m_buffer.firstEntry();
-      if (time - entry.getKey() >= m_historySize) {
-        m_buffer.remove(entry.getKey());
-      } else {
-        return;
-      }
+    while (m_start < m_end && time - m_times[m_start] >= m_historySize) {
+      m_values[m_start] = null;
+      m_start++;
+    }
+    if (m_start == m_end) {
+      m_start = 0;
+      m_end = 0;
     }
   }
 
+  /** Makes room for at least one more sample at the end of the arrays. */
+  private void ensureCapacity() {
+    if (m_end < m_times.length) {
+      return;
+    }
+
+    int size = m_end - m_start;
+    if (m_start >= m_times.length / 2) {
+      System.arraycopy(m_times, m_start, m_times, 0, size);
+      System.arraycopy(m_values, m_start, m_values, 0, size);
+      Arrays.fill(m_values, size, m_end, null);
+    } else {
+      m_times = Arrays.copyOfRange(m_times, m_start, m_start + m_times.length * 2);
+      m_values = Arrays.copyOfRange(m_values, m_start, m_start + m_values.length * 2);
+    }
+    m_start = 0;
+    m_end = size;
+  }
+
   /** Clear all old samples. */
   public void clear() {
-    m_buffer.clear();
+    Arrays.fill(m_values, m_start, m_end, null);
+    m_start = 0;
+    m_end = 0;
   }
 
   /**
@@ -100,37 +157,35 @@ public class TimeInterpolatableBuffer<T> {
    * @param timeSeconds The time at which to sample.
    * @return The interpolated value at that timestamp. Might be null.
    */
-  @SuppressWarnings("UnnecessaryParentheses")
+  @SuppressWarnings("unchecked")
   public T getSample(double timeSeconds) {
-    if (m_buffer.isEmpty()) {
+    if (m_start == m_end) {
       return null;
     }
 
     // Special case for when the requested time is the same as a sample
-    var nowEntry = m_buffer.get(timeSeconds);
-    if (nowEntry != null) {
-      return nowEntry;
+    int index = Arrays.binarySearch(m_times, m_start, m_end, timeSeconds);
+    if (index >= 0) {
+      return (T) m_values[index];
     }
 
-    var topBound = m_buffer.ceilingEntry(timeSeconds);
-    var bottomBound = m_buffer.floorEntry(timeSeconds);
-
-    // Return null if neither sample exists, and the opposite bound if the other is null
-    if (topBound == null && bottomBound == null) {
-      return null;
-    } else if (topBound == null) {
-      return bottomBound.getValue();
-    } else if (bottomBound == null) {
-      return topBound.getValue();
-    } else {
-      // Otherwise, interpolate. Because T is between [0, 1], we want the ratio of (the difference
-      // between the current time and bottom bound) and (the difference between top and bottom
-      // bounds).
-      return m_interpolatingFunc.interpolate(
-          bottomBound.getValue(),
-          topBound.getValue(),
-          ((timeSeconds - bottomBound.getKey()) / (topBound.getKey() - bottomBound.getKey())));
+    // The insertion point is the index of the top bound; the bottom bound is just before it.
+    // Return the opposite bound if either bound doesn't exist.
+    int top = -(index + 1);
+    if (top == m_start) {
+      return (T) m_values[top];
+    } else if (top == m_end) {
+      return (T) m_values[top - 1];
     }
+
+    // Otherwise, interpolate. Because T is between [0, 1], we want the ratio of (the difference
+    // between the current time and bottom bound) and (the difference between top and bottom
+    // bounds).
+    int bottom = top - 1;
+    return m_interpolatingFunc.interpolate(
+        (T) m_values[bottom],
+        (T) m_values[top],
+        (timeSeconds - m_times[bottom]) / (m_times[top] - m_times[bottom]));
   }
 
   public interface InterpolateFunction<T> {
@@ -0,0 +1,170 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.interpolation;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import java.util.Arrays;
+
+/**
+ * A {@link TimeInterpolatableBuffer} specialized for {@link Pose2d}. The x, y, and heading of each
+ * sample are stored in parallel primitive arrays, so adding a sample with {@link #addSample(double,
+ * double, double, double)} doesn't allocate once the buffer has grown to its steady-state size.
+ * Sampling has the same semantics as {@link TimeInterpolatableBuffer#getSample(double)}.
+ */
+public class TimeInterpolatablePose2dBuffer {
+  private static final int kInitialCapacity = 16;
+
+  private final double m_historySize;
+
+  // See TimeInterpolatableBuffer for how the live range [m_start, m_end) is managed
+  private double[] m_times = new double[kInitialCapacity];
+  private double[] m_x = new double[kInitialCapacity];
+  private double[] m_y = new double[kInitialCapacity];
+  private double[] m_theta = new double[kInitialCapacity];
+  private int m_start;
+  private int m_end;
+
+  /**
+   * Create a new TimeInterpolatablePose2dBuffer.
+   *
+   * @param historySizeSeconds The history size of the buffer.
+   */
+  public TimeInterpolatablePose2dBuffer(double historySizeSeconds) {
+    m_historySize = historySizeSeconds;
+  }
+
+  /**
+   * Add a sample to the buffer.
+   *
+   * @param timeSeconds The timestamp of the sample.
+   * @param pose The sample pose.
+   */
+  public void addSample(double timeSeconds, Pose2d pose) {
+    addSample(timeSeconds, pose.getX(), pose.getY(), pose.getRotation().getRadians());
+  }
+
+  /**
+   * Add a sample to the buffer.
+   *
+   * @param timeSeconds The timestamp of the sample.
+   * @param x The x component of the sample pose's translation.
+   * @param y The y component of the sample pose's translation.
+   * @param thetaRadians The heading of the sample pose in radians.
+   */
+  public void addSample(double timeSeconds, double x, double y, double thetaRadians) {
+    cleanUp(timeSeconds);
+
+    // Samples almost always arrive in order, so check for an append before searching
+    int index;
+    if (m_start == m_end || timeSeconds > m_times[m_end - 1]) {
+      ensureCapacity();
+      index = m_end;
+    } else {
+      index = Arrays.binarySearch(m_times, m_start, m_end, timeSeconds);
+      if (index < 0) {
+        // Making room may move the samples to the front of the arrays, so keep the insertion
+        // point relative to the first sample
+        int offset = -(index + 1) - m_start;
+        ensureCapacity();
+        index = m_start + offset;
+        System.arraycopy(m_times, index, m_times, index + 1, m_end - index);
+        System.arraycopy(m_x, index, m_x, index + 1, m_end - index);
+        System.arraycopy(m_y, index, m_y, index + 1, m_end - index);
+        System.arraycopy(m_theta, index, m_theta, index + 1, m_end - index);
+        m_end++;
+      }
+    }
+
+    if (index == m_end) {
+      m_end++;
+    }
+    m_times[index] = timeSeconds;
+    m_x[index] = x;
+    m_y[index] = y;
+    m_theta[index] = thetaRadians;
+  }
+
+  /**
+   * Removes samples older than our current history size.
+   *
+   * @param time The current timestamp.
+   */
+  private void cleanUp(double time) {
+    while (m_start < m_end && time - m_times[m_start] >= m_historySize) {
+      m_start++;
+    }
+    if (m_start == m_end) {
+      m_start = 0;
+      m_end = 0;
+    }
+  }
+
+  /** Makes room for at least one more sample at the end of the arrays. */
+  private void ensureCapacity() {
+    if (m_end < m_times.length) {
+      return;
+    }
+
+    int size = m_end - m_start;
+    if (m_start >= m_times.length / 2) {
+      System.arraycopy(m_times, m_start, m_times, 0, size);
+      System.arraycopy(m_x, m_start, m_x, 0, size);
+      System.arraycopy(m_y, m_start, m_y, 0, size);
+      System.arraycopy(m_theta, m_start, m_theta, 0, size);
+    } else {
+      int capacity = m_times.length * 2;
+      m_times = Arrays.copyOfRange(m_times, m_start, m_start + capacity);
+      m_x = Arrays.copyOfRange(m_x, m_start, m_start + capacity);
+      m_y = Arrays.copyOfRange(m_y, m_start, m_start + capacity);
+      m_theta = Arrays.copyOfRange(m_theta, m_start, m_start + capacity);
+    }
+    m_start = 0;
+    m_end = size;
+  }
+
+  /** Clear all old samples. */
+  public void clear() {
+    m_start = 0;
+    m_end = 0;
+  }
+
+  /**
+   * Sample the buffer at the given time. If the buffer is empty, this will return null.
+   *
+   * @param timeSeconds The time at which to sample.
+   * @return The interpolated pose at that timestamp. Might be null.
+   */
+  public Pose2d getSample(double timeSeconds) {
+    if (m_start == m_end) {
+      return null;
+    }
+
+    // Special case for when the requested time is the same as a sample
+    int index = Arrays.binarySearch(m_times, m_start, m_end, timeSeconds);
+    if (index >= 0) {
+      return getPose(index);
+    }
+
+    // The insertion point is the index of the top bound; the bottom bound is just before it.
+    // Return the opposite bound if either bound doesn't exist.
+    int top = -(index + 1);
+    if (top == m_start) {
+      return getPose(top);
+    } else if (top == m_end) {
+      return getPose(top - 1);
+    }
+
+    // Otherwise, interpolate between the bounds the same way Pose2d.interpolate() does
+    int bottom = top - 1;
+    return getPose(bottom)
+        .interpolate(
+            getPose(top), (timeSeconds - m_times[bottom]) / (m_times[top] - m_times[bottom]));
+  }
+
+  private Pose2d getPose(int index) {
+    return new Pose2d(m_x[index], m_y[index], new Rotation2d(m_theta[index]));
+  }
+}
@@ -30,6 +30,8 @@ import org.ejml.simple.SimpleMatrix;
  * field using encoders and a gyro.
  */
 public class MecanumDriveKinematics {
+  private static final Translation2d kDefaultCenterOfRotation = new Translation2d();
+
   private final SimpleMatrix m_inverseKinematics;
   private final SimpleMatrix m_forwardKinematics;
 
@@ -90,6 +92,36 @@ public class MecanumDriveKinematics {
    */
   public MecanumDriveWheelSpeeds toWheelSpeeds(
       ChassisSpeeds chassisSpeeds, Translation2d centerOfRotationMeters) {
+    var wheelSpeeds = new MecanumDriveWheelSpeeds();
+    toWheelSpeeds(chassisSpeeds, centerOfRotationMeters, wheelSpeeds);
+    return wheelSpeeds;
+  }
+
+  /**
+   * Performs inverse kinematics. See {@link #toWheelSpeeds(ChassisSpeeds, Translation2d)} for more
+   * information.
+   *
+   * @param chassisSpeeds The desired chassis speed.
+   * @return The wheel speeds.
+   */
+  public MecanumDriveWheelSpeeds toWheelSpeeds(ChassisSpeeds chassisSpeeds) {
+    return toWheelSpeeds(chassisSpeeds, kDefaultCenterOfRotation);
+  }
+
+  /**
+   * Performs inverse kinematics into the given wheel speeds. See {@link
+   * #toWheelSpeeds(ChassisSpeeds, Translation2d)} for more information.
+   *
+   * <p>This overload doesn't allocate, so it's suitable for fast control loops.
+   *
+   * @param chassisSpeeds The desired chassis speed.
+   * @param centerOfRotationMeters The center of rotation.
+   * @param wheelSpeeds The wheel speeds in which to store the result.
+   */
+  public void toWheelSpeeds(
+      ChassisSpeeds chassisSpeeds,
+      Translation2d centerOfRotationMeters,
+      MecanumDriveWheelSpeeds wheelSpeeds) {
     // We have a new center of rotation. We need to compute the matrix again.
     if (!centerOfRotationMeters.equals(m_prevCoR)) {
       var fl = m_frontLeftWheelMeters.minus(centerOfRotationMeters);
@@ -101,31 +133,24 @@ public class MecanumDriveKinematics {
       m_prevCoR = centerOfRotationMeters;
     }
 
-    var chassisSpeedsVector = new SimpleMatrix(3, 1);
-    chassisSpeedsVector.setColumn(
-        0,
-        0,
-        chassisSpeeds.vxMetersPerSecond,
-        chassisSpeeds.vyMetersPerSecond,
-        chassisSpeeds.omegaRadiansPerSecond);
-
-    var wheelsVector = m_inverseKinematics.mult(chassisSpeedsVector);
-    return new MecanumDriveWheelSpeeds(
-        wheelsVector.get(0, 0),
-        wheelsVector.get(1, 0),
-        wheelsVector.get(2, 0),
-        wheelsVector.get(3, 0));
+    // Multiply the inverse kinematics by the chassis speeds vector in place, in the same order
+    // SimpleMatrix.mult() would
+    double[] inverseKinematics = m_inverseKinematics.getDDRM().data;
+    wheelSpeeds.frontLeftMetersPerSecond = multiplyRow(inverseKinematics, 0, chassisSpeeds);
+    wheelSpeeds.frontRightMetersPerSecond = multiplyRow(inverseKinematics, 1, chassisSpeeds);
+    wheelSpeeds.rearLeftMetersPerSecond = multiplyRow(inverseKinematics, 2, chassisSpeeds);
+    wheelSpeeds.rearRightMetersPerSecond = multiplyRow(inverseKinematics, 3, chassisSpeeds);
   }
 
   /**
-   * Performs inverse kinematics. See {@link #toWheelSpeeds(ChassisSpeeds, Translation2d)} for more
-   * information.
+   * Performs inverse kinematics into the given wheel speeds. See {@link
+   * #toWheelSpeeds(ChassisSpeeds, Translation2d, MecanumDriveWheelSpeeds)} for more information.
    *
    * @param chassisSpeeds The desired chassis speed.
-   * @return The wheel speeds.
+   * @param wheelSpeeds The wheel speeds in which to store the result.
    */
-  public MecanumDriveWheelSpeeds toWheelSpeeds(ChassisSpeeds chassisSpeeds) {
-    return toWheelSpeeds(chassisSpeeds, new Translation2d());
+  public void toWheelSpeeds(ChassisSpeeds chassisSpeeds, MecanumDriveWheelSpeeds wheelSpeeds) {
+    toWheelSpeeds(chassisSpeeds, kDefaultCenterOfRotation, wheelSpeeds);
   }
 
   /**
@@ -137,20 +162,58 @@ public class MecanumDriveKinematics {
    * @return The resulting chassis speed.
    */
   public ChassisSpeeds toChassisSpeeds(MecanumDriveWheelSpeeds wheelSpeeds) {
-    var wheelSpeedsVector = new SimpleMatrix(4, 1);
-    wheelSpeedsVector.setColumn(
-        0,
-        0,
-        wheelSpeeds.frontLeftMetersPerSecond,
-        wheelSpeeds.frontRightMetersPerSecond,
-        wheelSpeeds.rearLeftMetersPerSecond,
-        wheelSpeeds.rearRightMetersPerSecond);
-    var chassisSpeedsVector = m_forwardKinematics.mult(wheelSpeedsVector);
-
-    return new ChassisSpeeds(
-        chassisSpeedsVector.get(0, 0),
-        chassisSpeedsVector.get(1, 0),
-        chassisSpeedsVector.get(2, 0));
+    var chassisSpeeds = new ChassisSpeeds();
+    toChassisSpeeds(wheelSpeeds, chassisSpeeds);
+    return chassisSpeeds;
+  }
+
+  /**
+   * Performs forward kinematics into the given chassis speeds. See {@link
+   * #toChassisSpeeds(MecanumDriveWheelSpeeds)} for more information.
+   *
+   * <p>This overload doesn't allocate, so it's suitable for fast control loops and odometry.
+   *
+   * @param wheelSpeeds The current mecanum drive wheel speeds.
+   * @param chassisSpeeds The chassis speeds in which to store the result.
+   */
+  public void toChassisSpeeds(MecanumDriveWheelSpeeds wheelSpeeds, ChassisSpeeds chassisSpeeds) {
+    // Multiply the forward kinematics by the wheel speeds vector in place, in the same order
+    // SimpleMatrix.mult() would
+    double[] forwardKinematics = m_forwardKinematics.getDDRM().data;
+    double fl = wheelSpeeds.frontLeftMetersPerSecond;
+    double fr = wheelSpeeds.frontRightMetersPerSecond;
+    double rl = wheelSpeeds.rearLeftMetersPerSecond;
+    double rr = wheelSpeeds.rearRightMetersPerSecond;
+    chassisSpeeds.vxMetersPerSecond =
+        forwardKinematics[0] * fl
+            + forwardKinematics[1] * fr
+            + forwardKinematics[2] * rl
+            + forwardKinematics[3] * rr;
+    chassisSpeeds.vyMetersPerSecond =
+        forwardKinematics[4] * fl
+            + forwardKinematics[5] * fr
+            + forwardKinematics[6] * rl
+            + forwardKinematics[7] * rr;
+    chassisSpeeds.omegaRadiansPerSecond =
+        forwardKinematics[8] * fl
+            + forwardKinematics[9] * fr
+            + forwardKinematics[10] * rl
+            + forwardKinematics[11] * rr;
+  }
+
+  /**
+   * Multiplies a row of the 4x3 inverse kinematics matrix by a chassis speeds vector.
+   *
+   * @param inverseKinematics The inverse kinematics matrix's row-major data.
+   * @param row The row to multiply.
+   * @param chassisSpeeds The chassis speeds.
+   * @return The wheel speed for that row.
+   */
+  private static double multiplyRow(
+      double[] inverseKinematics, int row, ChassisSpeeds chassisSpeeds) {
+    return inverseKinematics[row * 3] * chassisSpeeds.vxMetersPerSecond
+        + inverseKinematics[row * 3 + 1] * chassisSpeeds.vyMetersPerSecond
+        + inverseKinematics[row * 3 + 2] * chassisSpeeds.omegaRadiansPerSecond;
   }
 
   /**
@@ -168,4 +231,40 @@ public class MecanumDriveKinematics {
     m_inverseKinematics.setRow(2, 0, 1, 1, rl.getX() - rl.getY());
     m_inverseKinematics.setRow(3, 0, 1, -1, -(rr.getX() + rr.getY()));
   }
+
+  /**
+   * Returns the location of the front-left wheel relative to the physical center of the robot.
+   *
+   * @return The location of the wheel in meters.
+   */
+  public Translation2d getFrontLeft() {
+    return m_frontLeftWheelMeters;
+  }
+
+  /**
+   * Returns the location of the front-right wheel relative to the physical center of the robot.
+   *
+   * @return The location of the wheel in meters.
+   */
+  public Translation2d getFrontRight() {
+    return m_frontRightWheelMeters;
+  }
+
+  /**
+   * Returns the location of the rear-left wheel relative to the physical center of the robot.
+   *
+   * @return The location of the wheel in meters.
+   */
+  public Translation2d getRearLeft() {
+    return m_rearLeftWheelMeters;
+  }
+
+  /**
+   * Returns the location of the rear-right wheel relative to the physical center of the robot.
+   *
+   * @return The location of the wheel in meters.
+   */
+  public Translation2d getRearRight() {
+    return m_rearRightWheelMeters;
+  }
 }
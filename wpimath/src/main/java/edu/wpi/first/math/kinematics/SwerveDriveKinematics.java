@@ -33,6 +33,8 @@ import org.ejml.simple.SimpleMatrix;
  * field using encoders and a gyro.
  */
 public class SwerveDriveKinematics {
+  private static final Translation2d kDefaultCenterOfRotation = new Translation2d();
+
   private final SimpleMatrix m_inverseKinematics;
   private final SimpleMatrix m_forwardKinematics;
 
@@ -83,9 +85,48 @@ public class SwerveDriveKinematics {
    *     attainable max velocity. Use the {@link #desaturateWheelSpeeds(SwerveModuleState[], double)
    *     DesaturateWheelSpeeds} function to rectify this issue.
    */
-  @SuppressWarnings("LocalVariableName")
   public SwerveModuleState[] toSwerveModuleStates(
       ChassisSpeeds chassisSpeeds, Translation2d centerOfRotationMeters) {
+    SwerveModuleState[] moduleStates = new SwerveModuleState[m_numModules];
+    for (int i = 0; i < m_numModules; i++) {
+      moduleStates[i] = new SwerveModuleState();
+    }
+
+    toSwerveModuleStates(chassisSpeeds, centerOfRotationMeters, moduleStates);
+    return moduleStates;
+  }
+
+  /**
+   * Performs inverse kinematics. See {@link #toSwerveModuleStates(ChassisSpeeds, Translation2d)}
+   * toSwerveModuleStates for more information.
+   *
+   * @param chassisSpeeds The desired chassis speed.
+   * @return An array containing the module states.
+   */
+  public SwerveModuleState[] toSwerveModuleStates(ChassisSpeeds chassisSpeeds) {
+    return toSwerveModuleStates(chassisSpeeds, kDefaultCenterOfRotation);
+  }
+
+  /**
+   * Performs inverse kinematics into the given module states. See {@link
+   * #toSwerveModuleStates(ChassisSpeeds, Translation2d)} toSwerveModuleStates for more information.
+   *
+   * <p>This overload doesn't allocate the array or the module states, so it's suitable for fast
+   * control loops. A module's angle is only replaced when it changes, since Rotation2d is
+   * immutable.
+   *
+   * @param chassisSpeeds The desired chassis speed.
+   * @param centerOfRotationMeters The center of rotation.
+   * @param moduleStates The array in which to store the module states. It must contain one non-null
+   *     state per module, in the same order as the module locations passed into the constructor.
+   */
+  @SuppressWarnings("LocalVariableName")
+  public void toSwerveModuleStates(
+      ChassisSpeeds chassisSpeeds,
+      Translation2d centerOfRotationMeters,
+      SwerveModuleState[] moduleStates) {
+    checkModuleCount(moduleStates);
+
     if (!centerOfRotationMeters.equals(m_prevCoR)) {
       for (int i = 0; i < m_numModules; i++) {
         m_inverseKinematics.setRow(
@@ -104,39 +145,49 @@ public class SwerveDriveKinematics {
       m_prevCoR = centerOfRotationMeters;
     }
 
-    var chassisSpeedsVector = new SimpleMatrix(3, 1);
-    chassisSpeedsVector.setColumn(
-        0,
-        0,
-        chassisSpeeds.vxMetersPerSecond,
-        chassisSpeeds.vyMetersPerSecond,
-        chassisSpeeds.omegaRadiansPerSecond);
-
-    var moduleStatesMatrix = m_inverseKinematics.mult(chassisSpeedsVector);
-    SwerveModuleState[] moduleStates = new SwerveModuleState[m_numModules];
-
+    // Multiply the inverse kinematics by the chassis speeds vector in place, in the same order
+    // SimpleMatrix.mult() would
+    double[] inverseKinematics = m_inverseKinematics.getDDRM().data;
+    double vx = chassisSpeeds.vxMetersPerSecond;
+    double vy = chassisSpeeds.vyMetersPerSecond;
+    double omega = chassisSpeeds.omegaRadiansPerSecond;
     for (int i = 0; i < m_numModules; i++) {
-      double x = moduleStatesMatrix.get(i * 2, 0);
-      double y = moduleStatesMatrix.get(i * 2 + 1, 0);
+      int row = i * 2 * 3;
+      double x =
+          inverseKinematics[row] * vx
+              + inverseKinematics[row + 1] * vy
+              + inverseKinematics[row + 2] * omega;
+      double y =
+          inverseKinematics[row + 3] * vx
+              + inverseKinematics[row + 4] * vy
+              + inverseKinematics[row + 5] * omega;
 
       double speed = Math.hypot(x, y);
-      Rotation2d angle = new Rotation2d(x, y);
+      var moduleState = moduleStates[i];
+      moduleState.speedMetersPerSecond = speed;
 
-      moduleStates[i] = new SwerveModuleState(speed, angle);
+      // Reuse the module's previous angle if it's the same as the new one. This matches the
+      // normalization in the Rotation2d(x, y) constructor.
+      double cos = speed > 1e-6 ? x / speed : 1.0;
+      double sin = speed > 1e-6 ? y / speed : 0.0;
+      if (moduleState.angle == null
+          || moduleState.angle.getCos() != cos
+          || moduleState.angle.getSin() != sin) {
+        moduleState.angle = new Rotation2d(x, y);
+      }
     }
-
-    return moduleStates;
   }
 
   /**
-   * Performs inverse kinematics. See {@link #toSwerveModuleStates(ChassisSpeeds, Translation2d)}
-   * toSwerveModuleStates for more information.
+   * Performs inverse kinematics into the given module states. See {@link
+   * #toSwerveModuleStates(ChassisSpeeds, Translation2d, SwerveModuleState[])} for more
+   * information.
    *
    * @param chassisSpeeds The desired chassis speed.
-   * @return An array containing the module states.
+   * @param moduleStates The array in which to store the module states.
    */
-  public SwerveModuleState[] toSwerveModuleStates(ChassisSpeeds chassisSpeeds) {
-    return toSwerveModuleStates(chassisSpeeds, new Translation2d());
+  public void toSwerveModuleStates(ChassisSpeeds chassisSpeeds, SwerveModuleState[] moduleStates) {
+    toSwerveModuleStates(chassisSpeeds, kDefaultCenterOfRotation, moduleStates);
   }
 
   /**
@@ -150,24 +201,55 @@ public class SwerveDriveKinematics {
    * @return The resulting chassis speed.
    */
   public ChassisSpeeds toChassisSpeeds(SwerveModuleState... wheelStates) {
-    if (wheelStates.length != m_numModules) {
-      throw new IllegalArgumentException(
-          "Number of modules is not consistent with number of wheel locations provided in "
-              + "constructor");
-    }
-    var moduleStatesMatrix = new SimpleMatrix(m_numModules * 2, 1);
+    var chassisSpeeds = new ChassisSpeeds();
+    toChassisSpeeds(wheelStates, chassisSpeeds);
+    return chassisSpeeds;
+  }
 
+  /**
+   * Performs forward kinematics into the given chassis speeds. See {@link
+   * #toChassisSpeeds(SwerveModuleState...)} for more information.
+   *
+   * <p>This overload doesn't allocate, so it's suitable for fast control loops and odometry.
+   *
+   * @param wheelStates The state of the modules as measured from respective encoders and gyros.
+   * @param chassisSpeeds The chassis speeds in which to store the result.
+   */
+  public void toChassisSpeeds(SwerveModuleState[] wheelStates, ChassisSpeeds chassisSpeeds) {
+    checkModuleCount(wheelStates);
+
+    // Multiply the forward kinematics by the module states vector in place, in the same order
+    // SimpleMatrix.mult() would
+    double[] forwardKinematics = m_forwardKinematics.getDDRM().data;
+    int columns = m_numModules * 2;
+    double vx = 0.0;
+    double vy = 0.0;
+    double omega = 0.0;
     for (int i = 0; i < m_numModules; i++) {
       var module = wheelStates[i];
-      moduleStatesMatrix.set(i * 2, 0, module.speedMetersPerSecond * module.angle.getCos());
-      moduleStatesMatrix.set(i * 2 + 1, module.speedMetersPerSecond * module.angle.getSin());
+      double x = module.speedMetersPerSecond * module.angle.getCos();
+      double y = module.speedMetersPerSecond * module.angle.getSin();
+
+      int column = i * 2;
+      vx += forwardKinematics[column] * x;
+      vx += forwardKinematics[column + 1] * y;
+      vy += forwardKinematics[columns + column] * x;
+      vy += forwardKinematics[columns + column + 1] * y;
+      omega += forwardKinematics[2 * columns + column] * x;
+      omega += forwardKinematics[2 * columns + column + 1] * y;
     }
 
-    var chassisSpeedsVector = m_forwardKinematics.mult(moduleStatesMatrix);
-    return new ChassisSpeeds(
-        chassisSpeedsVector.get(0, 0),
-        chassisSpeedsVector.get(1, 0),
-        chassisSpeedsVector.get(2, 0));
+    chassisSpeeds.vxMetersPerSecond = vx;
+    chassisSpeeds.vyMetersPerSecond = vy;
+    chassisSpeeds.omegaRadiansPerSecond = omega;
+  }
+
+  private void checkModuleCount(SwerveModuleState[] moduleStates) {
+    if (moduleStates.length != m_numModules) {
+      throw new IllegalArgumentException(
+          "Number of modules is not consistent with number of wheel locations provided in "
+              + "constructor");
+    }
   }
 
   /**
@@ -192,4 +274,14 @@ public class SwerveDriveKinematics {
       }
     }
   }
+
+  /**
+   * Returns the locations of the modules relative to the physical center of the robot.
+   *
+   * @return The locations of the modules in meters, in the order they were passed to the
+   *     constructor.
+   */
+  public Translation2d[] getModules() {
+    return Arrays.copyOf(m_modules, m_numModules);
+  }
 }
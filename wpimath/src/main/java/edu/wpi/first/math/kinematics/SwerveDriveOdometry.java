@@ -8,7 +8,6 @@ import edu.wpi.first.math.MathSharedStore;
 import edu.wpi.first.math.MathUsageId;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.math.geometry.Twist2d;
 import edu.wpi.first.util.WPIUtilJNI;
 
 /**
@@ -27,6 +26,9 @@ public class SwerveDriveOdometry {
   private Rotation2d m_gyroOffset;
   private Rotation2d m_previousAngle;
 
+  // Reused by updateWithTime() so that updating doesn't allocate chassis speeds
+  private final ChassisSpeeds m_chassisSpeeds = new ChassisSpeeds();
+
   /**
    * Constructs a SwerveDriveOdometry object.
    *
@@ -97,16 +99,36 @@ public class SwerveDriveOdometry {
 
     var angle = gyroAngle.plus(m_gyroOffset);
 
-    var chassisState = m_kinematics.toChassisSpeeds(moduleStates);
-    var newPose =
-        m_poseMeters.exp(
-            new Twist2d(
-                chassisState.vxMetersPerSecond * period,
-                chassisState.vyMetersPerSecond * period,
-                angle.minus(m_previousAngle).getRadians()));
+    m_kinematics.toChassisSpeeds(moduleStates, m_chassisSpeeds);
+
+    // This is m_poseMeters.exp(new Twist2d(dx, dy, dtheta)) on primitives, which saves the Twist2d
+    // and the intermediate poses. Updating still allocates the offset gyro angle, the angle
+    // difference below, and the new pose with its translation.
+    double dx = m_chassisSpeeds.vxMetersPerSecond * period;
+    double dy = m_chassisSpeeds.vyMetersPerSecond * period;
+    double dtheta = angle.minus(m_previousAngle).getRadians();
+
+    double sinTheta = Math.sin(dtheta);
+    double cosTheta = Math.cos(dtheta);
+    double s;
+    double c;
+    if (Math.abs(dtheta) < 1E-9) {
+      s = 1.0 - 1.0 / 6.0 * dtheta * dtheta;
+      c = 0.5 * dtheta;
+    } else {
+      s = sinTheta / dtheta;
+      c = (1 - cosTheta) / dtheta;
+    }
+    double twistX = dx * s - dy * c;
+    double twistY = dx * c + dy * s;
 
+    var rotation = m_poseMeters.getRotation();
     m_previousAngle = angle;
-    m_poseMeters = new Pose2d(newPose.getTranslation(), angle);
+    m_poseMeters =
+        new Pose2d(
+            m_poseMeters.getX() + (twistX * rotation.getCos() - twistY * rotation.getSin()),
+            m_poseMeters.getY() + (twistX * rotation.getSin() + twistY * rotation.getCos()),
+            angle);
 
     return m_poseMeters;
   }
@@ -36,6 +36,9 @@ public class LinearSystemLoop<States extends Num, Inputs extends Num, Outputs ex
   private Matrix<States, N1> m_nextR;
   private Function<Matrix<Inputs, N1>, Matrix<Inputs, N1>> m_clampFunction;
 
+  // Preallocated storage for the unclamped controller + feedforward input
+  private final Matrix<Inputs, N1> m_unclampedU;
+
   /**
    * Constructs a state-space loop with the given plant, controller, and observer. By default, the
    * initial reference is all zeros. Users should call reset with the initial system state before
@@ -128,6 +131,7 @@ public class LinearSystemLoop<States extends Num, Inputs extends Num, Outputs ex
     this.m_clampFunction = clampFunction;
 
     m_nextR = new Matrix<>(new SimpleMatrix(controller.getK().getNumCols(), 1));
+    m_unclampedU = new Matrix<>(new SimpleMatrix(controller.getK().getNumRows(), 1));
     reset(m_nextR);
   }
 
@@ -317,7 +321,8 @@ public class LinearSystemLoop<States extends Num, Inputs extends Num, Outputs ex
    */
   @SuppressWarnings("ParameterName")
   public void correct(Matrix<Outputs, N1> y) {
-    getObserver().correct(getU(), y);
+    m_controller.getU().plusInto(m_feedforward.getUff(), m_unclampedU);
+    getObserver().correct(clampInput(m_unclampedU), y);
   }
 
   /**
@@ -327,14 +332,11 @@ public class LinearSystemLoop<States extends Num, Inputs extends Num, Outputs ex
    *
    * @param dtSeconds Timestep for model update.
    */
-  @SuppressWarnings("LocalVariableName")
   public void predict(double dtSeconds) {
-    var u =
-        clampInput(
-            m_controller
-                .calculate(getObserver().getXhat(), m_nextR)
-                .plus(m_feedforward.calculate(m_nextR)));
-    getObserver().predict(u, dtSeconds);
+    m_controller
+        .calculate(getObserver().getXhat(), m_nextR)
+        .plusInto(m_feedforward.calculate(m_nextR), m_unclampedU);
+    getObserver().predict(clampInput(m_unclampedU), dtSeconds);
   }
 
   /**
@@ -0,0 +1,431 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.trajectory;
+
+import edu.wpi.first.math.MathSharedStore;
+import edu.wpi.first.math.controller.SimpleMotorFeedforward;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.DifferentialDriveKinematics;
+import edu.wpi.first.math.kinematics.MecanumDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.trajectory.TrajectoryUtil.TrajectorySerializationException;
+import edu.wpi.first.math.trajectory.constraint.CentripetalAccelerationConstraint;
+import edu.wpi.first.math.trajectory.constraint.DifferentialDriveKinematicsConstraint;
+import edu.wpi.first.math.trajectory.constraint.DifferentialDriveVoltageConstraint;
+import edu.wpi.first.math.trajectory.constraint.EllipticalRegionConstraint;
+import edu.wpi.first.math.trajectory.constraint.MaxVelocityConstraint;
+import edu.wpi.first.math.trajectory.constraint.MecanumDriveKinematicsConstraint;
+import edu.wpi.first.math.trajectory.constraint.RectangularRegionConstraint;
+import edu.wpi.first.math.trajectory.constraint.SwerveDriveKinematicsConstraint;
+import edu.wpi.first.math.trajectory.constraint.TrajectoryConstraint;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Generates trajectories in parallel on a bounded thread pool, optionally caching the results on
+ * disk.
+ *
+ * <p>Each generate method returns immediately with a future for the trajectory, so a robot program
+ * can start generating all of its autonomous trajectories in robotInit() and only wait for the ones
+ * it needs when autonomous starts. Identical requests share one future.
+ *
+ * <p>If a cache directory is given, each generated trajectory is written to a file in it in the
+ * format of {@link TrajectoryUtil#toBinary(Trajectory)}, named after a hash of the waypoints and
+ * configuration. Later requests with the same waypoints and configuration (including requests
+ * after a reboot) load that file instead of generating the trajectory again. The constraints in
+ * the edu.wpi.first.math.trajectory.constraint package are hashed by their parameters. Other
+ * constraint classes can't be hashed by content, so trajectories whose configuration has one are
+ * always generated and are neither shared nor cached on disk.
+ *
+ * <p>The futures of the most recent requests are kept in memory so they can be shared; a request
+ * whose generation failed is retried by the next identical request. When the waypoints make a
+ * malformed spline, the future completes with the same one-state trajectory that {@link
+ * TrajectoryGenerator} returns after reporting the error, and that trajectory is neither shared nor
+ * cached on disk.
+ *
+ * <pre><code>
+ * var generator = new AsyncTrajectoryGenerator(
+ *     2, Filesystem.getOperatingDirectory().toPath().resolve("trajectory-cache"));
+ * var future = generator.generateTrajectory(waypoints, config);
+ * ...
+ * Trajectory trajectory = future.join();
+ * </code></pre>
+ */
+public class AsyncTrajectoryGenerator implements AutoCloseable {
+  // Distinguishes the spline types in cache keys
+  private static final byte kQuinticKey = 0;
+  private static final byte kCubicKey = 1;
+
+  // Part of every cache key; change it when generated trajectories or the file format change, so
+  // files cached by older versions aren't used
+  private static final int kCacheVersion = 2;
+
+  // Maximum number of completed futures kept for sharing with identical requests
+  private static final int kMaxFutures = 64;
+
+  private final ForkJoinPool m_pool;
+  private final Path m_cacheDirectory;
+
+  // In access order, so the least recently requested futures are evicted first
+  private final Map<String, CompletableFuture<Trajectory>> m_futures =
+      new LinkedHashMap<>(16, 0.75f, true);
+
+  /**
+   * Constructs an AsyncTrajectoryGenerator that uses one thread per processor and doesn't cache
+   * trajectories on disk.
+   */
+  public AsyncTrajectoryGenerator() {
+    this(Runtime.getRuntime().availableProcessors(), null);
+  }
+
+  /**
+   * Constructs an AsyncTrajectoryGenerator.
+   *
+   * @param parallelism The maximum number of trajectories to generate at once.
+   * @param cacheDirectory The directory in which to cache generated trajectories, or null to not
+   *     cache them on disk. The directory is created if it doesn't exist.
+   */
+  public AsyncTrajectoryGenerator(int parallelism, Path cacheDirectory) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be at least 1, got " + parallelism);
+    }
+    m_pool = new ForkJoinPool(parallelism);
+    m_cacheDirectory = cacheDirectory;
+  }
+
+  /**
+   * Generates a trajectory from the given waypoints and config using quintic hermite splines. See
+   * {@link TrajectoryGenerator#generateTrajectory(List, TrajectoryConfig)}.
+   *
+   * @param waypoints List of waypoints.
+   * @param config The configuration for the trajectory.
+   * @return A future that completes with the generated trajectory.
+   */
+  public CompletableFuture<Trajectory> generateTrajectory(
+      List<Pose2d> waypoints, TrajectoryConfig config) {
+    var copiedWaypoints = List.copyOf(waypoints);
+
+    var key = ByteBuffer.allocate(1 + 3 * Double.BYTES * copiedWaypoints.size());
+    key.put(kQuinticKey);
+    for (var waypoint : copiedWaypoints) {
+      putPose(key, waypoint);
+    }
+
+    return submit(
+        key, config, () -> TrajectoryGenerator.generateTrajectory(copiedWaypoints, config));
+  }
+
+  /**
+   * Generates a trajectory from the given waypoints and config using clamped cubic splines. See
+   * {@link TrajectoryGenerator#generateTrajectory(Pose2d, List, Pose2d, TrajectoryConfig)}.
+   *
+   * @param start The starting pose.
+   * @param interiorWaypoints The interior waypoints.
+   * @param end The ending pose.
+   * @param config The configuration for the trajectory.
+   * @return A future that completes with the generated trajectory.
+   */
+  public CompletableFuture<Trajectory> generateTrajectory(
+      Pose2d start, List<Translation2d> interiorWaypoints, Pose2d end, TrajectoryConfig config) {
+    var copiedWaypoints = List.copyOf(interiorWaypoints);
+
+    var key =
+        ByteBuffer.allocate(1 + 2 * 3 * Double.BYTES + 2 * Double.BYTES * copiedWaypoints.size());
+    key.put(kCubicKey);
+    putPose(key, start);
+    putPose(key, end);
+    for (var waypoint : copiedWaypoints) {
+      key.putDouble(waypoint.getX());
+      key.putDouble(waypoint.getY());
+    }
+
+    return submit(
+        key,
+        config,
+        () -> TrajectoryGenerator.generateTrajectory(start, copiedWaypoints, end, config));
+  }
+
+  /**
+   * Stops the generator's threads. Trajectories that haven't been generated yet are completed
+   * exceptionally.
+   */
+  @Override
+  public void close() {
+    m_pool.shutdownNow();
+    List<CompletableFuture<Trajectory>> futures;
+    synchronized (m_futures) {
+      futures = new ArrayList<>(m_futures.values());
+    }
+    for (var future : futures) {
+      future.completeExceptionally(new IllegalStateException("AsyncTrajectoryGenerator closed"));
+    }
+  }
+
+  private CompletableFuture<Trajectory> submit(
+      ByteBuffer waypointKey, TrajectoryConfig config, Supplier<Trajectory> generator) {
+    // Requests with unknown constraints can't be compared by content, so they never share a future
+    String key = hash(waypointKey, config);
+    if (key == null) {
+      return CompletableFuture.supplyAsync(generator, m_pool);
+    }
+
+    CompletableFuture<Trajectory> future;
+    synchronized (m_futures) {
+      future = m_futures.get(key);
+      if (future != null) {
+        return future;
+      }
+      future = CompletableFuture.supplyAsync(() -> generate(key, generator), m_pool);
+      m_futures.put(key, future);
+      evictFutures();
+    }
+
+    // Forget failed requests so they're retried
+    CompletableFuture<Trajectory> added = future;
+    future.whenComplete(
+        (trajectory, error) -> {
+          if (error != null) {
+            synchronized (m_futures) {
+              m_futures.remove(key, added);
+            }
+          }
+        });
+    return future;
+  }
+
+  /**
+   * Evicts the least recently requested completed futures until at most kMaxFutures remain.
+   * Futures that haven't completed are kept so they can be completed when the generator is closed.
+   * Must be called with m_futures locked.
+   */
+  private void evictFutures() {
+    var iterator = m_futures.values().iterator();
+    while (m_futures.size() > kMaxFutures && iterator.hasNext()) {
+      if (iterator.next().isDone()) {
+        iterator.remove();
+      }
+    }
+  }
+
+  private Trajectory generate(String key, Supplier<Trajectory> generator) {
+    Path file = m_cacheDirectory != null ? m_cacheDirectory.resolve(key + ".traj") : null;
+    if (file != null) {
+      Trajectory cached = readCache(file);
+      if (cached != null) {
+        return cached;
+      }
+    }
+
+    Trajectory trajectory = generator.get();
+    if (trajectory == TrajectoryGenerator.kDoNothingTrajectory) {
+      // Generation failed and the error was reported. Forget the request before its future
+      // completes, so no later request shares the fallback trajectory.
+      synchronized (m_futures) {
+        m_futures.remove(key);
+      }
+    } else if (file != null) {
+      writeCache(file, trajectory);
+    }
+    return trajectory;
+  }
+
+  private static void putPose(ByteBuffer buffer, Pose2d pose) {
+    buffer.putDouble(pose.getX());
+    buffer.putDouble(pose.getY());
+    buffer.putDouble(pose.getRotation().getRadians());
+  }
+
+  /**
+   * Returns the hex SHA-256 hash of the cache version, the waypoints, and the configuration.
+   *
+   * @param waypointKey The serialized waypoints.
+   * @param config The configuration for the trajectory.
+   * @return The hash, or null if the configuration has a constraint that can't be hashed.
+   */
+  private static String hash(ByteBuffer waypointKey, TrajectoryConfig config) {
+    var configKey = new ByteArrayOutputStream();
+    try (var out = new DataOutputStream(configKey)) {
+      out.writeInt(kCacheVersion);
+      out.writeDouble(config.getStartVelocity());
+      out.writeDouble(config.getEndVelocity());
+      out.writeDouble(config.getMaxVelocity());
+      out.writeDouble(config.getMaxAcceleration());
+      out.writeBoolean(config.isReversed());
+      out.writeInt(config.getConstraints().size());
+      for (var constraint : config.getConstraints()) {
+        if (!writeConstraint(out, constraint)) {
+          return null;
+        }
+      }
+    } catch (IOException ex) {
+      // ByteArrayOutputStream doesn't throw
+      throw new UncheckedIOException(ex);
+    }
+
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 is unavailable", ex);
+    }
+    digest.update(configKey.toByteArray());
+    digest.update(waypointKey.flip());
+
+    var builder = new StringBuilder(64);
+    for (byte b : digest.digest()) {
+      builder.append(String.format("%02x", b));
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Writes the type and parameters of a constraint to a cache key. Only exact instances of the
+   * built-in constraint classes are written, since a subclass may behave differently.
+   *
+   * @param out The cache key.
+   * @param constraint The constraint.
+   * @return False if the constraint can't be written.
+   * @throws IOException if writing fails.
+   */
+  private static boolean writeConstraint(DataOutputStream out, TrajectoryConstraint constraint)
+      throws IOException {
+    Class<?> type = constraint.getClass();
+    out.writeUTF(type.getName());
+    if (type == MaxVelocityConstraint.class) {
+      out.writeDouble(((MaxVelocityConstraint) constraint).getMaxVelocity());
+      return true;
+    } else if (type == CentripetalAccelerationConstraint.class) {
+      var centripetal = (CentripetalAccelerationConstraint) constraint;
+      out.writeDouble(centripetal.getMaxCentripetalAccelerationMetersPerSecondSq());
+      return true;
+    } else if (type == DifferentialDriveKinematicsConstraint.class) {
+      var differential = (DifferentialDriveKinematicsConstraint) constraint;
+      out.writeDouble(differential.getMaxSpeedMetersPerSecond());
+      return writeKinematics(out, differential.getKinematics());
+    } else if (type == DifferentialDriveVoltageConstraint.class) {
+      var voltage = (DifferentialDriveVoltageConstraint) constraint;
+      var feedforward = voltage.getFeedforward();
+      if (feedforward.getClass() != SimpleMotorFeedforward.class) {
+        return false;
+      }
+      out.writeDouble(feedforward.ks);
+      out.writeDouble(feedforward.kv);
+      out.writeDouble(feedforward.ka);
+      out.writeDouble(voltage.getMaxVoltage());
+      return writeKinematics(out, voltage.getKinematics());
+    } else if (type == MecanumDriveKinematicsConstraint.class) {
+      var mecanum = (MecanumDriveKinematicsConstraint) constraint;
+      var kinematics = mecanum.getKinematics();
+      if (kinematics.getClass() != MecanumDriveKinematics.class) {
+        return false;
+      }
+      out.writeDouble(mecanum.getMaxSpeedMetersPerSecond());
+      writeTranslation(out, kinematics.getFrontLeft());
+      writeTranslation(out, kinematics.getFrontRight());
+      writeTranslation(out, kinematics.getRearLeft());
+      writeTranslation(out, kinematics.getRearRight());
+      return true;
+    } else if (type == SwerveDriveKinematicsConstraint.class) {
+      var swerve = (SwerveDriveKinematicsConstraint) constraint;
+      var kinematics = swerve.getKinematics();
+      if (kinematics.getClass() != SwerveDriveKinematics.class) {
+        return false;
+      }
+      out.writeDouble(swerve.getMaxSpeedMetersPerSecond());
+      var modules = kinematics.getModules();
+      out.writeInt(modules.length);
+      for (var module : modules) {
+        writeTranslation(out, module);
+      }
+      return true;
+    } else if (type == EllipticalRegionConstraint.class) {
+      var ellipse = (EllipticalRegionConstraint) constraint;
+      writeTranslation(out, ellipse.getCenter());
+      writeTranslation(out, ellipse.getRadii());
+      return writeConstraint(out, ellipse.getConstraint());
+    } else if (type == RectangularRegionConstraint.class) {
+      var rectangle = (RectangularRegionConstraint) constraint;
+      writeTranslation(out, rectangle.getBottomLeftPoint());
+      writeTranslation(out, rectangle.getTopRightPoint());
+      return writeConstraint(out, rectangle.getConstraint());
+    }
+    return false;
+  }
+
+  private static boolean writeKinematics(
+      DataOutputStream out, DifferentialDriveKinematics kinematics) throws IOException {
+    if (kinematics.getClass() != DifferentialDriveKinematics.class) {
+      return false;
+    }
+    out.writeDouble(kinematics.trackWidthMeters);
+    return true;
+  }
+
+  private static void writeTranslation(DataOutputStream out, Translation2d translation)
+      throws IOException {
+    out.writeDouble(translation.getX());
+    out.writeDouble(translation.getY());
+  }
+
+  /**
+   * Reads a cached trajectory.
+   *
+   * @param file The cache file.
+   * @return The trajectory, or null if the file doesn't exist or isn't a valid cache file.
+   */
+  private static Trajectory readCache(Path file) {
+    if (!Files.isRegularFile(file)) {
+      return null;
+    }
+
+    // The file is read rather than memory mapped so that it can be replaced if it's invalid
+    try {
+      return TrajectoryUtil.fromBinary(ByteBuffer.wrap(Files.readAllBytes(file)));
+    } catch (IOException | TrajectorySerializationException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * Writes a trajectory to the cache. The file is written under a temporary name and then moved
+   * into place, so readers never see a partially written file. Failures are reported but otherwise
+   * ignored, since the trajectory can always be generated again.
+   *
+   * @param file The cache file.
+   * @param trajectory The trajectory to cache.
+   */
+  private static void writeCache(Path file, Trajectory trajectory) {
+    try {
+      Files.createDirectories(file.getParent());
+      Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+      try {
+        TrajectoryUtil.toBinary(trajectory, temp);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        // Only left behind if writing or moving it failed
+        Files.deleteIfExists(temp);
+      }
+    } catch (IOException ex) {
+      MathSharedStore.reportError(
+          "Failed to cache trajectory to " + file + ": " + ex.getMessage(), ex.getStackTrace());
+    }
+  }
+}
@@ -5,7 +5,9 @@
 package edu.wpi.first.math.trajectory;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Transform2d;
 import java.util.ArrayList;
 import java.util.List;
@@ -391,6 +393,256 @@ public class Trajectory {
     }
   }
 
+  /**
+   * A mutable counterpart of {@link State} that stores the pose as primitives. {@link Sampler}
+   * interpolates into one of these so that sampling doesn't allocate.
+   */
+  @SuppressWarnings("MemberName")
+  public static class MutableState {
+    // The time elapsed since the beginning of the trajectory.
+    public double timeSeconds;
+
+    // The speed at that point of the trajectory.
+    public double velocityMetersPerSecond;
+
+    // The acceleration at that point of the trajectory.
+    public double accelerationMetersPerSecondSq;
+
+    // The x component of the pose at that point of the trajectory.
+    public double xMeters;
+
+    // The y component of the pose at that point of the trajectory.
+    public double yMeters;
+
+    // The heading of the pose at that point of the trajectory.
+    public double headingRadians;
+
+    // The curvature at that point of the trajectory.
+    public double curvatureRadPerMeter;
+
+    /**
+     * Returns the pose at this point of the trajectory as a new Pose2d.
+     *
+     * @return The pose at this point of the trajectory.
+     */
+    public Pose2d getPose() {
+      return new Pose2d(xMeters, yMeters, new Rotation2d(headingRadians));
+    }
+
+    /**
+     * Returns a copy of this state as a new State.
+     *
+     * @return A copy of this state as a new State.
+     */
+    public State toState() {
+      return new State(
+          timeSeconds,
+          velocityMetersPerSecond,
+          accelerationMetersPerSecondSq,
+          getPose(),
+          curvatureRadPerMeter);
+    }
+  }
+
+  /**
+   * A cursor for sampling a trajectory repeatedly, usually at increasing times like trajectory
+   * following commands do.
+   *
+   * <p>The sampler remembers which segment of the trajectory the last sample fell in, so a sequence
+   * of increasing sample times costs amortized constant time per sample instead of a binary search
+   * each time. {@link #sample(double, MutableState)} also interpolates into a caller-provided
+   * object, so following a trajectory with it doesn't allocate.
+   *
+   * <p>The sampler copies the trajectory's states when it's constructed, so later changes to the
+   * trajectory's state list aren't visible to it. A sampler isn't thread-safe.
+   */
+  public static class Sampler {
+    // How many segments to step forward from the last sample before falling back to a binary
+    // search
+    private static final int kMaxLinearSteps = 8;
+
+    private final State[] m_states;
+    private final double[] m_times;
+    private final double[] m_velocities;
+    private final double[] m_accelerations;
+    private final double[] m_x;
+    private final double[] m_y;
+    private final double[] m_headings;
+    private final double[] m_curvatures;
+
+    // The index of the state at the end of the segment that contained the last sample
+    private int m_index = 1;
+
+    /**
+     * Constructs a sampler for the given trajectory.
+     *
+     * @param trajectory The trajectory to sample.
+     */
+    public Sampler(Trajectory trajectory) {
+      m_states = trajectory.getStates().toArray(new State[0]);
+
+      int size = m_states.length;
+      m_times = new double[size];
+      m_velocities = new double[size];
+      m_accelerations = new double[size];
+      m_x = new double[size];
+      m_y = new double[size];
+      m_headings = new double[size];
+      m_curvatures = new double[size];
+      for (int i = 0; i < size; i++) {
+        var state = m_states[i];
+        m_times[i] = state.timeSeconds;
+        m_velocities[i] = state.velocityMetersPerSecond;
+        m_accelerations[i] = state.accelerationMetersPerSecondSq;
+        m_x[i] = state.poseMeters.getX();
+        m_y[i] = state.poseMeters.getY();
+        m_headings[i] = state.poseMeters.getRotation().getRadians();
+        m_curvatures[i] = state.curvatureRadPerMeter;
+      }
+    }
+
+    /**
+     * Sample the trajectory at a point in time. This returns the same state as {@link
+     * Trajectory#sample(double)}.
+     *
+     * @param timeSeconds The point in time since the beginning of the trajectory to sample.
+     * @return The state at that point in time.
+     */
+    public State sample(double timeSeconds) {
+      if (timeSeconds <= m_times[0]) {
+        return m_states[0];
+      }
+      if (timeSeconds >= m_times[m_times.length - 1]) {
+        return m_states[m_states.length - 1];
+      }
+
+      int index = seek(timeSeconds);
+      final State sample = m_states[index];
+      final State prevSample = m_states[index - 1];
+
+      // If the difference in states is negligible, then we are spot on!
+      if (Math.abs(sample.timeSeconds - prevSample.timeSeconds) < 1E-9) {
+        return sample;
+      }
+      // Interpolate between the two states for the state that we want.
+      return prevSample.interpolate(
+          sample,
+          (timeSeconds - prevSample.timeSeconds) / (sample.timeSeconds - prevSample.timeSeconds));
+    }
+
+    /**
+     * Sample the trajectory at a point in time into the given state without allocating.
+     *
+     * @param timeSeconds The point in time since the beginning of the trajectory to sample.
+     * @param result The state in which to store the state at that point in time.
+     * @return result.
+     */
+    public MutableState sample(double timeSeconds, MutableState result) {
+      if (timeSeconds <= m_times[0]) {
+        return copyState(0, result);
+      }
+      if (timeSeconds >= m_times[m_times.length - 1]) {
+        return copyState(m_times.length - 1, result);
+      }
+
+      int index = seek(timeSeconds);
+      int prev = index - 1;
+
+      // If the difference in states is negligible, then we are spot on!
+      if (Math.abs(m_times[index] - m_times[prev]) < 1E-9) {
+        return copyState(index, result);
+      }
+
+      // This is State.interpolate() on primitives. The requested time is strictly between the two
+      // states' times, so the interpolation never has to be flipped.
+      final double i = (timeSeconds - m_times[prev]) / (m_times[index] - m_times[prev]);
+      final double newT = lerp(m_times[prev], m_times[index], i);
+      final double deltaT = newT - m_times[prev];
+
+      final double velocity = m_velocities[prev];
+      final double acceleration = m_accelerations[prev];
+      final boolean reversing =
+          velocity < 0 || Math.abs(velocity) < 1E-9 && acceleration < 0;
+
+      // v_f = v_0 + at
+      final double newV = velocity + acceleration * deltaT;
+
+      // delta_s = v_0 t + 0.5 at^2
+      final double newS =
+          (velocity * deltaT + 0.5 * acceleration * deltaT * deltaT) * (reversing ? -1.0 : 1.0);
+
+      final double dx = m_x[index] - m_x[prev];
+      final double dy = m_y[index] - m_y[prev];
+      final double interpolationFrac = newS / Math.hypot(dx, dy);
+
+      result.timeSeconds = newT;
+      result.velocityMetersPerSecond = newV;
+      result.accelerationMetersPerSecondSq = acceleration;
+      result.xMeters = m_x[prev] + dx * interpolationFrac;
+      result.yMeters = m_y[prev] + dy * interpolationFrac;
+      result.headingRadians =
+          MathUtil.angleModulus(
+              m_headings[prev]
+                  + MathUtil.angleModulus(m_headings[index] - m_headings[prev])
+                      * interpolationFrac);
+      result.curvatureRadPerMeter =
+          lerp(m_curvatures[prev], m_curvatures[index], interpolationFrac);
+      return result;
+    }
+
+    /**
+     * Returns the index of the first state whose time is at least the given time, which must be
+     * strictly between the first and last states' times.
+     *
+     * @param timeSeconds The time to search for.
+     * @return The index of the state at the end of the segment containing the time.
+     */
+    private int seek(double timeSeconds) {
+      int index = m_index;
+      if (m_times[index - 1] < timeSeconds) {
+        // Sequential samples usually land in the same segment or a few after it
+        for (int step = 0; step < kMaxLinearSteps && m_times[index] < timeSeconds; step++) {
+          index++;
+        }
+        if (m_times[index] < timeSeconds) {
+          index = binarySearch(index + 1, m_times.length - 1, timeSeconds);
+        }
+      } else {
+        index = binarySearch(1, index - 1, timeSeconds);
+      }
+
+      m_index = index;
+      return index;
+    }
+
+    /**
+     * Returns the index of the first state in [low, high] whose time is at least the given time.
+     * The state at high must satisfy that.
+     */
+    private int binarySearch(int low, int high, double timeSeconds) {
+      while (low != high) {
+        int mid = (low + high) / 2;
+        if (m_times[mid] < timeSeconds) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+
+    private MutableState copyState(int index, MutableState result) {
+      result.timeSeconds = m_times[index];
+      result.velocityMetersPerSecond = m_velocities[index];
+      result.accelerationMetersPerSecondSq = m_accelerations[index];
+      result.xMeters = m_x[index];
+      result.yMeters = m_y[index];
+      result.headingRadians = m_headings[index];
+      result.curvatureRadPerMeter = m_curvatures[index];
+      return result;
+    }
+  }
+
   @Override
   public String toString() {
     String stateList = m_states.stream().map(State::toString).collect(Collectors.joining(", \n"));
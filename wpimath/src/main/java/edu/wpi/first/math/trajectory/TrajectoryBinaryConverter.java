@@ -0,0 +1,80 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.trajectory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Converts PathWeaver JSON trajectories to the compact binary trajectory format read by {@link
+ * TrajectoryUtil#fromBinary(Path)}, so that a robot program doesn't have to parse JSON at startup.
+ *
+ * <p>The JSON is parsed in Java rather than through JNI, so the converter can run at build time
+ * without the wpimath native library, e.g. from a small program run by a JavaExec task in a robot
+ * project's build.gradle. The command-line converter isn't part of the library; in the WPILib tree
+ * it's run with:
+ *
+ * <pre><code>
+ * ./gradlew :wpimath:runTrajectoryConverter --args="&lt;json directory&gt; &lt;output directory&gt;"
+ * </code></pre>
+ *
+ * <p>The converted files can then be deployed alongside the JSON files and loaded with {@link
+ * TrajectoryUtil#fromBinary(Path)}.
+ */
+public final class TrajectoryBinaryConverter {
+  /** The file name suffix of PathWeaver JSON trajectories. */
+  public static final String kJsonSuffix = ".wpilib.json";
+
+  /** The file name suffix of binary trajectories written by the converter. */
+  public static final String kBinarySuffix = ".wpilib.traj";
+
+  private TrajectoryBinaryConverter() {
+    throw new UnsupportedOperationException("This is a utility class!");
+  }
+
+  /**
+   * Converts a PathWeaver JSON trajectory file to a binary trajectory file.
+   *
+   * @param jsonPath The path of the JSON file to convert.
+   * @param binaryPath The path of the binary file to write.
+   * @throws IOException if reading or writing a file fails.
+   */
+  public static void convert(Path jsonPath, Path binaryPath) throws IOException {
+    var states = new ObjectMapper().readValue(jsonPath.toFile(), Trajectory.State[].class);
+    if (states.length == 0) {
+      throw new IOException(jsonPath + " contains no trajectory states");
+    }
+    TrajectoryUtil.toBinary(new Trajectory(Arrays.asList(states)), binaryPath);
+  }
+
+  /**
+   * Converts every PathWeaver JSON trajectory file in a directory. Each file named {@code
+   * <name>.wpilib.json} is converted to {@code <name>.wpilib.traj} in the output directory.
+   *
+   * @param jsonDirectory The directory containing the JSON files.
+   * @param binaryDirectory The directory in which to write the binary files. It's created if it
+   *     doesn't exist.
+   * @return The number of files converted.
+   * @throws IOException if reading or writing a file fails.
+   */
+  public static int convertDirectory(Path jsonDirectory, Path binaryDirectory) throws IOException {
+    Files.createDirectories(binaryDirectory);
+
+    int count = 0;
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(jsonDirectory, "*" + kJsonSuffix)) {
+      for (Path jsonPath : files) {
+        String name = jsonPath.getFileName().toString();
+        String baseName = name.substring(0, name.length() - kJsonSuffix.length());
+        convert(jsonPath, binaryDirectory.resolve(baseName + kBinarySuffix));
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -21,7 +21,8 @@ import java.util.List;
 import java.util.function.BiConsumer;
 
 public final class TrajectoryGenerator {
-  private static final Trajectory kDoNothingTrajectory =
+  // Returned after reporting an error when a trajectory can't be generated
+  static final Trajectory kDoNothingTrajectory =
       new Trajectory(Arrays.asList(new Trajectory.State()));
   private static BiConsumer<String, StackTraceElement[]> errorFunc;
 
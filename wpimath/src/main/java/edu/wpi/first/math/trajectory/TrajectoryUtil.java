@@ -8,11 +8,24 @@ import edu.wpi.first.math.WPIMathJNI;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
 public final class TrajectoryUtil {
+  // The binary format is little-endian: the magic "TRAJ", a 32-bit version, a 32-bit state count,
+  // then the time, velocity, acceleration, x, y, heading, and curvature of each state as doubles.
+  private static final int kBinaryMagic = 0x4A415254; // "TRAJ" in little-endian byte order
+  private static final int kBinaryVersion = 1;
+  private static final int kBinaryHeaderSize = 3 * Integer.BYTES;
+  private static final int kBinaryStateSize = 7 * Double.BYTES;
+
   private TrajectoryUtil() {
     throw new UnsupportedOperationException("This is a utility class!");
   }
@@ -111,6 +124,108 @@ public final class TrajectoryUtil {
     return WPIMathJNI.serializeTrajectory(getElementsFromTrajectory(trajectory));
   }
 
+  /**
+   * Serializes a Trajectory to the compact binary trajectory format. Unlike JSON, reading this
+   * format doesn't require any parsing, so it's the fastest way to load a trajectory at startup.
+   *
+   * @param trajectory The trajectory to serialize.
+   * @return The serialized trajectory.
+   */
+  public static byte[] toBinary(Trajectory trajectory) {
+    var states = trajectory.getStates();
+    var buffer =
+        ByteBuffer.allocate(kBinaryHeaderSize + states.size() * kBinaryStateSize)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(kBinaryMagic);
+    buffer.putInt(kBinaryVersion);
+    buffer.putInt(states.size());
+    for (var state : states) {
+      buffer.putDouble(state.timeSeconds);
+      buffer.putDouble(state.velocityMetersPerSecond);
+      buffer.putDouble(state.accelerationMetersPerSecondSq);
+      buffer.putDouble(state.poseMeters.getX());
+      buffer.putDouble(state.poseMeters.getY());
+      buffer.putDouble(state.poseMeters.getRotation().getRadians());
+      buffer.putDouble(state.curvatureRadPerMeter);
+    }
+    return buffer.array();
+  }
+
+  /**
+   * Exports a Trajectory to a file in the compact binary trajectory format.
+   *
+   * @param trajectory The trajectory to export
+   * @param path The path of the file to export to
+   * @throws IOException if writing to the file fails.
+   */
+  public static void toBinary(Trajectory trajectory, Path path) throws IOException {
+    Files.write(path, toBinary(trajectory));
+  }
+
+  /**
+   * Deserializes a Trajectory from the compact binary trajectory format. The buffer is read from
+   * its current position, and its byte order is set to little-endian.
+   *
+   * @param buffer The buffer containing the serialized trajectory.
+   * @return The trajectory represented by the buffer.
+   * @throws TrajectorySerializationException if the buffer doesn't contain a valid trajectory.
+   */
+  public static Trajectory fromBinary(ByteBuffer buffer) {
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    try {
+      if (buffer.getInt() != kBinaryMagic) {
+        throw new TrajectorySerializationException("Not a binary trajectory.");
+      }
+      int version = buffer.getInt();
+      if (version != kBinaryVersion) {
+        throw new TrajectorySerializationException(
+            "Unsupported binary trajectory version " + version + ".");
+      }
+      int size = buffer.getInt();
+      if (size < 1 || buffer.remaining() < (long) size * kBinaryStateSize) {
+        throw new TrajectorySerializationException(
+            "Binary trajectory is truncated or has an invalid state count " + size + ".");
+      }
+
+      List<Trajectory.State> states = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        double time = buffer.getDouble();
+        double velocity = buffer.getDouble();
+        double acceleration = buffer.getDouble();
+        double x = buffer.getDouble();
+        double y = buffer.getDouble();
+        double heading = buffer.getDouble();
+        double curvature = buffer.getDouble();
+        states.add(
+            new Trajectory.State(
+                time,
+                velocity,
+                acceleration,
+                new Pose2d(x, y, new Rotation2d(heading)),
+                curvature));
+      }
+      return new Trajectory(states);
+    } catch (BufferUnderflowException ex) {
+      throw new TrajectorySerializationException("Binary trajectory is truncated.");
+    }
+  }
+
+  /**
+   * Imports a Trajectory from a file in the compact binary trajectory format. The file is memory
+   * mapped rather than read into a temporary array.
+   *
+   * @param path The path of the file to import from
+   * @return The trajectory represented by the file.
+   * @throws IOException if reading from the file fails.
+   * @throws TrajectorySerializationException if the file doesn't contain a valid trajectory.
+   */
+  public static Trajectory fromBinary(Path path) throws IOException {
+    try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r");
+        FileChannel channel = file.getChannel()) {
+      return fromBinary(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
   public static class TrajectorySerializationException extends RuntimeException {
     public TrajectorySerializationException(String message) {
       super(message);
@@ -26,6 +26,15 @@ public class CentripetalAccelerationConstraint implements TrajectoryConstraint {
     m_maxCentripetalAccelerationMetersPerSecondSq = maxCentripetalAccelerationMetersPerSecondSq;
   }
 
+  /**
+   * Returns the maximum centripetal acceleration.
+   *
+   * @return The maximum centripetal acceleration in meters per second squared.
+   */
+  public double getMaxCentripetalAccelerationMetersPerSecondSq() {
+    return m_maxCentripetalAccelerationMetersPerSecondSq;
+  }
+
   /**
    * Returns the max velocity given the current pose and curvature.
    *
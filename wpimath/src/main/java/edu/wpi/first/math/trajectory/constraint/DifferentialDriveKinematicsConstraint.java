@@ -29,6 +29,24 @@ public class DifferentialDriveKinematicsConstraint implements TrajectoryConstrai
     m_kinematics = kinematics;
   }
 
+  /**
+   * Returns the maximum speed of any wheel.
+   *
+   * @return The maximum wheel speed in meters per second.
+   */
+  public double getMaxSpeedMetersPerSecond() {
+    return m_maxSpeedMetersPerSecond;
+  }
+
+  /**
+   * Returns the kinematics of the drive.
+   *
+   * @return The drive kinematics.
+   */
+  public DifferentialDriveKinematics getKinematics() {
+    return m_kinematics;
+  }
+
   /**
    * Returns the max velocity given the current pose and curvature.
    *
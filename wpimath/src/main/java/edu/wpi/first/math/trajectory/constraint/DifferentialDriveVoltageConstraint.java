@@ -42,6 +42,33 @@ public class DifferentialDriveVoltageConstraint implements TrajectoryConstraint
     m_maxVoltage = maxVoltage;
   }
 
+  /**
+   * Returns the feedforward describing the behavior of the drive.
+   *
+   * @return The drive feedforward.
+   */
+  public SimpleMotorFeedforward getFeedforward() {
+    return m_feedforward;
+  }
+
+  /**
+   * Returns the kinematics of the drive.
+   *
+   * @return The drive kinematics.
+   */
+  public DifferentialDriveKinematics getKinematics() {
+    return m_kinematics;
+  }
+
+  /**
+   * Returns the maximum voltage available to the motors.
+   *
+   * @return The maximum voltage.
+   */
+  public double getMaxVoltage() {
+    return m_maxVoltage;
+  }
+
   @Override
   public double getMaxVelocityMetersPerSecond(
       Pose2d poseMeters, double curvatureRadPerMeter, double velocityMetersPerSecond) {
@@ -35,6 +35,33 @@ public class EllipticalRegionConstraint implements TrajectoryConstraint {
     m_constraint = constraint;
   }
 
+  /**
+   * Returns the center of the ellipse.
+   *
+   * @return The center of the ellipse.
+   */
+  public Translation2d getCenter() {
+    return m_center;
+  }
+
+  /**
+   * Returns the radii of the ellipse, rotated by the ellipse's rotation.
+   *
+   * @return The rotated radii of the ellipse.
+   */
+  public Translation2d getRadii() {
+    return m_radii;
+  }
+
+  /**
+   * Returns the constraint that is enforced within the region.
+   *
+   * @return The constraint.
+   */
+  public TrajectoryConstraint getConstraint() {
+    return m_constraint;
+  }
+
   @Override
   public double getMaxVelocityMetersPerSecond(
       Pose2d poseMeters, double curvatureRadPerMeter, double velocityMetersPerSecond) {
@@ -23,6 +23,15 @@ public class MaxVelocityConstraint implements TrajectoryConstraint {
     m_maxVelocity = maxVelocityMetersPerSecond;
   }
 
+  /**
+   * Returns the maximum velocity.
+   *
+   * @return The maximum velocity in meters per second.
+   */
+  public double getMaxVelocity() {
+    return m_maxVelocity;
+  }
+
   @Override
   public double getMaxVelocityMetersPerSecond(
       Pose2d poseMeters, double curvatureRadPerMeter, double velocityMetersPerSecond) {
@@ -29,6 +29,24 @@ public class MecanumDriveKinematicsConstraint implements TrajectoryConstraint {
     m_kinematics = kinematics;
   }
 
+  /**
+   * Returns the maximum speed of any wheel.
+   *
+   * @return The maximum wheel speed in meters per second.
+   */
+  public double getMaxSpeedMetersPerSecond() {
+    return m_maxSpeedMetersPerSecond;
+  }
+
+  /**
+   * Returns the kinematics of the drive.
+   *
+   * @return The drive kinematics.
+   */
+  public MecanumDriveKinematics getKinematics() {
+    return m_kinematics;
+  }
+
   /**
    * Returns the max velocity given the current pose and curvature.
    *
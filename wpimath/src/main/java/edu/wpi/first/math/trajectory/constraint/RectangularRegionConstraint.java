@@ -29,6 +29,33 @@ public class RectangularRegionConstraint implements TrajectoryConstraint {
     m_constraint = constraint;
   }
 
+  /**
+   * Returns the bottom-left point of the rectangle.
+   *
+   * @return The bottom-left point.
+   */
+  public Translation2d getBottomLeftPoint() {
+    return m_bottomLeftPoint;
+  }
+
+  /**
+   * Returns the top-right point of the rectangle.
+   *
+   * @return The top-right point.
+   */
+  public Translation2d getTopRightPoint() {
+    return m_topRightPoint;
+  }
+
+  /**
+   * Returns the constraint that is enforced within the region.
+   *
+   * @return The constraint.
+   */
+  public TrajectoryConstraint getConstraint() {
+    return m_constraint;
+  }
+
   @Override
   public double getMaxVelocityMetersPerSecond(
       Pose2d poseMeters, double curvatureRadPerMeter, double velocityMetersPerSecond) {
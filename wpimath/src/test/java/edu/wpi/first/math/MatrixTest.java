@@ -5,6 +5,8 @@
 package edu.wpi.first.math;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -12,7 +14,10 @@ import edu.wpi.first.math.numbers.N1;
 import edu.wpi.first.math.numbers.N2;
 import edu.wpi.first.math.numbers.N3;
 import edu.wpi.first.math.numbers.N4;
+import java.util.concurrent.atomic.AtomicReference;
+import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.SingularMatrixException;
+import org.ejml.dense.row.CommonOps_DDRM;
 import org.junit.jupiter.api.Test;
 
 class MatrixTest {
@@ -116,6 +121,128 @@ class MatrixTest {
     assertEquals(Matrix.mat(Nat.N2(), Nat.N2()).fill(6.0, 8.0, 10.0, 12.0), mat1.plus(mat2));
   }
 
+  @Test
+  void testInPlaceArithmetic() {
+    var mat1 = Matrix.mat(Nat.N2(), Nat.N2()).fill(1.0, 2.0, 3.0, 4.0);
+    var mat2 = Matrix.mat(Nat.N2(), Nat.N2()).fill(5.0, 6.0, 7.0, 8.0);
+    var dest = new Matrix<>(Nat.N2(), Nat.N2());
+
+    assertSame(dest, mat1.plusInto(mat2, dest));
+    assertEquals(mat1.plus(mat2), dest);
+
+    assertSame(dest, mat1.minusInto(mat2, dest));
+    assertEquals(mat1.minus(mat2), dest);
+
+    assertSame(dest, mat1.timesInto(mat2, dest));
+    assertEquals(mat1.times(mat2), dest);
+
+    // dest += mat1 * mat2
+    mat1.timesAddTo(mat2, dest);
+    assertEquals(mat1.times(mat2).times(2.0), dest);
+
+    assertSame(dest, mat1.transposeInto(dest));
+    assertEquals(mat1.transpose(), dest);
+
+    dest.assign(mat1).plusInPlace(mat2);
+    assertEquals(mat1.plus(mat2), dest);
+
+    dest.minusInPlace(mat2).timesInPlace(2.0);
+    assertEquals(mat1.times(2.0), dest);
+
+    // The operands must not be modified
+    assertEquals(Matrix.mat(Nat.N2(), Nat.N2()).fill(1.0, 2.0, 3.0, 4.0), mat1);
+    assertEquals(Matrix.mat(Nat.N2(), Nat.N2()).fill(5.0, 6.0, 7.0, 8.0), mat2);
+  }
+
+  @Test
+  void testTimesIntoAliasing() {
+    var mat = Matrix.mat(Nat.N2(), Nat.N2()).fill(1.0, 2.0, 3.0, 4.0);
+
+    assertThrows(IllegalArgumentException.class, () -> mat.timesInto(mat, mat));
+  }
+
+  @Test
+  void testSolveInto() {
+    var mat1 = Matrix.mat(Nat.N2(), Nat.N2()).fill(1.0, 2.0, 3.0, 4.0);
+    var vec1 = VecBuilder.fill(1.0, 2.0);
+    var dest1 = new Matrix<>(Nat.N2(), Nat.N1());
+
+    assertSame(dest1, mat1.solveInto(vec1, dest1));
+    assertEquals(VecBuilder.fill(0.0, 0.5), dest1);
+
+    // Solving again reuses the solver, and must not have modified the inputs
+    mat1.solveInto(vec1, dest1);
+    assertEquals(VecBuilder.fill(0.0, 0.5), dest1);
+    assertEquals(Matrix.mat(Nat.N2(), Nat.N2()).fill(1.0, 2.0, 3.0, 4.0), mat1);
+    assertEquals(VecBuilder.fill(1.0, 2.0), vec1);
+
+    var mat2 = Matrix.mat(Nat.N3(), Nat.N2()).fill(1.0, 2.0, 3.0, 4.0, 5.0, 6.0);
+    var vec2 = VecBuilder.fill(1.0, 2.0, 3.0);
+    var dest2 = new Matrix<>(Nat.N2(), Nat.N1());
+
+    mat2.solveInto(vec2, dest2);
+    assertTrue(VecBuilder.fill(0.0, 0.5).isEqual(dest2, 1E-9));
+
+    var singularMatrix = Matrix.mat(Nat.N2(), Nat.N2()).fill(2.0, 1.0, 2.0, 1.0);
+    assertThrows(SingularMatrixException.class, () -> singularMatrix.solveInto(vec1, dest1));
+  }
+
+  @Test
+  void testSolveIllConditioned() {
+    // Nearly singular, so it's solved by EJML's LU decomposition with pivoting instead of in
+    // closed form
+    var mat =
+        Matrix.mat(Nat.N3(), Nat.N3()).fill(1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 5.0, 7.0, 9.0 + 1e-9);
+    var vec = VecBuilder.fill(1.0, -2.0, 0.5);
+
+    var expected = new DMatrixRMaj(3, 1);
+    assertTrue(
+        CommonOps_DDRM.solve(mat.getStorage().getDDRM(), vec.getStorage().getDDRM(), expected));
+
+    var dest = new Matrix<>(Nat.N3(), Nat.N1());
+    mat.solveInto(vec, dest);
+    var solution = mat.solve(vec);
+    for (int i = 0; i < 3; i++) {
+      double tolerance = 1e-12 * Math.abs(expected.get(i, 0));
+      assertEquals(expected.get(i, 0), solution.get(i, 0), tolerance);
+      assertEquals(expected.get(i, 0), dest.get(i, 0), tolerance);
+    }
+  }
+
+  @Test
+  void testSolveIntoConcurrent() throws InterruptedException {
+    // Too large to solve in closed form, so both threads share the matrix's solver workspace
+    var mat =
+        Matrix.mat(Nat.N4(), Nat.N4())
+            .fill(4.0, 1.0, 0.0, 0.0, 1.0, 4.0, 1.0, 0.0, 0.0, 1.0, 4.0, 1.0, 0.0, 0.0, 1.0, 4.0);
+    var failure = new AtomicReference<Throwable>();
+    var threads = new Thread[2];
+    for (int t = 0; t < threads.length; t++) {
+      var vec = VecBuilder.fill(t + 1.0, -t, 2.0 * t, 1.0);
+      var expected = mat.solve(vec);
+      threads[t] =
+          new Thread(
+              () -> {
+                var dest = new Matrix<>(Nat.N4(), Nat.N1());
+                try {
+                  for (int i = 0; i < 10000; i++) {
+                    mat.solveInto(vec, dest);
+                    assertTrue(expected.isEqual(dest, 1e-12));
+                  }
+                } catch (Throwable e) {
+                  failure.compareAndSet(null, e);
+                }
+              });
+    }
+    for (var thread : threads) {
+      thread.start();
+    }
+    for (var thread : threads) {
+      thread.join();
+    }
+    assertNull(failure.get());
+  }
+
   @Test
   void testMatrixExponential() {
     var matrix = Matrix.eye(Nat.N2());
@@ -0,0 +1,140 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.SingularMatrixException;
+import org.junit.jupiter.api.Test;
+
+class SmallMatrixOpsTest {
+  private final Random m_random = new Random(4);
+
+  private DMatrixRMaj random(int rows, int cols) {
+    var mat = new DMatrixRMaj(rows, cols);
+    for (int i = 0; i < mat.data.length; i++) {
+      mat.data[i] = m_random.nextDouble() * 2.0 - 1.0;
+    }
+    return mat;
+  }
+
+  private static DMatrixRMaj naiveMult(DMatrixRMaj a, DMatrixRMaj b) {
+    var c = new DMatrixRMaj(a.numRows, b.numCols);
+    for (int i = 0; i < a.numRows; i++) {
+      for (int j = 0; j < b.numCols; j++) {
+        double sum = 0.0;
+        for (int k = 0; k < a.numCols; k++) {
+          sum += a.data[i * a.numCols + k] * b.data[k * b.numCols + j];
+        }
+        c.data[i * c.numCols + j] = sum;
+      }
+    }
+    return c;
+  }
+
+  private static void assertMatrixEquals(DMatrixRMaj expected, DMatrixRMaj actual, double tol) {
+    assertEquals(expected.numRows, actual.numRows);
+    assertEquals(expected.numCols, actual.numCols);
+    for (int i = 0; i < expected.data.length; i++) {
+      assertEquals(expected.data[i], actual.data[i], tol);
+    }
+  }
+
+  @Test
+  void testMult() {
+    for (int inner = 1; inner <= SmallMatrixOps.kMaxMultSize; inner++) {
+      for (int rows = 1; rows <= 7; rows++) {
+        for (int cols = 1; cols <= 7; cols++) {
+          var a = random(rows, inner);
+          var b = random(inner, cols);
+          var expected = naiveMult(a, b);
+
+          var c = new DMatrixRMaj(rows, cols);
+          assertTrue(SmallMatrixOps.mult(a, b, c, false));
+          assertMatrixEquals(expected, c, 1e-12);
+
+          // c += a * b
+          assertTrue(SmallMatrixOps.mult(a, b, c, true));
+          for (int i = 0; i < expected.data.length; i++) {
+            expected.data[i] *= 2.0;
+          }
+          assertMatrixEquals(expected, c, 1e-12);
+        }
+      }
+    }
+  }
+
+  @Test
+  void testMultUnsupported() {
+    int size = SmallMatrixOps.kMaxMultSize + 1;
+    assertFalse(
+        SmallMatrixOps.mult(random(2, size), random(size, 2), new DMatrixRMaj(2, 2), false));
+
+    // Mismatched dimensions are left to EJML to report
+    assertFalse(SmallMatrixOps.mult(random(2, 2), random(3, 2), new DMatrixRMaj(2, 2), false));
+    assertFalse(SmallMatrixOps.mult(random(2, 2), random(2, 2), new DMatrixRMaj(2, 1), false));
+
+    var a = random(2, 2);
+    assertThrows(IllegalArgumentException.class, () -> SmallMatrixOps.mult(a, a, a, false));
+  }
+
+  @Test
+  void testSolve() {
+    for (int n = 1; n <= SmallMatrixOps.kMaxSolveSize; n++) {
+      for (int cols = 1; cols <= 3; cols++) {
+        var a = random(n, n);
+        var b = random(n, cols);
+
+        var x = new DMatrixRMaj(n, cols);
+        assertTrue(SmallMatrixOps.solve(a, b, x));
+        assertMatrixEquals(b, naiveMult(a, x), 1e-9);
+
+        // Solving in place
+        var bCopy = b.copy();
+        assertTrue(SmallMatrixOps.solve(a, bCopy, bCopy));
+        assertMatrixEquals(x, bCopy, 0.0);
+      }
+    }
+  }
+
+  @Test
+  void testSolveUnsupported() {
+    int size = SmallMatrixOps.kMaxSolveSize + 1;
+    assertFalse(
+        SmallMatrixOps.solve(random(size, size), random(size, 1), new DMatrixRMaj(size, 1)));
+    assertFalse(SmallMatrixOps.solve(random(3, 2), random(3, 1), new DMatrixRMaj(2, 1)));
+  }
+
+  @Test
+  void testSolveIllConditioned() {
+    var a =
+        new DMatrixRMaj(
+            new double[][] {{1.0, 2.0, 3.0}, {4.0, 5.0, 6.0}, {5.0, 7.0, 9.0 + 1e-9}});
+    var x = new DMatrixRMaj(3, 1);
+    assertFalse(SmallMatrixOps.solve(a, random(3, 1), x));
+    assertMatrixEquals(new DMatrixRMaj(3, 1), x, 0.0);
+
+    var b = new DMatrixRMaj(new double[][] {{1.0, 1.0}, {1.0, 1.0 + 1e-9}});
+    assertFalse(SmallMatrixOps.solve(b, random(2, 1), new DMatrixRMaj(2, 1)));
+  }
+
+  @Test
+  void testSolveSingular() {
+    var a = new DMatrixRMaj(new double[][] {{2.0, 1.0}, {2.0, 1.0}});
+    assertThrows(
+        SingularMatrixException.class,
+        () -> SmallMatrixOps.solve(a, random(2, 1), new DMatrixRMaj(2, 1)));
+
+    var b = new DMatrixRMaj(new double[][] {{1.0, 2.0, 3.0}, {4.0, 5.0, 6.0}, {5.0, 7.0, 9.0}});
+    assertThrows(
+        SingularMatrixException.class,
+        () -> SmallMatrixOps.solve(b, random(3, 1), new DMatrixRMaj(3, 1)));
+  }
+}
@@ -0,0 +1,95 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class QuantileFilterTest {
+  @Test
+  void quantileFilterInterpolatesTest() {
+    QuantileFilter filter = new QuantileFilter(5, 0.25);
+
+    filter.calculate(40);
+    filter.calculate(10);
+    filter.calculate(30);
+
+    // Position 0.75, between 10 and 20
+    assertEquals(17.5, filter.calculate(20));
+    // Position 1
+    assertEquals(20, filter.calculate(50));
+    // Window is now 10, 30, 20, 50, 0
+    assertEquals(10, filter.calculate(0));
+  }
+
+  @Test
+  void quantileFilterMinMaxTest() {
+    QuantileFilter min = new QuantileFilter(3, 0.0);
+    QuantileFilter max = new QuantileFilter(3, 1.0);
+
+    double[] input = {5, 3, 8, 1, 9, 2};
+    double[] expectedMin = {5, 3, 3, 1, 1, 1};
+    double[] expectedMax = {5, 5, 8, 8, 9, 9};
+    for (int i = 0; i < input.length; i++) {
+      assertEquals(expectedMin[i], min.calculate(input[i]));
+      assertEquals(expectedMax[i], max.calculate(input[i]));
+    }
+  }
+
+  @Test
+  void quantileFilterMatchesSortTest() {
+    var random = new Random(1234);
+    var window = new ArrayDeque<Double>();
+    for (int size : new int[] {1, 2, 7, 64}) {
+      QuantileFilter filter = new QuantileFilter(size, 0.9);
+      MedianFilter median = new MedianFilter(size);
+      window.clear();
+      for (int i = 0; i < 1000; i++) {
+        // Few distinct values so there are many duplicates
+        double next = random.nextInt(20);
+        window.addLast(next);
+        if (window.size() > size) {
+          window.removeFirst();
+        }
+        double[] sorted = window.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+
+        double position = 0.9 * (sorted.length - 1);
+        int lower = (int) position;
+        double expected =
+            lower + 1 < sorted.length
+                ? sorted[lower] + (sorted[lower + 1] - sorted[lower]) * (position - lower)
+                : sorted[lower];
+        assertEquals(expected, filter.calculate(next), 1e-12, Arrays.toString(sorted));
+
+        int mid = sorted.length / 2;
+        double expectedMedian =
+            sorted.length % 2 != 0 ? sorted[mid] : (sorted[mid - 1] + sorted[mid]) / 2.0;
+        assertEquals(expectedMedian, median.calculate(next));
+      }
+    }
+  }
+
+  @Test
+  void quantileFilterResetTest() {
+    QuantileFilter filter = new QuantileFilter(3, 0.5);
+
+    filter.calculate(100);
+    filter.calculate(200);
+    filter.reset();
+
+    assertEquals(1, filter.calculate(1));
+  }
+
+  @Test
+  void quantileFilterInvalidQuantileTest() {
+    assertThrows(IllegalArgumentException.class, () -> new QuantileFilter(5, 1.5));
+    assertThrows(IllegalArgumentException.class, () -> new QuantileFilter(5, Double.NaN));
+  }
+}
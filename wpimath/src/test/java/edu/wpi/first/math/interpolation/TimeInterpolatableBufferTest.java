@@ -5,9 +5,12 @@
 package edu.wpi.first.math.interpolation;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
+import java.util.Random;
+import java.util.TreeMap;
 import org.junit.jupiter.api.Test;
 
 class TimeInterpolatableBufferTest {
@@ -40,4 +43,72 @@ class TimeInterpolatableBufferTest {
     assertEquals(1 / Math.sqrt(2), sample.getTranslation().getY(), 0.01);
     assertEquals(45, sample.getRotation().getDegrees(), 0.01);
   }
+
+  @Test
+  void testOutOfOrderSamples() {
+    TimeInterpolatableBuffer<Double> buffer = TimeInterpolatableBuffer.createDoubleBuffer(10);
+
+    buffer.addSample(2, 20.0);
+    buffer.addSample(0, 0.0);
+    buffer.addSample(1, 10.0);
+    assertEquals(5.0, buffer.getSample(0.5), 0.001);
+    assertEquals(15.0, buffer.getSample(1.5), 0.001);
+
+    // Replacing a sample at an existing timestamp
+    buffer.addSample(1, 30.0);
+    assertEquals(30.0, buffer.getSample(1), 0.001);
+  }
+
+  @Test
+  void testBounds() {
+    TimeInterpolatableBuffer<Double> buffer = TimeInterpolatableBuffer.createDoubleBuffer(10);
+    assertNull(buffer.getSample(0));
+
+    buffer.addSample(1, 10.0);
+    buffer.addSample(2, 20.0);
+    assertEquals(10.0, buffer.getSample(0), 0.001);
+    assertEquals(20.0, buffer.getSample(3), 0.001);
+
+    buffer.clear();
+    assertNull(buffer.getSample(1));
+  }
+
+  @Test
+  void testManySamples() {
+    TimeInterpolatableBuffer<Double> buffer = TimeInterpolatableBuffer.createDoubleBuffer(1.51);
+
+    // Add enough samples to exercise both growing and compacting the storage
+    for (int i = 0; i <= 1000; i++) {
+      buffer.addSample(i * 0.02, (double) i);
+    }
+
+    assertEquals(1000.0, buffer.getSample(20.0), 0.001);
+    assertEquals(999.5, buffer.getSample(19.99), 0.001);
+
+    // Samples older than the history size were removed, so the oldest remaining one is returned
+    assertEquals(925.0, buffer.getSample(0), 0.001);
+  }
+
+  @Test
+  void testOutOfOrderAfterEviction() {
+    TimeInterpolatableBuffer<Double> buffer = TimeInterpolatableBuffer.createDoubleBuffer(1.0);
+    TreeMap<Double, Double> model = new TreeMap<>();
+    Random random = new Random(42);
+
+    // Mostly in-order samples with old ones evicted, so later out of order samples are inserted
+    // while the samples don't start at the front of the storage
+    double time = 0;
+    for (int i = 0; i < 5000; i++) {
+      time += 0.02;
+      double sampleTime = random.nextInt(4) == 0 ? time - random.nextDouble() * 0.5 : time;
+      double value = random.nextDouble();
+      buffer.addSample(sampleTime, value);
+      model.keySet().removeIf(t -> sampleTime - t >= 1.0);
+      model.put(sampleTime, value);
+
+      for (var entry : model.entrySet()) {
+        assertEquals(entry.getValue(), buffer.getSample(entry.getKey()), 1e-12);
+      }
+    }
+  }
 }
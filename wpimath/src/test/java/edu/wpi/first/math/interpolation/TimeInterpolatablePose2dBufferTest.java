@@ -0,0 +1,81 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.interpolation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+class TimeInterpolatablePose2dBufferTest {
+  @Test
+  void testInterpolation() {
+    var buffer = new TimeInterpolatablePose2dBuffer(10);
+    assertNull(buffer.getSample(0));
+
+    // We expect to be at (1 - 1/Math.sqrt(2), 1/Math.sqrt(2), 45deg) at t=0.5
+    buffer.addSample(0, new Pose2d(0, 0, Rotation2d.fromDegrees(90)));
+    buffer.addSample(1, 1, 1, 0);
+    Pose2d sample = buffer.getSample(0.5);
+
+    assertEquals(1 - 1 / Math.sqrt(2), sample.getX(), 0.01);
+    assertEquals(1 / Math.sqrt(2), sample.getY(), 0.01);
+    assertEquals(45, sample.getRotation().getDegrees(), 0.01);
+
+    assertEquals(90, buffer.getSample(-1).getRotation().getDegrees(), 0.01);
+    assertEquals(1, buffer.getSample(2).getX(), 0.01);
+  }
+
+  @Test
+  void testMatchesGenericBuffer() {
+    var buffer = new TimeInterpolatablePose2dBuffer(0.75);
+    TimeInterpolatableBuffer<Pose2d> reference = TimeInterpolatableBuffer.createBuffer(0.75);
+
+    for (int i = 0; i < 200; i++) {
+      var pose = new Pose2d(Math.cos(i * 0.1), i * 0.05, new Rotation2d(i * 0.02));
+      buffer.addSample(i * 0.02, pose);
+      reference.addSample(i * 0.02, pose);
+    }
+
+    // An out of order sample
+    buffer.addSample(3.51, 0, 0, 0);
+    reference.addSample(3.51, new Pose2d());
+
+    for (double time = 3.0; time < 4.1; time += 0.007) {
+      var expected = reference.getSample(time);
+      var actual = buffer.getSample(time);
+      assertEquals(expected.getX(), actual.getX(), 1e-9);
+      assertEquals(expected.getY(), actual.getY(), 1e-9);
+      assertEquals(expected.getRotation().getRadians(), actual.getRotation().getRadians(), 1e-9);
+    }
+  }
+
+  @Test
+  void testOutOfOrderAfterEviction() {
+    var buffer = new TimeInterpolatablePose2dBuffer(1.0);
+    TreeMap<Double, Double> model = new TreeMap<>();
+    Random random = new Random(42);
+
+    // Mostly in-order samples with old ones evicted, so later out of order samples are inserted
+    // while the samples don't start at the front of the storage
+    double time = 0;
+    for (int i = 0; i < 5000; i++) {
+      time += 0.02;
+      double sampleTime = random.nextInt(4) == 0 ? time - random.nextDouble() * 0.5 : time;
+      double x = random.nextDouble();
+      buffer.addSample(sampleTime, x, 0, 0);
+      model.keySet().removeIf(t -> sampleTime - t >= 1.0);
+      model.put(sampleTime, x);
+
+      for (var entry : model.entrySet()) {
+        assertEquals(entry.getValue(), buffer.getSample(entry.getKey()).getX(), 1e-12);
+      }
+    }
+  }
+}
@@ -172,4 +172,40 @@ class MecanumDriveKinematicsTest {
         () -> assertEquals(4.0 * factor, wheelSpeeds.rearLeftMetersPerSecond, kEpsilon),
         () -> assertEquals(7.0 * factor, wheelSpeeds.rearRightMetersPerSecond, kEpsilon));
   }
+
+  @Test
+  void testKinematicsIntoSpeeds() {
+    var speeds = new ChassisSpeeds(2, 3, 1);
+    var centerOfRotation = new Translation2d(12, 12);
+    var expectedWheelSpeeds = m_kinematics.toWheelSpeeds(speeds, centerOfRotation);
+
+    var wheelSpeeds = new MecanumDriveWheelSpeeds();
+    m_kinematics.toWheelSpeeds(speeds, centerOfRotation, wheelSpeeds);
+
+    var expectedChassisSpeeds = m_kinematics.toChassisSpeeds(wheelSpeeds);
+    var chassisSpeeds = new ChassisSpeeds();
+    m_kinematics.toChassisSpeeds(wheelSpeeds, chassisSpeeds);
+
+    assertAll(
+        () ->
+            assertEquals(
+                expectedWheelSpeeds.frontLeftMetersPerSecond, wheelSpeeds.frontLeftMetersPerSecond),
+        () ->
+            assertEquals(
+                expectedWheelSpeeds.frontRightMetersPerSecond,
+                wheelSpeeds.frontRightMetersPerSecond),
+        () ->
+            assertEquals(
+                expectedWheelSpeeds.rearLeftMetersPerSecond, wheelSpeeds.rearLeftMetersPerSecond),
+        () ->
+            assertEquals(
+                expectedWheelSpeeds.rearRightMetersPerSecond, wheelSpeeds.rearRightMetersPerSecond),
+        () ->
+            assertEquals(expectedChassisSpeeds.vxMetersPerSecond, chassisSpeeds.vxMetersPerSecond),
+        () ->
+            assertEquals(expectedChassisSpeeds.vyMetersPerSecond, chassisSpeeds.vyMetersPerSecond),
+        () ->
+            assertEquals(
+                expectedChassisSpeeds.omegaRadiansPerSecond, chassisSpeeds.omegaRadiansPerSecond));
+  }
 }
@@ -6,6 +6,7 @@ package edu.wpi.first.math.kinematics;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
@@ -246,4 +247,40 @@ class SwerveDriveKinematicsTest {
         () -> assertEquals(4.0 * factor, arr[2].speedMetersPerSecond, kEpsilon),
         () -> assertEquals(7.0 * factor, arr[3].speedMetersPerSecond, kEpsilon));
   }
+
+  @Test
+  void testInverseKinematicsIntoStates() {
+    var moduleStates = new SwerveModuleState[4];
+    for (int i = 0; i < moduleStates.length; i++) {
+      moduleStates[i] = new SwerveModuleState();
+    }
+    var speeds = new ChassisSpeeds(1, 3, 1.5);
+    var centerOfRotation = new Translation2d(24, 0);
+
+    m_kinematics.toSwerveModuleStates(speeds, centerOfRotation, moduleStates);
+    var expected = m_kinematics.toSwerveModuleStates(speeds, centerOfRotation);
+    for (int i = 0; i < moduleStates.length; i++) {
+      assertEquals(expected[i], moduleStates[i]);
+    }
+
+    // An unchanged module angle is reused
+    var angle = moduleStates[0].angle;
+    m_kinematics.toSwerveModuleStates(speeds, centerOfRotation, moduleStates);
+    assertSame(angle, moduleStates[0].angle);
+  }
+
+  @Test
+  void testForwardKinematicsIntoSpeeds() {
+    var moduleStates =
+        m_kinematics.toSwerveModuleStates(new ChassisSpeeds(1, 3, 1.5), new Translation2d(24, 0));
+    var expected = m_kinematics.toChassisSpeeds(moduleStates);
+
+    var chassisSpeeds = new ChassisSpeeds();
+    m_kinematics.toChassisSpeeds(moduleStates, chassisSpeeds);
+
+    assertAll(
+        () -> assertEquals(expected.vxMetersPerSecond, chassisSpeeds.vxMetersPerSecond),
+        () -> assertEquals(expected.vyMetersPerSecond, chassisSpeeds.vyMetersPerSecond),
+        () -> assertEquals(expected.omegaRadiansPerSecond, chassisSpeeds.omegaRadiansPerSecond));
+  }
 }
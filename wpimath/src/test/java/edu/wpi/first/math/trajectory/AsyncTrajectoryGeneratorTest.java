@@ -0,0 +1,199 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.trajectory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.DifferentialDriveKinematics;
+import edu.wpi.first.math.trajectory.constraint.MaxVelocityConstraint;
+import edu.wpi.first.math.trajectory.constraint.RectangularRegionConstraint;
+import edu.wpi.first.math.trajectory.constraint.TrajectoryConstraint;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AsyncTrajectoryGeneratorTest {
+  private final List<Pose2d> m_waypoints =
+      List.of(
+          new Pose2d(0.0, 0.0, Rotation2d.fromDegrees(0.0)),
+          new Pose2d(3.0, 2.0, Rotation2d.fromDegrees(90.0)),
+          new Pose2d(6.0, 4.0, Rotation2d.fromDegrees(0.0)));
+
+  private static List<Path> listCache(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.collect(Collectors.toList());
+    }
+  }
+
+  @Test
+  void testMatchesSynchronousGeneration() {
+    var config = new TrajectoryConfig(3.0, 2.0);
+    var start = new Pose2d(0.0, 0.0, Rotation2d.fromDegrees(0.0));
+    var interiorWaypoints = List.of(new Translation2d(2.0, 1.0), new Translation2d(4.0, -1.0));
+    var end = new Pose2d(6.0, 0.0, Rotation2d.fromDegrees(0.0));
+
+    try (var generator = new AsyncTrajectoryGenerator()) {
+      var quintic = generator.generateTrajectory(m_waypoints, config);
+      var cubic = generator.generateTrajectory(start, interiorWaypoints, end, config);
+
+      assertEquals(TrajectoryGenerator.generateTrajectory(m_waypoints, config), quintic.join());
+      assertEquals(
+          TrajectoryGenerator.generateTrajectory(start, interiorWaypoints, end, config),
+          cubic.join());
+    }
+  }
+
+  @Test
+  void testIdenticalRequestsShareFuture() {
+    try (var generator = new AsyncTrajectoryGenerator()) {
+      var first = generator.generateTrajectory(m_waypoints, new TrajectoryConfig(3.0, 2.0));
+      var second = generator.generateTrajectory(m_waypoints, new TrajectoryConfig(3.0, 2.0));
+      var reversed =
+          generator.generateTrajectory(
+              m_waypoints, new TrajectoryConfig(3.0, 2.0).setReversed(true));
+
+      assertSame(first, second);
+      assertNotSame(first, reversed);
+    }
+  }
+
+  @Test
+  void testDiskCache(@TempDir Path cacheDirectory) throws IOException {
+    var config = new TrajectoryConfig(3.0, 2.0);
+    var expected = TrajectoryGenerator.generateTrajectory(m_waypoints, config);
+
+    try (var generator = new AsyncTrajectoryGenerator(2, cacheDirectory)) {
+      assertEquals(expected, generator.generateTrajectory(m_waypoints, config).join());
+    }
+    assertEquals(1, listCache(cacheDirectory).size());
+
+    // A new generator, like one after a reboot, loads the cached trajectory
+    try (var generator = new AsyncTrajectoryGenerator(2, cacheDirectory)) {
+      assertEquals(expected, generator.generateTrajectory(m_waypoints, config).join());
+    }
+
+    // A corrupt cache file is regenerated
+    var file = listCache(cacheDirectory).get(0);
+    Files.write(file, new byte[] {1, 2, 3});
+    try (var generator = new AsyncTrajectoryGenerator(2, cacheDirectory)) {
+      assertEquals(expected, generator.generateTrajectory(m_waypoints, config).join());
+    }
+    assertTrue(Files.size(file) > 3);
+  }
+
+  @Test
+  void testBuiltInConstraintsAreCached(@TempDir Path cacheDirectory) throws IOException {
+    var kinematics = new DifferentialDriveKinematics(0.7);
+    var config = new TrajectoryConfig(3.0, 2.0).setKinematics(kinematics);
+    var expected = TrajectoryGenerator.generateTrajectory(m_waypoints, config);
+
+    try (var generator = new AsyncTrajectoryGenerator(2, cacheDirectory)) {
+      var first = generator.generateTrajectory(m_waypoints, config);
+      var second =
+          generator.generateTrajectory(
+              m_waypoints, new TrajectoryConfig(3.0, 2.0).setKinematics(kinematics));
+      var wider =
+          generator.generateTrajectory(
+              m_waypoints,
+              new TrajectoryConfig(3.0, 2.0).setKinematics(new DifferentialDriveKinematics(0.8)));
+      var region =
+          generator.generateTrajectory(
+              m_waypoints,
+              new TrajectoryConfig(3.0, 2.0)
+                  .addConstraint(
+                      new RectangularRegionConstraint(
+                          new Translation2d(1.0, 1.0),
+                          new Translation2d(4.0, 3.0),
+                          new MaxVelocityConstraint(1.0))));
+
+      assertSame(first, second);
+      assertNotSame(first, wider);
+      assertEquals(expected, first.join());
+      wider.join();
+      region.join();
+    }
+    assertEquals(3, listCache(cacheDirectory).size());
+  }
+
+  @Test
+  void testUnknownConstraintsBypassCache(@TempDir Path cacheDirectory) throws IOException {
+    TrajectoryConstraint custom =
+        new TrajectoryConstraint() {
+          @Override
+          public double getMaxVelocityMetersPerSecond(
+              Pose2d poseMeters, double curvatureRadPerMeter, double velocityMetersPerSecond) {
+            return 1.0;
+          }
+
+          @Override
+          public MinMax getMinMaxAccelerationMetersPerSecondSq(
+              Pose2d poseMeters, double curvatureRadPerMeter, double velocityMetersPerSecond) {
+            return new MinMax();
+          }
+        };
+    var config = new TrajectoryConfig(3.0, 2.0).addConstraint(custom);
+
+    try (var generator = new AsyncTrajectoryGenerator(2, cacheDirectory)) {
+      var first = generator.generateTrajectory(m_waypoints, config);
+      var second = generator.generateTrajectory(m_waypoints, config);
+      assertNotSame(first, second);
+      assertEquals(TrajectoryGenerator.generateTrajectory(m_waypoints, config), first.join());
+    }
+    assertEquals(0, listCache(cacheDirectory).size());
+  }
+
+  @Test
+  void testMalformedSplineIsNotCached(@TempDir Path cacheDirectory) throws IOException {
+    var malformed =
+        List.of(
+            new Pose2d(0.0, 0.0, Rotation2d.fromDegrees(0.0)),
+            new Pose2d(1.0, 0.0, Rotation2d.fromDegrees(180.0)));
+    var config = new TrajectoryConfig(3.0, 2.0);
+    var errors = new AtomicInteger();
+    TrajectoryGenerator.setErrorHandler((error, stackTrace) -> errors.incrementAndGet());
+
+    try (var generator = new AsyncTrajectoryGenerator(2, cacheDirectory)) {
+      var first = generator.generateTrajectory(malformed, config);
+      assertEquals(1, first.join().getStates().size());
+      assertEquals(1, errors.get());
+
+      // The failed request is generated again instead of sharing the fallback trajectory
+      var second = generator.generateTrajectory(malformed, config);
+      assertNotSame(first, second);
+      assertEquals(1, second.join().getStates().size());
+      assertEquals(2, errors.get());
+    } finally {
+      TrajectoryGenerator.setErrorHandler(null);
+    }
+    assertEquals(0, listCache(cacheDirectory).size());
+  }
+
+  @Test
+  void testCompletedFuturesAreEvicted() {
+    try (var generator = new AsyncTrajectoryGenerator()) {
+      var first = generator.generateTrajectory(m_waypoints, new TrajectoryConfig(3.0, 2.0));
+      first.join();
+      for (int i = 0; i < 100; i++) {
+        generator.generateTrajectory(m_waypoints, new TrajectoryConfig(3.0, 2.0 + i * 0.01)).join();
+      }
+
+      // The first request was evicted, so an identical request gets a new future
+      var again = generator.generateTrajectory(m_waypoints, new TrajectoryConfig(3.0, 2.0));
+      assertNotSame(first, again);
+    }
+  }
+}
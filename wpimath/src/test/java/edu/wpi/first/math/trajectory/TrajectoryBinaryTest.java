@@ -0,0 +1,83 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.trajectory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.wpi.first.math.kinematics.DifferentialDriveKinematics;
+import edu.wpi.first.math.trajectory.TrajectoryUtil.TrajectorySerializationException;
+import edu.wpi.first.math.trajectory.constraint.DifferentialDriveKinematicsConstraint;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TrajectoryBinaryTest {
+  private final Trajectory m_trajectory =
+      TrajectoryGeneratorTest.getTrajectory(
+          List.of(
+              new DifferentialDriveKinematicsConstraint(new DifferentialDriveKinematics(0.5), 3)));
+
+  @Test
+  void testBufferRoundTrip() {
+    var binary = TrajectoryUtil.toBinary(m_trajectory);
+
+    assertEquals(12 + 56 * m_trajectory.getStates().size(), binary.length);
+    assertEquals(
+        m_trajectory.getStates(), TrajectoryUtil.fromBinary(ByteBuffer.wrap(binary)).getStates());
+  }
+
+  @Test
+  void testFileRoundTrip(@TempDir Path directory) throws IOException {
+    var path = directory.resolve("test.wpilib.traj");
+    TrajectoryUtil.toBinary(m_trajectory, path);
+
+    assertEquals(m_trajectory.getStates(), TrajectoryUtil.fromBinary(path).getStates());
+  }
+
+  @Test
+  void testInvalidBinary() {
+    var binary = TrajectoryUtil.toBinary(m_trajectory);
+
+    var truncated = Arrays.copyOf(binary, binary.length - 1);
+    assertThrows(
+        TrajectorySerializationException.class,
+        () -> TrajectoryUtil.fromBinary(ByteBuffer.wrap(truncated)));
+
+    var badMagic = binary.clone();
+    badMagic[0] = 'X';
+    assertThrows(
+        TrajectorySerializationException.class,
+        () -> TrajectoryUtil.fromBinary(ByteBuffer.wrap(badMagic)));
+
+    var badVersion = binary.clone();
+    badVersion[4] = 2;
+    assertThrows(
+        TrajectorySerializationException.class,
+        () -> TrajectoryUtil.fromBinary(ByteBuffer.wrap(badVersion)));
+
+    assertThrows(
+        TrajectorySerializationException.class,
+        () -> TrajectoryUtil.fromBinary(ByteBuffer.wrap(new byte[3])));
+  }
+
+  @Test
+  void testConvertPathweaverJson(@TempDir Path directory) throws IOException {
+    var jsonDirectory = Files.createDirectory(directory.resolve("paths"));
+    var binaryDirectory = directory.resolve("output");
+    TrajectoryUtil.toPathweaverJson(m_trajectory, jsonDirectory.resolve("Test.wpilib.json"));
+    Files.writeString(jsonDirectory.resolve("README.txt"), "not a trajectory");
+
+    assertEquals(1, TrajectoryBinaryConverter.convertDirectory(jsonDirectory, binaryDirectory));
+    assertEquals(
+        m_trajectory.getStates(),
+        TrajectoryUtil.fromBinary(binaryDirectory.resolve("Test.wpilib.traj")).getStates());
+  }
+}
@@ -0,0 +1,78 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.trajectory;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TrajectorySamplerTest {
+  private static final double kEpsilon = 1E-9;
+
+  private final Trajectory m_trajectory = TrajectoryGeneratorTest.getTrajectory(new ArrayList<>());
+
+  private void assertSampleEquals(Trajectory.Sampler sampler, double timeSeconds) {
+    assertEquals(m_trajectory.sample(timeSeconds), sampler.sample(timeSeconds));
+
+    var expected = m_trajectory.sample(timeSeconds);
+    var actual = sampler.sample(timeSeconds, new Trajectory.MutableState());
+    assertAll(
+        () -> assertEquals(expected.timeSeconds, actual.timeSeconds, kEpsilon),
+        () ->
+            assertEquals(
+                expected.velocityMetersPerSecond, actual.velocityMetersPerSecond, kEpsilon),
+        () ->
+            assertEquals(
+                expected.accelerationMetersPerSecondSq,
+                actual.accelerationMetersPerSecondSq,
+                kEpsilon),
+        () -> assertEquals(expected.poseMeters.getX(), actual.xMeters, kEpsilon),
+        () -> assertEquals(expected.poseMeters.getY(), actual.yMeters, kEpsilon),
+        () -> {
+          var error = expected.poseMeters.getRotation().minus(actual.getPose().getRotation());
+          assertEquals(0.0, error.getRadians(), kEpsilon);
+        },
+        () -> assertEquals(expected.curvatureRadPerMeter, actual.curvatureRadPerMeter, kEpsilon));
+  }
+
+  @Test
+  void testForwardSampling() {
+    var sampler = new Trajectory.Sampler(m_trajectory);
+    double duration = m_trajectory.getTotalTimeSeconds();
+    for (double t = -0.1; t < duration + 0.1; t += 0.02) {
+      assertSampleEquals(sampler, t);
+    }
+  }
+
+  @Test
+  void testBackwardSampling() {
+    var sampler = new Trajectory.Sampler(m_trajectory);
+    double duration = m_trajectory.getTotalTimeSeconds();
+    for (double t = duration + 0.1; t > -0.1; t -= 0.02) {
+      assertSampleEquals(sampler, t);
+    }
+  }
+
+  @Test
+  void testRandomSampling() {
+    var sampler = new Trajectory.Sampler(m_trajectory);
+    var random = new Random(4);
+    double duration = m_trajectory.getTotalTimeSeconds();
+    for (int i = 0; i < 1000; i++) {
+      assertSampleEquals(sampler, random.nextDouble() * duration);
+    }
+  }
+
+  @Test
+  void testStateTimes() {
+    var sampler = new Trajectory.Sampler(m_trajectory);
+    for (var state : m_trajectory.getStates()) {
+      assertSampleEquals(sampler, state.timeSeconds);
+    }
+  }
+}
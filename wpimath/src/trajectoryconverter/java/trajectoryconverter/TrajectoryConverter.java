@@ -0,0 +1,31 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package trajectoryconverter;
+
+import edu.wpi.first.math.trajectory.TrajectoryBinaryConverter;
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public final class TrajectoryConverter {
+  /** Main function. */
+  public static void main(String[] args) {
+    if (args.length != 2) {
+      System.err.println("Usage: trajectoryconverter <json directory> <output directory>");
+      System.exit(1);
+      return;
+    }
+    int count;
+    try {
+      count = TrajectoryBinaryConverter.convertDirectory(Paths.get(args[0]), Paths.get(args[1]));
+    } catch (IOException ex) {
+      System.err.println("could not convert trajectories: " + ex.getMessage());
+      System.exit(1);
+      return;
+    }
+    System.out.println("Converted " + count + " trajectories to " + args[1]);
+  }
+
+  private TrajectoryConverter() {}
+}
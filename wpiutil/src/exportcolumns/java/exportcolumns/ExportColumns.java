@@ -0,0 +1,32 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package exportcolumns;
+
+import edu.wpi.first.util.datalog.DataLogColumnExporter;
+import edu.wpi.first.util.datalog.DataLogReader;
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public final class ExportColumns {
+  /** Main function. */
+  public static void main(String[] args) {
+    if (args.length != 2) {
+      System.err.println("Usage: exportcolumns <log file> <output directory>");
+      System.exit(1);
+      return;
+    }
+    int count;
+    try {
+      count = DataLogColumnExporter.export(new DataLogReader(args[0]), Paths.get(args[1]));
+    } catch (IOException ex) {
+      System.err.println("could not export log: " + ex.getMessage());
+      System.exit(1);
+      return;
+    }
+    System.out.println("Exported " + count + " signals to " + args[1]);
+  }
+
+  private ExportColumns() {}
+}
@@ -0,0 +1,142 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.datalog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares compressed and uncompressed {@link JavaDataLog} output.
+ *
+ * <p>The write benchmarks log one second of a typical robot program (100 signals at 50 Hz) and
+ * flush it, discarding the output, so they measure the CPU time spent on the robot, including
+ * compression on the background thread. The read benchmarks decode a log of one minute of that
+ * data with {@link DataLogReader#visit(DataLogVisitor)}, including decompression.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DataLogCompressionBenchmark {
+  private static final int kSignals = 100;
+  private static final int kLoopsPerSecond = 50;
+
+  private JavaDataLog m_uncompressedLog;
+  private JavaDataLog m_compressedLog;
+  private int[] m_uncompressedEntries;
+  private int[] m_compressedEntries;
+  private long m_timestamp;
+
+  private byte[] m_uncompressedBytes;
+  private byte[] m_compressedBytes;
+
+  /** Opens the logs written by the write benchmarks and creates the logs read by the others. */
+  @Setup
+  public void setup() throws IOException {
+    m_uncompressedLog = createLog(OutputStream.nullOutputStream(), false);
+    m_compressedLog = createLog(OutputStream.nullOutputStream(), true);
+    m_uncompressedEntries = startEntries(m_uncompressedLog);
+    m_compressedEntries = startEntries(m_compressedLog);
+
+    m_uncompressedBytes = createLogBytes(false);
+    m_compressedBytes = createLogBytes(true);
+  }
+
+  /** Closes the logs written by the write benchmarks. */
+  @TearDown
+  public void tearDown() {
+    m_uncompressedLog.close();
+    m_compressedLog.close();
+  }
+
+  private static JavaDataLog createLog(OutputStream out, boolean compressed) throws IOException {
+    return new JavaDataLog(
+        Channels.newChannel(out), 1000.0, "", JavaDataLog.kDefaultMaxBufferedBytes, compressed);
+  }
+
+  private static int[] startEntries(DataLog log) {
+    int[] entries = new int[kSignals];
+    for (int i = 0; i < kSignals; i++) {
+      entries[i] = log.start("/Robot/signal" + i, "double");
+    }
+    return entries;
+  }
+
+  // Slowly varying values, like sensor readings
+  private long logSecond(DataLog log, int[] entries, long timestamp) {
+    for (int loop = 0; loop < kLoopsPerSecond; loop++) {
+      timestamp += 20000;
+      for (int i = 0; i < entries.length; i++) {
+        log.appendDouble(entries[i], Math.sin(timestamp * 1e-6 + i), timestamp);
+      }
+    }
+    return timestamp;
+  }
+
+  private byte[] createLogBytes(boolean compressed) throws IOException {
+    var out = new ByteArrayOutputStream();
+    try (var log = createLog(out, compressed)) {
+      int[] entries = startEntries(log);
+      long timestamp = 0;
+      for (int second = 0; second < 60; second++) {
+        timestamp = logSecond(log, entries, timestamp);
+        log.flush();
+      }
+    }
+    return out.toByteArray();
+  }
+
+  private static double readLog(byte[] bytes) {
+    double[] sum = new double[1];
+    new DataLogReader(ByteBuffer.wrap(bytes))
+        .visit(
+            new DataLogVisitor() {
+              @Override
+              public void visitDouble(int entry, long timestamp, double value) {
+                sum[0] += value;
+              }
+            });
+    return sum[0];
+  }
+
+  @Benchmark
+  public void writeUncompressed() {
+    m_timestamp = logSecond(m_uncompressedLog, m_uncompressedEntries, m_timestamp);
+    m_uncompressedLog.flush();
+  }
+
+  @Benchmark
+  public void writeCompressed() {
+    m_timestamp = logSecond(m_compressedLog, m_compressedEntries, m_timestamp);
+    m_compressedLog.flush();
+  }
+
+  @Benchmark
+  public double readUncompressed() {
+    return readLog(m_uncompressedBytes);
+  }
+
+  @Benchmark
+  public double readCompressed() {
+    return readLog(m_compressedBytes);
+  }
+}
@@ -0,0 +1,191 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.sendable;
+
+import edu.wpi.first.util.function.BooleanConsumer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures one dashboard update cycle of {@link SendableRegistry} with 500 registered sendables,
+ * as run by SmartDashboard.updateValues() every 20 ms in a 50 Hz robot loop.
+ *
+ * <p>The update benchmark runs the cycle alone. The contended group runs it while another thread
+ * looks up names in the registry, as a vision or logging thread would, which used to serialize on
+ * the registry's global lock. The builder calls the property getters without writing to
+ * NetworkTables, so only the registry's own overhead is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class SendableRegistryBenchmark {
+  private static final int kSendables = 500;
+
+  private static class BenchmarkSendable implements Sendable {
+    double m_position;
+    double m_velocity;
+    double m_setpoint;
+    boolean m_enabled;
+
+    @Override
+    public void initSendable(SendableBuilder builder) {
+      builder.addDoubleProperty("Position", () -> m_position, null);
+      builder.addDoubleProperty("Velocity", () -> m_velocity, null);
+      builder.addDoubleProperty("Setpoint", () -> m_setpoint, value -> m_setpoint = value);
+      builder.addBooleanProperty("Enabled", () -> m_enabled, value -> m_enabled = value);
+    }
+  }
+
+  /** Builder that reads the properties into a sink on every update. */
+  private static class BenchmarkBuilder implements SendableBuilder {
+    private final List<DoubleSupplier> m_doubles = new ArrayList<>();
+    private final List<BooleanSupplier> m_booleans = new ArrayList<>();
+    double m_sink;
+
+    @Override
+    public void setSmartDashboardType(String type) {}
+
+    @Override
+    public void setActuator(boolean value) {}
+
+    @Override
+    public void setSafeState(Runnable func) {}
+
+    @Override
+    public void addBooleanProperty(String key, BooleanSupplier getter, BooleanConsumer setter) {
+      m_booleans.add(getter);
+    }
+
+    @Override
+    public void addDoubleProperty(String key, DoubleSupplier getter, DoubleConsumer setter) {
+      m_doubles.add(getter);
+    }
+
+    @Override
+    public void addStringProperty(String key, Supplier<String> getter, Consumer<String> setter) {}
+
+    @Override
+    public void addBooleanArrayProperty(
+        String key, Supplier<boolean[]> getter, Consumer<boolean[]> setter) {}
+
+    @Override
+    public void addDoubleArrayProperty(
+        String key, Supplier<double[]> getter, Consumer<double[]> setter) {}
+
+    @Override
+    public void addStringArrayProperty(
+        String key, Supplier<String[]> getter, Consumer<String[]> setter) {}
+
+    @Override
+    public void addRawProperty(String key, Supplier<byte[]> getter, Consumer<byte[]> setter) {}
+
+    @Override
+    public BackendKind getBackendKind() {
+      return BackendKind.kUnknown;
+    }
+
+    @Override
+    public boolean isPublished() {
+      return true;
+    }
+
+    @Override
+    public void update() {
+      for (DoubleSupplier getter : m_doubles) {
+        m_sink += getter.getAsDouble();
+      }
+      for (BooleanSupplier getter : m_booleans) {
+        if (getter.getAsBoolean()) {
+          m_sink++;
+        }
+      }
+    }
+
+    @Override
+    public void clearProperties() {
+      m_doubles.clear();
+      m_booleans.clear();
+    }
+  }
+
+  private BenchmarkSendable[] m_sendables;
+  private int m_next;
+
+  /** Registers and publishes the sendables. */
+  @Setup
+  public void setup() {
+    m_sendables = new BenchmarkSendable[kSendables];
+    for (int i = 0; i < kSendables; i++) {
+      m_sendables[i] = new BenchmarkSendable();
+      SendableRegistry.add(m_sendables[i], "Subsystem", "Sendable" + i);
+      SendableRegistry.publish(m_sendables[i], new BenchmarkBuilder());
+    }
+  }
+
+  /** Removes the sendables from the registry. */
+  @TearDown
+  public void teardown() {
+    for (BenchmarkSendable sendable : m_sendables) {
+      SendableRegistry.remove(sendable);
+    }
+  }
+
+  private void updateAll() {
+    for (BenchmarkSendable sendable : m_sendables) {
+      sendable.m_position += 0.01;
+      SendableRegistry.update(sendable);
+    }
+  }
+
+  /** One update cycle of all sendables. */
+  @Benchmark
+  public void update() {
+    updateAll();
+  }
+
+  /** One update cycle of all sendables while another thread looks up names. */
+  @Benchmark
+  @Group("contended")
+  @GroupThreads(1)
+  public void contendedUpdate() {
+    updateAll();
+  }
+
+  /**
+   * Looks up the name of a sendable while another thread updates them.
+   *
+   * @param blackhole Consumes the name.
+   */
+  @Benchmark
+  @Group("contended")
+  @GroupThreads(1)
+  public void contendedGetName(Blackhole blackhole) {
+    blackhole.consume(SendableRegistry.getName(m_sendables[m_next]));
+    m_next = (m_next + 1) % kSendables;
+  }
+}
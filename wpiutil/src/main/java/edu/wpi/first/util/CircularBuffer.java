@@ -4,9 +4,28 @@
 
 package edu.wpi.first.util;
 
-/** This is a simple circular buffer so we don't need to "bucket brigade" copy old values. */
-public class CircularBuffer {
-  private double[] m_data;
+import java.util.function.Supplier;
+
+/**
+ * This is a simple circular buffer of objects so we don't need to "bucket brigade" copy old values.
+ *
+ * <p>A buffer constructed with a factory recycles its slots: the no-argument addFirst() and
+ * addLast() functions return the object already in the slot being added (creating it with the
+ * factory the first time), so mutable values such as samples can be filled in place without
+ * allocating. Removed objects stay in their slots to be reused, so the values returned by
+ * removeFirst() and removeLast() are only valid until the next add.
+ *
+ * <p>A buffer constructed without a factory stores references to the values added to it, and drops
+ * them when they're removed.
+ *
+ * <p>See {@link DoubleCircularBuffer}, {@link LongCircularBuffer}, {@link FloatCircularBuffer}, and
+ * {@link IntCircularBuffer} for buffers of primitive values.
+ *
+ * @param <T> Buffer element type.
+ */
+public class CircularBuffer<T> {
+  private final Supplier<T> m_factory;
+  private T[] m_data;
 
   // Index of element at front of buffer
   private int m_front;
@@ -20,10 +39,20 @@ public class CircularBuffer {
    * @param size The size of the circular buffer.
    */
   public CircularBuffer(int size) {
-    m_data = new double[size];
-    for (int i = 0; i < m_data.length; i++) {
-      m_data[i] = 0.0;
-    }
+    this(size, null);
+  }
+
+  /**
+   * Create a CircularBuffer with the provided size that recycles its slots.
+   *
+   * @param size The size of the circular buffer.
+   * @param factory Creates the object for a slot the first time it's added with addFirst() or
+   *     addLast(); may be null if those functions aren't used.
+   */
+  @SuppressWarnings("unchecked")
+  public CircularBuffer(int size, Supplier<T> factory) {
+    m_factory = factory;
+    m_data = (T[]) new Object[size];
   }
 
   /**
@@ -31,28 +60,42 @@ public class CircularBuffer {
    *
    * @return number of elements in buffer
    */
-  double size() {
+  public int size() {
     return m_length;
   }
 
+  /**
+   * Returns the maximum number of elements in the buffer.
+   *
+   * @return maximum number of elements in buffer
+   */
+  public int capacity() {
+    return m_data.length;
+  }
+
   /**
    * Get value at front of buffer.
    *
-   * @return value at front of buffer
+   * @return value at front of buffer, or null if the buffer is empty
    */
-  double getFirst() {
+  public T getFirst() {
+    // If there are no elements in the buffer, do nothing
+    if (m_length == 0) {
+      return null;
+    }
+
     return m_data[m_front];
   }
 
   /**
    * Get value at back of buffer.
    *
-   * @return value at back of buffer
+   * @return value at back of buffer, or null if the buffer is empty
    */
-  double getLast() {
+  public T getLast() {
     // If there are no elements in the buffer, do nothing
     if (m_length == 0) {
-      return 0.0;
+      return null;
     }
 
     return m_data[(m_front + m_length - 1) % m_data.length];
@@ -64,7 +107,7 @@ public class CircularBuffer {
    *
    * @param value The value to push.
    */
-  public void addFirst(double value) {
+  public void addFirst(T value) {
     if (m_data.length == 0) {
       return;
     }
@@ -78,13 +121,30 @@ public class CircularBuffer {
     }
   }
 
+  /**
+   * Push a recycled value onto front of the buffer. The value at the back is overwritten if the
+   * buffer is full.
+   *
+   * @return The object in the new front slot, to be filled in by the caller. This is the value
+   *     that was overwritten or removed from the slot, or a new object from the factory.
+   * @throws IllegalStateException if the slot is empty and the buffer has no factory
+   */
+  public T addFirst() {
+    if (m_data.length == 0) {
+      return m_factory == null ? null : m_factory.get();
+    }
+
+    addFirst(recycle(moduloDec(m_front)));
+    return m_data[m_front];
+  }
+
   /**
    * Push new value onto back of the buffer. The value at the front is overwritten if the buffer is
    * full.
    *
    * @param value The value to push.
    */
-  public void addLast(double value) {
+  public void addLast(T value) {
     if (m_data.length == 0) {
       return;
     }
@@ -99,18 +159,39 @@ public class CircularBuffer {
     }
   }
 
+  /**
+   * Push a recycled value onto back of the buffer. The value at the front is overwritten if the
+   * buffer is full.
+   *
+   * @return The object in the new back slot, to be filled in by the caller. This is the value that
+   *     was overwritten or removed from the slot, or a new object from the factory.
+   * @throws IllegalStateException if the slot is empty and the buffer has no factory
+   */
+  public T addLast() {
+    if (m_data.length == 0) {
+      return m_factory == null ? null : m_factory.get();
+    }
+
+    T value = recycle((m_front + m_length) % m_data.length);
+    addLast(value);
+    return value;
+  }
+
   /**
    * Pop value at front of buffer.
    *
-   * @return value at front of buffer
+   * @return value at front of buffer, or null if the buffer is empty
    */
-  public double removeFirst() {
+  public T removeFirst() {
     // If there are no elements in the buffer, do nothing
     if (m_length == 0) {
-      return 0.0;
+      return null;
     }
 
-    double temp = m_data[m_front];
+    T temp = m_data[m_front];
+    if (m_factory == null) {
+      m_data[m_front] = null;
+    }
     m_front = moduloInc(m_front);
     m_length--;
     return temp;
@@ -119,16 +200,21 @@ public class CircularBuffer {
   /**
    * Pop value at back of buffer.
    *
-   * @return value at back of buffer
+   * @return value at back of buffer, or null if the buffer is empty
    */
-  public double removeLast() {
+  public T removeLast() {
     // If there are no elements in the buffer, do nothing
     if (m_length == 0) {
-      return 0.0;
+      return null;
     }
 
     m_length--;
-    return m_data[(m_front + m_length) % m_data.length];
+    int index = (m_front + m_length) % m_data.length;
+    T temp = m_data[index];
+    if (m_factory == null) {
+      m_data[index] = null;
+    }
+    return temp;
   }
 
   /**
@@ -138,8 +224,9 @@ public class CircularBuffer {
    *
    * @param size New buffer size.
    */
+  @SuppressWarnings("unchecked")
   void resize(int size) {
-    double[] newBuffer = new double[size];
+    T[] newBuffer = (T[]) new Object[size];
     m_length = Math.min(m_length, size);
     for (int i = 0; i < m_length; i++) {
       newBuffer[i] = m_data[(m_front + i) % m_data.length];
@@ -148,10 +235,14 @@ public class CircularBuffer {
     m_front = 0;
   }
 
-  /** Sets internal buffer contents to zero. */
+  /**
+   * Removes all elements from the buffer. A buffer with a factory keeps the objects to reuse them.
+   */
   public void clear() {
-    for (int i = 0; i < m_data.length; i++) {
-      m_data[i] = 0.0;
+    if (m_factory == null) {
+      for (int i = 0; i < m_data.length; i++) {
+        m_data[i] = null;
+      }
     }
     m_front = 0;
     m_length = 0;
@@ -163,10 +254,37 @@ public class CircularBuffer {
    * @param index Index into the buffer.
    * @return Element at index starting from front of buffer.
    */
-  public double get(int index) {
+  public T get(int index) {
     return m_data[(m_front + index) % m_data.length];
   }
 
+  /**
+   * Copies the elements of the buffer, from front to back, into an array.
+   *
+   * @param dest The array to copy into; must have room for size() elements.
+   */
+  public void copyTo(T[] dest) {
+    int firstLength = Math.min(m_length, m_data.length - m_front);
+    System.arraycopy(m_data, m_front, dest, 0, firstLength);
+    System.arraycopy(m_data, 0, dest, firstLength, m_length - firstLength);
+  }
+
+  /**
+   * Gets the object in a slot to reuse it, creating it if needed.
+   *
+   * @param index Index into the m_data buffer.
+   */
+  private T recycle(int index) {
+    T value = m_data[index];
+    if (value == null) {
+      if (m_factory == null) {
+        throw new IllegalStateException("buffer has no factory to create values");
+      }
+      value = m_factory.get();
+    }
+    return value;
+  }
+
   /**
    * Increment an index modulo the length of the m_data buffer.
    *
@@ -0,0 +1,169 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free circular buffer for handing double values from one producer thread to one consumer
+ * thread, e.g. from a sensor thread to the main robot loop.
+ *
+ * <p>Only one thread may call the producer functions (offer()), and only one thread may call the
+ * consumer functions (poll(), drainTo(), and clear()). Neither thread ever blocks. If the buffer is
+ * full, offer() drops the new value and returns false, so a slow consumer loses the newest values
+ * rather than corrupting the oldest.
+ *
+ * <p>The capacity is rounded up to a power of two.
+ */
+public class SpscDoubleCircularBuffer {
+  private final double[] m_data;
+  private final int m_mask;
+
+  // Total number of values added and removed; only written by the producer and consumer
+  // respectively
+  private final AtomicLong m_tail = new AtomicLong();
+  private final AtomicLong m_head = new AtomicLong();
+
+  // Producer's cached copy of m_head, so it only reads the consumer's counter when the buffer
+  // looks full
+  private long m_cachedHead;
+
+  // Consumer's cached copy of m_tail, so it only reads the producer's counter when the buffer
+  // looks empty
+  private long m_cachedTail;
+
+  /**
+   * Create a SpscDoubleCircularBuffer that holds at least the provided number of values.
+   *
+   * @param size The minimum capacity of the buffer.
+   */
+  public SpscDoubleCircularBuffer(int size) {
+    if (size <= 0 || size > (1 << 30)) {
+      throw new IllegalArgumentException("size must be between 1 and 2^30, got " + size);
+    }
+    int capacity = Integer.highestOneBit(size);
+    if (capacity < size) {
+      capacity <<= 1;
+    }
+    m_data = new double[capacity];
+    m_mask = capacity - 1;
+  }
+
+  /**
+   * Returns the maximum number of values in the buffer.
+   *
+   * @return maximum number of values in buffer
+   */
+  public int capacity() {
+    return m_data.length;
+  }
+
+  /**
+   * Returns the number of values in the buffer. This is only a snapshot when called while the other
+   * thread is adding or removing values.
+   *
+   * @return number of values in buffer
+   */
+  public int size() {
+    long head = m_head.getAcquire();
+    return (int) (m_tail.getAcquire() - head);
+  }
+
+  /**
+   * Adds a value to the back of the buffer. Must only be called by the producer thread.
+   *
+   * @param value The value to add.
+   * @return True if the value was added, false if the buffer was full.
+   */
+  public boolean offer(double value) {
+    long tail = m_tail.getPlain();
+    if (tail - m_cachedHead >= m_data.length) {
+      m_cachedHead = m_head.getAcquire();
+      if (tail - m_cachedHead >= m_data.length) {
+        return false;
+      }
+    }
+    m_data[(int) tail & m_mask] = value;
+    m_tail.setRelease(tail + 1);
+    return true;
+  }
+
+  /**
+   * Returns whether the buffer is empty. Must only be called by the consumer thread.
+   *
+   * @return True if there are no values to remove.
+   */
+  public boolean isEmpty() {
+    long head = m_head.getPlain();
+    if (head < m_cachedTail) {
+      return false;
+    }
+    m_cachedTail = m_tail.getAcquire();
+    return head >= m_cachedTail;
+  }
+
+  /**
+   * Removes the value at the front of the buffer. Must only be called by the consumer thread.
+   *
+   * @param defaultValue The value to return if the buffer is empty.
+   * @return The value at the front of the buffer, or defaultValue if the buffer is empty.
+   */
+  public double poll(double defaultValue) {
+    if (isEmpty()) {
+      return defaultValue;
+    }
+    long head = m_head.getPlain();
+    double value = m_data[(int) head & m_mask];
+    m_head.setRelease(head + 1);
+    return value;
+  }
+
+  /**
+   * Removes values from the front of the buffer into an array. Must only be called by the consumer
+   * thread.
+   *
+   * @param dest The array to copy values into, starting at index 0.
+   * @return The number of values removed; at most dest.length.
+   */
+  public int drainTo(double[] dest) {
+    if (isEmpty()) {
+      return 0;
+    }
+    long head = m_head.getPlain();
+    int count = (int) Math.min(m_cachedTail - head, dest.length);
+    int start = (int) head & m_mask;
+    int firstLength = Math.min(count, m_data.length - start);
+    System.arraycopy(m_data, start, dest, 0, firstLength);
+    System.arraycopy(m_data, 0, dest, firstLength, count - firstLength);
+    m_head.setRelease(head + count);
+    return count;
+  }
+
+  /**
+   * Removes all values from the front of the buffer and adds them to the back of another buffer.
+   * Must only be called by the consumer thread.
+   *
+   * @param dest The buffer to add values to.
+   * @return The number of values removed.
+   */
+  public int drainTo(DoubleCircularBuffer dest) {
+    if (isEmpty()) {
+      return 0;
+    }
+    long head = m_head.getPlain();
+    long tail = m_cachedTail;
+    for (long i = head; i < tail; i++) {
+      dest.addLast(m_data[(int) i & m_mask]);
+    }
+    m_head.setRelease(tail);
+    return (int) (tail - head);
+  }
+
+  /** Removes all values from the buffer. Must only be called by the consumer thread. */
+  public void clear() {
+    m_cachedTail = m_tail.getAcquire();
+    m_head.setRelease(m_cachedTail);
+  }
+}
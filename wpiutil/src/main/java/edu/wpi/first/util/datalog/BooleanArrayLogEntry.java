@@ -42,4 +42,25 @@ public class BooleanArrayLogEntry extends DataLogEntry {
   public void append(boolean[] value) {
     m_log.appendBooleanArray(m_entry, value, 0);
   }
+
+  /**
+   * Adds a record to a batch. The record is appended to the log when the batch is committed.
+   *
+   * @param batch Batch to add the record to; must have been created for this entry's log
+   * @param value Value to record
+   * @param timestamp Time stamp (may be 0 to indicate the time the batch is committed)
+   */
+  public void append(DataLogBatch batch, boolean[] value, long timestamp) {
+    batch.appendBooleanArray(m_entry, value, timestamp);
+  }
+
+  /**
+   * Adds a record to a batch. The record is appended to the log when the batch is committed.
+   *
+   * @param batch Batch to add the record to; must have been created for this entry's log
+   * @param value Value to record
+   */
+  public void append(DataLogBatch batch, boolean[] value) {
+    batch.appendBooleanArray(m_entry, value, 0);
+  }
 }
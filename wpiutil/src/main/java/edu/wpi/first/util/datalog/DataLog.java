@@ -4,6 +4,8 @@
 
 package edu.wpi.first.util.datalog;
 
+import java.nio.ByteBuffer;
+
 /**
  * A data log. The log file is created immediately upon construction with a temporary filename. The
  * file may be renamed at any time using the setFilename() function.
@@ -21,9 +23,14 @@ package edu.wpi.first.util.datalog;
  * threads are writing to it; whichever thread grabs the write mutex first will get written first.
  * For this reason (as well as the fact that timestamps can be set to arbitrary values), records in
  * the log are not guaranteed to be sorted by timestamp.
+ *
+ * <p>This class writes the log with the native wpiutil library. {@link JavaDataLog} is a subclass
+ * that writes the same format in pure Java; this class isn't meant to be subclassed otherwise. The
+ * overloads that only fill in default arguments are final, so they always forward to the full
+ * versions that subclasses override, and no constructor calls an overridable method.
  */
 @SuppressWarnings({"PMD.TooManyMethods", "PMD.ExcessivePublicCount"})
-public final class DataLog implements AutoCloseable {
+public class DataLog implements AutoCloseable {
   /**
    * Construct a new Data Log. The log will be initially created with a temporary filename.
    *
@@ -77,7 +84,18 @@ public final class DataLog implements AutoCloseable {
   }
 
   /**
-   * Change log filename.
+   * Constructs a data log with no native implementation, for subclasses that write the log
+   * themselves.
+   *
+   * @param impl Native handle; 0 for none
+   */
+  DataLog(long impl) {
+    m_impl = impl;
+  }
+
+  /**
+   * Change log filename. If the log has been split into segments, all of its segment files are
+   * renamed.
    *
    * @param filename filename
    */
@@ -85,6 +103,24 @@ public final class DataLog implements AutoCloseable {
     DataLogJNI.setFilename(m_impl, filename);
   }
 
+  /**
+   * Sets limits at which the log is split into a new segment file. When a limit is reached, the
+   * current file is closed at the next flush and a new file is started; as the check is done when
+   * flushing, segments may exceed the size limit by up to one flush period of data. The first
+   * segment uses the log filename; following segments add a "_001", "_002", etc. suffix before the
+   * extension.
+   *
+   * <p>Each segment starts with a header and a start record (with the current metadata) for every
+   * entry that's still active, so it can be read on its own, and entries keep the same IDs in every
+   * segment.
+   *
+   * @param maxBytes maximum size of a segment in bytes; 0 for no limit
+   * @param maxSeconds maximum duration of a segment in seconds; 0 for no limit
+   */
+  public void setSegmentLimits(long maxBytes, double maxSeconds) {
+    DataLogJNI.setSegmentLimits(m_impl, maxBytes, maxSeconds);
+  }
+
   /** Explicitly flushes the log data to disk. */
   public void flush() {
     DataLogJNI.flush(m_impl);
@@ -130,7 +166,7 @@ public final class DataLog implements AutoCloseable {
    * @param metadata Initial metadata (e.g. data properties)
    * @return Entry index
    */
-  public int start(String name, String type, String metadata) {
+  public final int start(String name, String type, String metadata) {
     return start(name, type, metadata, 0);
   }
 
@@ -144,7 +180,7 @@ public final class DataLog implements AutoCloseable {
    * @param type Data type
    * @return Entry index
    */
-  public int start(String name, String type) {
+  public final int start(String name, String type) {
     return start(name, type, "");
   }
 
@@ -163,7 +199,7 @@ public final class DataLog implements AutoCloseable {
    *
    * @param entry Entry index
    */
-  public void finish(int entry) {
+  public final void finish(int entry) {
     finish(entry, 0);
   }
 
@@ -184,7 +220,7 @@ public final class DataLog implements AutoCloseable {
    * @param entry Entry index
    * @param metadata New metadata for the entry
    */
-  public void setMetadata(int entry, String metadata) {
+  public final void setMetadata(int entry, String metadata) {
     setMetadata(entry, metadata, 0);
   }
 
@@ -245,7 +281,22 @@ public final class DataLog implements AutoCloseable {
     DataLogJNI.appendStringArray(m_impl, entry, arr, timestamp);
   }
 
-  public long getImpl() {
+  /**
+   * Appends a batch of records encoded by a {@link DataLogBatch}.
+   *
+   * @param batch Encoded records
+   * @param length Length of the encoded records in bytes
+   */
+  void appendBatch(ByteBuffer batch, int length) {
+    DataLogJNI.appendBatch(m_impl, batch, length);
+  }
+
+  /**
+   * Gets the native handle of the data log.
+   *
+   * @return Native handle, or 0 if the log isn't written by the native library or is closed
+   */
+  public final long getImpl() {
     return m_impl;
   }
 
@@ -0,0 +1,286 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.datalog;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A batch of data log records that is appended to a {@link DataLog} with a single native call.
+ *
+ * <p>Each append() call on a DataLog crosses into native code. When many values are logged every
+ * robot loop, that overhead adds up. A DataLogBatch instead encodes records into a direct buffer in
+ * the log's wire format, and commit() hands the whole buffer to the log at once. The batch can be
+ * reused after it's committed, so a logger typically keeps one batch and commits it once per loop.
+ *
+ * <p>Records with a timestamp of 0 are timestamped when the batch is committed, not when they're
+ * added to the batch. Records are written in the order they were added, and no records from other
+ * threads are interleaved with them.
+ *
+ * <p>DataLogBatch is not thread safe.
+ *
+ * <pre><code>
+ * m_batch.appendDouble(m_voltageEntry, voltage, 0);
+ * m_positionEntry.append(m_batch, position);
+ * ...
+ * m_batch.commit();
+ * </code></pre>
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class DataLogBatch {
+  // Each record is a 4-byte entry index, a 4-byte payload size, an 8-byte timestamp, and then the
+  // payload
+  private static final int kRecordHeaderSize = 16;
+  private static final int kDefaultCapacity = 4096;
+
+  private final DataLog m_log;
+  private ByteBuffer m_buf;
+  private int m_count;
+
+  /**
+   * Constructs an empty batch.
+   *
+   * @param log The data log the batch is committed to. Entry indices passed to the batch must come
+   *     from this log.
+   * @param initialCapacity The initial size of the buffer in bytes. The buffer grows as needed.
+   */
+  public DataLogBatch(DataLog log, int initialCapacity) {
+    m_log = log;
+    m_buf = ByteBuffer.allocateDirect(Math.max(initialCapacity, 64)).order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /**
+   * Constructs an empty batch.
+   *
+   * @param log The data log the batch is committed to. Entry indices passed to the batch must come
+   *     from this log.
+   */
+  public DataLogBatch(DataLog log) {
+    this(log, kDefaultCapacity);
+  }
+
+  /**
+   * Gets the data log the batch is committed to.
+   *
+   * @return The data log
+   */
+  public DataLog getLog() {
+    return m_log;
+  }
+
+  /**
+   * Gets the number of records in the batch.
+   *
+   * @return Number of records
+   */
+  public int size() {
+    return m_count;
+  }
+
+  /**
+   * Returns whether the batch has no records.
+   *
+   * @return True if the batch is empty
+   */
+  public boolean isEmpty() {
+    return m_count == 0;
+  }
+
+  /** Discards all records in the batch. */
+  public void clear() {
+    m_buf.clear();
+    m_count = 0;
+  }
+
+  /**
+   * Appends all records in the batch to the log, then clears the batch. Like the append functions
+   * on {@link DataLog}, this is a no-op while the log is paused.
+   */
+  public void commit() {
+    if (m_count != 0) {
+      m_log.appendBatch(m_buf, m_buf.position());
+    }
+    clear();
+  }
+
+  /**
+   * Adds a record to the batch.
+   *
+   * @param entry Entry index, as returned by Start()
+   * @param data Data to record
+   * @param timestamp Time stamp (may be 0 to indicate commit time)
+   */
+  public void appendRaw(int entry, byte[] data, long timestamp) {
+    startRecord(entry, data.length, timestamp);
+    m_buf.put(data);
+  }
+
+  /**
+   * Adds a boolean record to the batch.
+   *
+   * @param entry Entry index, as returned by Start()
+   * @param value Value to record
+   * @param timestamp Time stamp (may be 0 to indicate commit time)
+   */
+  public void appendBoolean(int entry, boolean value, long timestamp) {
+    startRecord(entry, 1, timestamp);
+    m_buf.put((byte) (value ? 1 : 0));
+  }
+
+  /**
+   * Adds an integer record to the batch.
+   *
+   * @param entry Entry index, as returned by Start()
+   * @param value Value to record
+   * @param timestamp Time stamp (may be 0 to indicate commit time)
+   */
+  public void appendInteger(int entry, long value, long timestamp) {
+    startRecord(entry, 8, timestamp);
+    m_buf.putLong(value);
+  }
+
+  /**
+   * Adds a float record to the batch.
+   *
+   * @param entry Entry index, as returned by Start()
+   * @param value Value to record
+   * @param timestamp Time stamp (may be 0 to indicate commit time)
+   */
+  public void appendFloat(int entry, float value, long timestamp) {
+    startRecord(entry, 4, timestamp);
+    m_buf.putFloat(value);
+  }
+
+  /**
+   * Adds a double record to the batch.
+   *
+   * @param entry Entry index, as returned by Start()
+   * @param value Value to record
+   * @param timestamp Time stamp (may be 0 to indicate commit time)
+   */
+  public void appendDouble(int entry, double value, long timestamp) {
+    startRecord(entry, 8, timestamp);
+    m_buf.putDouble(value);
+  }
+
+  /**
+   * Adds a string record to the batch.
+   *
+   * @param entry Entry index, as returned by Start()
+   * @param value Value to record
+   * @param timestamp Time stamp (may be 0 to indicate commit time)
+   */
+  public void appendString(int entry, String value, long timestamp) {
+    appendRaw(entry, value.getBytes(StandardCharsets.UTF_8), timestamp);
+  }
+
+  /**
+   * Adds a boolean array record to the batch.
+   *
+   * @param entry Entry index, as returned by Start()
+   * @param arr Values to record
+   * @param timestamp Time stamp (may be 0 to indicate commit time)
+   */
+  public void appendBooleanArray(int entry, boolean[] arr, long timestamp) {
+    startRecord(entry, arr.length, timestamp);
+    for (boolean value : arr) {
+      m_buf.put((byte) (value ? 1 : 0));
+    }
+  }
+
+  /**
+   * Adds an integer array record to the batch.
+   *
+   * @param entry Entry index, as returned by Start()
+   * @param arr Values to record
+   * @param timestamp Time stamp (may be 0 to indicate commit time)
+   */
+  public void appendIntegerArray(int entry, long[] arr, long timestamp) {
+    startRecord(entry, arr.length * 8, timestamp);
+    m_buf.asLongBuffer().put(arr);
+    m_buf.position(m_buf.position() + arr.length * 8);
+  }
+
+  /**
+   * Adds a float array record to the batch.
+   *
+   * @param entry Entry index, as returned by Start()
+   * @param arr Values to record
+   * @param timestamp Time stamp (may be 0 to indicate commit time)
+   */
+  public void appendFloatArray(int entry, float[] arr, long timestamp) {
+    startRecord(entry, arr.length * 4, timestamp);
+    m_buf.asFloatBuffer().put(arr);
+    m_buf.position(m_buf.position() + arr.length * 4);
+  }
+
+  /**
+   * Adds a double array record to the batch.
+   *
+   * @param entry Entry index, as returned by Start()
+   * @param arr Values to record
+   * @param timestamp Time stamp (may be 0 to indicate commit time)
+   */
+  public void appendDoubleArray(int entry, double[] arr, long timestamp) {
+    startRecord(entry, arr.length * 8, timestamp);
+    m_buf.asDoubleBuffer().put(arr);
+    m_buf.position(m_buf.position() + arr.length * 8);
+  }
+
+  /**
+   * Adds a string array record to the batch.
+   *
+   * @param entry Entry index, as returned by Start()
+   * @param arr Values to record
+   * @param timestamp Time stamp (may be 0 to indicate commit time)
+   */
+  public void appendStringArray(int entry, String[] arr, long timestamp) {
+    // storage: 4-byte array length, each string prefixed by 4-byte length
+    byte[][] strings = new byte[arr.length][];
+    int size = 4;
+    for (int i = 0; i < arr.length; i++) {
+      strings[i] = arr[i].getBytes(StandardCharsets.UTF_8);
+      size += 4 + strings[i].length;
+    }
+    startRecord(entry, size, timestamp);
+    m_buf.putInt(arr.length);
+    for (byte[] str : strings) {
+      m_buf.putInt(str.length);
+      m_buf.put(str);
+    }
+  }
+
+  /**
+   * Gets the encoded records. Used by tests.
+   *
+   * @return A read-only view of the encoded records
+   */
+  ByteBuffer getBuffer() {
+    return m_buf.duplicate().flip().asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  private void startRecord(int entry, int payloadSize, long timestamp) {
+    ensureRemaining(kRecordHeaderSize + payloadSize);
+    m_buf.putInt(entry);
+    m_buf.putInt(payloadSize);
+    m_buf.putLong(timestamp);
+    m_count++;
+  }
+
+  private void ensureRemaining(int size) {
+    if (m_buf.remaining() >= size) {
+      return;
+    }
+    int capacity = m_buf.capacity();
+    while (capacity - m_buf.position() < size) {
+      capacity *= 2;
+    }
+    var buf = ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    m_buf.flip();
+    buf.put(m_buf);
+    m_buf = buf;
+  }
+}
@@ -0,0 +1,412 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.datalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Exports a data log to a columnar layout, so analysis tools can memory-map a single signal and
+ * process its values as a primitive array instead of decoding every record of the log.
+ *
+ * <p>Each started entry is exported as a signal with these files, all little-endian:
+ *
+ * <ul>
+ *   <li>{@code <n>.timestamps.bin}: the timestamp of each record, as int64 microseconds.
+ *   <li>{@code <n>.values.bin}: the values. Values of boolean, int64, float, and double entries
+ *       are stored as bool (one byte), int64, float32, and float64 elements. The elements of array
+ *       entries are stored one array after another. Values of all other types, including strings
+ *       and string arrays, are stored as their raw payload bytes.
+ *   <li>{@code <n>.offsets.bin}: for arrays and other variable-size values, the int64 index in
+ *       the values file of the start of each value, plus the total number of elements, so value i
+ *       is the elements from offsets[i] up to offsets[i + 1].
+ * </ul>
+ *
+ * <p>{@code manifest.json} lists the signals with their name, type, metadata, record count, element
+ * type, and file names. Records whose payload size doesn't match their entry's type are skipped.
+ *
+ * <p>The log is exported in a single pass with bounded memory: the columns of each active entry are
+ * accumulated in small buffers that are written by an executor as they fill, with writes of
+ * different signals running in parallel. Logs larger than the heap can be exported, as {@link
+ * DataLogReader} memory-maps the log file.
+ *
+ * <p>The command-line exporter isn't part of the library; in the WPILib tree it's run with:
+ *
+ * <pre><code>
+ * ./gradlew :wpiutil:runExportColumns --args="&lt;log file&gt; &lt;output directory&gt;"
+ * </code></pre>
+ */
+public final class DataLogColumnExporter {
+  /** The file name of the manifest written by the exporter. */
+  public static final String kManifestFilename = "manifest.json";
+
+  private static final int kBufferSize = 16 * 1024;
+  // Limits the memory used by buffers waiting to be written to 4 MB
+  private static final int kMaxPendingBuffers = 256;
+  private static final int kMaxDirectEntry = 1 << 16;
+
+  private final Executor m_executor;
+  private final Path m_outputDir;
+  private final Semaphore m_pendingBuffers = new Semaphore(kMaxPendingBuffers);
+  private final ConcurrentLinkedQueue<ByteBuffer> m_freeBuffers = new ConcurrentLinkedQueue<>();
+  private final AtomicReference<Exception> m_error = new AtomicReference<>();
+
+  private static final class Signal {
+    final int m_entry;
+    final String m_name;
+    final String m_type;
+    String m_metadata;
+    final String m_elementType;
+    final int m_elementSize;
+    final boolean m_variableSize;
+    final Path m_timestampsPath;
+    final Path m_valuesPath;
+    final Path m_offsetsPath;
+
+    ByteBuffer m_timestamps;
+    ByteBuffer m_values;
+    ByteBuffer m_offsets;
+    long m_count;
+    long m_elementCount;
+
+    // Writes of each signal are chained so they're done in order
+    CompletableFuture<Void> m_pendingWrites = CompletableFuture.completedFuture(null);
+
+    Signal(DataLogRecord.StartRecordData data, String prefix) {
+      m_entry = data.entry;
+      m_name = data.name;
+      m_type = data.type;
+      m_metadata = data.metadata;
+      switch (data.type) {
+        case "boolean":
+        case "boolean[]":
+          m_elementType = "bool";
+          m_elementSize = 1;
+          break;
+        case "int64":
+        case "int64[]":
+          m_elementType = "int64";
+          m_elementSize = 8;
+          break;
+        case "float":
+        case "float[]":
+          m_elementType = "float32";
+          m_elementSize = 4;
+          break;
+        case "double":
+        case "double[]":
+          m_elementType = "float64";
+          m_elementSize = 8;
+          break;
+        default:
+          m_elementType = "bytes";
+          m_elementSize = 1;
+          break;
+      }
+      m_variableSize = m_elementType.equals("bytes") || data.type.endsWith("[]");
+      m_timestampsPath = Paths.get(prefix + ".timestamps.bin");
+      m_valuesPath = Paths.get(prefix + ".values.bin");
+      m_offsetsPath = m_variableSize ? Paths.get(prefix + ".offsets.bin") : null;
+    }
+
+    Map<String, Object> toManifest() {
+      Map<String, Object> manifest = new LinkedHashMap<>();
+      manifest.put("name", m_name);
+      manifest.put("type", m_type);
+      manifest.put("metadata", m_metadata);
+      manifest.put("entry", m_entry);
+      manifest.put("count", m_count);
+      manifest.put("elementType", m_elementType);
+      manifest.put("timestamps", m_timestampsPath.toString());
+      manifest.put("values", m_valuesPath.toString());
+      if (m_variableSize) {
+        manifest.put("offsets", m_offsetsPath.toString());
+      }
+      return manifest;
+    }
+  }
+
+  private DataLogColumnExporter(Path outputDir, Executor executor) {
+    m_outputDir = outputDir;
+    m_executor = executor;
+  }
+
+  /**
+   * Exports a data log to a columnar layout, writing the columns in parallel on an executor.
+   *
+   * @param reader The data log to export.
+   * @param outputDir The directory in which to write the columns and manifest. It's created if it
+   *     doesn't exist; existing files with the same names are overwritten.
+   * @param executor The executor that writes the columns.
+   * @return The number of signals exported.
+   * @throws IOException if the log is invalid or writing a file fails.
+   */
+  public static int export(DataLogReader reader, Path outputDir, Executor executor)
+      throws IOException {
+    if (!reader.isValid()) {
+      throw new IOException("not a valid data log");
+    }
+    Files.createDirectories(outputDir);
+    return new DataLogColumnExporter(outputDir, executor).exportLog(reader);
+  }
+
+  /**
+   * Exports a data log to a columnar layout, writing the columns in parallel on the common
+   * fork-join pool.
+   *
+   * @param reader The data log to export.
+   * @param outputDir The directory in which to write the columns and manifest. It's created if it
+   *     doesn't exist; existing files with the same names are overwritten.
+   * @return The number of signals exported.
+   * @throws IOException if the log is invalid or writing a file fails.
+   */
+  public static int export(DataLogReader reader, Path outputDir) throws IOException {
+    return export(reader, outputDir, ForkJoinPool.commonPool());
+  }
+
+  private static boolean isDirect(int entry) {
+    return entry > 0 && entry < kMaxDirectEntry;
+  }
+
+  private static Signal getDirect(Signal[] active, int entry) {
+    return entry < active.length ? active[entry] : null;
+  }
+
+  private int exportLog(DataLogReader reader) throws IOException {
+    List<Signal> signals = new ArrayList<>();
+    // Active signals, indexed by entry ID like DataLogReader.visit(); IDs of kMaxDirectEntry and
+    // up are in largeIdActive, so active never grows past kMaxDirectEntry
+    Signal[] active = new Signal[256];
+    Map<Integer, Signal> largeIdActive = new HashMap<>();
+
+    var cursor = new DataLogCursor(reader);
+    try {
+      while (cursor.next()) {
+        int entry = cursor.getEntry();
+        if (entry == 0) {
+          if (cursor.isStart()) {
+            var data = cursor.getRecord().getStartData();
+            var signal = new Signal(data, Integer.toString(signals.size()));
+            startSignal(signal);
+            signals.add(signal);
+            Signal previous;
+            if (isDirect(data.entry)) {
+              if (data.entry >= active.length) {
+                active =
+                    Arrays.copyOf(
+                        active,
+                        Math.min(kMaxDirectEntry, Math.max(data.entry + 1, active.length * 2)));
+              }
+              previous = active[data.entry];
+              active[data.entry] = signal;
+            } else {
+              previous = largeIdActive.put(data.entry, signal);
+            }
+            if (previous != null) {
+              finishSignal(previous);
+            }
+          } else if (cursor.isFinish()) {
+            int finished = cursor.getRecord().getFinishEntry();
+            Signal signal = null;
+            if (isDirect(finished)) {
+              if (finished < active.length) {
+                signal = active[finished];
+                active[finished] = null;
+              }
+            } else {
+              signal = largeIdActive.remove(finished);
+            }
+            if (signal != null) {
+              finishSignal(signal);
+            }
+          } else if (cursor.isSetMetadata()) {
+            var data = cursor.getRecord().getSetMetadataData();
+            Signal signal =
+                isDirect(data.entry)
+                    ? getDirect(active, data.entry)
+                    : largeIdActive.get(data.entry);
+            if (signal != null) {
+              signal.m_metadata = data.metadata;
+            }
+          }
+          continue;
+        }
+
+        Signal signal = isDirect(entry) ? getDirect(active, entry) : largeIdActive.get(entry);
+        if (signal != null) {
+          appendRecord(signal, cursor);
+        }
+        checkError();
+      }
+
+      for (Signal signal : signals) {
+        finishSignal(signal);
+      }
+    } finally {
+      // Wait for the pending writes even on failure, so no files are written after returning
+      for (Signal signal : signals) {
+        signal.m_pendingWrites.join();
+      }
+    }
+    checkError();
+
+    writeManifest(reader, signals);
+    return signals.size();
+  }
+
+  private void startSignal(Signal signal) throws IOException {
+    truncate(signal.m_timestampsPath);
+    truncate(signal.m_valuesPath);
+    signal.m_timestamps = takeBuffer();
+    signal.m_values = takeBuffer();
+    if (signal.m_variableSize) {
+      truncate(signal.m_offsetsPath);
+      signal.m_offsets = takeBuffer();
+      signal.m_offsets.putLong(0);
+    }
+  }
+
+  private void truncate(Path path) throws IOException {
+    FileChannel.open(
+            m_outputDir.resolve(path),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)
+        .close();
+  }
+
+  private void appendRecord(Signal signal, DataLogCursor cursor) {
+    int size = cursor.getSize();
+    if (signal.m_variableSize ? size % signal.m_elementSize != 0 : size != signal.m_elementSize) {
+      return;
+    }
+
+    if (!signal.m_timestamps.hasRemaining()) {
+      signal.m_timestamps = write(signal, signal.m_timestampsPath, signal.m_timestamps);
+    }
+    signal.m_timestamps.putLong(cursor.getTimestamp());
+
+    ByteBuffer payload = cursor.getRawBuffer();
+    while (payload.hasRemaining()) {
+      if (!signal.m_values.hasRemaining()) {
+        signal.m_values = write(signal, signal.m_valuesPath, signal.m_values);
+      }
+      ByteBuffer values = signal.m_values;
+      if (payload.remaining() <= values.remaining()) {
+        values.put(payload);
+      } else {
+        int limit = payload.limit();
+        payload.limit(payload.position() + values.remaining());
+        values.put(payload);
+        payload.limit(limit);
+      }
+    }
+
+    signal.m_count++;
+    signal.m_elementCount += size / signal.m_elementSize;
+    if (signal.m_variableSize) {
+      if (!signal.m_offsets.hasRemaining()) {
+        signal.m_offsets = write(signal, signal.m_offsetsPath, signal.m_offsets);
+      }
+      signal.m_offsets.putLong(signal.m_elementCount);
+    }
+  }
+
+  // Writes the rest of a signal's columns and releases its buffers
+  private void finishSignal(Signal signal) {
+    if (signal.m_timestamps == null) {
+      return;
+    }
+    m_freeBuffers.add(write(signal, signal.m_timestampsPath, signal.m_timestamps));
+    m_freeBuffers.add(write(signal, signal.m_valuesPath, signal.m_values));
+    signal.m_timestamps = null;
+    signal.m_values = null;
+    if (signal.m_variableSize) {
+      m_freeBuffers.add(write(signal, signal.m_offsetsPath, signal.m_offsets));
+      signal.m_offsets = null;
+    }
+  }
+
+  private ByteBuffer takeBuffer() {
+    ByteBuffer buf = m_freeBuffers.poll();
+    if (buf == null) {
+      buf = ByteBuffer.allocateDirect(kBufferSize).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    return buf;
+  }
+
+  /**
+   * Queues a full buffer to be appended to a column file, and returns an empty buffer to replace
+   * it. Blocks if too many buffers are waiting to be written.
+   */
+  private ByteBuffer write(Signal signal, Path path, ByteBuffer buf) {
+    if (buf.position() == 0) {
+      return buf;
+    }
+    m_pendingBuffers.acquireUninterruptibly();
+    buf.flip();
+    Path file = m_outputDir.resolve(path);
+    signal.m_pendingWrites =
+        signal.m_pendingWrites.thenRunAsync(
+            () -> {
+              try (var channel = FileChannel.open(file, StandardOpenOption.APPEND)) {
+                while (buf.hasRemaining()) {
+                  channel.write(buf);
+                }
+              } catch (IOException | RuntimeException ex) {
+                m_error.compareAndSet(null, ex);
+              } finally {
+                buf.clear();
+                m_freeBuffers.add(buf);
+                m_pendingBuffers.release();
+              }
+            },
+            m_executor);
+    return takeBuffer();
+  }
+
+  private void checkError() throws IOException {
+    Exception error = m_error.get();
+    if (error instanceof IOException) {
+      throw (IOException) error;
+    } else if (error != null) {
+      throw new IOException(error);
+    }
+  }
+
+  private void writeManifest(DataLogReader reader, List<Signal> signals) throws IOException {
+    List<Map<String, Object>> signalManifests = new ArrayList<>();
+    for (Signal signal : signals) {
+      signalManifests.add(signal.toManifest());
+    }
+    Map<String, Object> manifest = new LinkedHashMap<>();
+    manifest.put("version", 1);
+    manifest.put("byteOrder", "little-endian");
+    manifest.put("extraHeader", reader.getExtraHeader());
+    manifest.put("signals", signalManifests);
+    new ObjectMapper()
+        .writerWithDefaultPrettyPrinter()
+        .writeValue(m_outputDir.resolve(kManifestFilename).toFile(), manifest);
+  }
+}
@@ -0,0 +1,494 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.datalog;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.InputMismatchException;
+
+/**
+ * A reusable cursor over the records of a data log. Unlike iterating over a {@link DataLogReader},
+ * which creates a {@link DataLogRecord} and copies the payload of each record that's decoded, the
+ * cursor reads values directly from the log buffer, so scanning a log with it creates no garbage
+ * per record.
+ *
+ * <p>Values returned by the cursor, such as the {@link CharSequence} returned by getString() and
+ * the buffer returned by getRawBuffer(), are reused and are only valid until the cursor is moved
+ * or the next string is decoded. Copy them (e.g. with toString()) to keep them.
+ *
+ * <p>As with {@link DataLogRecord}, the cursor doesn't know the entry's data type; decoding a
+ * record as a type other than the one in its entry's start record returns invalid results.
+ *
+ * <pre><code>
+ * DataLogCursor cursor = new DataLogCursor(reader);
+ * while (cursor.next()) {
+ *   if (cursor.getEntry() == voltageEntry) {
+ *     sum += cursor.getDouble();
+ *   }
+ * }
+ * </code></pre>
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class DataLogCursor {
+  private static final int kControlStart = 0;
+  private static final int kControlFinish = 1;
+  private static final int kControlSetMetadata = 2;
+
+  /**
+   * Constructs a cursor positioned before the first record of a log.
+   *
+   * @param reader Data log reader
+   */
+  public DataLogCursor(DataLogReader reader) {
+    m_reader = reader;
+    m_decoder =
+        StandardCharsets.UTF_8
+            .newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    reset();
+  }
+
+  /** Moves the cursor back before the first record of the log. */
+  public void reset() {
+    m_next = m_reader.isValid() ? m_reader.getFirstRecord() : m_reader.size();
+    m_dataStart = -1;
+  }
+
+  /**
+   * Moves the cursor to the next record.
+   *
+   * @return True if the cursor is on a record, false if there are no more records or the next
+   *     record is truncated
+   */
+  public boolean next() {
+    return seek(m_next);
+  }
+
+  /**
+   * Moves the cursor to the record at a position in the log.
+   *
+   * @param position Position of the record, e.g. from {@link #getPosition()}
+   * @return True if the cursor is on a record, false if the record is truncated
+   */
+  public boolean seek(long position) {
+    if (position < 0 || position >= m_reader.size()) {
+      return end();
+    }
+    if (m_block == null || position < m_block.m_start || position >= m_block.m_end) {
+      setBlock(m_reader.getBlock(position));
+    }
+    // Records end within the block's buffer, so positions within it are used from here on
+    int pos = (int) (position - m_block.m_start);
+    int size = m_buf.limit();
+    if (position >= m_block.m_end) {
+      return end();
+    }
+    int lenbyte = m_buf.get(pos) & 0xff;
+    int entryLen = (lenbyte & 0x3) + 1;
+    int sizeLen = ((lenbyte >> 2) & 0x3) + 1;
+    int timestampLen = ((lenbyte >> 4) & 0x7) + 1;
+    int headerLen = 1 + entryLen + sizeLen + timestampLen;
+    if ((long) pos + headerLen > size) {
+      return end();
+    }
+    long dataSize = readVarInt(pos + 1 + entryLen, sizeLen);
+    if (pos + headerLen + dataSize > size) {
+      return end();
+    }
+    m_position = position;
+    m_entry = (int) readVarInt(pos + 1, entryLen);
+    m_timestamp = readVarInt(pos + 1 + entryLen + sizeLen, timestampLen);
+    m_dataStart = pos + headerLen;
+    m_dataSize = (int) dataSize;
+    m_next = position + headerLen + m_dataSize;
+    m_stringOffsetsCount = -1;
+    return true;
+  }
+
+  // Moves the cursor past the end of the log
+  private boolean end() {
+    m_dataStart = -1;
+    m_next = m_reader.size();
+    return false;
+  }
+
+  private void setBlock(DataLogReader.Block block) {
+    m_block = block;
+    m_buf = block.m_buf;
+    m_payload = m_buf.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    m_stringBytes = m_buf.duplicate();
+  }
+
+  /**
+   * Gets the position of the current record in the log.
+   *
+   * @return Position
+   */
+  public long getPosition() {
+    checkRecord();
+    return m_position;
+  }
+
+  /**
+   * Gets the entry ID of the current record.
+   *
+   * @return Entry ID
+   */
+  public int getEntry() {
+    checkRecord();
+    return m_entry;
+  }
+
+  /**
+   * Gets the timestamp of the current record.
+   *
+   * @return Timestamp (integer microseconds)
+   */
+  public long getTimestamp() {
+    checkRecord();
+    return m_timestamp;
+  }
+
+  /**
+   * Gets the size of the current record's payload.
+   *
+   * @return Payload size in bytes
+   */
+  public int getSize() {
+    checkRecord();
+    return m_dataSize;
+  }
+
+  /**
+   * Returns true if the current record is a control record.
+   *
+   * @return True if control record, false if normal data record
+   */
+  public boolean isControl() {
+    return getEntry() == 0;
+  }
+
+  /**
+   * Returns true if the current record is a start control record. Use getRecord().getStartData()
+   * to decode the contents.
+   *
+   * @return True if start control record, false otherwise
+   */
+  public boolean isStart() {
+    return isControl() && m_dataSize >= 17 && m_buf.get(m_dataStart) == kControlStart;
+  }
+
+  /**
+   * Returns true if the current record is a finish control record. Use
+   * getRecord().getFinishEntry() to decode the contents.
+   *
+   * @return True if finish control record, false otherwise
+   */
+  public boolean isFinish() {
+    return isControl() && m_dataSize == 5 && m_buf.get(m_dataStart) == kControlFinish;
+  }
+
+  /**
+   * Returns true if the current record is a set metadata control record. Use
+   * getRecord().getSetMetadataData() to decode the contents.
+   *
+   * @return True if set metadata control record, false otherwise
+   */
+  public boolean isSetMetadata() {
+    return isControl() && m_dataSize >= 9 && m_buf.get(m_dataStart) == kControlSetMetadata;
+  }
+
+  /**
+   * Creates a record for the current record. Unlike the other functions, this allocates; it's
+   * intended for infrequent records, such as control records.
+   *
+   * @return Data log record
+   */
+  public DataLogRecord getRecord() {
+    checkRecord();
+    return m_reader.getRecord(m_position);
+  }
+
+  /**
+   * Gets the current record's payload. The returned buffer is reused; its position is set to the
+   * start of the payload and its limit to the end of the payload.
+   *
+   * @return Payload buffer
+   */
+  public ByteBuffer getRawBuffer() {
+    checkRecord();
+    m_payload.clear();
+    m_payload.position(m_dataStart);
+    m_payload.limit(m_dataStart + m_dataSize);
+    return m_payload;
+  }
+
+  /**
+   * Decodes the current record as a boolean.
+   *
+   * @return boolean value
+   * @throws InputMismatchException if the payload is too small
+   */
+  public boolean getBoolean() {
+    checkSize(1);
+    return m_buf.get(m_dataStart) != 0;
+  }
+
+  /**
+   * Decodes the current record as an integer.
+   *
+   * @return integer value
+   * @throws InputMismatchException if the payload is too small
+   */
+  public long getInteger() {
+    checkSize(8);
+    return m_buf.getLong(m_dataStart);
+  }
+
+  /**
+   * Decodes the current record as a float.
+   *
+   * @return float value
+   * @throws InputMismatchException if the payload is too small
+   */
+  public float getFloat() {
+    checkSize(4);
+    return m_buf.getFloat(m_dataStart);
+  }
+
+  /**
+   * Decodes the current record as a double.
+   *
+   * @return double value
+   * @throws InputMismatchException if the payload is too small
+   */
+  public double getDouble() {
+    checkSize(8);
+    return m_buf.getDouble(m_dataStart);
+  }
+
+  /**
+   * Decodes the current record as a string. The returned sequence is reused.
+   *
+   * @return string value
+   */
+  public CharSequence getString() {
+    checkRecord();
+    return decodeString(m_dataStart, m_dataSize);
+  }
+
+  /**
+   * Gets the length of the current record decoded as a boolean array.
+   *
+   * @return array length
+   */
+  public int getBooleanArrayLength() {
+    checkRecord();
+    return m_dataSize;
+  }
+
+  /**
+   * Decodes an element of the current record as a boolean array.
+   *
+   * @param index array index
+   * @return boolean value
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public boolean getBoolean(int index) {
+    checkIndex(index, getBooleanArrayLength());
+    return m_buf.get(m_dataStart + index) != 0;
+  }
+
+  /**
+   * Gets the length of the current record decoded as an integer array.
+   *
+   * @return array length
+   */
+  public int getIntegerArrayLength() {
+    checkRecord();
+    return m_dataSize / 8;
+  }
+
+  /**
+   * Decodes an element of the current record as an integer array.
+   *
+   * @param index array index
+   * @return integer value
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public long getInteger(int index) {
+    checkIndex(index, getIntegerArrayLength());
+    return m_buf.getLong(m_dataStart + index * 8);
+  }
+
+  /**
+   * Gets the length of the current record decoded as a float array.
+   *
+   * @return array length
+   */
+  public int getFloatArrayLength() {
+    checkRecord();
+    return m_dataSize / 4;
+  }
+
+  /**
+   * Decodes an element of the current record as a float array.
+   *
+   * @param index array index
+   * @return float value
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public float getFloat(int index) {
+    checkIndex(index, getFloatArrayLength());
+    return m_buf.getFloat(m_dataStart + index * 4);
+  }
+
+  /**
+   * Gets the length of the current record decoded as a double array.
+   *
+   * @return array length
+   */
+  public int getDoubleArrayLength() {
+    checkRecord();
+    return m_dataSize / 8;
+  }
+
+  /**
+   * Decodes an element of the current record as a double array.
+   *
+   * @param index array index
+   * @return double value
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public double getDouble(int index) {
+    checkIndex(index, getDoubleArrayLength());
+    return m_buf.getDouble(m_dataStart + index * 8);
+  }
+
+  /**
+   * Gets the length of the current record decoded as a string array.
+   *
+   * @return array length
+   * @throws InputMismatchException if the payload isn't a valid string array
+   */
+  public int getStringArrayLength() {
+    checkRecord();
+    findStringOffsets();
+    return m_stringOffsetsCount;
+  }
+
+  /**
+   * Decodes an element of the current record as a string array. The returned sequence is reused.
+   *
+   * @param index array index
+   * @return string value
+   * @throws IndexOutOfBoundsException if the index is out of range
+   * @throws InputMismatchException if the payload isn't a valid string array
+   */
+  public CharSequence getString(int index) {
+    checkIndex(index, getStringArrayLength());
+    int offset = m_stringOffsets[index];
+    return decodeString(offset + 4, m_buf.getInt(offset));
+  }
+
+  private void checkRecord() {
+    if (m_dataStart < 0) {
+      throw new IllegalStateException("cursor is not on a record");
+    }
+  }
+
+  private void checkSize(int size) {
+    checkRecord();
+    if (m_dataSize < size) {
+      throw new InputMismatchException();
+    }
+  }
+
+  private static void checkIndex(int index, int length) {
+    if (index < 0 || index >= length) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of range for length " + length);
+    }
+  }
+
+  // storage: 4-byte array length, each string prefixed by 4-byte length
+  private void findStringOffsets() {
+    if (m_stringOffsetsCount >= 0) {
+      return;
+    }
+    int end = m_dataStart + m_dataSize;
+    if (m_dataSize < 4) {
+      throw new InputMismatchException();
+    }
+    int count = m_buf.getInt(m_dataStart);
+    // sanity check size
+    if (count < 0 || count > (m_dataSize - 4) / 4) {
+      throw new InputMismatchException("invalid size");
+    }
+    if (m_stringOffsets.length < count) {
+      m_stringOffsets = new int[Math.max(count, m_stringOffsets.length * 2)];
+    }
+    int pos = m_dataStart + 4;
+    for (int i = 0; i < count; i++) {
+      if (pos + 4 > end) {
+        throw new InputMismatchException();
+      }
+      int length = m_buf.getInt(pos);
+      if (length < 0 || length > end - pos - 4) {
+        throw new InputMismatchException("invalid string size");
+      }
+      m_stringOffsets[i] = pos;
+      pos += 4 + length;
+    }
+    m_stringOffsetsCount = count;
+  }
+
+  private CharSequence decodeString(int start, int length) {
+    // UTF-8 never decodes to more chars than bytes
+    if (m_chars.capacity() < length) {
+      m_chars = CharBuffer.allocate(Math.max(length, m_chars.capacity() * 2));
+    }
+    m_stringBytes.clear();
+    m_stringBytes.position(start);
+    m_stringBytes.limit(start + length);
+    m_chars.clear();
+    m_decoder.reset();
+    m_decoder.decode(m_stringBytes, m_chars, true);
+    m_decoder.flush(m_chars);
+    m_chars.flip();
+    return m_chars;
+  }
+
+  private long readVarInt(int pos, int len) {
+    long val = 0;
+    for (int i = 0; i < len; i++) {
+      val |= ((long) (m_buf.get(pos + i) & 0xff)) << (i * 8);
+    }
+    return val;
+  }
+
+  private final DataLogReader m_reader;
+  // The block holding the current record; positions below are within its buffer
+  private DataLogReader.Block m_block;
+  private ByteBuffer m_buf;
+  private ByteBuffer m_payload;
+  private ByteBuffer m_stringBytes;
+  private final CharsetDecoder m_decoder;
+  private CharBuffer m_chars = CharBuffer.allocate(256);
+  private int[] m_stringOffsets = new int[16];
+  private int m_stringOffsetsCount = -1;
+
+  // Log positions
+  private long m_next;
+  private long m_position;
+  private int m_entry;
+  private long m_timestamp;
+  private int m_dataStart = -1;
+  private int m_dataSize;
+}
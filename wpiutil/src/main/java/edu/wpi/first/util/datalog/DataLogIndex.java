@@ -0,0 +1,742 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.datalog;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * An index of the data records in a data log, so the records of one entry in a time window can be
+ * read without decoding the rest of the log.
+ *
+ * <p>Building the index makes one pass over the log. The log is split into chunks that are scanned
+ * in parallel; since a record's start can't be found from an arbitrary position, each chunk after
+ * the first is scanned from a guessed record boundary, and the guess is checked against where the
+ * previous chunk's records end. Chunks whose guess turns out to be wrong are rescanned.
+ *
+ * <p>Within each entry, records are sorted by timestamp (records in a log are not guaranteed to be
+ * sorted). An index can be saved to a sidecar file next to the log and loaded later instead of
+ * being rebuilt.
+ *
+ * <pre><code>
+ * DataLogIndex index = DataLogIndex.loadOrBuild(Paths.get("FRC_20230318_match.wpilog"));
+ * DataLogIndex.Entry voltage = index.getEntry("/SystemStats/BatteryVoltage");
+ * index.forEachRecord(voltage, startTime, endTime, record -&gt; plot(record.getDouble()));
+ * </code></pre>
+ */
+public final class DataLogIndex {
+  /** The file name suffix of index sidecar files written by {@link #loadOrBuild(Path)}. */
+  public static final String kSidecarSuffix = ".idx";
+
+  /** The default size of the chunks that are scanned in parallel, in bytes. */
+  public static final int kDefaultChunkSize = 16 * 1024 * 1024;
+
+  private static final long kMagic = 0x5849474F4C495057L; // "WPILOGIX" in little-endian
+  private static final int kVersion = 2;
+
+  // Number of consecutive well-formed records required to accept a guessed record boundary
+  private static final int kBoundaryProbeRecords = 8;
+
+  /** An entry in the log and the positions and timestamps of its data records. */
+  public static final class Entry {
+    private final int m_id;
+    private final String m_name;
+    private final String m_type;
+    private String m_metadata;
+    private long[] m_positions;
+    private long[] m_timestamps;
+    private int m_size;
+
+    Entry(int id, String name, String type, String metadata) {
+      this(id, name, type, metadata, new long[16], new long[16], 0);
+    }
+
+    Entry(
+        int id,
+        String name,
+        String type,
+        String metadata,
+        long[] positions,
+        long[] timestamps,
+        int size) {
+      m_id = id;
+      m_name = name;
+      m_type = type;
+      m_metadata = metadata;
+      m_positions = positions;
+      m_timestamps = timestamps;
+      m_size = size;
+    }
+
+    /**
+     * Gets the entry ID used by the entry's records.
+     *
+     * @return Entry ID
+     */
+    public int getId() {
+      return m_id;
+    }
+
+    /**
+     * Gets the entry name.
+     *
+     * @return Entry name
+     */
+    public String getName() {
+      return m_name;
+    }
+
+    /**
+     * Gets the type of the entry's data, e.g. "double".
+     *
+     * @return Data type
+     */
+    public String getType() {
+      return m_type;
+    }
+
+    /**
+     * Gets the entry's metadata. If the metadata was changed, this is the last value.
+     *
+     * @return Metadata
+     */
+    public String getMetadata() {
+      return m_metadata;
+    }
+
+    /**
+     * Gets the number of data records for the entry.
+     *
+     * @return Number of records
+     */
+    public int getRecordCount() {
+      return m_size;
+    }
+
+    /**
+     * Gets the timestamp of a record.
+     *
+     * @param index Index of the record, in timestamp order
+     * @return Timestamp in microseconds
+     */
+    public long getTimestamp(int index) {
+      if (index < 0 || index >= m_size) {
+        throw new IndexOutOfBoundsException("Index " + index + " out of range");
+      }
+      return m_timestamps[index];
+    }
+
+    /**
+     * Finds the first record at or after a time.
+     *
+     * @param timestamp Time in microseconds
+     * @return Index of the first record with a timestamp at or after the time, or the number of
+     *     records if there isn't one
+     */
+    public int lowerBound(long timestamp) {
+      int low = 0;
+      int high = m_size;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (m_timestamps[mid] < timestamp) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+
+    long getPosition(int index) {
+      return m_positions[index];
+    }
+
+    void add(long position, long timestamp) {
+      if (m_size == m_positions.length) {
+        m_positions = Arrays.copyOf(m_positions, m_size * 2);
+        m_timestamps = Arrays.copyOf(m_timestamps, m_size * 2);
+      }
+      m_positions[m_size] = position;
+      m_timestamps[m_size] = timestamp;
+      m_size++;
+    }
+
+    // Sorts the records by timestamp, keeping records with equal timestamps in log order
+    void sort() {
+      boolean sorted = true;
+      for (int i = 1; i < m_size && sorted; i++) {
+        sorted = m_timestamps[i - 1] <= m_timestamps[i];
+      }
+      if (sorted) {
+        return;
+      }
+      long[] positions = Arrays.copyOf(m_positions, m_size);
+      long[] timestamps = Arrays.copyOf(m_timestamps, m_size);
+      mergeSort(timestamps, positions, m_timestamps, m_positions, 0, m_size);
+    }
+
+    // Sorts src[from, to) into dst[from, to); src and dst must hold the same values on entry
+    private static void mergeSort(
+        long[] srcTimestamps,
+        long[] srcPositions,
+        long[] dstTimestamps,
+        long[] dstPositions,
+        int from,
+        int to) {
+      if (to - from < 2) {
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      mergeSort(dstTimestamps, dstPositions, srcTimestamps, srcPositions, from, mid);
+      mergeSort(dstTimestamps, dstPositions, srcTimestamps, srcPositions, mid, to);
+      int left = from;
+      int right = mid;
+      for (int i = from; i < to; i++) {
+        if (right >= to || (left < mid && srcTimestamps[left] <= srcTimestamps[right])) {
+          dstTimestamps[i] = srcTimestamps[left];
+          dstPositions[i] = srcPositions[left++];
+        } else {
+          dstTimestamps[i] = srcTimestamps[right];
+          dstPositions[i] = srcPositions[right++];
+        }
+      }
+    }
+  }
+
+  // Records found by scanning part of the log, in log order
+  private static final class Chunk {
+    long[] m_positions = new long[1024];
+    int[] m_entries = new int[1024];
+    long[] m_timestamps = new long[1024];
+    int m_size;
+
+    // Position of the first record that wasn't scanned, and whether it's truncated
+    long m_end;
+    boolean m_truncated;
+
+    void add(long position, int entry, long timestamp) {
+      if (m_size == m_positions.length) {
+        m_positions = Arrays.copyOf(m_positions, m_size * 2);
+        m_entries = Arrays.copyOf(m_entries, m_size * 2);
+        m_timestamps = Arrays.copyOf(m_timestamps, m_size * 2);
+      }
+      m_positions[m_size] = position;
+      m_entries[m_size] = entry;
+      m_timestamps[m_size] = timestamp;
+      m_size++;
+    }
+  }
+
+  private final DataLogReader m_reader;
+  private final List<Entry> m_entries;
+  private final Map<String, Entry> m_entriesByName = new HashMap<>();
+
+  private DataLogIndex(DataLogReader reader, List<Entry> entries) {
+    m_reader = reader;
+    m_entries = Collections.unmodifiableList(entries);
+    for (Entry entry : entries) {
+      m_entriesByName.putIfAbsent(entry.getName(), entry);
+    }
+  }
+
+  /**
+   * Builds an index of a data log on the common fork-join pool.
+   *
+   * @param reader Data log reader
+   * @return The index
+   * @throws IllegalArgumentException if the data log is invalid
+   */
+  public static DataLogIndex build(DataLogReader reader) {
+    return build(reader, ForkJoinPool.commonPool(), kDefaultChunkSize);
+  }
+
+  /**
+   * Builds an index of a data log.
+   *
+   * @param reader Data log reader
+   * @param pool The pool on which chunks of the log are scanned
+   * @param chunkSize The size of the chunks that are scanned in parallel, in bytes
+   * @return The index
+   * @throws IllegalArgumentException if the data log is invalid
+   */
+  public static DataLogIndex build(DataLogReader reader, ForkJoinPool pool, int chunkSize) {
+    if (!reader.isValid()) {
+      throw new IllegalArgumentException("not a valid data log");
+    }
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Chunk size must be positive, got " + chunkSize);
+    }
+    long size = reader.size();
+    long start = reader.getFirstRecord();
+    boolean compressed = reader.isCompressed();
+
+    // Compressed blocks start at record boundaries, so the chunks of compressed logs start at
+    // blocks; otherwise, all chunks but the first start at a guessed record boundary
+    int chunkCount = Math.max(1, (int) ((size - start + chunkSize - 1) / chunkSize));
+    long[] chunkStarts = new long[chunkCount + 1];
+    for (int i = 0; i < chunkCount; i++) {
+      chunkStarts[i] = Math.min(size, start + (long) i * chunkSize);
+      if (compressed) {
+        chunkStarts[i] = reader.getBlockBoundary(chunkStarts[i]);
+      }
+    }
+    chunkStarts[chunkCount] = size;
+
+    // Scan every chunk in parallel
+    List<ForkJoinTask<Chunk>> tasks = new ArrayList<>(chunkCount);
+    for (int i = 0; i < chunkCount; i++) {
+      long chunkStart = chunkStarts[i];
+      long chunkEnd = chunkStarts[i + 1];
+      boolean guess = i != 0 && !compressed;
+      tasks.add(pool.submit(() -> scan(reader, chunkStart, chunkEnd, guess)));
+    }
+
+    // Stitch the chunks together by following the chain of records from the start of the log
+    var entries = new ArrayList<Entry>();
+    var activeEntries = new HashMap<Integer, Entry>();
+    long pos = start;
+    for (int i = 0; i < chunkCount && pos < size; i++) {
+      long chunkEnd = chunkStarts[i + 1];
+      Chunk chunk = tasks.get(i).join();
+      if (pos >= chunkEnd) {
+        // A record spans this whole chunk
+        continue;
+      }
+      int first = Arrays.binarySearch(chunk.m_positions, 0, chunk.m_size, pos);
+      if (first < 0) {
+        // The chunk was scanned from a wrong guess
+        chunk = scan(reader, pos, chunkEnd, false);
+        first = 0;
+      }
+      for (int j = first; j < chunk.m_size; j++) {
+        addRecord(reader, entries, activeEntries, chunk, j);
+      }
+      if (chunk.m_truncated) {
+        break;
+      }
+      pos = chunk.m_end;
+    }
+
+    for (Entry entry : entries) {
+      entry.sort();
+    }
+    return new DataLogIndex(reader, entries);
+  }
+
+  /**
+   * Loads an index from a sidecar file written by {@link #save(Path)}.
+   *
+   * @param reader Data log reader for the log the index was built from
+   * @param path Path of the index file
+   * @return The index
+   * @throws IOException if the file can't be read or isn't an index of the log
+   */
+  public static DataLogIndex load(DataLogReader reader, Path path) throws IOException {
+    ByteBuffer buf;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      buf = mapped.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    try {
+      if (buf.getLong() != kMagic || buf.getInt() != kVersion) {
+        throw new IOException(path + " is not a data log index");
+      }
+      if (buf.getLong() != reader.size() || !reader.isValid()) {
+        throw new IOException(path + " is not an index of this data log");
+      }
+
+      int entryCount = buf.getInt();
+      var entries = new ArrayList<Entry>(entryCount);
+      for (int i = 0; i < entryCount; i++) {
+        int id = buf.getInt();
+        String name = readString(buf);
+        String type = readString(buf);
+        String metadata = readString(buf);
+        int recordCount = buf.getInt();
+        long[] positions = new long[recordCount];
+        long[] timestamps = new long[recordCount];
+        buf.asLongBuffer().get(positions);
+        buf.position(buf.position() + recordCount * 8);
+        buf.asLongBuffer().get(timestamps);
+        buf.position(buf.position() + recordCount * 8);
+
+        // Spot check that the index matches the log
+        if (recordCount > 0 && reader.getRecord(positions[0]).getEntry() != id) {
+          throw new IOException(path + " is not an index of this data log");
+        }
+        entries.add(new Entry(id, name, type, metadata, positions, timestamps, recordCount));
+      }
+      return new DataLogIndex(reader, entries);
+    } catch (BufferUnderflowException
+        | IndexOutOfBoundsException
+        | NegativeArraySizeException
+        | NoSuchElementException ex) {
+      throw new IOException(path + " is truncated or corrupt", ex);
+    }
+  }
+
+  /**
+   * Loads the index of a data log from its sidecar file, or builds the index and saves it to the
+   * sidecar file if the sidecar doesn't exist, is older than the log, or is invalid. The sidecar
+   * file has the log's path with {@link #kSidecarSuffix} appended.
+   *
+   * @param logPath Path of the data log
+   * @return The index
+   * @throws IOException if the log can't be read, or the sidecar file can't be written
+   */
+  public static DataLogIndex loadOrBuild(Path logPath) throws IOException {
+    return loadOrBuild(logPath, Paths.get(logPath.toString() + kSidecarSuffix));
+  }
+
+  /**
+   * Loads the index of a data log from a sidecar file, or builds the index and saves it to the
+   * sidecar file if the sidecar doesn't exist, is older than the log, or is invalid.
+   *
+   * @param logPath Path of the data log
+   * @param indexPath Path of the sidecar file
+   * @return The index
+   * @throws IOException if the log can't be read, or the sidecar file can't be written
+   */
+  public static DataLogIndex loadOrBuild(Path logPath, Path indexPath) throws IOException {
+    var reader = new DataLogReader(logPath.toString());
+    if (Files.exists(indexPath)
+        && Files.getLastModifiedTime(indexPath).compareTo(Files.getLastModifiedTime(logPath))
+            >= 0) {
+      try {
+        return load(reader, indexPath);
+      } catch (IOException ex) {
+        // Rebuild the index below
+      }
+    }
+    if (!reader.isValid()) {
+      throw new IOException(logPath + " is not a valid data log");
+    }
+    var index = build(reader);
+    index.save(indexPath);
+    return index;
+  }
+
+  /**
+   * Saves the index to a sidecar file so it can be loaded with {@link #load(DataLogReader, Path)}.
+   *
+   * @param path Path of the index file
+   * @throws IOException if the file can't be written
+   */
+  public void save(Path path) throws IOException {
+    long size = 24;
+    var strings = new byte[m_entries.size() * 3][];
+    for (int i = 0; i < m_entries.size(); i++) {
+      Entry entry = m_entries.get(i);
+      strings[i * 3] = entry.getName().getBytes(StandardCharsets.UTF_8);
+      strings[i * 3 + 1] = entry.getType().getBytes(StandardCharsets.UTF_8);
+      strings[i * 3 + 2] = entry.getMetadata().getBytes(StandardCharsets.UTF_8);
+      size +=
+          20L
+              + strings[i * 3].length
+              + strings[i * 3 + 1].length
+              + strings[i * 3 + 2].length
+              + entry.getRecordCount() * 16L;
+    }
+    if (size > Integer.MAX_VALUE) {
+      throw new IOException("index is too large to save");
+    }
+
+    var buf = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+    buf.putLong(kMagic);
+    buf.putInt(kVersion);
+    buf.putLong(m_reader.size());
+    buf.putInt(m_entries.size());
+    for (int i = 0; i < m_entries.size(); i++) {
+      Entry entry = m_entries.get(i);
+      buf.putInt(entry.getId());
+      for (int j = 0; j < 3; j++) {
+        buf.putInt(strings[i * 3 + j].length);
+        buf.put(strings[i * 3 + j]);
+      }
+      buf.putInt(entry.m_size);
+      buf.asLongBuffer().put(entry.m_positions, 0, entry.m_size);
+      buf.position(buf.position() + entry.m_size * 8);
+      buf.asLongBuffer().put(entry.m_timestamps, 0, entry.m_size);
+      buf.position(buf.position() + entry.m_size * 8);
+    }
+    buf.flip();
+
+    try (FileChannel channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (buf.hasRemaining()) {
+        channel.write(buf);
+      }
+    }
+  }
+
+  /**
+   * Gets the data log reader the index was built from.
+   *
+   * @return Data log reader
+   */
+  public DataLogReader getReader() {
+    return m_reader;
+  }
+
+  /**
+   * Gets all entries in the log, in the order they were started. If an entry ID was reused after
+   * its entry was finished, each use is a separate entry.
+   *
+   * @return Entries
+   */
+  public List<Entry> getEntries() {
+    return m_entries;
+  }
+
+  /**
+   * Gets an entry by name. If several entries have the name, the first one started is returned.
+   *
+   * @param name Entry name
+   * @return The entry, or null if there's no entry with the name
+   */
+  public Entry getEntry(String name) {
+    return m_entriesByName.get(name);
+  }
+
+  /**
+   * Gets a data record of an entry.
+   *
+   * @param entry Entry
+   * @param index Index of the record, in timestamp order
+   * @return Data record
+   */
+  public DataLogRecord getRecord(Entry entry, int index) {
+    if (index < 0 || index >= entry.getRecordCount()) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of range");
+    }
+    return m_reader.getRecord(entry.getPosition(index));
+  }
+
+  /**
+   * Calls an action for each data record of an entry in a time window, in timestamp order.
+   *
+   * @param entry Entry
+   * @param startTimestamp Start of the window in microseconds, inclusive
+   * @param endTimestamp End of the window in microseconds, inclusive
+   * @param action Action to call for each record
+   */
+  public void forEachRecord(
+      Entry entry, long startTimestamp, long endTimestamp, Consumer<? super DataLogRecord> action) {
+    int size = entry.getRecordCount();
+    for (int i = entry.lowerBound(startTimestamp);
+        i < size && entry.m_timestamps[i] <= endTimestamp;
+        i++) {
+      action.accept(m_reader.getRecord(entry.getPosition(i)));
+    }
+  }
+
+  /**
+   * Gets the data records of an entry in a time window, in timestamp order.
+   *
+   * @param entry Entry
+   * @param startTimestamp Start of the window in microseconds, inclusive
+   * @param endTimestamp End of the window in microseconds, inclusive
+   * @return Data records
+   */
+  public List<DataLogRecord> getRecords(Entry entry, long startTimestamp, long endTimestamp) {
+    var records = new ArrayList<DataLogRecord>();
+    forEachRecord(entry, startTimestamp, endTimestamp, records::add);
+    return records;
+  }
+
+  private static void addRecord(
+      DataLogReader reader,
+      List<Entry> entries,
+      Map<Integer, Entry> activeEntries,
+      Chunk chunk,
+      int index) {
+    int id = chunk.m_entries[index];
+    if (id != 0) {
+      Entry entry = activeEntries.get(id);
+      if (entry != null) {
+        entry.add(chunk.m_positions[index], chunk.m_timestamps[index]);
+      }
+      return;
+    }
+
+    DataLogRecord record = reader.getRecord(chunk.m_positions[index]);
+    if (record.isStart()) {
+      var data = record.getStartData();
+      var entry = new Entry(data.entry, data.name, data.type, data.metadata);
+      entries.add(entry);
+      activeEntries.put(data.entry, entry);
+    } else if (record.isFinish()) {
+      activeEntries.remove(record.getFinishEntry());
+    } else if (record.isSetMetadata()) {
+      var data = record.getSetMetadataData();
+      Entry entry = activeEntries.get(data.entry);
+      if (entry != null) {
+        entry.m_metadata = data.metadata;
+      }
+    }
+  }
+
+  /**
+   * Scans the records in part of a log.
+   *
+   * @param reader Data log reader
+   * @param from Position at which to start scanning
+   * @param to Records starting at or after this position aren't scanned
+   * @param guess If true, scanning starts at the first position at or after from that looks like a
+   *     record boundary instead of at from
+   * @return The scanned records
+   */
+  private static Chunk scan(DataLogReader reader, long from, long to, boolean guess) {
+    var chunk = new Chunk();
+    long pos = from;
+    DataLogReader.Block block = null;
+    while (pos < to) {
+      if (block == null || pos >= block.m_end) {
+        block = reader.getBlock(pos);
+      }
+      // Records end within the block's buffer, so positions within it are used to read the record
+      ByteBuffer buf = block.m_buf;
+      int size = buf.limit();
+      int local = (int) (pos - block.m_start);
+      if (guess) {
+        // Keep guessing in the next block if there's no boundary in this one
+        int end = (int) (Math.min(to, block.m_end) - block.m_start);
+        while (local < end && !isLikelyBoundary(buf, local, size)) {
+          local++;
+        }
+        pos = block.m_start + local;
+        guess = local >= end;
+        continue;
+      }
+
+      int next = nextRecord(buf, local, size, false);
+      if (next < 0) {
+        chunk.m_truncated = true;
+        break;
+      }
+      int lenbyte = buf.get(local) & 0xff;
+      int entryLen = (lenbyte & 0x3) + 1;
+      int sizeLen = ((lenbyte >> 2) & 0x3) + 1;
+      int timestampLen = ((lenbyte >> 4) & 0x7) + 1;
+      chunk.add(
+          pos,
+          (int) readVarInt(buf, local + 1, entryLen),
+          readVarInt(buf, local + 1 + entryLen + sizeLen, timestampLen));
+      pos = block.m_start + next;
+    }
+    chunk.m_end = pos;
+    return chunk;
+  }
+
+  // The writer encodes headers minimally, so a run of minimally encoded headers is very likely to
+  // start at a real record boundary
+  private static boolean isLikelyBoundary(ByteBuffer buf, int pos, int size) {
+    for (int i = 0; i < kBoundaryProbeRecords && pos < size; i++) {
+      pos = nextRecord(buf, pos, size, true);
+      if (pos < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Gets the position after a record.
+   *
+   * @param buf Block buffer
+   * @param pos Position of the record in the block
+   * @param size Size of the block
+   * @param strict If true, the record's header must be encoded as the writer encodes it
+   * @return Position after the record, or -1 if the record is truncated or isn't well formed
+   */
+  private static int nextRecord(ByteBuffer buf, int pos, int size, boolean strict) {
+    if (pos >= size) {
+      return -1;
+    }
+    int lenbyte = buf.get(pos) & 0xff;
+    int entryLen = (lenbyte & 0x3) + 1;
+    int sizeLen = ((lenbyte >> 2) & 0x3) + 1;
+    int timestampLen = ((lenbyte >> 4) & 0x7) + 1;
+    int headerLen = 1 + entryLen + sizeLen + timestampLen;
+    if ((long) pos + headerLen > size) {
+      return -1;
+    }
+    long payloadSize = readVarInt(buf, pos + 1 + entryLen, sizeLen);
+    long end = pos + headerLen + payloadSize;
+    if (end > size) {
+      return -1;
+    }
+    if (strict && !isWellFormed(buf, pos, entryLen, sizeLen, timestampLen, payloadSize)) {
+      return -1;
+    }
+    return (int) end;
+  }
+
+  private static boolean isWellFormed(
+      ByteBuffer buf, int pos, int entryLen, int sizeLen, int timestampLen, long payloadSize) {
+    int lenbyte = buf.get(pos) & 0xff;
+    if ((lenbyte & 0x80) != 0
+        || !isMinimal(buf, pos + 1, entryLen)
+        || !isMinimal(buf, pos + 1 + entryLen, sizeLen)
+        || !isMinimal(buf, pos + 1 + entryLen + sizeLen, timestampLen)) {
+      return false;
+    }
+    // The writer never writes a zero timestamp
+    if (timestampLen == 1 && buf.get(pos + 1 + entryLen + sizeLen) == 0) {
+      return false;
+    }
+    // Control records start with a control type and an entry ID
+    if (entryLen == 1 && buf.get(pos + 1) == 0) {
+      if (payloadSize < 5) {
+        return false;
+      }
+      int control = buf.get(pos + 1 + entryLen + sizeLen + timestampLen);
+      return control >= 0 && control <= 2;
+    }
+    return true;
+  }
+
+  private static boolean isMinimal(ByteBuffer buf, int pos, int len) {
+    return len == 1 || buf.get(pos + len - 1) != 0;
+  }
+
+  private static long readVarInt(ByteBuffer buf, int pos, int len) {
+    long val = 0;
+    for (int i = 0; i < len; i++) {
+      val |= ((long) (buf.get(pos + i) & 0xff)) << (i * 8);
+    }
+    return val;
+  }
+
+  private static String readString(ByteBuffer buf) {
+    byte[] bytes = new byte[buf.getInt()];
+    buf.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -5,12 +5,15 @@
 package edu.wpi.first.util.datalog;
 
 import edu.wpi.first.util.WPIUtilJNI;
+import java.nio.ByteBuffer;
 
 public class DataLogJNI extends WPIUtilJNI {
   static native long create(String dir, String filename, double period, String extraHeader);
 
   static native void setFilename(long impl, String filename);
 
+  static native void setSegmentLimits(long impl, long maxBytes, double maxTime);
+
   static native void flush(long impl);
 
   static native void pause(long impl);
@@ -46,4 +49,6 @@ public class DataLogJNI extends WPIUtilJNI {
   static native void appendDoubleArray(long impl, int entry, double[] value, long timestamp);
 
   static native void appendStringArray(long impl, int entry, String[] value, long timestamp);
+
+  static native void appendBatch(long impl, ByteBuffer batch, int length);
 }
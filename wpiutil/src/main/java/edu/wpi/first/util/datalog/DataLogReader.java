@@ -12,10 +12,27 @@ import java.nio.ByteOrder;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.InputMismatchException;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 
-/** Data log reader (reads logs written by the DataLog class). */
+/**
+ * Data log reader (reads logs written by the DataLog class).
+ *
+ * <p>Compressed logs written by {@link JavaDataLog} are read transparently. Their blocks are
+ * decompressed when their records are accessed, and only a limited number of decompressed blocks
+ * are kept in memory. Blocks are decompressed in parallel when the log is read in order.
+ *
+ * <p>Logs larger than 2 GB must be read from a file, which is mapped in overlapping windows of 1
+ * GB; records must be smaller than 1 GB.
+ */
 public class DataLogReader implements Iterable<DataLogRecord> {
   /**
    * Constructs from a byte buffer.
@@ -25,6 +42,10 @@ public class DataLogReader implements Iterable<DataLogRecord> {
   public DataLogReader(ByteBuffer buffer) {
     m_buf = buffer;
     m_buf.order(ByteOrder.LITTLE_ENDIAN);
+    m_windows = new ByteBuffer[] {m_buf};
+    m_windowSize = Long.MAX_VALUE;
+    m_size = m_buf.remaining();
+    initBlocks();
   }
 
   /**
@@ -34,13 +55,47 @@ public class DataLogReader implements Iterable<DataLogRecord> {
    * @throws IOException if could not open/read file
    */
   public DataLogReader(String filename) throws IOException {
-    RandomAccessFile f = new RandomAccessFile(filename, "r");
-    FileChannel channel = f.getChannel();
-    MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
-    m_buf = buf;
-    m_buf.order(ByteOrder.LITTLE_ENDIAN);
-    channel.close();
-    f.close();
+    this(filename, kWindowSize);
+  }
+
+  /**
+   * Constructs from a file, mapping it in windows of the given size.
+   *
+   * @param filename filename
+   * @param windowSize distance between the starts of windows; each window maps twice this size,
+   *     so records must be smaller than it
+   * @throws IOException if could not open/read file
+   */
+  DataLogReader(String filename, int windowSize) throws IOException {
+    try (RandomAccessFile f = new RandomAccessFile(filename, "r");
+        FileChannel channel = f.getChannel()) {
+      m_size = channel.size();
+      m_windowSize = windowSize;
+      m_windows = new ByteBuffer[(int) Math.max(1, (m_size + windowSize - 1) / windowSize)];
+      for (int i = 0; i < m_windows.length; i++) {
+        long start = (long) i * windowSize;
+        long length = Math.min(m_size - start, 2L * windowSize - 1);
+        MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        m_windows[i] = buf.order(ByteOrder.LITTLE_ENDIAN);
+      }
+    }
+    m_buf = m_windows[0];
+    initBlocks();
+  }
+
+  private void initBlocks() {
+    if (isCompressed()) {
+      findBlocks();
+      m_blocks = new Block[] {new Block(-1, m_buf, 0, getFirstRecord())};
+    } else {
+      // Records starting in a window are read from it; it maps enough past its end for them
+      m_blocks = new Block[m_windows.length];
+      for (int i = 0; i < m_windows.length; i++) {
+        long start = i * m_windowSize;
+        long end = Math.min(m_size, start + m_windowSize);
+        m_blocks[i] = new Block(i, m_windows[i], start, end);
+      }
+    }
   }
 
   /**
@@ -50,12 +105,7 @@ public class DataLogReader implements Iterable<DataLogRecord> {
    */
   public boolean isValid() {
     return m_buf.remaining() >= 12
-        && m_buf.get(0) == 'W'
-        && m_buf.get(1) == 'P'
-        && m_buf.get(2) == 'I'
-        && m_buf.get(3) == 'L'
-        && m_buf.get(4) == 'O'
-        && m_buf.get(5) == 'G'
+        && (hasMagic(kMagic) || hasMagic(kCompressedMagic))
         && m_buf.getShort(6) >= 0x0100;
   }
 
@@ -72,6 +122,24 @@ public class DataLogReader implements Iterable<DataLogRecord> {
     return m_buf.getShort(6);
   }
 
+  /**
+   * Returns true if the data log is made of compressed blocks.
+   *
+   * @return True if compressed, false otherwise
+   */
+  public boolean isCompressed() {
+    return isValid() && hasMagic(kCompressedMagic);
+  }
+
+  private boolean hasMagic(String magic) {
+    for (int i = 0; i < magic.length(); i++) {
+      if (m_buf.get(i) != magic.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * Gets the extra header data.
    *
@@ -89,8 +157,8 @@ public class DataLogReader implements Iterable<DataLogRecord> {
 
   @Override
   public void forEach(Consumer<? super DataLogRecord> action) {
-    int size = m_buf.remaining();
-    for (int pos = 12 + m_buf.getInt(8); pos < size; pos = getNextRecord(pos)) {
+    long size = size();
+    for (long pos = getFirstRecord(); pos < size; pos = getNextRecord(pos)) {
       DataLogRecord record;
       try {
         record = getRecord(pos);
@@ -101,32 +169,182 @@ public class DataLogReader implements Iterable<DataLogRecord> {
     }
   }
 
+  /**
+   * Visits every record in the log, in log order, decoding data records according to the type in
+   * their entry's start record. Unlike iterating over the reader, this doesn't create objects for
+   * data records.
+   *
+   * @param visitor Visitor to call for each record
+   */
+  public void visit(DataLogVisitor visitor) {
+    var cursor = new DataLogCursor(this);
+    // Entry types, indexed by entry ID; IDs are assigned sequentially, so this stays small
+    byte[] types = new byte[256];
+    Map<Integer, Byte> largeIdTypes = new HashMap<>();
+
+    while (cursor.next()) {
+      int entry = cursor.getEntry();
+      long timestamp = cursor.getTimestamp();
+      if (entry == 0) {
+        if (cursor.isStart()) {
+          var data = cursor.getRecord().getStartData();
+          byte type = getTypeCode(data.type);
+          if (data.entry > 0 && data.entry < kMaxDirectEntry) {
+            if (data.entry >= types.length) {
+              types = Arrays.copyOf(types, Math.max(data.entry + 1, types.length * 2));
+            }
+            types[data.entry] = type;
+          } else {
+            largeIdTypes.put(data.entry, type);
+          }
+          visitor.visitStart(data, timestamp);
+        } else if (cursor.isFinish()) {
+          int finished = cursor.getRecord().getFinishEntry();
+          if (finished > 0 && finished < types.length) {
+            types[finished] = kTypeUnknown;
+          } else {
+            largeIdTypes.remove(finished);
+          }
+          visitor.visitFinish(finished, timestamp);
+        } else if (cursor.isSetMetadata()) {
+          visitor.visitSetMetadata(cursor.getRecord().getSetMetadataData(), timestamp);
+        }
+        continue;
+      }
+
+      byte type;
+      if (entry > 0 && entry < types.length) {
+        type = types[entry];
+      } else {
+        type = largeIdTypes.getOrDefault(entry, kTypeUnknown);
+      }
+      visitData(visitor, cursor, type, entry, timestamp);
+    }
+  }
+
+  private static void visitData(
+      DataLogVisitor visitor, DataLogCursor cursor, byte type, int entry, long timestamp) {
+    int size = cursor.getSize();
+    switch (type) {
+      case kTypeBoolean:
+        if (size == 1) {
+          visitor.visitBoolean(entry, timestamp, cursor.getBoolean());
+          return;
+        }
+        break;
+      case kTypeInteger:
+        if (size == 8) {
+          visitor.visitInteger(entry, timestamp, cursor.getInteger());
+          return;
+        }
+        break;
+      case kTypeFloat:
+        if (size == 4) {
+          visitor.visitFloat(entry, timestamp, cursor.getFloat());
+          return;
+        }
+        break;
+      case kTypeDouble:
+        if (size == 8) {
+          visitor.visitDouble(entry, timestamp, cursor.getDouble());
+          return;
+        }
+        break;
+      case kTypeString:
+        visitor.visitString(entry, timestamp, cursor.getString());
+        return;
+      case kTypeBooleanArray:
+        visitor.visitBooleanArray(entry, timestamp, cursor);
+        return;
+      case kTypeIntegerArray:
+        if (size % 8 == 0) {
+          visitor.visitIntegerArray(entry, timestamp, cursor);
+          return;
+        }
+        break;
+      case kTypeFloatArray:
+        if (size % 4 == 0) {
+          visitor.visitFloatArray(entry, timestamp, cursor);
+          return;
+        }
+        break;
+      case kTypeDoubleArray:
+        if (size % 8 == 0) {
+          visitor.visitDoubleArray(entry, timestamp, cursor);
+          return;
+        }
+        break;
+      case kTypeStringArray:
+        try {
+          cursor.getStringArrayLength();
+        } catch (InputMismatchException ex) {
+          break;
+        }
+        visitor.visitStringArray(entry, timestamp, cursor);
+        return;
+      default:
+        break;
+    }
+    visitor.visitRaw(entry, timestamp, cursor.getRawBuffer());
+  }
+
+  private static byte getTypeCode(String type) {
+    switch (type) {
+      case "boolean":
+        return kTypeBoolean;
+      case "int64":
+        return kTypeInteger;
+      case "float":
+        return kTypeFloat;
+      case "double":
+        return kTypeDouble;
+      case "string":
+      case "json":
+        return kTypeString;
+      case "boolean[]":
+        return kTypeBooleanArray;
+      case "int64[]":
+        return kTypeIntegerArray;
+      case "float[]":
+        return kTypeFloatArray;
+      case "double[]":
+        return kTypeDoubleArray;
+      case "string[]":
+        return kTypeStringArray;
+      default:
+        return kTypeRaw;
+    }
+  }
+
   @Override
   public DataLogIterator iterator() {
-    return new DataLogIterator(this, 12 + m_buf.getInt(8));
+    return new DataLogIterator(this, getFirstRecord());
   }
 
-  private long readVarInt(int pos, int len) {
+  private static long readVarInt(ByteBuffer buf, int pos, int len) {
     long val = 0;
     for (int i = 0; i < len; i++) {
-      val |= ((long) (m_buf.get(pos + i) & 0xff)) << (i * 8);
+      val |= ((long) (buf.get(pos + i) & 0xff)) << (i * 8);
     }
     return val;
   }
 
   @SuppressWarnings("PMD.PreserveStackTrace")
-  DataLogRecord getRecord(int pos) {
+  DataLogRecord getRecord(long position) {
+    Block block = getBlock(position);
+    ByteBuffer buf = block.m_buf;
+    int pos = (int) (position - block.m_start);
     try {
-      int lenbyte = m_buf.get(pos) & 0xff;
+      int lenbyte = buf.get(pos) & 0xff;
       int entryLen = (lenbyte & 0x3) + 1;
       int sizeLen = ((lenbyte >> 2) & 0x3) + 1;
       int timestampLen = ((lenbyte >> 4) & 0x7) + 1;
       int headerLen = 1 + entryLen + sizeLen + timestampLen;
-      int entry = (int) readVarInt(pos + 1, entryLen);
-      int size = (int) readVarInt(pos + 1 + entryLen, sizeLen);
-      long timestamp = readVarInt(pos + 1 + entryLen + sizeLen, timestampLen);
+      int entry = (int) readVarInt(buf, pos + 1, entryLen);
+      int size = (int) readVarInt(buf, pos + 1 + entryLen, sizeLen);
+      long timestamp = readVarInt(buf, pos + 1 + entryLen + sizeLen, timestampLen);
       // build a slice of the data contents
-      ByteBuffer data = m_buf.duplicate();
+      ByteBuffer data = buf.duplicate();
       data.position(pos + headerLen);
       data.limit(pos + headerLen + size);
       return new DataLogRecord(entry, timestamp, data.slice());
@@ -135,23 +353,254 @@ public class DataLogReader implements Iterable<DataLogRecord> {
     }
   }
 
-  int getNextRecord(int pos) {
-    int lenbyte = m_buf.get(pos) & 0xff;
+  long getNextRecord(long pos) {
+    Block block = getBlock(pos);
+    ByteBuffer buf = block.m_buf;
+    int local = (int) (pos - block.m_start);
+    int lenbyte = buf.get(local) & 0xff;
     int entryLen = (lenbyte & 0x3) + 1;
     int sizeLen = ((lenbyte >> 2) & 0x3) + 1;
     int timestampLen = ((lenbyte >> 4) & 0x7) + 1;
     int headerLen = 1 + entryLen + sizeLen + timestampLen;
 
-    int size = 0;
-    for (int i = 0; i < sizeLen; i++) {
-      size |= ((int) (m_buf.get(pos + 1 + entryLen + i) & 0xff)) << (i * 8);
+    return pos + headerLen + readVarInt(buf, local + 1 + entryLen, sizeLen);
+  }
+
+  /**
+   * Gets the size of the log. For compressed logs, this is the size the log would have
+   * uncompressed.
+   */
+  long size() {
+    return m_blockStarts != null ? m_blockStarts[m_blockCount] : m_size;
+  }
+
+  /** Gets the position of the first record. */
+  long getFirstRecord() {
+    return 12 + (m_buf.getInt(8) & 0xffffffffL);
+  }
+
+  /**
+   * A part of the log from which the records starting in it are read. An uncompressed log has a
+   * block for each window of the file it's mapped in; a compressed log has a block for the header
+   * and one for each compressed block.
+   */
+  static final class Block {
+    /** Index of the block in the log, or -1 for the header of a compressed log. */
+    final int m_index;
+
+    /** Block contents; index 0 of the buffer is at log position m_start. */
+    final ByteBuffer m_buf;
+
+    /** Log position of the start of the block. */
+    final long m_start;
+
+    /**
+     * Log position after the block; records starting before it are read from the block, and end
+     * within its buffer. The buffer of a window extends past this, as records may cross into the
+     * next window. A block that can't be decompressed is empty.
+     */
+    final long m_end;
+
+    Block(int index, ByteBuffer buf, long start, long end) {
+      m_index = index;
+      m_buf = buf;
+      m_start = start;
+      m_end = end;
+    }
+  }
+
+  /**
+   * Gets the block containing a log position. Compressed blocks are decompressed on demand and a
+   * limited number of them are cached. When blocks are read in order, the blocks after the
+   * requested one are decompressed in parallel with it.
+   *
+   * @param pos Log position
+   * @return Block
+   */
+  Block getBlock(long pos) {
+    if (m_blockStarts == null) {
+      return m_blocks[(int) Math.min(m_blocks.length - 1, Math.max(0, pos / m_windowSize))];
+    }
+    int index = Arrays.binarySearch(m_blockStarts, 0, m_blockCount, pos);
+    if (index < 0) {
+      index = -index - 2;
+    }
+    if (index < 0) {
+      return m_blocks[0];
     }
-    return pos + headerLen + size;
+    Block block = getCachedBlock(index);
+    if (block != null) {
+      return block;
+    }
+
+    int first = index;
+    int end = index + 1;
+    if (getCachedBlock(index - 1) != null) {
+      end = Math.min(m_blockCount, index + kReadAhead);
+    }
+    Block[] blocks = new Block[end - first];
+    IntStream.range(first, end).parallel().forEach(i -> blocks[i - first] = inflateBlock(i));
+    for (Block inflated : blocks) {
+      m_cache.set(inflated.m_index % kCacheSize, inflated);
+    }
+    return blocks[0];
+  }
+
+  /**
+   * Gets the first position at or after a log position where a block of a compressed log starts,
+   * without decompressing anything.
+   *
+   * @param pos Log position, at most the size of the log
+   * @return Position of the block, or the size of the log if there are no more blocks
+   */
+  long getBlockBoundary(long pos) {
+    int index = Arrays.binarySearch(m_blockStarts, 0, m_blockCount + 1, pos);
+    return m_blockStarts[index < 0 ? -index - 1 : index];
   }
 
-  int size() {
-    return m_buf.remaining();
+  private Block getCachedBlock(int index) {
+    if (index < 0) {
+      return null;
+    }
+    Block block = m_cache.get(index % kCacheSize);
+    return block != null && block.m_index == index ? block : null;
   }
 
+  /**
+   * Finds the blocks of a compressed log by hopping from block header to block header. Each block
+   * is a 4-byte compressed size, a 4-byte decompressed size, and a zlib stream of whole records, so
+   * blocks can be decompressed independently. The log ends at the first truncated block (e.g. the
+   * block being written when the robot lost power).
+   */
+  private void findBlocks() {
+    long headerSize = getFirstRecord();
+    long size = m_size;
+
+    int count = 0;
+    long[] inputs = new long[16];
+    long[] starts = new long[16];
+    long total = headerSize;
+    long pos = headerSize;
+    while (pos <= size - kBlockHeaderSize) {
+      ByteBuffer window = getWindow(pos);
+      int offset = (int) (pos % m_windowSize);
+      int compressedSize = window.getInt(offset);
+      int decompressedSize = window.getInt(offset + 4);
+      if (compressedSize < 0
+          || compressedSize > size - pos - kBlockHeaderSize
+          || decompressedSize < 0) {
+        break;
+      }
+      if (count + 1 >= inputs.length) {
+        inputs = Arrays.copyOf(inputs, inputs.length * 2);
+        starts = Arrays.copyOf(starts, starts.length * 2);
+      }
+      // Skip empty blocks so every block starts at a distinct position
+      if (decompressedSize > 0) {
+        inputs[count] = pos;
+        starts[count] = total;
+        count++;
+      }
+      total += decompressedSize;
+      pos += kBlockHeaderSize + compressedSize;
+    }
+    inputs[count] = pos;
+    starts[count] = total;
+
+    m_blockInputs = inputs;
+    m_blockStarts = starts;
+    m_blockCount = count;
+  }
+
+  private Block inflateBlock(int index) {
+    long start = m_blockStarts[index];
+    long end = m_blockStarts[index + 1];
+    long inputStart = m_blockInputs[index] + kBlockHeaderSize;
+    ByteBuffer input = getWindow(inputStart).duplicate();
+    int offset = (int) (inputStart % m_windowSize);
+    long inputEnd = offset + m_blockInputs[index + 1] - inputStart;
+    ByteBuffer output = ByteBuffer.allocate((int) (end - start));
+    var inflater = new Inflater();
+    try {
+      if (inputEnd > input.limit()) {
+        // Compressed blocks must fit in the window they start in
+        throw new DataFormatException("block larger than a window");
+      }
+      input.limit((int) inputEnd).position(offset);
+      inflater.setInput(input);
+      while (!inflater.finished() && output.hasRemaining()) {
+        if (inflater.inflate(output) == 0
+            && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+      }
+      if (!inflater.finished() || output.hasRemaining()) {
+        end = start;
+      }
+    } catch (DataFormatException ex) {
+      end = start;
+    } finally {
+      inflater.end();
+    }
+    output.clear();
+    output.limit((int) (end - start));
+    return new Block(index, output.order(ByteOrder.LITTLE_ENDIAN), start, end);
+  }
+
+  // Gets the window of the file that a position is at the start of
+  private ByteBuffer getWindow(long pos) {
+    return m_windows[(int) (pos / m_windowSize)];
+  }
+
+  /** Magic of uncompressed logs. */
+  static final String kMagic = "WPILOG";
+
+  /**
+   * Magic of compressed logs. It differs from the uncompressed magic so readers that only support
+   * uncompressed logs reject compressed logs instead of decoding the blocks as records.
+   */
+  static final String kCompressedMagic = "WPILGZ";
+
+  /** Size of the header of each compressed block. */
+  static final int kBlockHeaderSize = 8;
+
+  // Distance between the starts of the windows a file is mapped in
+  private static final int kWindowSize = 1 << 30;
+
+  // Number of decompressed blocks that are cached
+  private static final int kCacheSize = 256;
+  // Number of blocks that are decompressed at once when blocks are read in order
+  private static final int kReadAhead = 16;
+
+  private static final int kMaxDirectEntry = 1 << 16;
+  private static final byte kTypeUnknown = 0;
+  private static final byte kTypeRaw = 1;
+  private static final byte kTypeBoolean = 2;
+  private static final byte kTypeInteger = 3;
+  private static final byte kTypeFloat = 4;
+  private static final byte kTypeDouble = 5;
+  private static final byte kTypeString = 6;
+  private static final byte kTypeBooleanArray = 7;
+  private static final byte kTypeIntegerArray = 8;
+  private static final byte kTypeFloatArray = 9;
+  private static final byte kTypeDoubleArray = 10;
+  private static final byte kTypeStringArray = 11;
+
+  // The start of the log, including the header
   private final ByteBuffer m_buf;
+
+  // The log mapped in windows starting every m_windowSize bytes; a byte buffer is a single window
+  private final ByteBuffer[] m_windows;
+  private final long m_windowSize;
+  private final long m_size;
+
+  // For uncompressed logs, a block for each window; for compressed logs, the header
+  private Block[] m_blocks;
+
+  // Compressed logs only: the file positions of the blocks and the log positions of their records,
+  // each followed by the end of the last block
+  private long[] m_blockInputs;
+  private long[] m_blockStarts;
+  private int m_blockCount;
+  private final AtomicReferenceArray<Block> m_cache = new AtomicReferenceArray<>(kCacheSize);
 }
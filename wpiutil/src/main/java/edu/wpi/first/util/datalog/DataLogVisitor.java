@@ -0,0 +1,147 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.datalog;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Receives the records of a data log, decoded according to their entry's type, from {@link
+ * DataLogReader#visit(DataLogVisitor)}. Every method does nothing by default, so implementations
+ * only override the types they care about.
+ *
+ * <p>Array values are passed as the {@link DataLogCursor} positioned on the record, so they can be
+ * read element by element without copying. Like other values from the cursor, the cursor, strings,
+ * and buffers passed to these methods are only valid until the method returns.
+ */
+public interface DataLogVisitor {
+  /**
+   * Called for a start control record.
+   *
+   * @param data Start record data
+   * @param timestamp Timestamp (integer microseconds)
+   */
+  default void visitStart(DataLogRecord.StartRecordData data, long timestamp) {}
+
+  /**
+   * Called for a finish control record.
+   *
+   * @param entry Entry ID
+   * @param timestamp Timestamp (integer microseconds)
+   */
+  default void visitFinish(int entry, long timestamp) {}
+
+  /**
+   * Called for a set metadata control record.
+   *
+   * @param data Set metadata record data
+   * @param timestamp Timestamp (integer microseconds)
+   */
+  default void visitSetMetadata(DataLogRecord.MetadataRecordData data, long timestamp) {}
+
+  /**
+   * Called for a record of a "boolean" entry.
+   *
+   * @param entry Entry ID
+   * @param timestamp Timestamp (integer microseconds)
+   * @param value Value
+   */
+  default void visitBoolean(int entry, long timestamp, boolean value) {}
+
+  /**
+   * Called for a record of an "int64" entry.
+   *
+   * @param entry Entry ID
+   * @param timestamp Timestamp (integer microseconds)
+   * @param value Value
+   */
+  default void visitInteger(int entry, long timestamp, long value) {}
+
+  /**
+   * Called for a record of a "float" entry.
+   *
+   * @param entry Entry ID
+   * @param timestamp Timestamp (integer microseconds)
+   * @param value Value
+   */
+  default void visitFloat(int entry, long timestamp, float value) {}
+
+  /**
+   * Called for a record of a "double" entry.
+   *
+   * @param entry Entry ID
+   * @param timestamp Timestamp (integer microseconds)
+   * @param value Value
+   */
+  default void visitDouble(int entry, long timestamp, double value) {}
+
+  /**
+   * Called for a record of a "string" or "json" entry.
+   *
+   * @param entry Entry ID
+   * @param timestamp Timestamp (integer microseconds)
+   * @param value Value; reused after this method returns
+   */
+  default void visitString(int entry, long timestamp, CharSequence value) {}
+
+  /**
+   * Called for a record of a "boolean[]" entry. Read the array with {@link
+   * DataLogCursor#getBooleanArrayLength()} and {@link DataLogCursor#getBoolean(int)}.
+   *
+   * @param entry Entry ID
+   * @param timestamp Timestamp (integer microseconds)
+   * @param array Cursor positioned on the record
+   */
+  default void visitBooleanArray(int entry, long timestamp, DataLogCursor array) {}
+
+  /**
+   * Called for a record of an "int64[]" entry. Read the array with {@link
+   * DataLogCursor#getIntegerArrayLength()} and {@link DataLogCursor#getInteger(int)}.
+   *
+   * @param entry Entry ID
+   * @param timestamp Timestamp (integer microseconds)
+   * @param array Cursor positioned on the record
+   */
+  default void visitIntegerArray(int entry, long timestamp, DataLogCursor array) {}
+
+  /**
+   * Called for a record of a "float[]" entry. Read the array with {@link
+   * DataLogCursor#getFloatArrayLength()} and {@link DataLogCursor#getFloat(int)}.
+   *
+   * @param entry Entry ID
+   * @param timestamp Timestamp (integer microseconds)
+   * @param array Cursor positioned on the record
+   */
+  default void visitFloatArray(int entry, long timestamp, DataLogCursor array) {}
+
+  /**
+   * Called for a record of a "double[]" entry. Read the array with {@link
+   * DataLogCursor#getDoubleArrayLength()} and {@link DataLogCursor#getDouble(int)}.
+   *
+   * @param entry Entry ID
+   * @param timestamp Timestamp (integer microseconds)
+   * @param array Cursor positioned on the record
+   */
+  default void visitDoubleArray(int entry, long timestamp, DataLogCursor array) {}
+
+  /**
+   * Called for a record of a "string[]" entry. Read the array with {@link
+   * DataLogCursor#getStringArrayLength()} and {@link DataLogCursor#getString(int)}.
+   *
+   * @param entry Entry ID
+   * @param timestamp Timestamp (integer microseconds)
+   * @param array Cursor positioned on the record
+   */
+  default void visitStringArray(int entry, long timestamp, DataLogCursor array) {}
+
+  /**
+   * Called for a record of an entry of any other type, and for records whose payload doesn't match
+   * their entry's type.
+   *
+   * @param entry Entry ID
+   * @param timestamp Timestamp (integer microseconds)
+   * @param data Payload; reused after this method returns
+   */
+  default void visitRaw(int entry, long timestamp, ByteBuffer data) {}
+}
@@ -0,0 +1,1164 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.datalog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.Deflater;
+
+/**
+ * A data log written in pure Java, without the native wpiutil library. It has the same API as
+ * {@link DataLog} and writes the same file format, so it can be used with the log entry classes
+ * and read by {@link DataLogReader} and other data log tools, in programs that don't load the
+ * native library, such as desktop tools and unit tests.
+ *
+ * <p>Like the native implementation, records are serialized into direct buffers on the calling
+ * thread, and a background thread writes the buffers to the file every period and syncs it to
+ * storage. The amount of buffered data is bounded: if the buffers are full, appending blocks until
+ * the background thread has written them.
+ *
+ * <p>Timestamps of 0 are replaced with the current time from {@link System#nanoTime()} in
+ * microseconds. Since there's no native handle, {@link #getImpl()} returns 0, and the log can't be
+ * used by native code such as NetworkTables data logging.
+ *
+ * <p>The log can optionally be compressed, at the cost of compression time on the background
+ * thread. How much smaller it gets depends on the data: logs of slowly changing values and strings
+ * compress well, while noisy sensor doubles may only shrink by about a quarter. Compressed logs are
+ * split into blocks of whole records that are each compressed with {@link Deflater}, so readers
+ * can decompress the blocks independently and in parallel. Records are still appended in
+ * uncompressed form, so compression adds no time to the append calls. Compressed logs can be read
+ * with {@link DataLogReader}, but not by tools that only support uncompressed logs.
+ *
+ * <p>Only this class writes compressed logs. The native {@link DataLog} used by DataLogManager on
+ * the robot has no compression, so robot logs are always uncompressed.
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class JavaDataLog extends DataLog {
+  /** The default limit on the amount of buffered data in bytes. */
+  public static final long kDefaultMaxBufferedBytes = 16 * 1024 * 1024;
+
+  private static final int kBlockSize = 16 * 1024;
+  private static final int kRecordMaxHeaderSize = 17;
+  // Target decompressed size of compressed blocks
+  private static final int kCompressedBlockSize = 64 * 1024;
+
+  private static final byte kControlStart = 0;
+  private static final byte kControlFinish = 1;
+  private static final byte kControlSetMetadata = 2;
+
+  private static final class EntryInfo {
+    String m_type;
+    int m_id;
+  }
+
+  // Only changed by the writer thread once it has started
+  private WritableByteChannel m_channel;
+  private final Path m_dir;
+  private Path m_path;
+  private final String m_extraHeader;
+  private final long m_periodNanos;
+  private final int m_maxBlocks;
+  private final Deflater m_deflater;
+  // Compressed output; only used by the writer thread
+  private ByteBuffer m_compressed;
+  private final Thread m_thread;
+
+  private final ReentrantLock m_lock = new ReentrantLock();
+  private final Condition m_cond = m_lock.newCondition();
+
+  // The last buffer in m_outgoing is the one being filled
+  private final List<ByteBuffer> m_outgoing = new ArrayList<>();
+  private final ArrayDeque<ByteBuffer> m_free = new ArrayDeque<>();
+  private int m_allocatedBlocks;
+
+  // Indices in m_outgoing of buffers that start a new compressed block
+  private final List<Integer> m_blockStarts = new ArrayList<>();
+  private int m_blockBytes;
+
+  private final Map<String, EntryInfo> m_entries = new HashMap<>();
+  private final Map<Integer, Integer> m_entryCounts = new HashMap<>();
+  private final Map<Integer, String> m_entryMetadata = new HashMap<>();
+  private int m_lastId;
+
+  private boolean m_active = true;
+  private boolean m_paused;
+  private boolean m_doFlush;
+  private long m_flushRequested;
+  private long m_flushCompleted;
+  private String m_newFilename;
+  private long m_maxSegmentBytes;
+  private long m_maxSegmentNanos;
+  // Number of segments before the current one
+  private int m_segment;
+
+  // Segment state; only used by the writer thread
+  private long m_segmentBytes;
+
+  /**
+   * Constructs a new data log that writes to a file.
+   *
+   * @param dir directory to store the log; empty for the current directory
+   * @param filename filename to use; if none provided, a random filename is generated of the form
+   *     "wpilog_{}.wpilog"
+   * @param period time between automatic flushes to disk, in seconds; this is a time/storage
+   *     tradeoff
+   * @param extraHeader extra header data
+   * @param maxBufferedBytes limit on the amount of data buffered in memory before appends block
+   * @param compressed whether to write a compressed log
+   * @throws IOException if the file can't be created
+   */
+  public JavaDataLog(
+      String dir,
+      String filename,
+      double period,
+      String extraHeader,
+      long maxBufferedBytes,
+      boolean compressed)
+      throws IOException {
+    super(0);
+    m_dir = Paths.get(dir);
+    m_extraHeader = extraHeader;
+    m_channel = createFile(m_dir.resolve(filename.isEmpty() ? makeRandomFilename() : filename));
+    m_periodNanos = (long) (period * 1e9);
+    m_maxBlocks = (int) Math.max(2, Math.min(Integer.MAX_VALUE, maxBufferedBytes / kBlockSize));
+    m_deflater = compressed ? new Deflater(Deflater.BEST_SPEED) : null;
+    try {
+      writeHeader();
+    } catch (IOException ex) {
+      m_channel.close();
+      throw ex;
+    }
+    m_thread = startWriterThread();
+  }
+
+  /**
+   * Constructs a new data log that writes to a file.
+   *
+   * @param dir directory to store the log; empty for the current directory
+   * @param filename filename to use; if none provided, a random filename is generated of the form
+   *     "wpilog_{}.wpilog"
+   * @param period time between automatic flushes to disk, in seconds; this is a time/storage
+   *     tradeoff
+   * @param extraHeader extra header data
+   * @param maxBufferedBytes limit on the amount of data buffered in memory before appends block
+   * @throws IOException if the file can't be created
+   */
+  public JavaDataLog(
+      String dir, String filename, double period, String extraHeader, long maxBufferedBytes)
+      throws IOException {
+    this(dir, filename, period, extraHeader, maxBufferedBytes, false);
+  }
+
+  /**
+   * Constructs a new data log that writes to a file.
+   *
+   * @param dir directory to store the log; empty for the current directory
+   * @param filename filename to use; if none provided, a random filename is generated of the form
+   *     "wpilog_{}.wpilog"
+   * @param period time between automatic flushes to disk, in seconds; this is a time/storage
+   *     tradeoff
+   * @param extraHeader extra header data
+   * @throws IOException if the file can't be created
+   */
+  public JavaDataLog(String dir, String filename, double period, String extraHeader)
+      throws IOException {
+    this(dir, filename, period, extraHeader, kDefaultMaxBufferedBytes);
+  }
+
+  /**
+   * Constructs a new data log that writes to a file.
+   *
+   * @param dir directory to store the log; empty for the current directory
+   * @param filename filename to use; if none provided, a random filename is generated of the form
+   *     "wpilog_{}.wpilog"
+   * @throws IOException if the file can't be created
+   */
+  public JavaDataLog(String dir, String filename) throws IOException {
+    this(dir, filename, 0.25, "");
+  }
+
+  /**
+   * Constructs a new data log that writes to a channel, e.g. a socket. The channel is closed when
+   * the log is closed.
+   *
+   * @param channel channel to write the log to
+   * @param period time between automatic flushes, in seconds
+   * @param extraHeader extra header data
+   * @param maxBufferedBytes limit on the amount of data buffered in memory before appends block
+   * @param compressed whether to write a compressed log
+   * @throws IOException if writing the header fails
+   */
+  public JavaDataLog(
+      WritableByteChannel channel,
+      double period,
+      String extraHeader,
+      long maxBufferedBytes,
+      boolean compressed)
+      throws IOException {
+    super(0);
+    m_dir = null;
+    m_extraHeader = extraHeader;
+    m_channel = channel;
+    m_periodNanos = (long) (period * 1e9);
+    m_maxBlocks = (int) Math.max(2, Math.min(Integer.MAX_VALUE, maxBufferedBytes / kBlockSize));
+    m_deflater = compressed ? new Deflater(Deflater.BEST_SPEED) : null;
+    try {
+      writeHeader();
+    } catch (IOException ex) {
+      m_channel.close();
+      throw ex;
+    }
+    m_thread = startWriterThread();
+  }
+
+  /**
+   * Constructs a new data log that writes to a channel, e.g. a socket. The channel is closed when
+   * the log is closed.
+   *
+   * @param channel channel to write the log to
+   * @param period time between automatic flushes, in seconds
+   * @param extraHeader extra header data
+   * @param maxBufferedBytes limit on the amount of data buffered in memory before appends block
+   * @throws IOException if writing the header fails
+   */
+  public JavaDataLog(
+      WritableByteChannel channel, double period, String extraHeader, long maxBufferedBytes)
+      throws IOException {
+    this(channel, period, extraHeader, maxBufferedBytes, false);
+  }
+
+  /**
+   * Returns true if the log is compressed.
+   *
+   * @return True if compressed
+   */
+  public boolean isCompressed() {
+    return m_deflater != null;
+  }
+
+  /**
+   * Gets the path of the log file.
+   *
+   * @return Path of the log file, or null if the log is written to a channel. If the file is being
+   *     renamed, this is the new path.
+   */
+  public Path getPath() {
+    m_lock.lock();
+    try {
+      if (m_dir == null) {
+        return null;
+      }
+      if (m_newFilename != null) {
+        return m_dir.resolve(makeSegmentFilename(m_newFilename, m_segment));
+      }
+      return m_path;
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Segments are only supported for logs written to a file. For compressed logs, the size limit
+   * applies to the compressed size.
+   */
+  @Override
+  public void setSegmentLimits(long maxBytes, double maxSeconds) {
+    m_lock.lock();
+    try {
+      m_maxSegmentBytes = maxBytes;
+      m_maxSegmentNanos = (long) (maxSeconds * 1e9);
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  /**
+   * Change log filename. The file is renamed by the background thread.
+   *
+   * @param filename filename
+   */
+  @Override
+  public void setFilename(String filename) {
+    m_lock.lock();
+    try {
+      if (m_dir != null) {
+        m_newFilename = filename;
+        m_cond.signalAll();
+      }
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  /**
+   * Explicitly flushes the log data to disk. Unlike the native implementation, this waits until
+   * the data appended before the call has been written.
+   */
+  @Override
+  public void flush() {
+    m_lock.lock();
+    try {
+      long target = ++m_flushRequested;
+      m_doFlush = true;
+      m_cond.signalAll();
+      while (m_flushCompleted < target && m_thread.isAlive()) {
+        m_cond.awaitUninterruptibly();
+      }
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  @Override
+  public void pause() {
+    m_lock.lock();
+    try {
+      m_paused = true;
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  @Override
+  public void resume() {
+    m_lock.lock();
+    try {
+      m_paused = false;
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  @Override
+  public int start(String name, String type, String metadata, long timestamp) {
+    m_lock.lock();
+    try {
+      EntryInfo entryInfo = m_entries.computeIfAbsent(name, key -> new EntryInfo());
+      if (entryInfo.m_id == 0) {
+        entryInfo.m_id = ++m_lastId;
+      }
+      int savedCount = m_entryCounts.merge(entryInfo.m_id, 1, Integer::sum);
+      if (savedCount > 1) {
+        if (!type.equals(entryInfo.m_type)) {
+          System.err.println(
+              "DataLog: type mismatch for '"
+                  + name
+                  + "': was '"
+                  + entryInfo.m_type
+                  + "', requested '"
+                  + type
+                  + "'; ignoring");
+          return 0;
+        }
+        return entryInfo.m_id;
+      }
+      entryInfo.m_type = type;
+      m_entryMetadata.put(entryInfo.m_id, metadata);
+
+      byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+      byte[] typeBytes = type.getBytes(StandardCharsets.UTF_8);
+      byte[] metadataBytes = metadata.getBytes(StandardCharsets.UTF_8);
+      int size = 5 + 12 + nameBytes.length + typeBytes.length + metadataBytes.length;
+      reserveRecord(size);
+      ByteBuffer buf = startRecord(0, timestamp, size, 5);
+      buf.put(kControlStart);
+      buf.putInt(entryInfo.m_id);
+      appendString(nameBytes);
+      appendString(typeBytes);
+      appendString(metadataBytes);
+      return entryInfo.m_id;
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  @Override
+  public void finish(int entry, long timestamp) {
+    if (entry <= 0) {
+      return;
+    }
+    m_lock.lock();
+    try {
+      Integer savedCount = m_entryCounts.get(entry);
+      if (savedCount == null) {
+        return;
+      }
+      if (savedCount > 1) {
+        m_entryCounts.put(entry, savedCount - 1);
+        return;
+      }
+      m_entryCounts.remove(entry);
+      m_entryMetadata.remove(entry);
+      reserveRecord(5);
+      ByteBuffer buf = startRecord(0, timestamp, 5, 5);
+      buf.put(kControlFinish);
+      buf.putInt(entry);
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  @Override
+  public void setMetadata(int entry, String metadata, long timestamp) {
+    if (entry <= 0) {
+      return;
+    }
+    byte[] metadataBytes = metadata.getBytes(StandardCharsets.UTF_8);
+    m_lock.lock();
+    try {
+      m_entryMetadata.replace(entry, metadata);
+      int size = 5 + 4 + metadataBytes.length;
+      reserveRecord(size);
+      ByteBuffer buf = startRecord(0, timestamp, size, 5);
+      buf.put(kControlSetMetadata);
+      buf.putInt(entry);
+      appendString(metadataBytes);
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  /** Flushes the remaining data, closes the file, and stops the background thread. */
+  @Override
+  public void close() {
+    m_lock.lock();
+    try {
+      if (!m_active) {
+        return;
+      }
+      m_active = false;
+      m_doFlush = true;
+      m_cond.signalAll();
+    } finally {
+      m_lock.unlock();
+    }
+    boolean interrupted = false;
+    while (m_thread.isAlive()) {
+      try {
+        m_thread.join();
+      } catch (InterruptedException ex) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public void appendRaw(int entry, byte[] data, long timestamp) {
+    if (!beginAppend(entry, data.length)) {
+      return;
+    }
+    try {
+      startRecord(entry, timestamp, data.length, 0);
+      appendBytes(data);
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  @Override
+  public void appendBoolean(int entry, boolean value, long timestamp) {
+    if (!beginAppend(entry, 1)) {
+      return;
+    }
+    try {
+      startRecord(entry, timestamp, 1, 1).put((byte) (value ? 1 : 0));
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  @Override
+  public void appendInteger(int entry, long value, long timestamp) {
+    if (!beginAppend(entry, 8)) {
+      return;
+    }
+    try {
+      startRecord(entry, timestamp, 8, 8).putLong(value);
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  @Override
+  public void appendFloat(int entry, float value, long timestamp) {
+    if (!beginAppend(entry, 4)) {
+      return;
+    }
+    try {
+      startRecord(entry, timestamp, 4, 4).putFloat(value);
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  @Override
+  public void appendDouble(int entry, double value, long timestamp) {
+    if (!beginAppend(entry, 8)) {
+      return;
+    }
+    try {
+      startRecord(entry, timestamp, 8, 8).putDouble(value);
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  @Override
+  public void appendString(int entry, String value, long timestamp) {
+    appendRaw(entry, value.getBytes(StandardCharsets.UTF_8), timestamp);
+  }
+
+  @Override
+  public void appendBooleanArray(int entry, boolean[] arr, long timestamp) {
+    if (!beginAppend(entry, arr.length)) {
+      return;
+    }
+    try {
+      startRecord(entry, timestamp, arr.length, 0);
+      for (boolean value : arr) {
+        reserve(1).put((byte) (value ? 1 : 0));
+      }
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  @Override
+  public void appendIntegerArray(int entry, long[] arr, long timestamp) {
+    if (!beginAppend(entry, arr.length * 8)) {
+      return;
+    }
+    try {
+      startRecord(entry, timestamp, arr.length * 8, 0);
+      for (long value : arr) {
+        reserve(8).putLong(value);
+      }
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  @Override
+  public void appendFloatArray(int entry, float[] arr, long timestamp) {
+    if (!beginAppend(entry, arr.length * 4)) {
+      return;
+    }
+    try {
+      startRecord(entry, timestamp, arr.length * 4, 0);
+      for (float value : arr) {
+        reserve(4).putFloat(value);
+      }
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  @Override
+  public void appendDoubleArray(int entry, double[] arr, long timestamp) {
+    if (!beginAppend(entry, arr.length * 8)) {
+      return;
+    }
+    try {
+      startRecord(entry, timestamp, arr.length * 8, 0);
+      for (double value : arr) {
+        reserve(8).putDouble(value);
+      }
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  @Override
+  public void appendStringArray(int entry, String[] arr, long timestamp) {
+    // storage: 4-byte array length, each string prefixed by 4-byte length
+    byte[][] strings = new byte[arr.length][];
+    int size = 4;
+    for (int i = 0; i < arr.length; i++) {
+      strings[i] = arr[i].getBytes(StandardCharsets.UTF_8);
+      size += 4 + strings[i].length;
+    }
+    if (!beginAppend(entry, size)) {
+      return;
+    }
+    try {
+      startRecord(entry, timestamp, size, 4).putInt(arr.length);
+      for (byte[] str : strings) {
+        appendString(str);
+      }
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  @Override
+  void appendBatch(ByteBuffer batch, int length) {
+    ByteBuffer records = batch.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    records.position(0).limit(length);
+    if (!beginAppend(1, length)) {
+      return;
+    }
+    try {
+      // each record: 4-byte entry, 4-byte payload size, 8-byte timestamp, payload
+      while (records.remaining() >= 16) {
+        int entry = records.getInt();
+        int size = records.getInt();
+        long timestamp = records.getLong();
+        if (size < 0 || size > records.remaining()) {
+          return;
+        }
+        int end = records.position() + size;
+        if (entry > 0) {
+          startRecord(entry, timestamp, size, 0);
+          records.limit(end);
+          appendBytes(records);
+          records.limit(length);
+        }
+        records.position(end);
+      }
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  private static String makeRandomFilename() {
+    var random = new SecureRandom();
+    var filename = new StringBuilder("wpilog_");
+    for (int i = 0; i < 16; i++) {
+      filename.append(Character.forDigit(random.nextInt(16), 16));
+    }
+    return filename.append(".wpilog").toString();
+  }
+
+  // Adds a "_001", "_002", etc. suffix before the extension, like the native implementation
+  private static String makeSegmentFilename(String filename, int segment) {
+    if (segment == 0) {
+      return filename;
+    }
+    String ext = "";
+    if (filename.endsWith(".wpilog")) {
+      ext = ".wpilog";
+      filename = filename.substring(0, filename.length() - ext.length());
+    }
+    return String.format("%s_%03d%s", filename, segment, ext);
+  }
+
+  // Tries the preferred filename, then a few random ones, like the native implementation
+  private FileChannel createFile(Path path) throws IOException {
+    IOException error = null;
+    for (int i = 0; i < 5; i++) {
+      try {
+        FileChannel channel =
+            FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        m_lock.lock();
+        try {
+          m_path = path;
+        } finally {
+          m_lock.unlock();
+        }
+        return channel;
+      } catch (IOException ex) {
+        error = ex;
+        path = m_dir.resolve(makeRandomFilename());
+      }
+    }
+    throw error;
+  }
+
+  // version 1.0
+  private void writeHeader() throws IOException {
+    byte[] extraHeaderBytes = m_extraHeader.getBytes(StandardCharsets.UTF_8);
+    var header = ByteBuffer.allocate(12 + extraHeaderBytes.length).order(ByteOrder.LITTLE_ENDIAN);
+    String magic = m_deflater != null ? DataLogReader.kCompressedMagic : DataLogReader.kMagic;
+    header.put(magic.getBytes(StandardCharsets.UTF_8));
+    header.putShort((short) 0x0100);
+    header.putInt(extraHeaderBytes.length);
+    header.put(extraHeaderBytes);
+    header.flip();
+    while (header.hasRemaining()) {
+      m_channel.write(header);
+    }
+    m_segmentBytes = header.limit();
+  }
+
+  private Thread startWriterThread() {
+    var thread = new Thread(this::writerThreadMain, "DataLog");
+    thread.setDaemon(true);
+    thread.start();
+    return thread;
+  }
+
+  /**
+   * Checks whether a record can be appended, and if so, locks the log and waits for buffer space
+   * for the record. If this returns true, the caller must unlock m_lock.
+   */
+  private boolean beginAppend(int entry, int payloadSize) {
+    if (entry <= 0) {
+      return false;
+    }
+    m_lock.lock();
+    if (m_paused || !m_active) {
+      m_lock.unlock();
+      return false;
+    }
+    reserveRecord(payloadSize);
+    return true;
+  }
+
+  /**
+   * Waits until there's enough buffer space for a record, so the record is never split by waiting
+   * and other threads can't interleave their records with it. Must be called with m_lock held.
+   */
+  private void reserveRecord(int payloadSize) {
+    // Header and payload, plus a block for space left over at the end of the current block
+    long needed = ((long) kRecordMaxHeaderSize + payloadSize + kBlockSize - 1) / kBlockSize + 1;
+    // Records larger than the limit wait for all buffers to be written, then exceed it
+    needed = Math.min(needed, m_maxBlocks);
+    while (m_free.size() + m_maxBlocks - m_allocatedBlocks < needed && m_thread.isAlive()) {
+      m_doFlush = true;
+      m_cond.signalAll();
+      m_cond.awaitUninterruptibly();
+    }
+  }
+
+  // Must be called with m_lock held
+  private ByteBuffer reserve(int size) {
+    ByteBuffer buf = m_outgoing.isEmpty() ? null : m_outgoing.get(m_outgoing.size() - 1);
+    if (buf == null || buf.remaining() < size) {
+      buf = nextBuffer();
+    }
+    return buf;
+  }
+
+  // Must be called with m_lock held
+  private ByteBuffer nextBuffer() {
+    ByteBuffer buf = m_free.pollLast();
+    if (buf == null) {
+      buf = ByteBuffer.allocateDirect(kBlockSize).order(ByteOrder.LITTLE_ENDIAN);
+      m_allocatedBlocks++;
+    }
+    m_outgoing.add(buf);
+    return buf;
+  }
+
+  // Must be called with m_lock held
+  private ByteBuffer startRecord(int entry, long timestamp, int payloadSize, int reserveSize) {
+    ByteBuffer buf;
+    if (m_deflater != null && m_blockBytes >= kCompressedBlockSize) {
+      // Start a new compressed block; blocks only contain whole records
+      m_blockStarts.add(m_outgoing.size());
+      m_blockBytes = 0;
+      buf = nextBuffer();
+    } else {
+      buf = reserve(kRecordMaxHeaderSize + reserveSize);
+    }
+    int start = buf.position();
+    putRecordHeader(buf, entry, timestamp, payloadSize);
+    m_blockBytes += buf.position() - start + payloadSize;
+    return buf;
+  }
+
+  private static void putRecordHeader(ByteBuffer buf, int entry, long timestamp, int payloadSize) {
+    int start = buf.position();
+    buf.position(start + 1);
+    int entryLen = putVarInt(buf, entry & 0xffffffffL);
+    int sizeLen = putVarInt(buf, payloadSize & 0xffffffffL);
+    int timestampLen = putVarInt(buf, timestamp == 0 ? System.nanoTime() / 1000 : timestamp);
+    buf.put(start, (byte) (((timestampLen - 1) << 4) | ((sizeLen - 1) << 2) | (entryLen - 1)));
+  }
+
+  private static int putVarInt(ByteBuffer buf, long val) {
+    int len = 0;
+    do {
+      buf.put((byte) val);
+      ++len;
+      val >>>= 8;
+    } while (val != 0);
+    return len;
+  }
+
+  // Must be called with m_lock held
+  private void appendBytes(byte[] data) {
+    int offset = 0;
+    while (offset < data.length) {
+      ByteBuffer buf = reserve(1);
+      int length = Math.min(buf.remaining(), data.length - offset);
+      buf.put(data, offset, length);
+      offset += length;
+    }
+  }
+
+  // Must be called with m_lock held
+  private void appendBytes(ByteBuffer data) {
+    while (data.hasRemaining()) {
+      ByteBuffer buf = reserve(1);
+      if (data.remaining() <= buf.remaining()) {
+        buf.put(data);
+      } else {
+        int limit = data.limit();
+        data.limit(data.position() + buf.remaining());
+        buf.put(data);
+        data.limit(limit);
+      }
+    }
+  }
+
+  // Must be called with m_lock held
+  private void appendString(byte[] str) {
+    reserve(4).putInt(str.length);
+    appendBytes(str);
+  }
+
+  /**
+   * Makes start records, with the current metadata, for all active entries. Like the outgoing
+   * buffers, the returned buffer's position is at the end of the records. Must be called with
+   * m_lock held.
+   */
+  private ByteBuffer makeActiveStartRecords(long timestamp) {
+    var ids = new ArrayList<Integer>();
+    var records = new ArrayList<byte[][]>();
+    int size = 0;
+    for (Map.Entry<String, EntryInfo> entry : m_entries.entrySet()) {
+      int id = entry.getValue().m_id;
+      if (!m_entryCounts.containsKey(id)) {
+        continue;
+      }
+      byte[][] strings = {
+        entry.getKey().getBytes(StandardCharsets.UTF_8),
+        entry.getValue().m_type.getBytes(StandardCharsets.UTF_8),
+        m_entryMetadata.getOrDefault(id, "").getBytes(StandardCharsets.UTF_8)
+      };
+      size += kRecordMaxHeaderSize + 5 + 12;
+      for (byte[] str : strings) {
+        size += str.length;
+      }
+      ids.add(id);
+      records.add(strings);
+    }
+    var buf = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    for (int i = 0; i < ids.size(); i++) {
+      byte[][] strings = records.get(i);
+      putRecordHeader(
+          buf, 0, timestamp, 5 + 12 + strings[0].length + strings[1].length + strings[2].length);
+      buf.put(kControlStart);
+      buf.putInt(ids.get(i));
+      for (byte[] str : strings) {
+        buf.putInt(str.length);
+        buf.put(str);
+      }
+    }
+    return buf;
+  }
+
+  private void writerThreadMain() {
+    var toWrite = new ArrayList<ByteBuffer>();
+    var blockStarts = new ArrayList<Integer>();
+    long nextFlush = System.nanoTime() + m_periodNanos;
+
+    // Segments are named after the log filename; earlier segments are renamed along with the
+    // current one
+    String baseFilename = m_dir != null ? m_path.getFileName().toString() : null;
+    var prevSegments = new ArrayList<Path>();
+    long segmentStart = System.nanoTime();
+
+    m_lock.lock();
+    try {
+      while (true) {
+        while (m_active && !m_doFlush && m_newFilename == null) {
+          long remaining = nextFlush - System.nanoTime();
+          if (remaining <= 0) {
+            break;
+          }
+          m_cond.awaitNanos(remaining);
+        }
+
+        if (m_newFilename != null) {
+          baseFilename = m_newFilename;
+          m_newFilename = null;
+          Path oldPath = m_path;
+          Path newPath = m_dir.resolve(makeSegmentFilename(baseFilename, prevSegments.size()));
+          // getPath() returns the new path while the file is being renamed
+          m_path = newPath;
+          boolean renamed = false;
+          m_lock.unlock();
+          try {
+            renameSegments(prevSegments, baseFilename);
+            if (!newPath.equals(oldPath)) {
+              Files.move(oldPath, newPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            renamed = true;
+          } catch (IOException ex) {
+            System.err.println(
+                "DataLog: Could not rename log file from '"
+                    + oldPath
+                    + "' to '"
+                    + newPath
+                    + "': "
+                    + ex.getMessage());
+          } finally {
+            m_lock.lock();
+          }
+          if (!renamed) {
+            m_path = oldPath;
+          }
+        }
+
+        if (m_active && !m_doFlush && System.nanoTime() < nextFlush) {
+          continue;
+        }
+
+        // flush to file
+        nextFlush = System.nanoTime() + m_periodNanos;
+        m_doFlush = false;
+        long flushRequested = m_flushRequested;
+        toWrite.addAll(m_outgoing);
+        m_outgoing.clear();
+        blockStarts.addAll(m_blockStarts);
+        m_blockStarts.clear();
+        m_blockBytes = 0;
+
+        if (!toWrite.isEmpty()) {
+          // start a new segment after writing this data if it reaches a limit; the compressed size
+          // is only known once written, so the start records are made if the uncompressed size
+          // would reach the limit
+          long maxSegmentBytes = m_maxSegmentBytes;
+          long segmentBytes = m_segmentBytes;
+          for (ByteBuffer buf : toWrite) {
+            segmentBytes += buf.position();
+          }
+          long now = System.nanoTime();
+          boolean sizeLimit = maxSegmentBytes != 0 && segmentBytes >= maxSegmentBytes;
+          boolean timeLimit = m_maxSegmentNanos > 0 && now - segmentStart >= m_maxSegmentNanos;
+          // generated with the lock held, so they match the entries at the end of the data being
+          // written
+          ByteBuffer startRecords =
+              m_dir != null && (sizeLimit || timeLimit) ? makeActiveStartRecords(now / 1000) : null;
+
+          m_lock.unlock();
+          try {
+            if (m_deflater != null) {
+              writeCompressed(toWrite, blockStarts);
+            } else {
+              write(toWrite);
+            }
+            if (startRecords != null && (timeLimit || m_segmentBytes >= maxSegmentBytes)) {
+              Path prevPath = m_path;
+              Path segmentPath =
+                  m_dir.resolve(makeSegmentFilename(baseFilename, prevSegments.size() + 1));
+              if (startSegment(segmentPath, startRecords)) {
+                prevSegments.add(prevPath);
+              }
+              segmentStart = now;
+            }
+          } finally {
+            m_lock.lock();
+          }
+          m_segment = prevSegments.size();
+          blockStarts.clear();
+
+          // release buffers back to free list
+          for (ByteBuffer buf : toWrite) {
+            buf.clear();
+            m_free.add(buf);
+          }
+          toWrite.clear();
+        }
+        m_flushCompleted = flushRequested;
+        m_cond.signalAll();
+
+        if (!m_active) {
+          break;
+        }
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } finally {
+      m_active = false;
+      m_cond.signalAll();
+      m_lock.unlock();
+      if (m_deflater != null) {
+        m_deflater.end();
+      }
+      try {
+        m_channel.close();
+      } catch (IOException ex) {
+        System.err.println("DataLog: Error closing log file: " + ex.getMessage());
+      }
+    }
+  }
+
+  // Renames earlier segments after the log filename; they may have been deleted to free space
+  private void renameSegments(List<Path> segments, String baseFilename) {
+    for (int i = 0; i < segments.size(); i++) {
+      Path oldPath = segments.get(i);
+      Path newPath = m_dir.resolve(makeSegmentFilename(baseFilename, i));
+      if (newPath.equals(oldPath) || !Files.exists(oldPath)) {
+        continue;
+      }
+      try {
+        Files.move(oldPath, newPath, StandardCopyOption.REPLACE_EXISTING);
+        segments.set(i, newPath);
+      } catch (IOException ex) {
+        System.err.println(
+            "DataLog: Could not rename log segment from '"
+                + oldPath
+                + "' to '"
+                + newPath
+                + "': "
+                + ex.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Closes the current file and continues the log in a new segment file, which starts with a
+   * header and the given start records. If the new file can't be created, the log continues in
+   * the current file until a limit is reached again.
+   *
+   * @return True if the new segment was started
+   */
+  private boolean startSegment(Path path, ByteBuffer startRecords) {
+    FileChannel channel;
+    try {
+      channel = createFile(path);
+    } catch (IOException ex) {
+      System.err.println(
+          "DataLog: Could not create log segment '" + path + "': " + ex.getMessage());
+      m_segmentBytes = 0;
+      return false;
+    }
+    try {
+      m_channel.close();
+    } catch (IOException ex) {
+      System.err.println("DataLog: Error closing log file: " + ex.getMessage());
+    }
+    m_channel = channel;
+    try {
+      writeHeader();
+    } catch (IOException ex) {
+      System.err.println("DataLog: Error writing to log file: " + ex.getMessage());
+    }
+    if (startRecords.position() > 0) {
+      if (m_deflater != null) {
+        writeCompressed(List.of(startRecords), List.of());
+      } else {
+        write(List.of(startRecords));
+      }
+    }
+    return true;
+  }
+
+  private void write(List<ByteBuffer> buffers) {
+    ByteBuffer[] data = new ByteBuffer[buffers.size()];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = buffers.get(i).flip();
+    }
+    write(data);
+  }
+
+  /**
+   * Compresses the buffers into blocks and writes them. Each block is a 4-byte compressed size, a
+   * 4-byte decompressed size, and the records compressed as a zlib stream.
+   */
+  private void writeCompressed(List<ByteBuffer> buffers, List<Integer> blockStarts) {
+    ByteBuffer out = m_compressed;
+    if (out == null) {
+      out = ByteBuffer.allocateDirect(kCompressedBlockSize).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    out.clear();
+    int buffer = 0;
+    for (int block = 0; block <= blockStarts.size(); block++) {
+      int end = block < blockStarts.size() ? blockStarts.get(block) : buffers.size();
+      if (buffer == end) {
+        continue;
+      }
+      int blockStart = out.position();
+      out = ensureCompressedRemaining(out, DataLogReader.kBlockHeaderSize + 64);
+      out.position(blockStart + DataLogReader.kBlockHeaderSize);
+      int decompressedSize = 0;
+      m_deflater.reset();
+      for (; buffer < end; buffer++) {
+        ByteBuffer buf = buffers.get(buffer).flip();
+        decompressedSize += buf.remaining();
+        m_deflater.setInput(buf);
+        while (!m_deflater.needsInput()) {
+          out = ensureCompressedRemaining(out, 64);
+          m_deflater.deflate(out);
+        }
+      }
+      m_deflater.finish();
+      while (!m_deflater.finished()) {
+        out = ensureCompressedRemaining(out, 64);
+        m_deflater.deflate(out);
+      }
+      out.putInt(blockStart, out.position() - blockStart - DataLogReader.kBlockHeaderSize);
+      out.putInt(blockStart + 4, decompressedSize);
+    }
+    m_compressed = out;
+    write(new ByteBuffer[] {out.flip()});
+  }
+
+  private static ByteBuffer ensureCompressedRemaining(ByteBuffer out, int size) {
+    if (out.remaining() >= size) {
+      return out;
+    }
+    var buf = ByteBuffer.allocateDirect(Math.max(out.capacity() * 2, out.position() + size));
+    buf.order(ByteOrder.LITTLE_ENDIAN);
+    buf.put(out.flip());
+    return buf;
+  }
+
+  private void write(ByteBuffer[] data) {
+    long remaining = 0;
+    for (ByteBuffer buf : data) {
+      remaining += buf.remaining();
+    }
+    try {
+      // The write may write some or all of the data
+      while (remaining > 0) {
+        long written = 0;
+        if (m_channel instanceof GatheringByteChannel) {
+          written = ((GatheringByteChannel) m_channel).write(data);
+        } else {
+          for (ByteBuffer buf : data) {
+            while (buf.hasRemaining()) {
+              written += m_channel.write(buf);
+            }
+          }
+        }
+        remaining -= written;
+        m_segmentBytes += written;
+      }
+      // sync to storage
+      if (m_channel instanceof FileChannel) {
+        ((FileChannel) m_channel).force(false);
+      }
+    } catch (IOException ex) {
+      System.err.println("DataLog: Error writing to log file: " + ex.getMessage());
+    }
+  }
+}
@@ -42,4 +42,25 @@ public class StringArrayLogEntry extends DataLogEntry {
   public void append(String[] value) {
     m_log.appendStringArray(m_entry, value, 0);
   }
+
+  /**
+   * Adds a record to a batch. The record is appended to the log when the batch is committed.
+   *
+   * @param batch Batch to add the record to; must have been created for this entry's log
+   * @param value Value to record
+   * @param timestamp Time stamp (may be 0 to indicate the time the batch is committed)
+   */
+  public void append(DataLogBatch batch, String[] value, long timestamp) {
+    batch.appendStringArray(m_entry, value, timestamp);
+  }
+
+  /**
+   * Adds a record to a batch. The record is appended to the log when the batch is committed.
+   *
+   * @param batch Batch to add the record to; must have been created for this entry's log
+   * @param value Value to record
+   */
+  public void append(DataLogBatch batch, String[] value) {
+    batch.appendStringArray(m_entry, value, 0);
+  }
 }
@@ -4,34 +4,55 @@
 
 package edu.wpi.first.util.sendable;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 /**
  * The SendableRegistry class is the public interface for registering sensors and actuators for use
  * on dashboards and LiveWindow.
+ *
+ * <p>The registry is safe to use from multiple threads. Looking up an object doesn't lock, and
+ * publishing or updating an object only locks that object's registry entry, so a dashboard update
+ * loop doesn't block other threads that register or query objects.
  */
 public class SendableRegistry {
   private static class Component {
-    Component() {}
-
-    Component(Sendable sendable) {
-      m_sendable = new WeakReference<>(sendable);
+    volatile WeakReference<Sendable> m_sendable;
+    volatile SendableBuilder m_builder;
+    volatile String m_name;
+    volatile String m_subsystem = "Ungrouped";
+    volatile WeakReference<Sendable> m_parent;
+    volatile boolean m_liveWindow;
+
+    // Replaced rather than modified so it can be read without locking; written with the component
+    // locked
+    volatile Object[] m_data;
+
+    synchronized void setData(int handle, Object data) {
+      Object[] newData;
+      if (m_data == null) {
+        newData = new Object[handle + 1];
+      } else {
+        newData = Arrays.copyOf(m_data, Math.max(m_data.length, handle + 1));
+      }
+      newData[handle] = data;
+      m_data = newData;
     }
 
-    WeakReference<Sendable> m_sendable;
-    SendableBuilder m_builder;
-    String m_name;
-    String m_subsystem = "Ungrouped";
-    WeakReference<Sendable> m_parent;
-    boolean m_liveWindow;
-    Object[] m_data;
+    Object getData(int handle) {
+      Object[] data = m_data;
+      if (data == null || handle >= data.length) {
+        return null;
+      }
+      return data[handle];
+    }
 
     void setName(String moduleType, int channel) {
       m_name = moduleType + "[" + channel + "]";
@@ -42,19 +63,87 @@ public class SendableRegistry {
     }
   }
 
-  private static Supplier<SendableBuilder> liveWindowFactory;
-  private static final Map<Object, Component> components = new WeakHashMap<>();
-  private static int nextDataHandle;
+  /**
+   * Weak reference to an object in the registry, used as the key of the components map so the
+   * registry doesn't keep objects alive. Keys are equal if they refer to the same object.
+   */
+  private static final class WeakKey extends WeakReference<Object> {
+    private final int m_hash;
+
+    WeakKey(Object referent, ReferenceQueue<Object> queue) {
+      super(referent, queue);
+      m_hash = System.identityHashCode(referent);
+    }
 
-  private static Component getOrAdd(Sendable sendable) {
-    Component comp = components.get(sendable);
-    if (comp == null) {
-      comp = new Component(sendable);
-      components.put(sendable, comp);
-    } else {
-      if (comp.m_sendable == null) {
-        comp.m_sendable = new WeakReference<>(sendable);
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      Object referent = get();
+      if (referent == null) {
+        return false;
+      }
+      if (other instanceof WeakKey) {
+        return referent == ((WeakKey) other).get();
       }
+      return other instanceof LookupKey && referent == ((LookupKey) other).m_obj;
+    }
+
+    @Override
+    public int hashCode() {
+      return m_hash;
+    }
+  }
+
+  /**
+   * Strong key used to look up an object in the components map, which is cheaper to create than a
+   * WeakKey.
+   */
+  private static final class LookupKey {
+    final Object m_obj;
+
+    LookupKey(Object obj) {
+      m_obj = obj;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof WeakKey && m_obj == ((WeakKey) other).get();
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(m_obj);
+    }
+  }
+
+  private static volatile Supplier<SendableBuilder> liveWindowFactory;
+  private static final Map<Object, Component> components = new ConcurrentHashMap<>();
+  private static final ReferenceQueue<Object> staleKeys = new ReferenceQueue<>();
+  private static final AtomicInteger nextDataHandle = new AtomicInteger();
+
+  /** Removes the components of objects that have been garbage collected. */
+  private static void removeStaleComponents() {
+    Reference<?> key;
+    while ((key = staleKeys.poll()) != null) {
+      components.remove(key);
+    }
+  }
+
+  private static Component get(Object obj) {
+    return components.get(new LookupKey(obj));
+  }
+
+  private static Component getOrAdd(Object obj) {
+    removeStaleComponents();
+    return components.computeIfAbsent(new WeakKey(obj, staleKeys), key -> new Component());
+  }
+
+  private static Component getOrAdd(Sendable sendable) {
+    Component comp = getOrAdd((Object) sendable);
+    if (comp.m_sendable == null) {
+      comp.m_sendable = new WeakReference<>(sendable);
     }
     return comp;
   }
@@ -68,7 +157,7 @@ public class SendableRegistry {
    *
    * @param factory factory function
    */
-  public static synchronized void setLiveWindowBuilderFactory(Supplier<SendableBuilder> factory) {
+  public static void setLiveWindowBuilderFactory(Supplier<SendableBuilder> factory) {
     liveWindowFactory = factory;
   }
 
@@ -78,7 +167,7 @@ public class SendableRegistry {
    * @param sendable object to add
    * @param name component name
    */
-  public static synchronized void add(Sendable sendable, String name) {
+  public static void add(Sendable sendable, String name) {
     Component comp = getOrAdd(sendable);
     comp.m_name = name;
   }
@@ -90,7 +179,7 @@ public class SendableRegistry {
    * @param moduleType A string that defines the module name in the label for the value
    * @param channel The channel number the device is plugged into
    */
-  public static synchronized void add(Sendable sendable, String moduleType, int channel) {
+  public static void add(Sendable sendable, String moduleType, int channel) {
     Component comp = getOrAdd(sendable);
     comp.setName(moduleType, channel);
   }
@@ -103,7 +192,7 @@ public class SendableRegistry {
    * @param moduleNumber The number of the particular module type
    * @param channel The channel number the device is plugged into
    */
-  public static synchronized void add(
+  public static void add(
       Sendable sendable, String moduleType, int moduleNumber, int channel) {
     Component comp = getOrAdd(sendable);
     comp.setName(moduleType, moduleNumber, channel);
@@ -116,7 +205,7 @@ public class SendableRegistry {
    * @param subsystem subsystem name
    * @param name component name
    */
-  public static synchronized void add(Sendable sendable, String subsystem, String name) {
+  public static void add(Sendable sendable, String subsystem, String name) {
     Component comp = getOrAdd(sendable);
     comp.m_name = name;
     comp.m_subsystem = subsystem;
@@ -128,7 +217,7 @@ public class SendableRegistry {
    * @param sendable object to add
    * @param name component name
    */
-  public static synchronized void addLW(Sendable sendable, String name) {
+  public static void addLW(Sendable sendable, String name) {
     Component comp = getOrAdd(sendable);
     if (liveWindowFactory != null) {
       comp.m_builder = liveWindowFactory.get();
@@ -144,7 +233,7 @@ public class SendableRegistry {
    * @param moduleType A string that defines the module name in the label for the value
    * @param channel The channel number the device is plugged into
    */
-  public static synchronized void addLW(Sendable sendable, String moduleType, int channel) {
+  public static void addLW(Sendable sendable, String moduleType, int channel) {
     Component comp = getOrAdd(sendable);
     if (liveWindowFactory != null) {
       comp.m_builder = liveWindowFactory.get();
@@ -161,7 +250,7 @@ public class SendableRegistry {
    * @param moduleNumber The number of the particular module type
    * @param channel The channel number the device is plugged into
    */
-  public static synchronized void addLW(
+  public static void addLW(
       Sendable sendable, String moduleType, int moduleNumber, int channel) {
     Component comp = getOrAdd(sendable);
     if (liveWindowFactory != null) {
@@ -178,7 +267,7 @@ public class SendableRegistry {
    * @param subsystem subsystem name
    * @param name component name
    */
-  public static synchronized void addLW(Sendable sendable, String subsystem, String name) {
+  public static void addLW(Sendable sendable, String subsystem, String name) {
     Component comp = getOrAdd(sendable);
     if (liveWindowFactory != null) {
       comp.m_builder = liveWindowFactory.get();
@@ -195,12 +284,8 @@ public class SendableRegistry {
    * @param parent parent object
    * @param child child object
    */
-  public static synchronized void addChild(Sendable parent, Object child) {
-    Component comp = components.get(child);
-    if (comp == null) {
-      comp = new Component();
-      components.put(child, comp);
-    }
+  public static void addChild(Sendable parent, Object child) {
+    Component comp = getOrAdd(child);
     comp.m_parent = new WeakReference<>(parent);
   }
 
@@ -210,8 +295,9 @@ public class SendableRegistry {
    * @param sendable object to remove
    * @return true if the object was removed; false if it was not present
    */
-  public static synchronized boolean remove(Sendable sendable) {
-    return components.remove(sendable) != null;
+  public static boolean remove(Sendable sendable) {
+    removeStaleComponents();
+    return components.remove(new LookupKey(sendable)) != null;
   }
 
   /**
@@ -220,8 +306,8 @@ public class SendableRegistry {
    * @param sendable object to check
    * @return True if in registry, false if not.
    */
-  public static synchronized boolean contains(Sendable sendable) {
-    return components.containsKey(sendable);
+  public static boolean contains(Sendable sendable) {
+    return get(sendable) != null;
   }
 
   /**
@@ -230,8 +316,8 @@ public class SendableRegistry {
    * @param sendable object
    * @return Name (empty if object is not in registry)
    */
-  public static synchronized String getName(Sendable sendable) {
-    Component comp = components.get(sendable);
+  public static String getName(Sendable sendable) {
+    Component comp = get(sendable);
     if (comp == null) {
       return "";
     }
@@ -244,8 +330,8 @@ public class SendableRegistry {
    * @param sendable object
    * @param name name
    */
-  public static synchronized void setName(Sendable sendable, String name) {
-    Component comp = components.get(sendable);
+  public static void setName(Sendable sendable, String name) {
+    Component comp = get(sendable);
     if (comp != null) {
       comp.m_name = name;
     }
@@ -258,8 +344,8 @@ public class SendableRegistry {
    * @param moduleType A string that defines the module name in the label for the value
    * @param channel The channel number the device is plugged into
    */
-  public static synchronized void setName(Sendable sendable, String moduleType, int channel) {
-    Component comp = components.get(sendable);
+  public static void setName(Sendable sendable, String moduleType, int channel) {
+    Component comp = get(sendable);
     if (comp != null) {
       comp.setName(moduleType, channel);
     }
@@ -273,9 +359,9 @@ public class SendableRegistry {
    * @param moduleNumber The number of the particular module type
    * @param channel The channel number the device is plugged into
    */
-  public static synchronized void setName(
+  public static void setName(
       Sendable sendable, String moduleType, int moduleNumber, int channel) {
-    Component comp = components.get(sendable);
+    Component comp = get(sendable);
     if (comp != null) {
       comp.setName(moduleType, moduleNumber, channel);
     }
@@ -288,8 +374,8 @@ public class SendableRegistry {
    * @param subsystem subsystem name
    * @param name device name
    */
-  public static synchronized void setName(Sendable sendable, String subsystem, String name) {
-    Component comp = components.get(sendable);
+  public static void setName(Sendable sendable, String subsystem, String name) {
+    Component comp = get(sendable);
     if (comp != null) {
       comp.m_name = name;
       comp.m_subsystem = subsystem;
@@ -302,8 +388,8 @@ public class SendableRegistry {
    * @param sendable object
    * @return Subsystem name (empty if object is not in registry)
    */
-  public static synchronized String getSubsystem(Sendable sendable) {
-    Component comp = components.get(sendable);
+  public static String getSubsystem(Sendable sendable) {
+    Component comp = get(sendable);
     if (comp == null) {
       return "";
     }
@@ -316,8 +402,8 @@ public class SendableRegistry {
    * @param sendable object
    * @param subsystem subsystem name
    */
-  public static synchronized void setSubsystem(Sendable sendable, String subsystem) {
-    Component comp = components.get(sendable);
+  public static void setSubsystem(Sendable sendable, String subsystem) {
+    Component comp = get(sendable);
     if (comp != null) {
       comp.m_subsystem = subsystem;
     }
@@ -328,8 +414,8 @@ public class SendableRegistry {
    *
    * @return Handle
    */
-  public static synchronized int getDataHandle() {
-    return nextDataHandle++;
+  public static int getDataHandle() {
+    return nextDataHandle.getAndIncrement();
   }
 
   /**
@@ -340,21 +426,16 @@ public class SendableRegistry {
    * @param data data to set
    * @return Previous data (may be null)
    */
-  public static synchronized Object setData(Sendable sendable, int handle, Object data) {
-    Component comp = components.get(sendable);
+  public static Object setData(Sendable sendable, int handle, Object data) {
+    Component comp = get(sendable);
     if (comp == null) {
       return null;
     }
-    Object rv = null;
-    if (comp.m_data == null) {
-      comp.m_data = new Object[handle + 1];
-    } else if (handle < comp.m_data.length) {
-      rv = comp.m_data[handle];
-    } else {
-      comp.m_data = Arrays.copyOf(comp.m_data, handle + 1);
+    synchronized (comp) {
+      Object rv = comp.getData(handle);
+      comp.setData(handle, data);
+      return rv;
     }
-    comp.m_data[handle] = data;
-    return rv;
   }
 
   /**
@@ -364,12 +445,12 @@ public class SendableRegistry {
    * @param handle data handle returned by getDataHandle()
    * @return data (may be null if none associated)
    */
-  public static synchronized Object getData(Sendable sendable, int handle) {
-    Component comp = components.get(sendable);
-    if (comp == null || comp.m_data == null || handle >= comp.m_data.length) {
+  public static Object getData(Sendable sendable, int handle) {
+    Component comp = get(sendable);
+    if (comp == null) {
       return null;
     }
-    return comp.m_data[handle];
+    return comp.getData(handle);
   }
 
   /**
@@ -377,8 +458,8 @@ public class SendableRegistry {
    *
    * @param sendable object
    */
-  public static synchronized void enableLiveWindow(Sendable sendable) {
-    Component comp = components.get(sendable);
+  public static void enableLiveWindow(Sendable sendable) {
+    Component comp = get(sendable);
     if (comp != null) {
       comp.m_liveWindow = true;
     }
@@ -389,8 +470,8 @@ public class SendableRegistry {
    *
    * @param sendable object
    */
-  public static synchronized void disableLiveWindow(Sendable sendable) {
-    Component comp = components.get(sendable);
+  public static void disableLiveWindow(Sendable sendable) {
+    Component comp = get(sendable);
     if (comp != null) {
       comp.m_liveWindow = false;
     }
@@ -402,14 +483,16 @@ public class SendableRegistry {
    * @param sendable object
    * @param builder sendable builder
    */
-  public static synchronized void publish(Sendable sendable, SendableBuilder builder) {
+  public static void publish(Sendable sendable, SendableBuilder builder) {
     Component comp = getOrAdd(sendable);
-    if (comp.m_builder != null) {
-      comp.m_builder.clearProperties();
+    synchronized (comp) {
+      if (comp.m_builder != null) {
+        comp.m_builder.clearProperties();
+      }
+      comp.m_builder = builder; // clear any current builder
+      sendable.initSendable(builder);
+      builder.update();
     }
-    comp.m_builder = builder; // clear any current builder
-    sendable.initSendable(comp.m_builder);
-    comp.m_builder.update();
   }
 
   /**
@@ -417,10 +500,14 @@ public class SendableRegistry {
    *
    * @param sendable object
    */
-  public static synchronized void update(Sendable sendable) {
-    Component comp = components.get(sendable);
-    if (comp != null && comp.m_builder != null) {
-      comp.m_builder.update();
+  public static void update(Sendable sendable) {
+    Component comp = get(sendable);
+    if (comp != null) {
+      synchronized (comp) {
+        if (comp.m_builder != null) {
+          comp.m_builder.update();
+        }
+      }
     }
   }
 
@@ -451,41 +538,33 @@ public class SendableRegistry {
     public SendableBuilder builder;
   }
 
-  // As foreachLiveWindow is single threaded, cache the components it
-  // iterates over to avoid risk of ConcurrentModificationException
-  private static List<Component> foreachComponents = new ArrayList<>();
-
   /**
-   * Iterates over LiveWindow-enabled objects in the registry. It is *not* safe to call other
-   * SendableRegistry functions from the callback.
+   * Iterates over LiveWindow-enabled objects in the registry. Objects added or removed by other
+   * threads while iterating may or may not be passed to the callback.
    *
    * @param dataHandle data handle to get data object passed to callback
    * @param callback function to call for each object
    */
   @SuppressWarnings({"PMD.AvoidCatchingThrowable", "PMD.AvoidReassigningCatchVariables"})
-  public static synchronized void foreachLiveWindow(
-      int dataHandle, Consumer<CallbackData> callback) {
+  public static void foreachLiveWindow(int dataHandle, Consumer<CallbackData> callback) {
+    removeStaleComponents();
     CallbackData cbdata = new CallbackData();
-    foreachComponents.clear();
-    foreachComponents.addAll(components.values());
-    for (Component comp : foreachComponents) {
-      if (comp.m_builder == null || comp.m_sendable == null) {
+    for (Component comp : components.values()) {
+      WeakReference<Sendable> sendable = comp.m_sendable;
+      if (comp.m_builder == null || sendable == null) {
         continue;
       }
-      cbdata.sendable = comp.m_sendable.get();
+      cbdata.sendable = sendable.get();
       if (cbdata.sendable != null && comp.m_liveWindow) {
         cbdata.name = comp.m_name;
         cbdata.subsystem = comp.m_subsystem;
-        if (comp.m_parent != null) {
-          cbdata.parent = comp.m_parent.get();
+        WeakReference<Sendable> parent = comp.m_parent;
+        if (parent != null) {
+          cbdata.parent = parent.get();
         } else {
           cbdata.parent = null;
         }
-        if (comp.m_data != null && dataHandle < comp.m_data.length) {
-          cbdata.data = comp.m_data[dataHandle];
-        } else {
-          cbdata.data = null;
-        }
+        cbdata.data = comp.getData(dataHandle);
         cbdata.builder = comp.m_builder;
         try {
           callback.accept(cbdata);
@@ -498,16 +577,10 @@ public class SendableRegistry {
           throwable.printStackTrace();
           comp.m_liveWindow = false;
         }
-        if (cbdata.data != null) {
-          if (comp.m_data == null) {
-            comp.m_data = new Object[dataHandle + 1];
-          } else if (dataHandle >= comp.m_data.length) {
-            comp.m_data = Arrays.copyOf(comp.m_data, dataHandle + 1);
-          }
-          comp.m_data[dataHandle] = cbdata.data;
+        if (cbdata.data != null && cbdata.data != comp.getData(dataHandle)) {
+          comp.setData(dataHandle, cbdata.data);
         }
       }
     }
-    foreachComponents.clear();
   }
 }
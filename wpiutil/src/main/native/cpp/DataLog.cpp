@@ -30,6 +30,7 @@
 #include "wpi/Endian.h"
 #include "wpi/Logger.h"
 #include "wpi/MathExtras.h"
+#include "wpi/StringExtras.h"
 #include "wpi/fs.h"
 #include "wpi/timestamp.h"
 
@@ -174,6 +175,12 @@ void DataLog::SetFilename(std::string_view filename) {
   m_cond.notify_all();
 }
 
+void DataLog::SetSegmentLimits(uint64_t maxBytes, double maxTime) {
+  std::scoped_lock lock{m_mutex};
+  m_maxSegmentBytes = maxBytes;
+  m_maxSegmentTime = maxTime;
+}
+
 void DataLog::Flush() {
   {
     std::scoped_lock lock{m_mutex};
@@ -236,22 +243,22 @@ static std::string MakeRandomFilename() {
   return filename;
 }
 
-void DataLog::WriterThreadMain(std::string_view dir) {
-  std::chrono::duration<double> periodTime{m_period};
-
-  std::error_code ec;
-  fs::path dirPath{dir};
-  std::string filename;
-
-  {
-    std::scoped_lock lock{m_mutex};
-    filename = std::move(m_newFilename);
-    m_newFilename.clear();
+static std::string MakeSegmentFilename(std::string_view filename,
+                                       size_t segment) {
+  if (segment == 0) {
+    return std::string{filename};
   }
-
-  if (filename.empty()) {
-    filename = MakeRandomFilename();
+  std::string_view ext;
+  if (wpi::ends_with(filename, ".wpilog")) {
+    ext = ".wpilog";
+    filename.remove_suffix(ext.size());
   }
+  return fmt::format("{}_{:03}{}", filename, segment, ext);
+}
+
+static fs::file_t OpenLogFile(const fs::path& dirPath, std::string& filename,
+                              wpi::Logger& msglog) {
+  std::error_code ec;
 
   // try preferred filename, or randomize it a few times, before giving up
   fs::file_t f;
@@ -266,7 +273,7 @@ void DataLog::WriterThreadMain(std::string_view dir) {
                              fs::OF_Append);
 #endif
     if (ec) {
-      WPI_ERROR(m_msglog, "Could not open log file '{}': {}",
+      WPI_ERROR(msglog, "Could not open log file '{}': {}",
                 (dirPath / filename).string(), ec.message());
       // try again with random filename
       filename = MakeRandomFilename();
@@ -275,26 +282,59 @@ void DataLog::WriterThreadMain(std::string_view dir) {
     }
   }
 
+  if (f != fs::kInvalidFile) {
+    WPI_INFO(msglog, "Logging to '{}'", (dirPath / filename).string());
+  }
+  return f;
+}
+
+// write header (version 1.0); returns the number of bytes written
+static size_t WriteHeader(fs::file_t f, std::string_view filename,
+                          std::string_view extraHeader, wpi::Logger& msglog) {
+  const uint8_t header[] = {'W', 'P', 'I', 'L', 'O', 'G', 0, 1};
+  WriteToFile(f, header, filename, msglog);
+  uint8_t extraLen[4];
+  wpi::support::endian::write32le(extraLen, extraHeader.size());
+  WriteToFile(f, extraLen, filename, msglog);
+  if (extraHeader.size() > 0) {
+    WriteToFile(f,
+                {reinterpret_cast<const uint8_t*>(extraHeader.data()),
+                 extraHeader.size()},
+                filename, msglog);
+  }
+  return sizeof(header) + sizeof(extraLen) + extraHeader.size();
+}
+
+void DataLog::WriterThreadMain(std::string_view dir) {
+  std::chrono::duration<double> periodTime{m_period};
+
+  std::error_code ec;
+  fs::path dirPath{dir};
+  std::string filename;
+
+  {
+    std::scoped_lock lock{m_mutex};
+    filename = std::move(m_newFilename);
+    m_newFilename.clear();
+  }
+
+  if (filename.empty()) {
+    filename = MakeRandomFilename();
+  }
+
+  fs::file_t f = OpenLogFile(dirPath, filename, m_msglog);
+  uint64_t segmentBytes = 0;
   if (f == fs::kInvalidFile) {
     WPI_ERROR(m_msglog, "{}", "Could not open log file, no log being saved");
   } else {
-    WPI_INFO(m_msglog, "Logging to '{}'", (dirPath / filename).string());
+    segmentBytes = WriteHeader(f, filename, m_extraHeader, m_msglog);
   }
 
-  // write header (version 1.0)
-  if (f != fs::kInvalidFile) {
-    const uint8_t header[] = {'W', 'P', 'I', 'L', 'O', 'G', 0, 1};
-    WriteToFile(f, header, filename, m_msglog);
-    uint8_t extraLen[4];
-    support::endian::write32le(extraLen, m_extraHeader.size());
-    WriteToFile(f, extraLen, filename, m_msglog);
-    if (m_extraHeader.size() > 0) {
-      WriteToFile(f,
-                  {reinterpret_cast<const uint8_t*>(m_extraHeader.data()),
-                   m_extraHeader.size()},
-                  filename, m_msglog);
-    }
-  }
+  // Segments are named after the log filename; earlier segments are renamed
+  // along with the current one
+  std::string baseFilename = filename;
+  std::vector<std::string> prevSegments;
+  auto segmentStart = std::chrono::steady_clock::now();
 
   std::vector<Buffer> toWrite;
 
@@ -307,10 +347,23 @@ void DataLog::WriterThreadMain(std::string_view dir) {
     }
 
     if (!m_newFilename.empty()) {
-      auto newFilename = std::move(m_newFilename);
+      baseFilename = std::move(m_newFilename);
       m_newFilename.clear();
       lock.unlock();
+      // rename earlier segments; they may have been deleted to free space, so
+      // errors are ignored
+      for (size_t i = 0; i < prevSegments.size(); ++i) {
+        auto segmentFilename = MakeSegmentFilename(baseFilename, i);
+        if (prevSegments[i] != segmentFilename) {
+          fs::rename(dirPath / prevSegments[i], dirPath / segmentFilename, ec);
+          if (!ec) {
+            prevSegments[i] = std::move(segmentFilename);
+          }
+        }
+      }
       // rename
+      auto newFilename = MakeSegmentFilename(baseFilename, prevSegments.size());
+      ec.clear();
       if (filename != newFilename) {
         fs::rename(dirPath / filename, dirPath / newFilename, ec);
       }
@@ -334,6 +387,24 @@ void DataLog::WriterThreadMain(std::string_view dir) {
       // swap outgoing with empty vector
       toWrite.swap(m_outgoing);
 
+      // start a new segment after writing this data if it reaches a limit
+      for (auto&& buf : toWrite) {
+        segmentBytes += buf.GetData().size();
+      }
+      auto now = std::chrono::steady_clock::now();
+      bool newSegment =
+          f != fs::kInvalidFile &&
+          ((m_maxSegmentBytes != 0 && segmentBytes >= m_maxSegmentBytes) ||
+           (m_maxSegmentTime > 0 &&
+            now - segmentStart >=
+                std::chrono::duration<double>{m_maxSegmentTime}));
+      // generated with the lock held, so they match the entries at the end of
+      // the data being written
+      std::vector<uint8_t> startRecords;
+      if (newSegment) {
+        startRecords = MakeActiveStartRecords(wpi::Now());
+      }
+
       if (f != fs::kInvalidFile) {
         lock.unlock();
         // write buffers to file
@@ -347,6 +418,30 @@ void DataLog::WriterThreadMain(std::string_view dir) {
 #elif defined(__APPLE__)
         ::fsync(f);
 #endif
+
+        if (newSegment) {
+          // if the new segment can't be created, keep writing to the current
+          // one until a limit is reached again
+          auto newFilename =
+              MakeSegmentFilename(baseFilename, prevSegments.size() + 1);
+          fs::file_t newFile = OpenLogFile(dirPath, newFilename, m_msglog);
+          segmentBytes = 0;
+          segmentStart = now;
+          if (newFile == fs::kInvalidFile) {
+            WPI_ERROR(m_msglog,
+                      "Could not open new log segment, continuing to log to "
+                      "'{}'",
+                      filename);
+          } else {
+            fs::CloseFile(f);
+            prevSegments.emplace_back(std::move(filename));
+            filename = std::move(newFilename);
+            f = newFile;
+            segmentBytes = WriteHeader(f, filename, m_extraHeader, m_msglog);
+            WriteToFile(f, startRecords, filename, m_msglog);
+            segmentBytes += startRecords.size();
+          }
+        }
         lock.lock();
       }
 
@@ -445,6 +540,7 @@ int DataLog::Start(std::string_view name, std::string_view type,
     return entryInfo.id;
   }
   entryInfo.type = type;
+  m_entryMetadata[entryInfo.id] = metadata;
   size_t strsize = name.size() + type.size() + metadata.size();
   uint8_t* buf = StartRecord(0, timestamp, 5 + 12 + strsize, 5);
   *buf++ = impl::kControlStart;
@@ -470,6 +566,7 @@ void DataLog::Finish(int entry, int64_t timestamp) {
     return;
   }
   m_entryCounts.erase(entry);
+  m_entryMetadata.erase(entry);
   uint8_t* buf = StartRecord(0, timestamp, 5, 5);
   *buf++ = impl::kControlFinish;
   wpi::support::endian::write32le(buf, entry);
@@ -481,12 +578,53 @@ void DataLog::SetMetadata(int entry, std::string_view metadata,
     return;
   }
   std::scoped_lock lock{m_mutex};
+  if (auto it = m_entryMetadata.find(entry); it != m_entryMetadata.end()) {
+    it->second = metadata;
+  }
   uint8_t* buf = StartRecord(entry, timestamp, 5 + 4 + metadata.size(), 5);
   *buf++ = impl::kControlSetMetadata;
   wpi::support::endian::write32le(buf, entry);
   AppendStringImpl(metadata);
 }
 
+static void AppendStringTo(std::vector<uint8_t>& out, std::string_view str) {
+  size_t pos = out.size();
+  out.resize(pos + 4 + str.size());
+  wpi::support::endian::write32le(out.data() + pos, str.size());
+  std::memcpy(out.data() + pos + 4, str.data(), str.size());
+}
+
+std::vector<uint8_t> DataLog::MakeActiveStartRecords(
+    uint64_t timestamp) const {
+  std::vector<uint8_t> out;
+  for (auto&& entry : m_entries) {
+    auto& entryInfo = entry.getValue();
+    auto count = m_entryCounts.find(entryInfo.id);
+    if (count == m_entryCounts.end() || count->second == 0) {
+      continue;
+    }
+    std::string_view name = entry.getKey();
+    std::string_view metadata;
+    if (auto it = m_entryMetadata.find(entryInfo.id);
+        it != m_entryMetadata.end()) {
+      metadata = it->second;
+    }
+    size_t strsize = name.size() + entryInfo.type.size() + metadata.size();
+    size_t pos = out.size();
+    out.resize(pos + kRecordMaxHeaderSize + 5);
+    auto headerLen =
+        WriteRecordHeader(out.data() + pos, 0, timestamp, 5 + 12 + strsize);
+    out.resize(pos + headerLen + 5);
+    out[pos + headerLen] = impl::kControlStart;
+    wpi::support::endian::write32le(out.data() + pos + headerLen + 1,
+                                    entryInfo.id);
+    AppendStringTo(out, name);
+    AppendStringTo(out, entryInfo.type);
+    AppendStringTo(out, metadata);
+  }
+  return out;
+}
+
 uint8_t* DataLog::Reserve(size_t size) {
   assert(size <= kBlockSize);
   if (m_outgoing.empty() || size > m_outgoing.back().GetRemaining()) {
@@ -558,6 +696,31 @@ void DataLog::AppendRaw2(int entry,
   }
 }
 
+void DataLog::AppendBatch(wpi::span<const uint8_t> batch) {
+  // each record: 4-byte entry, 4-byte payload size, 8-byte timestamp, payload
+  constexpr size_t kBatchHeaderSize = 16;
+  std::scoped_lock lock{m_mutex};
+  if (m_paused) {
+    return;
+  }
+  while (batch.size() >= kBatchHeaderSize) {
+    auto entry =
+        static_cast<int32_t>(wpi::support::endian::read32le(batch.data()));
+    uint32_t size = wpi::support::endian::read32le(batch.data() + 4);
+    auto timestamp =
+        static_cast<int64_t>(wpi::support::endian::read64le(batch.data() + 8));
+    batch = batch.subspan(kBatchHeaderSize);
+    if (size > batch.size()) {
+      return;
+    }
+    if (entry > 0) {
+      StartRecord(entry, timestamp, size, 0);
+      AppendImpl(batch.subspan(0, size));
+    }
+    batch = batch.subspan(size);
+  }
+}
+
 void DataLog::AppendBoolean(int entry, bool value, int64_t timestamp) {
   if (entry <= 0) {
     return;
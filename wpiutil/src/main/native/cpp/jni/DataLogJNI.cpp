@@ -43,6 +43,22 @@ Java_edu_wpi_first_util_datalog_DataLogJNI_setFilename
   reinterpret_cast<DataLog*>(impl)->SetFilename(JStringRef{env, filename});
 }
 
+/*
+ * Class:     edu_wpi_first_util_datalog_DataLogJNI
+ * Method:    setSegmentLimits
+ * Signature: (JJD)V
+ */
+JNIEXPORT void JNICALL
+Java_edu_wpi_first_util_datalog_DataLogJNI_setSegmentLimits
+  (JNIEnv*, jclass, jlong impl, jlong maxBytes, jdouble maxTime)
+{
+  if (impl == 0) {
+    return;
+  }
+  reinterpret_cast<DataLog*>(impl)->SetSegmentLimits(
+      maxBytes < 0 ? 0 : maxBytes, maxTime);
+}
+
 /*
  * Class:     edu_wpi_first_util_datalog_DataLogJNI
  * Method:    flush
@@ -354,4 +370,25 @@ Java_edu_wpi_first_util_datalog_DataLogJNI_appendStringArray
   reinterpret_cast<DataLog*>(impl)->AppendStringArray(entry, arr, timestamp);
 }
 
+/*
+ * Class:     edu_wpi_first_util_datalog_DataLogJNI
+ * Method:    appendBatch
+ * Signature: (JLjava/nio/ByteBuffer;I)V
+ */
+JNIEXPORT void JNICALL
+Java_edu_wpi_first_util_datalog_DataLogJNI_appendBatch
+  (JNIEnv* env, jclass, jlong impl, jobject batch, jint length)
+{
+  if (impl == 0) {
+    return;
+  }
+  auto data =
+      reinterpret_cast<const uint8_t*>(env->GetDirectBufferAddress(batch));
+  if (!data || length <= 0 || length > env->GetDirectBufferCapacity(batch)) {
+    return;
+  }
+  reinterpret_cast<DataLog*>(impl)->AppendBatch(
+      {data, static_cast<size_t>(length)});
+}
+
 }  // extern "C"
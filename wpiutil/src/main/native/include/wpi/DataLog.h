@@ -132,12 +132,32 @@ class DataLog final {
   DataLog& operator=(const DataLog&&) = delete;
 
   /**
-   * Change log filename.
+   * Change log filename.  If the log has been split into segments, all of its
+   * segment files are renamed.
    *
    * @param filename filename
    */
   void SetFilename(std::string_view filename);
 
+  /**
+   * Sets limits at which the log is split into a new segment file.  When a
+   * limit is reached, the current file is closed at the next flush and a new
+   * file is started; as the check is done when flushing, segments may exceed
+   * the size limit by up to one flush period of data.  The first segment uses
+   * the log filename; following segments add a "_001", "_002", etc. suffix
+   * before the extension.
+   *
+   * Each segment starts with a header and a start record (with the current
+   * metadata) for every entry that's still active, so it can be read on its
+   * own, and entries keep the same IDs in every segment.
+   *
+   * Segments are only supported for logs written to a file.
+   *
+   * @param maxBytes maximum size of a segment in bytes; 0 for no limit
+   * @param maxTime maximum duration of a segment in seconds; 0 for no limit
+   */
+  void SetSegmentLimits(uint64_t maxBytes, double maxTime);
+
   /**
    * Explicitly flushes the log data to disk.
    */
@@ -230,6 +250,21 @@ class DataLog final {
   void AppendStringArray(int entry, wpi::span<const std::string_view> arr,
                          int64_t timestamp);
 
+  /**
+   * Appends a batch of records to the log. The records are appended in order
+   * while holding the log's lock, so no other records are interleaved with
+   * them.
+   *
+   * Each record in the batch is a 4-byte little-endian entry index, a 4-byte
+   * little-endian payload size, an 8-byte little-endian timestamp (may be 0 to
+   * indicate now), and the payload encoded as it is stored in the log. Records
+   * with an entry index of 0 or less are skipped. A truncated record at the
+   * end of the batch is ignored.
+   *
+   * @param batch Batch of records
+   */
+  void AppendBatch(wpi::span<const uint8_t> batch);
+
  private:
   void WriterThreadMain(std::string_view dir);
   void WriterThreadMain(
@@ -241,6 +276,7 @@ class DataLog final {
   uint8_t* Reserve(size_t size);
   void AppendImpl(wpi::span<const uint8_t> data);
   void AppendStringImpl(std::string_view str);
+  std::vector<uint8_t> MakeActiveStartRecords(uint64_t timestamp) const;
 
   wpi::Logger& m_msglog;
   mutable wpi::mutex m_mutex;
@@ -251,6 +287,8 @@ class DataLog final {
   double m_period;
   std::string m_extraHeader;
   std::string m_newFilename;
+  uint64_t m_maxSegmentBytes{0};
+  double m_maxSegmentTime{0};
   class Buffer;
   std::vector<Buffer> m_free;
   std::vector<Buffer> m_outgoing;
@@ -260,6 +298,7 @@ class DataLog final {
   };
   wpi::StringMap<EntryInfo> m_entries;
   wpi::DenseMap<int, unsigned int> m_entryCounts;
+  wpi::DenseMap<int, std::string> m_entryMetadata;
   int m_lastId = 0;
   std::thread m_thread;
 };
@@ -0,0 +1,38 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class FloatCircularBufferTest {
+  @Test
+  void pushPopTest() {
+    FloatCircularBuffer queue = new FloatCircularBuffer(3);
+
+    queue.addLast(2f);
+    queue.addLast(3f);
+    queue.addFirst(1f);
+    assertEquals(3, queue.size());
+
+    // Overwrite 1
+    queue.addLast(4f);
+    assertEquals(2f, queue.getFirst());
+    assertEquals(4f, queue.getLast());
+
+    float[] values = new float[3];
+    queue.copyTo(values);
+    assertArrayEquals(new float[] {2f, 3f, 4f}, values);
+
+    assertEquals(2.0 + 30.0 + 400.0, queue.dot(new double[] {1.0, 10.0, 100.0}));
+
+    assertEquals(4f, queue.removeLast());
+    assertEquals(2f, queue.removeFirst());
+    assertEquals(3f, queue.removeFirst());
+    assertEquals(0f, queue.removeFirst());
+  }
+}
@@ -0,0 +1,38 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class IntCircularBufferTest {
+  @Test
+  void pushPopTest() {
+    IntCircularBuffer queue = new IntCircularBuffer(3);
+
+    queue.addLast(2);
+    queue.addLast(3);
+    queue.addFirst(1);
+    assertEquals(3, queue.size());
+
+    // Overwrite 1
+    queue.addLast(4);
+    assertEquals(2, queue.getFirst());
+    assertEquals(4, queue.getLast());
+
+    int[] values = new int[3];
+    queue.copyTo(values);
+    assertArrayEquals(new int[] {2, 3, 4}, values);
+
+    assertEquals(2.0 + 30.0 + 400.0, queue.dot(new double[] {1.0, 10.0, 100.0}));
+
+    assertEquals(4, queue.removeLast());
+    assertEquals(2, queue.removeFirst());
+    assertEquals(3, queue.removeFirst());
+    assertEquals(0, queue.removeFirst());
+  }
+}
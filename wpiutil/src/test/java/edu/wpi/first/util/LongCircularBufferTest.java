@@ -0,0 +1,38 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class LongCircularBufferTest {
+  @Test
+  void pushPopTest() {
+    LongCircularBuffer queue = new LongCircularBuffer(3);
+
+    queue.addLast(2L);
+    queue.addLast(3L);
+    queue.addFirst(1L);
+    assertEquals(3, queue.size());
+
+    // Overwrite 1
+    queue.addLast(4L);
+    assertEquals(2L, queue.getFirst());
+    assertEquals(4L, queue.getLast());
+
+    long[] values = new long[3];
+    queue.copyTo(values);
+    assertArrayEquals(new long[] {2L, 3L, 4L}, values);
+
+    assertEquals(2.0 + 30.0 + 400.0, queue.dot(new double[] {1.0, 10.0, 100.0}));
+
+    assertEquals(4L, queue.removeLast());
+    assertEquals(2L, queue.removeFirst());
+    assertEquals(3L, queue.removeFirst());
+    assertEquals(0L, queue.removeFirst());
+  }
+}
@@ -0,0 +1,81 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class SpscDoubleCircularBufferTest {
+  @Test
+  void offerPollTest() {
+    SpscDoubleCircularBuffer queue = new SpscDoubleCircularBuffer(3);
+    assertEquals(4, queue.capacity());
+    assertTrue(queue.isEmpty());
+    assertEquals(-1.0, queue.poll(-1.0));
+
+    for (int i = 0; i < 4; i++) {
+      assertTrue(queue.offer(i));
+    }
+    // Full; the new value is dropped
+    assertFalse(queue.offer(4.0));
+    assertEquals(4, queue.size());
+
+    assertEquals(0.0, queue.poll(-1.0));
+    assertTrue(queue.offer(4.0));
+
+    // Wrap around the end of the internal array
+    double[] values = new double[3];
+    assertEquals(3, queue.drainTo(values));
+    assertArrayEquals(new double[] {1.0, 2.0, 3.0}, values);
+    assertEquals(4.0, queue.poll(-1.0));
+    assertTrue(queue.isEmpty());
+
+    queue.offer(5.0);
+    queue.offer(6.0);
+    DoubleCircularBuffer history = new DoubleCircularBuffer(8);
+    assertEquals(2, queue.drainTo(history));
+    assertEquals(5.0, history.get(0));
+    assertEquals(6.0, history.get(1));
+
+    queue.offer(7.0);
+    queue.clear();
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  void threadsTest() throws InterruptedException {
+    SpscDoubleCircularBuffer queue = new SpscDoubleCircularBuffer(16);
+    int count = 100000;
+    Thread producer =
+        new Thread(
+            () -> {
+              for (int i = 0; i < count; i++) {
+                while (!queue.offer(i)) {
+                  Thread.yield();
+                }
+              }
+            });
+    producer.setDaemon(true);
+    producer.start();
+
+    double[] values = new double[7];
+    int expected = 0;
+    while (expected < count) {
+      int n = queue.drainTo(values);
+      if (n == 0) {
+        Thread.yield();
+      }
+      for (int i = 0; i < n; i++) {
+        assertEquals(expected++, values[i]);
+      }
+    }
+    producer.join();
+    assertTrue(queue.isEmpty());
+  }
+}
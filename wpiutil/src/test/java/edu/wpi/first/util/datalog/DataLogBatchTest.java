@@ -0,0 +1,112 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.datalog;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DataLogBatchTest {
+  private static List<DataLogRecord> readDataRecords(Path file) throws IOException {
+    var reader = new DataLogReader(file.toString());
+    assertTrue(reader.isValid());
+    var records = new ArrayList<DataLogRecord>();
+    for (DataLogRecord record : reader) {
+      if (!record.isControl()) {
+        records.add(record);
+      }
+    }
+    return records;
+  }
+
+  @Test
+  void testCommit(@TempDir Path directory) throws IOException {
+    var log = new DataLog(directory.toString(), "batch.wpilog");
+    var booleanEntry = new BooleanLogEntry(log, "boolean");
+    var integerEntry = new IntegerLogEntry(log, "integer");
+    var floatEntry = new FloatLogEntry(log, "float");
+    var doubleEntry = new DoubleLogEntry(log, "double");
+    var stringEntry = new StringLogEntry(log, "string");
+    var doubleArrayEntry = new DoubleArrayLogEntry(log, "doubleArray");
+    var stringArrayEntry = new StringArrayLogEntry(log, "stringArray");
+
+    var batch = new DataLogBatch(log);
+    booleanEntry.append(batch, true, 1);
+    integerEntry.append(batch, -5, 2);
+    floatEntry.append(batch, 1.5f, 3);
+    doubleEntry.append(batch, 2.25, 4);
+    stringEntry.append(batch, "hello", 5);
+    doubleArrayEntry.append(batch, new double[] {1.0, 2.0, 3.0}, 6);
+    stringArrayEntry.append(batch, new String[] {"a", "bc"}, 7);
+    assertEquals(7, batch.size());
+
+    batch.commit();
+    assertTrue(batch.isEmpty());
+    log.close();
+
+    var records = readDataRecords(directory.resolve("batch.wpilog"));
+    assertEquals(7, records.size());
+    for (int i = 0; i < records.size(); i++) {
+      assertEquals(i + 1, records.get(i).getTimestamp());
+    }
+    assertTrue(records.get(0).getBoolean());
+    assertEquals(-5, records.get(1).getInteger());
+    assertEquals(1.5f, records.get(2).getFloat());
+    assertEquals(2.25, records.get(3).getDouble());
+    assertEquals("hello", records.get(4).getString());
+    assertArrayEquals(new double[] {1.0, 2.0, 3.0}, records.get(5).getDoubleArray());
+    assertArrayEquals(new String[] {"a", "bc"}, records.get(6).getStringArray());
+  }
+
+  @Test
+  void testGrowAndReuse(@TempDir Path directory) throws IOException {
+    var log = new DataLog(directory.toString(), "grow.wpilog");
+    var entry = new DoubleLogEntry(log, "double");
+    var arrayEntry = new IntegerArrayLogEntry(log, "integerArray");
+
+    // Start smaller than a single record so the buffer has to grow
+    var batch = new DataLogBatch(log, 1);
+    for (int i = 0; i < 100; i++) {
+      entry.append(batch, i, i + 1);
+    }
+    arrayEntry.append(batch, new long[500], 101);
+    batch.commit();
+
+    entry.append(batch, 100.0, 102);
+    batch.commit();
+    log.close();
+
+    var records = readDataRecords(directory.resolve("grow.wpilog"));
+    assertEquals(102, records.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, records.get(i).getDouble());
+    }
+    assertArrayEquals(new long[500], records.get(100).getIntegerArray());
+    assertEquals(100.0, records.get(101).getDouble());
+  }
+
+  @Test
+  void testPausedLogDropsBatch(@TempDir Path directory) throws IOException {
+    var log = new DataLog(directory.toString(), "paused.wpilog");
+    var entry = new DoubleLogEntry(log, "double");
+
+    var batch = new DataLogBatch(log);
+    entry.append(batch, 1.0, 1);
+    log.pause();
+    batch.commit();
+    assertTrue(batch.isEmpty());
+    log.resume();
+    log.close();
+
+    assertTrue(readDataRecords(directory.resolve("paused.wpilog")).isEmpty());
+  }
+}
@@ -0,0 +1,139 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.datalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DataLogColumnExporterTest {
+  private static ByteBuffer readColumn(Path dir, JsonNode signal, String column)
+      throws IOException {
+    return ByteBuffer.wrap(Files.readAllBytes(dir.resolve(signal.get(column).asText())))
+        .order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  @Test
+  void testExport(@TempDir Path dir) throws IOException {
+    var log = new TestLogWriter();
+    log.start(1, "double", "double", 1);
+    log.start(2, "doubles", "double[]", 1);
+    log.start(3, "string", "string", 1);
+    for (int i = 0; i < 10000; i++) {
+      log.appendDouble(1, i * 0.25, 100 + i);
+      if (i % 10 == 0) {
+        log.appendDoubleArray(2, new double[i % 3], 100 + i);
+        log.appendString(3, "s" + i, 100 + i);
+      }
+    }
+    // Wrong size for a double; skipped
+    log.record(1, new byte[4], 50000);
+    // Entry restarted after finish
+    log.finish(1, 60000);
+    log.start(1, "other", "int64", 60001);
+    log.record(1, new byte[8], 60002);
+
+    var executor = Executors.newFixedThreadPool(4);
+    try {
+      assertEquals(
+          4,
+          DataLogColumnExporter.export(
+              new DataLogReader(ByteBuffer.wrap(log.toByteArray())), dir, executor));
+    } finally {
+      executor.shutdown();
+    }
+
+    JsonNode manifest =
+        new ObjectMapper().readTree(dir.resolve(DataLogColumnExporter.kManifestFilename).toFile());
+    JsonNode signals = manifest.get("signals");
+    assertEquals(4, signals.size());
+
+    JsonNode doubleSignal = signals.get(0);
+    assertEquals("double", doubleSignal.get("name").asText());
+    assertEquals("float64", doubleSignal.get("elementType").asText());
+    assertEquals(10000, doubleSignal.get("count").asLong());
+    assertFalse(doubleSignal.has("offsets"));
+    ByteBuffer timestamps = readColumn(dir, doubleSignal, "timestamps");
+    ByteBuffer values = readColumn(dir, doubleSignal, "values");
+    assertEquals(10000 * 8, timestamps.remaining());
+    assertEquals(10000 * 8, values.remaining());
+    for (int i = 0; i < 10000; i++) {
+      assertEquals(100 + i, timestamps.getLong(i * 8));
+      assertEquals(i * 0.25, values.getDouble(i * 8));
+    }
+
+    JsonNode arraySignal = signals.get(1);
+    assertEquals(1000, arraySignal.get("count").asLong());
+    ByteBuffer offsets = readColumn(dir, arraySignal, "offsets");
+    assertEquals(1001 * 8, offsets.remaining());
+    long elements = 0;
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(elements, offsets.getLong(i * 8));
+      elements += (i * 10) % 3;
+    }
+    assertEquals(elements, offsets.getLong(1000 * 8));
+    assertEquals(elements * 8, readColumn(dir, arraySignal, "values").remaining());
+
+    JsonNode stringSignal = signals.get(2);
+    assertEquals("bytes", stringSignal.get("elementType").asText());
+    ByteBuffer strings = readColumn(dir, stringSignal, "values");
+    offsets = readColumn(dir, stringSignal, "offsets");
+    byte[] string = new byte[(int) (offsets.getLong(8 * 8) - offsets.getLong(7 * 8))];
+    strings.position((int) offsets.getLong(7 * 8)).get(string);
+    assertEquals("s70", new String(string, StandardCharsets.UTF_8));
+
+    JsonNode restarted = signals.get(3);
+    assertEquals("other", restarted.get("name").asText());
+    assertEquals(1, restarted.get("entry").asInt());
+    assertEquals(1, restarted.get("count").asLong());
+    assertEquals(60002, readColumn(dir, restarted, "timestamps").getLong(0));
+  }
+
+  @Test
+  void testLargeEntryIds(@TempDir Path dir) throws IOException {
+    var log = new TestLogWriter();
+    // Starting 50000 after 40000 used to grow the direct table past 65536 entries, so records of
+    // 70000 were looked up in the table instead of with the other large IDs
+    log.start(40000, "a", "double", 1);
+    log.start(50000, "b", "double", 1);
+    log.start(70000, "c", "double", 1);
+    for (int i = 0; i < 10; i++) {
+      log.appendDouble(70000, i, 10 + i);
+    }
+    log.finish(70000, 100);
+    log.appendDouble(70000, 10, 101);
+
+    var reader = new DataLogReader(ByteBuffer.wrap(log.toByteArray()));
+    assertEquals(3, DataLogColumnExporter.export(reader, dir));
+
+    JsonNode signals =
+        new ObjectMapper()
+            .readTree(dir.resolve(DataLogColumnExporter.kManifestFilename).toFile())
+            .get("signals");
+    JsonNode large = signals.get(2);
+    assertEquals(70000, large.get("entry").asInt());
+    assertEquals(10, large.get("count").asLong());
+    assertEquals(9.0, readColumn(dir, large, "values").getDouble(9 * 8));
+  }
+
+  @Test
+  void testInvalidLog(@TempDir Path dir) {
+    var reader = new DataLogReader(ByteBuffer.wrap(Arrays.copyOf(new byte[] {'W'}, 12)));
+    assertThrows(IOException.class, () -> DataLogColumnExporter.export(reader, dir));
+  }
+}
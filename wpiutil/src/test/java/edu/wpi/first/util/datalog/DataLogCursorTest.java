@@ -0,0 +1,160 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.datalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class DataLogCursorTest {
+  private static DataLogReader makeReader() {
+    var log = new TestLogWriter();
+    log.start(1, "double", "double", 1);
+    log.start(2, "string", "string", 1);
+    log.start(3, "doubles", "double[]", 1);
+    log.start(4, "strings", "string[]", 1);
+    log.start(5, "raw", "raw", 1);
+    log.appendDouble(1, 1.5, 10);
+    log.appendString(2, "héllo", 20);
+    log.appendDoubleArray(3, new double[] {1.0, 2.0, 3.0}, 30);
+    log.appendStringArray(4, new String[] {"a", "", "über"}, 40);
+    log.record(5, new byte[] {7, 8}, 50);
+    log.appendDouble(6, 2.5, 60);
+    log.finish(1, 70);
+    log.appendDouble(1, 3.5, 80);
+    return new DataLogReader(ByteBuffer.wrap(log.toByteArray()));
+  }
+
+  @Test
+  void testCursorMatchesRecords() {
+    var reader = makeReader();
+    var cursor = new DataLogCursor(reader);
+    reader.forEach(
+        record -> {
+          assertTrue(cursor.next());
+          assertEquals(record.getEntry(), cursor.getEntry());
+          assertEquals(record.getTimestamp(), cursor.getTimestamp());
+          assertEquals(record.getSize(), cursor.getSize());
+          assertEquals(record.isStart(), cursor.isStart());
+          assertEquals(record.isFinish(), cursor.isFinish());
+          assertEquals(record.getRawBuffer(), cursor.getRawBuffer());
+        });
+    assertFalse(cursor.next());
+    assertThrows(IllegalStateException.class, cursor::getEntry);
+
+    cursor.reset();
+    assertTrue(cursor.next());
+    assertTrue(cursor.isStart());
+    assertEquals("double", cursor.getRecord().getStartData().name);
+  }
+
+  @Test
+  void testTypedAccessors() {
+    var cursor = new DataLogCursor(makeReader());
+    for (int i = 0; i < 6; i++) {
+      assertTrue(cursor.next());
+    }
+    assertEquals(1.5, cursor.getDouble());
+    long doublePosition = cursor.getPosition();
+
+    assertTrue(cursor.next());
+    CharSequence string = cursor.getString();
+    assertEquals("héllo", string.toString());
+    assertEquals(5, string.length());
+
+    assertTrue(cursor.next());
+    assertEquals(3, cursor.getDoubleArrayLength());
+    assertEquals(2.0, cursor.getDouble(1));
+    assertThrows(IndexOutOfBoundsException.class, () -> cursor.getDouble(3));
+
+    assertTrue(cursor.next());
+    assertEquals(3, cursor.getStringArrayLength());
+    assertEquals("a", cursor.getString(0).toString());
+    assertEquals("", cursor.getString(1).toString());
+    assertEquals("über", cursor.getString(2).toString());
+
+    // Strings reuse the same sequence
+    assertSame(string, cursor.getString(0));
+
+    assertTrue(cursor.seek(doublePosition));
+    assertEquals(1.5, cursor.getDouble());
+  }
+
+  @Test
+  void testVisitor() {
+    var visited = new ArrayList<String>();
+    makeReader()
+        .visit(
+            new DataLogVisitor() {
+              @Override
+              public void visitStart(DataLogRecord.StartRecordData data, long timestamp) {
+                visited.add("start " + data.name);
+              }
+
+              @Override
+              public void visitFinish(int entry, long timestamp) {
+                visited.add("finish " + entry);
+              }
+
+              @Override
+              public void visitDouble(int entry, long timestamp, double value) {
+                visited.add(timestamp + " " + value);
+              }
+
+              @Override
+              public void visitString(int entry, long timestamp, CharSequence value) {
+                visited.add(timestamp + " " + value);
+              }
+
+              @Override
+              public void visitDoubleArray(int entry, long timestamp, DataLogCursor array) {
+                double sum = 0.0;
+                for (int i = 0; i < array.getDoubleArrayLength(); i++) {
+                  sum += array.getDouble(i);
+                }
+                visited.add(timestamp + " sum " + sum);
+              }
+
+              @Override
+              public void visitStringArray(int entry, long timestamp, DataLogCursor array) {
+                var builder = new StringBuilder();
+                for (int i = 0; i < array.getStringArrayLength(); i++) {
+                  builder.append(array.getString(i)).append(',');
+                }
+                visited.add(timestamp + " " + builder);
+              }
+
+              @Override
+              public void visitRaw(int entry, long timestamp, ByteBuffer data) {
+                visited.add(timestamp + " raw " + data.remaining());
+              }
+            });
+
+    assertEquals(
+        List.of(
+            "start double",
+            "start string",
+            "start doubles",
+            "start strings",
+            "start raw",
+            "10 1.5",
+            "20 héllo",
+            "30 sum 6.0",
+            "40 a,,über,",
+            "50 raw 2",
+            // Records of unknown or finished entries are passed as raw
+            "60 raw 8",
+            "finish 1",
+            "80 raw 8"),
+        visited);
+  }
+}
@@ -0,0 +1,257 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.datalog;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+class DataLogIndexTest {
+  // Writes two interleaved double entries and a raw entry whose records vary in size
+  private static byte[] makeLog(int records) {
+    var log = new TestLogWriter();
+    log.start(1, "a", "double", 1);
+    log.start(2, "b", "double", 1);
+    log.start(300, "raw", "raw", 1);
+    var random = new Random(4901);
+    for (int i = 0; i < records; i++) {
+      long timestamp = 1000L * (i + 1);
+      log.appendDouble(1, i, timestamp);
+      log.appendDouble(2, -i, timestamp);
+      log.record(300, new byte[random.nextInt(i % 50 == 0 ? 5000 : 40)], timestamp);
+    }
+    return log.toByteArray();
+  }
+
+  private static void assertIndexesEqual(DataLogIndex expected, DataLogIndex actual) {
+    assertEquals(expected.getEntries().size(), actual.getEntries().size());
+    for (int i = 0; i < expected.getEntries().size(); i++) {
+      var expectedEntry = expected.getEntries().get(i);
+      var actualEntry = actual.getEntries().get(i);
+      assertEquals(expectedEntry.getId(), actualEntry.getId());
+      assertEquals(expectedEntry.getName(), actualEntry.getName());
+      assertEquals(expectedEntry.getType(), actualEntry.getType());
+      assertEquals(expectedEntry.getRecordCount(), actualEntry.getRecordCount());
+      for (int j = 0; j < expectedEntry.getRecordCount(); j++) {
+        assertEquals(expectedEntry.getTimestamp(j), actualEntry.getTimestamp(j));
+        assertEquals(expectedEntry.getPosition(j), actualEntry.getPosition(j));
+      }
+    }
+  }
+
+  @Test
+  void testParallelMatchesSequential() {
+    var reader = new DataLogReader(ByteBuffer.wrap(makeLog(1000)));
+    var pool = new ForkJoinPool(4);
+    try {
+      var sequential = DataLogIndex.build(reader, pool, Integer.MAX_VALUE);
+      for (int chunkSize : new int[] {64, 1000, 4096, 65536}) {
+        assertIndexesEqual(sequential, DataLogIndex.build(reader, pool, chunkSize));
+      }
+
+      // Every data record in the log is indexed
+      int records = 0;
+      for (DataLogRecord record : reader) {
+        if (!record.isControl()) {
+          records++;
+        }
+      }
+      int indexed = 0;
+      for (var entry : sequential.getEntries()) {
+        indexed += entry.getRecordCount();
+      }
+      assertEquals(records, indexed);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void testTimeWindow() {
+    var index = DataLogIndex.build(new DataLogReader(ByteBuffer.wrap(makeLog(100))));
+    var entry = index.getEntry("b");
+    assertEquals(100, entry.getRecordCount());
+    assertNull(index.getEntry("missing"));
+
+    List<DataLogRecord> records = index.getRecords(entry, 10_000, 12_500);
+    assertEquals(3, records.size());
+    for (int i = 0; i < records.size(); i++) {
+      assertEquals(10_000 + i * 1000, records.get(i).getTimestamp());
+      assertEquals(-(9.0 + i), records.get(i).getDouble());
+    }
+
+    assertEquals(0, index.getRecords(entry, 500_000, 600_000).size());
+    assertEquals(-99.0, index.getRecord(entry, 99).getDouble());
+  }
+
+  @Test
+  void testUnsortedTimestampsAndReusedIds() {
+    var log = new TestLogWriter();
+    log.start(1, "first", "double", 1);
+    long[] timestamps = {50, 10, 40, 10, 30};
+    for (int i = 0; i < timestamps.length; i++) {
+      log.appendDouble(1, i, timestamps[i]);
+    }
+    log.finish(1, 60);
+    log.appendDouble(1, 100.0, 70);
+    log.start(1, "second", "double", 80);
+    log.appendDouble(1, 5.0, 90);
+
+    var index = DataLogIndex.build(new DataLogReader(ByteBuffer.wrap(log.toByteArray())));
+    assertEquals(2, index.getEntries().size());
+
+    var first = index.getEntry("first");
+    var values = new ArrayList<Double>();
+    index.forEachRecord(first, 0, 100, record -> values.add(record.getDouble()));
+    assertEquals(List.of(1.0, 3.0, 4.0, 2.0, 0.0), values);
+
+    var second = index.getEntry("second");
+    assertEquals(1, second.getRecordCount());
+    assertEquals(5.0, index.getRecord(second, 0).getDouble());
+  }
+
+  @Test
+  void testTruncatedLog() {
+    byte[] log = makeLog(10);
+    var truncated = ByteBuffer.wrap(log, 0, log.length - 3).slice();
+    var index = DataLogIndex.build(new DataLogReader(truncated), ForkJoinPool.commonPool(), 100);
+    assertEquals(10, index.getEntry("a").getRecordCount());
+    assertEquals(9, index.getEntry("raw").getRecordCount());
+  }
+
+  @Test
+  void testSaveAndLoad(@TempDir Path directory) throws IOException {
+    var reader = new DataLogReader(ByteBuffer.wrap(makeLog(200)));
+    var index = DataLogIndex.build(reader);
+    var path = directory.resolve("test.wpilog.idx");
+    index.save(path);
+    assertIndexesEqual(index, DataLogIndex.load(reader, path));
+
+    var otherReader = new DataLogReader(ByteBuffer.wrap(makeLog(10)));
+    assertThrows(IOException.class, () -> DataLogIndex.load(otherReader, path));
+  }
+
+  @Test
+  void testLoadOrBuild(@TempDir Path directory) throws IOException {
+    var logPath = directory.resolve("test.wpilog");
+    Files.write(logPath, makeLog(50));
+
+    var built = DataLogIndex.loadOrBuild(logPath);
+    var indexPath = directory.resolve("test.wpilog" + DataLogIndex.kSidecarSuffix);
+    assertTrue(Files.exists(indexPath));
+    assertIndexesEqual(built, DataLogIndex.loadOrBuild(logPath));
+
+    // A corrupt sidecar is rebuilt
+    Files.write(indexPath, new byte[] {1, 2, 3});
+    assertIndexesEqual(built, DataLogIndex.loadOrBuild(logPath));
+    assertTrue(Files.size(indexPath) > 3);
+  }
+
+  @Test
+  void testWindows(@TempDir Path directory) throws IOException {
+    byte[] log = makeLog(1000);
+    var logPath = directory.resolve("test.wpilog");
+    Files.write(logPath, log);
+    var expected = new DataLogReader(ByteBuffer.wrap(log));
+    // Records of up to 5000 bytes cross into the next window
+    var reader = new DataLogReader(logPath.toString(), 8192);
+
+    var expectedCursor = new DataLogCursor(expected);
+    var cursor = new DataLogCursor(reader);
+    while (expectedCursor.next()) {
+      assertTrue(cursor.next());
+      assertEquals(expectedCursor.getPosition(), cursor.getPosition());
+      assertEquals(expectedCursor.getTimestamp(), cursor.getTimestamp());
+      assertArrayEquals(expectedCursor.getRecord().getRaw(), cursor.getRecord().getRaw());
+    }
+    assertFalse(cursor.next());
+
+    var expectedRecords = new ArrayList<byte[]>();
+    expected.forEach(record -> expectedRecords.add(record.getRaw()));
+    var records = new ArrayList<byte[]>();
+    reader.forEach(record -> records.add(record.getRaw()));
+    assertEquals(expectedRecords.size(), records.size());
+    for (int i = 0; i < records.size(); i++) {
+      assertArrayEquals(expectedRecords.get(i), records.get(i));
+    }
+
+    var pool = new ForkJoinPool(4);
+    try {
+      var sequential = DataLogIndex.build(expected, pool, Integer.MAX_VALUE);
+      for (int chunkSize : new int[] {1000, 8192, 65536}) {
+        assertIndexesEqual(sequential, DataLogIndex.build(reader, pool, chunkSize));
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  // Windows doesn't create sparse files, so this would write the whole log
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testLargerThan2GB(@TempDir Path directory) throws IOException {
+    var log = new TestLogWriter();
+    log.start(1, "raw", "raw", 1);
+    log.start(2, "double", "double", 1);
+    var logPath = directory.resolve("large.wpilog");
+    try (var file = new RandomAccessFile(logPath.toFile(), "rw")) {
+      file.write(log.toByteArray());
+      // Sparse, so the raw payloads use no disk space
+      int rawSize = 800_000_000;
+      for (int i = 0; i < 3; i++) {
+        file.write(TestLogWriter.header(1, rawSize, 2 + i));
+        file.seek(file.getFilePointer() + rawSize);
+      }
+      var value = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+      for (int i = 0; i < 10; i++) {
+        file.write(TestLogWriter.header(2, 8, 10 + i));
+        file.write(value.putDouble(0, i).array());
+      }
+    }
+
+    var reader = new DataLogReader(logPath.toString());
+    assertTrue(reader.size() > Integer.MAX_VALUE);
+    var cursor = new DataLogCursor(reader);
+    int count = 0;
+    while (cursor.next()) {
+      count++;
+    }
+    assertEquals(2 + 3 + 10, count);
+
+    var index = DataLogIndex.build(reader, ForkJoinPool.commonPool(), Integer.MAX_VALUE);
+    assertEquals(3, index.getEntry("raw").getRecordCount());
+    var entry = index.getEntry("double");
+    assertEquals(10, entry.getRecordCount());
+    for (int i = 0; i < 10; i++) {
+      assertTrue(entry.getPosition(i) > Integer.MAX_VALUE);
+      assertEquals(i, index.getRecord(entry, i).getDouble());
+    }
+
+    assertTrue(cursor.seek(entry.getPosition(9)));
+    assertEquals(9.0, cursor.getDouble());
+
+    var indexPath = directory.resolve("large.wpilog.idx");
+    index.save(indexPath);
+    assertIndexesEqual(index, DataLogIndex.load(reader, indexPath));
+  }
+}
@@ -0,0 +1,375 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.datalog;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JavaDataLogTest {
+  private static List<DataLogRecord> readRecords(Path path) throws IOException {
+    var reader = new DataLogReader(ByteBuffer.wrap(Files.readAllBytes(path)));
+    assertTrue(reader.isValid());
+    var records = new ArrayList<DataLogRecord>();
+    reader.forEach(records::add);
+    return records;
+  }
+
+  @Test
+  void testMatchesWireFormat(@TempDir Path dir) throws IOException {
+    try (var log = new JavaDataLog(dir.toString(), "test.wpilog")) {
+      int doubleEntry = log.start("double", "double", "", 1);
+      int stringEntry = log.start("string", "string", "", 1);
+      int doublesEntry = log.start("doubles", "double[]", "", 1);
+      int stringsEntry = log.start("strings", "string[]", "", 1);
+      log.appendDouble(doubleEntry, 1.5, 10);
+      log.appendString(stringEntry, "héllo", 20);
+      log.appendDoubleArray(doublesEntry, new double[] {1.0, 2.0, 3.0}, 30);
+      log.appendStringArray(stringsEntry, new String[] {"a", "", "über"}, 40);
+      log.appendRaw(doubleEntry, new byte[0], 0x123456789L);
+      log.finish(doubleEntry, 50);
+    }
+
+    var expected = new TestLogWriter();
+    expected.start(1, "double", "double", 1);
+    expected.start(2, "string", "string", 1);
+    expected.start(3, "doubles", "double[]", 1);
+    expected.start(4, "strings", "string[]", 1);
+    expected.appendDouble(1, 1.5, 10);
+    expected.appendString(2, "héllo", 20);
+    expected.appendDoubleArray(3, new double[] {1.0, 2.0, 3.0}, 30);
+    expected.appendStringArray(4, new String[] {"a", "", "über"}, 40);
+    expected.record(1, new byte[0], 0x123456789L);
+    expected.finish(1, 50);
+
+    assertArrayEquals(expected.toByteArray(), Files.readAllBytes(dir.resolve("test.wpilog")));
+  }
+
+  @Test
+  void testEntries(@TempDir Path dir) throws IOException {
+    try (var log = new JavaDataLog(dir.toString(), "test.wpilog")) {
+      int entry = log.start("a", "int64");
+      assertEquals(entry, log.start("a", "int64"));
+      assertEquals(0, log.start("a", "double"));
+      assertNotEquals(entry, log.start("b", "int64"));
+
+      log.pause();
+      log.appendInteger(entry, 1, 10);
+      log.resume();
+      log.appendInteger(entry, 2, 20);
+
+      // Start was called three times, so only the third finish is written
+      log.finish(entry, 30);
+      log.finish(entry, 30);
+      log.appendInteger(entry, 3, 40);
+      log.finish(entry, 50);
+      log.finish(entry, 50);
+    }
+
+    var records = readRecords(dir.resolve("test.wpilog"));
+    assertEquals(5, records.size());
+    assertTrue(records.get(0).isStart());
+    assertEquals("a", records.get(0).getStartData().name);
+    assertTrue(records.get(1).isStart());
+    assertEquals(2, records.get(2).getInteger());
+    assertEquals(3, records.get(3).getInteger());
+    assertTrue(records.get(4).isFinish());
+    assertEquals(50, records.get(4).getTimestamp());
+  }
+
+  @Test
+  void testLargeRecords(@TempDir Path dir) throws IOException {
+    double[] large = new double[10000];
+    for (int i = 0; i < large.length; i++) {
+      large[i] = i;
+    }
+
+    // A buffer limit smaller than a single record
+    try (var log = new JavaDataLog(dir.toString(), "test.wpilog", 0.25, "extra", 0)) {
+      int entry = log.start("large", "double[]");
+      for (int i = 0; i < 20; i++) {
+        log.appendDoubleArray(entry, large, i + 1);
+      }
+    }
+
+    var records = readRecords(dir.resolve("test.wpilog"));
+    assertEquals(21, records.size());
+    for (int i = 1; i < records.size(); i++) {
+      assertEquals(i, records.get(i).getTimestamp());
+      assertArrayEquals(large, records.get(i).getDoubleArray());
+    }
+  }
+
+  @Test
+  void testConcurrentWriters(@TempDir Path dir) throws Exception {
+    var threads = new Thread[4];
+    try (var log = new JavaDataLog(dir.toString(), "test.wpilog", 0.01, "", 64 * 1024)) {
+      for (int t = 0; t < threads.length; t++) {
+        int entry = log.start("thread" + t, "int64");
+        threads[t] =
+            new Thread(
+                () -> {
+                  for (int i = 0; i < 10000; i++) {
+                    log.appendInteger(entry, i, i + 1);
+                  }
+                });
+        threads[t].start();
+      }
+      for (Thread thread : threads) {
+        thread.join();
+      }
+      log.flush();
+    }
+
+    long[] next = new long[threads.length + 1];
+    var reader = new DataLogCursor(new DataLogReader(dir.resolve("test.wpilog").toString()));
+    int count = 0;
+    while (reader.next()) {
+      if (!reader.isControl()) {
+        // Each thread's records are in order
+        assertEquals(next[reader.getEntry()]++, reader.getInteger());
+        count++;
+      }
+    }
+    assertEquals(threads.length * 10000, count);
+  }
+
+  @Test
+  void testBatch(@TempDir Path dir) throws IOException {
+    try (var log = new JavaDataLog(dir.toString(), "test.wpilog")) {
+      var entry = new DoubleLogEntry(log, "double", 1);
+      var batch = new DataLogBatch(log, 16);
+      for (int i = 0; i < 100; i++) {
+        entry.append(batch, i, i + 1);
+      }
+      batch.commit();
+      assertTrue(batch.isEmpty());
+    }
+
+    var records = readRecords(dir.resolve("test.wpilog"));
+    assertEquals(101, records.size());
+    for (int i = 1; i < records.size(); i++) {
+      assertEquals(i, records.get(i).getTimestamp());
+      assertEquals(i - 1, records.get(i).getDouble());
+    }
+  }
+
+  @Test
+  void testCompressed(@TempDir Path dir) throws IOException {
+    for (boolean compressed : new boolean[] {false, true}) {
+      String filename = compressed ? "compressed.wpilog" : "uncompressed.wpilog";
+      try (var log =
+          new JavaDataLog(dir.toString(), filename, 0.25, "extra", 1024 * 1024, compressed)) {
+        assertEquals(compressed, log.isCompressed());
+        int doubleEntry = log.start("double", "double", "", 1);
+        int stringEntry = log.start("string", "string", "", 1);
+        for (int i = 0; i < 50000; i++) {
+          log.appendDouble(doubleEntry, i * 0.5, i + 1);
+          if (i % 100 == 0) {
+            log.appendString(stringEntry, "value " + i, i + 1);
+          }
+          if (i % 20000 == 0) {
+            log.flush();
+          }
+        }
+      }
+    }
+
+    Path compressedPath = dir.resolve("compressed.wpilog");
+    byte[] compressed = Files.readAllBytes(compressedPath);
+    byte[] uncompressed = Files.readAllBytes(dir.resolve("uncompressed.wpilog"));
+    assertTrue(compressed.length < uncompressed.length / 2);
+
+    var reader = new DataLogReader(compressedPath.toString());
+    assertTrue(reader.isValid());
+    assertTrue(reader.isCompressed());
+    assertEquals("extra", reader.getExtraHeader());
+    assertFalse(new DataLogReader(ByteBuffer.wrap(uncompressed)).isCompressed());
+    // Readers that only support uncompressed logs check for this magic
+    assertEquals("WPILOG", new String(uncompressed, 0, 6, StandardCharsets.UTF_8));
+    assertNotEquals("WPILOG", new String(compressed, 0, 6, StandardCharsets.UTF_8));
+    // The decompressed records are identical and at the same positions
+    var expected = new DataLogCursor(new DataLogReader(ByteBuffer.wrap(uncompressed)));
+    var actual = new DataLogCursor(reader);
+    while (expected.next()) {
+      assertTrue(actual.next());
+      assertEquals(expected.getPosition(), actual.getPosition());
+      assertEquals(expected.getTimestamp(), actual.getTimestamp());
+      assertEquals(expected.getRawBuffer(), actual.getRawBuffer());
+    }
+    assertFalse(actual.next());
+    assertEquals(uncompressed.length, reader.size());
+
+    var index = DataLogIndex.build(reader);
+    var doubles = index.getEntry("double");
+    assertEquals(50000, doubles.getRecordCount());
+    assertEquals(1234 * 0.5, index.getRecord(doubles, 1234).getDouble());
+    // Chunks of compressed logs are scanned from block boundaries
+    var chunked = DataLogIndex.build(reader, ForkJoinPool.commonPool(), 100 * 1024);
+    assertEquals(50000, chunked.getEntry("double").getRecordCount());
+    assertEquals(500, chunked.getEntry("string").getRecordCount());
+
+    // A truncated log is read up to the last complete block
+    var truncated =
+        new DataLogReader(ByteBuffer.wrap(Arrays.copyOf(compressed, compressed.length - 10)));
+    int[] counts = new int[2];
+    reader.forEach(record -> counts[0]++);
+    truncated.forEach(record -> counts[1]++);
+    assertEquals(50000 + 500 + 2, counts[0]);
+    assertTrue(counts[1] > 0);
+    assertTrue(counts[1] < counts[0]);
+  }
+
+  @Test
+  void testCompressedCorruptBlock(@TempDir Path dir) throws IOException {
+    try (var log = new JavaDataLog(dir.toString(), "test.wpilog", 0.25, "", 1024 * 1024, true)) {
+      int entry = log.start("double", "double", "", 1);
+      for (int i = 0; i < 3; i++) {
+        log.appendDouble(entry, i, i + 1);
+        log.flush();
+      }
+    }
+
+    // Corrupt the second block's zlib stream; reading stops at that block
+    byte[] bytes = Files.readAllBytes(dir.resolve("test.wpilog"));
+    var buf = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    int second = 12 + DataLogReader.kBlockHeaderSize + buf.getInt(12);
+    bytes[second + DataLogReader.kBlockHeaderSize] ^= 0xff;
+    var reader = new DataLogReader(buf);
+    var records = new ArrayList<DataLogRecord>();
+    reader.forEach(records::add);
+    assertEquals(2, records.size());
+    assertTrue(records.get(0).isStart());
+    assertEquals(0.0, records.get(1).getDouble());
+
+    var cursor = new DataLogCursor(reader);
+    assertTrue(cursor.next());
+    assertTrue(cursor.next());
+    assertFalse(cursor.next());
+    assertEquals(1, DataLogIndex.build(reader).getEntry("double").getRecordCount());
+  }
+
+  @Test
+  void testCompressedLargerThan2GB() {
+    var log = new TestLogWriter();
+    log.start(1, "double", "double", 1);
+    log.appendDouble(1, 5.0, 2);
+    byte[] records = Arrays.copyOfRange(log.toByteArray(), 12, log.toByteArray().length);
+    var deflater = new Deflater();
+    deflater.setInput(records);
+    deflater.finish();
+    byte[] compressed = new byte[1024];
+    int compressedSize = deflater.deflate(compressed);
+    deflater.end();
+
+    // Two corrupt blocks that claim to decompress to 2 GB in total, then a real block
+    var buf = ByteBuffer.allocate(12 + 3 * DataLogReader.kBlockHeaderSize + compressedSize);
+    buf.order(ByteOrder.LITTLE_ENDIAN);
+    buf.put(DataLogReader.kCompressedMagic.getBytes(StandardCharsets.UTF_8));
+    buf.putShort((short) 0x0100);
+    buf.putInt(0);
+    for (int i = 0; i < 2; i++) {
+      buf.putInt(0);
+      buf.putInt(1 << 30);
+    }
+    buf.putInt(compressedSize);
+    buf.putInt(records.length);
+    buf.put(compressed, 0, compressedSize);
+    buf.flip();
+
+    var reader = new DataLogReader(buf);
+    long blockStart = 12 + (1L << 31);
+    assertEquals(blockStart + records.length, reader.size());
+    var cursor = new DataLogCursor(reader);
+    assertTrue(cursor.seek(blockStart));
+    assertTrue(cursor.isStart());
+    assertTrue(cursor.next());
+    assertEquals(blockStart + records.length - 12, cursor.getPosition());
+    assertEquals(5.0, cursor.getDouble());
+    assertFalse(cursor.next());
+  }
+
+  @Test
+  void testSegments(@TempDir Path dir) throws IOException {
+    for (boolean compressed : new boolean[] {false, true}) {
+      String prefix = compressed ? "compressed" : "plain";
+      // Random data, so the compressed segment also reaches the limit
+      var random = new Random(1);
+      byte[] data = new byte[16];
+      try (var log =
+          new JavaDataLog(
+              dir.toString(),
+              prefix + ".wpilog",
+              100,
+              "",
+              JavaDataLog.kDefaultMaxBufferedBytes,
+              compressed)) {
+        log.setSegmentLimits(1000, 0);
+        int a = log.start("a", "raw", "first");
+        int b = log.start("b", "raw");
+        for (int i = 0; i < 100; i++) {
+          random.nextBytes(data);
+          log.appendRaw(a, data, 10);
+        }
+        log.setMetadata(a, "second", 20);
+        log.finish(b, 30);
+        log.flush();
+
+        // Small enough to stay in the second segment
+        log.appendRaw(a, data, 40);
+        log.flush();
+        log.setFilename(prefix + "_renamed.wpilog");
+        assertEquals(dir.resolve(prefix + "_renamed_001.wpilog"), log.getPath());
+      }
+
+      assertFalse(Files.exists(dir.resolve(prefix + ".wpilog")));
+      var first = readRecords(dir.resolve(prefix + "_renamed.wpilog"));
+      assertEquals(2 + 100 + 2, first.size());
+
+      // The second segment starts with the active entries and their current metadata
+      var second = readRecords(dir.resolve(prefix + "_renamed_001.wpilog"));
+      assertEquals(2, second.size());
+      assertTrue(second.get(0).isStart());
+      assertEquals("a", second.get(0).getStartData().name);
+      assertEquals("second", second.get(0).getStartData().metadata);
+      assertEquals(1, second.get(1).getEntry());
+      assertArrayEquals(data, second.get(1).getRaw());
+    }
+  }
+
+  @Test
+  void testSetFilename(@TempDir Path dir) throws IOException {
+    try (var log = new JavaDataLog(dir.toString(), "")) {
+      Path initial = log.getPath();
+      assertTrue(initial.getFileName().toString().startsWith("wpilog_"));
+      log.appendBoolean(log.start("bool", "boolean"), true, 10);
+      log.setFilename("renamed.wpilog");
+      assertEquals(dir.resolve("renamed.wpilog"), log.getPath());
+      log.flush();
+      assertFalse(Files.exists(initial));
+    }
+
+    var records = readRecords(dir.resolve("renamed.wpilog"));
+    assertEquals(2, records.size());
+    assertTrue(records.get(1).getBoolean());
+  }
+}
@@ -0,0 +1,97 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.datalog;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/** Writes data logs in the wire format without the native DataLog. */
+final class TestLogWriter {
+  private final ByteArrayOutputStream m_out = new ByteArrayOutputStream();
+
+  TestLogWriter() {
+    m_out.writeBytes("WPILOG".getBytes(StandardCharsets.UTF_8));
+    m_out.writeBytes(new byte[] {0, 1, 0, 0, 0, 0});
+  }
+
+  void start(int entry, String name, String type, long timestamp) {
+    byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+    byte[] typeBytes = type.getBytes(StandardCharsets.UTF_8);
+    var buf = ByteBuffer.allocate(17 + nameBytes.length + typeBytes.length);
+    buf.order(ByteOrder.LITTLE_ENDIAN);
+    buf.put((byte) 0).putInt(entry);
+    buf.putInt(nameBytes.length).put(nameBytes);
+    buf.putInt(typeBytes.length).put(typeBytes);
+    buf.putInt(0);
+    record(0, buf.array(), timestamp);
+  }
+
+  void finish(int entry, long timestamp) {
+    var buf = ByteBuffer.allocate(5).order(ByteOrder.LITTLE_ENDIAN);
+    buf.put((byte) 1).putInt(entry);
+    record(0, buf.array(), timestamp);
+  }
+
+  void appendDouble(int entry, double value, long timestamp) {
+    var buf = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+    record(entry, buf.putDouble(value).array(), timestamp);
+  }
+
+  void appendString(int entry, String value, long timestamp) {
+    record(entry, value.getBytes(StandardCharsets.UTF_8), timestamp);
+  }
+
+  void appendDoubleArray(int entry, double[] value, long timestamp) {
+    var buf = ByteBuffer.allocate(8 * value.length).order(ByteOrder.LITTLE_ENDIAN);
+    for (double element : value) {
+      buf.putDouble(element);
+    }
+    record(entry, buf.array(), timestamp);
+  }
+
+  void appendStringArray(int entry, String[] value, long timestamp) {
+    var out = new ByteArrayOutputStream();
+    var buf = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+    out.writeBytes(buf.putInt(0, value.length).array());
+    for (String element : value) {
+      byte[] bytes = element.getBytes(StandardCharsets.UTF_8);
+      out.writeBytes(buf.putInt(0, bytes.length).array());
+      out.writeBytes(bytes);
+    }
+    record(entry, out.toByteArray(), timestamp);
+  }
+
+  void record(int entry, byte[] payload, long timestamp) {
+    m_out.writeBytes(header(entry, payload.length, timestamp));
+    m_out.writeBytes(payload);
+  }
+
+  static byte[] header(int entry, long payloadSize, long timestamp) {
+    var header = new ByteArrayOutputStream();
+    header.write(0);
+    int entryLen = writeVarInt(header, entry);
+    int sizeLen = writeVarInt(header, payloadSize);
+    int timestampLen = writeVarInt(header, timestamp);
+    byte[] headerBytes = header.toByteArray();
+    headerBytes[0] = (byte) (((timestampLen - 1) << 4) | ((sizeLen - 1) << 2) | (entryLen - 1));
+    return headerBytes;
+  }
+
+  byte[] toByteArray() {
+    return m_out.toByteArray();
+  }
+
+  private static int writeVarInt(ByteArrayOutputStream out, long value) {
+    int len = 0;
+    do {
+      out.write((int) (value & 0xff));
+      len++;
+      value >>>= 8;
+    } while (value != 0);
+    return len;
+  }
+}
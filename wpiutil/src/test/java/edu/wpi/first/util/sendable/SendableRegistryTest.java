@@ -0,0 +1,206 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.sendable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.util.function.BooleanConsumer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+class SendableRegistryTest {
+  private static class TestSendable implements Sendable {
+    int m_inits;
+
+    @Override
+    public void initSendable(SendableBuilder builder) {
+      m_inits++;
+    }
+  }
+
+  private static class SendableBuilderStub implements SendableBuilder {
+    int m_updates;
+
+    @Override
+    public void setSmartDashboardType(String type) {}
+
+    @Override
+    public void setActuator(boolean value) {}
+
+    @Override
+    public void setSafeState(Runnable func) {}
+
+    @Override
+    public void addBooleanProperty(String key, BooleanSupplier getter, BooleanConsumer setter) {}
+
+    @Override
+    public void addDoubleProperty(String key, DoubleSupplier getter, DoubleConsumer setter) {}
+
+    @Override
+    public void addStringProperty(String key, Supplier<String> getter, Consumer<String> setter) {}
+
+    @Override
+    public void addBooleanArrayProperty(
+        String key, Supplier<boolean[]> getter, Consumer<boolean[]> setter) {}
+
+    @Override
+    public void addDoubleArrayProperty(
+        String key, Supplier<double[]> getter, Consumer<double[]> setter) {}
+
+    @Override
+    public void addStringArrayProperty(
+        String key, Supplier<String[]> getter, Consumer<String[]> setter) {}
+
+    @Override
+    public void addRawProperty(String key, Supplier<byte[]> getter, Consumer<byte[]> setter) {}
+
+    @Override
+    public BackendKind getBackendKind() {
+      return BackendKind.kUnknown;
+    }
+
+    @Override
+    public boolean isPublished() {
+      return true;
+    }
+
+    @Override
+    public void update() {
+      m_updates++;
+    }
+
+    @Override
+    public void clearProperties() {}
+  }
+
+  @Test
+  void addRemoveTest() {
+    var sendable = new TestSendable();
+    assertFalse(SendableRegistry.contains(sendable));
+    assertEquals("", SendableRegistry.getName(sendable));
+
+    SendableRegistry.add(sendable, "Subsystem", "Name");
+    assertTrue(SendableRegistry.contains(sendable));
+    assertEquals("Name", SendableRegistry.getName(sendable));
+    assertEquals("Subsystem", SendableRegistry.getSubsystem(sendable));
+
+    SendableRegistry.setName(sendable, "Module", 1, 2);
+    assertEquals("Module[1,2]", SendableRegistry.getName(sendable));
+
+    assertTrue(SendableRegistry.remove(sendable));
+    assertFalse(SendableRegistry.contains(sendable));
+    assertFalse(SendableRegistry.remove(sendable));
+  }
+
+  @Test
+  void dataTest() {
+    var sendable = new TestSendable();
+    int handle = SendableRegistry.getDataHandle();
+    assertNull(SendableRegistry.setData(sendable, handle, "data"));
+
+    SendableRegistry.add(sendable, "Name");
+    assertNull(SendableRegistry.setData(sendable, handle, "first"));
+    assertEquals("first", SendableRegistry.setData(sendable, handle, "second"));
+    assertEquals("second", SendableRegistry.getData(sendable, handle));
+    assertNull(SendableRegistry.getData(sendable, handle + 1));
+    SendableRegistry.remove(sendable);
+  }
+
+  @Test
+  void foreachLiveWindowTest() {
+    var parent = new TestSendable();
+    var child = new TestSendable();
+    var other = new TestSendable();
+    SendableRegistry.addLW(parent, "Subsystem", "Parent");
+    SendableRegistry.addLW(child, "Subsystem", "Child");
+    SendableRegistry.addChild(parent, child);
+    SendableRegistry.add(other, "Other");
+    SendableRegistry.publish(parent, new SendableBuilderStub());
+    SendableRegistry.publish(child, new SendableBuilderStub());
+    SendableRegistry.publish(other, new SendableBuilderStub());
+    assertEquals(1, parent.m_inits);
+
+    int handle = SendableRegistry.getDataHandle();
+    List<String> names = new ArrayList<>();
+    SendableRegistry.foreachLiveWindow(
+        handle,
+        cbdata -> {
+          if (cbdata.sendable == parent || cbdata.sendable == child) {
+            names.add(cbdata.name);
+            cbdata.data = cbdata.name;
+            if (cbdata.sendable == child) {
+              assertSame(parent, cbdata.parent);
+            }
+          }
+          // Other registry functions may be called from the callback
+          SendableRegistry.add(new TestSendable(), "Added");
+        });
+    assertEquals(2, names.size());
+    assertTrue(names.contains("Parent"));
+    assertTrue(names.contains("Child"));
+    assertEquals("Child", SendableRegistry.getData(child, handle));
+
+    SendableRegistry.remove(parent);
+    SendableRegistry.remove(child);
+    SendableRegistry.remove(other);
+  }
+
+  @Test
+  void updateTest() {
+    var sendable = new TestSendable();
+    var builder = new SendableBuilderStub();
+    SendableRegistry.publish(sendable, builder);
+    assertEquals(1, builder.m_updates);
+
+    SendableRegistry.update(sendable);
+    assertEquals(2, builder.m_updates);
+
+    SendableRegistry.remove(sendable);
+    SendableRegistry.update(sendable);
+    assertEquals(2, builder.m_updates);
+  }
+
+  @Test
+  void concurrentAccessTest() throws InterruptedException {
+    var sendables = new TestSendable[100];
+    for (int i = 0; i < sendables.length; i++) {
+      sendables[i] = new TestSendable();
+      SendableRegistry.add(sendables[i], "Sendable" + i);
+    }
+
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      threads[t] =
+          new Thread(
+              () -> {
+                for (int i = 0; i < 1000; i++) {
+                  var sendable = new TestSendable();
+                  SendableRegistry.add(sendable, "Temporary");
+                  SendableRegistry.getName(sendables[i % sendables.length]);
+                  SendableRegistry.remove(sendable);
+                }
+              });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    for (int i = 0; i < sendables.length; i++) {
+      assertEquals("Sendable" + i, SendableRegistry.getName(sendables[i]));
+      SendableRegistry.remove(sendables[i]);
+    }
+  }
+}
@@ -0,0 +1,87 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+#include "wpi/DataLog.h"  // NOLINT(build/include_order)
+
+#include <memory>
+#include <string>
+#include <system_error>
+
+#include <fmt/format.h>
+
+#include "gtest/gtest.h"
+#include "wpi/DataLogReader.h"
+#include "wpi/MemoryBuffer.h"
+#include "wpi/fs.h"
+#include "wpi/timestamp.h"
+
+namespace {
+
+class DataLogTest : public ::testing::Test {
+ protected:
+  DataLogTest()
+      : dir{fs::temp_directory_path() /
+            fmt::format("DataLogTest-{}", wpi::Now())} {
+    fs::create_directories(dir);
+  }
+
+  ~DataLogTest() override {
+    std::error_code ec;
+    fs::remove_all(dir, ec);
+  }
+
+  wpi::log::DataLogReader Open(std::string_view filename) {
+    std::error_code ec;
+    auto buffer = wpi::MemoryBuffer::GetFile((dir / filename).string(), ec);
+    EXPECT_FALSE(ec) << filename;
+    return wpi::log::DataLogReader{std::move(buffer)};
+  }
+
+  fs::path dir;
+};
+
+}  // namespace
+
+TEST_F(DataLogTest, SegmentReplaysStartRecords) {
+  {
+    // a long period, so everything is written in the final flush
+    wpi::log::DataLog log{dir.string(), "test.wpilog", 100};
+    log.SetSegmentLimits(100, 0);
+    int finished = log.Start("finished", "double", "", 1);
+    int entry = log.Start("value", "double", "meta", 2);
+    log.Finish(finished, 3);
+    for (int i = 0; i < 20; ++i) {
+      log.AppendDouble(entry, i, 10 + i);
+    }
+  }
+
+  // all the data is in the first segment
+  auto first = Open("test.wpilog");
+  ASSERT_TRUE(first.IsValid());
+  int count = 0;
+  double value = 0;
+  for (auto&& record : first) {
+    ++count;
+    if (!record.IsControl()) {
+      ASSERT_TRUE(record.GetDouble(&value));
+    }
+  }
+  EXPECT_EQ(count, 2 + 1 + 20);
+  EXPECT_EQ(value, 19.0);
+
+  // it reached the limit, so it's followed by a new segment that only has the
+  // start record of the entry that's still active
+  auto second = Open("test_001.wpilog");
+  ASSERT_TRUE(second.IsValid());
+  count = 0;
+  for (auto&& record : second) {
+    ++count;
+    wpi::log::StartRecordData data;
+    ASSERT_TRUE(record.GetStartData(&data));
+    EXPECT_EQ(data.name, "value");
+    EXPECT_EQ(data.type, "double");
+    EXPECT_EQ(data.metadata, "meta");
+  }
+  EXPECT_EQ(count, 1);
+}